@@ -2,6 +2,7 @@ plugins {
     java
     application
     id("com.github.johnrengelman.shadow") version "8.1.1"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.example"
@@ -15,6 +16,8 @@ val javafxVersion = "17.0.6"
 val oshiVersion = "6.4.10"
 val slf4jVersion = "2.0.9"
 val jSensorsVersion = "2.2.1"
+val jmhCoreVersion = "1.37"
+val junitVersion = "5.10.1"
 
 dependencies {
     implementation("org.openjfx:javafx-controls:$javafxVersion:win")
@@ -25,6 +28,23 @@ dependencies {
     implementation("com.github.oshi:oshi-core:$oshiVersion")
     implementation("org.slf4j:slf4j-simple:$slf4jVersion")
     implementation("com.profesorfalken:jSensors:$jSensorsVersion")
+
+    testImplementation("org.junit.jupiter:junit-jupiter:$junitVersion")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+// Бенчмарки лежат в src/jmh/java, запуск: gradlew jmh
+jmh {
+    jmhVersion.set(jmhCoreVersion)
+    profilers.add("gc")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
 }
 
 application {
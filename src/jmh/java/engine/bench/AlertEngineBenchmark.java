@@ -0,0 +1,46 @@
+package engine.bench;
+
+import engine.SensorSnapshot;
+import engine.alert.AlertEngine;
+import engine.alert.AlertRule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Проверка правил на один снимок: сотни правил должны укладываться в микросекунды
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AlertEngineBenchmark {
+    private static final String[] METRICS = { "cpu.usage", "ram.usage", "gpu.load", "gpu.temperature", "disk.usage.max" };
+    private static final String[] FUNCTIONS = { "avg", "max", "min", "rate", "value" };
+
+    @Param({"10", "500"})
+    public int rules;
+
+    private AlertEngine engine;
+    private final SensorSnapshot[] snapshots = new SensorSnapshot[256];
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < rules; i++) {
+            text.append("rule-").append(i).append(": ").append(FUNCTIONS[i % FUNCTIONS.length])
+                    .append('(').append(METRICS[i % METRICS.length]).append(", ").append(5 + i % 7 * 5).append("s) > ")
+                    .append(50 + i % 40).append(" clear ").append(40 + i % 40).append(" cooldown 30s\n");
+        }
+        engine = new AlertEngine(AlertRule.parseAll(text.toString()));
+        FakeSensorProvider provider = new FakeSensorProvider(4);
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = provider.sample(SensorSnapshot.ALL);
+        }
+    }
+
+    // Метки времени идут по 100 мс, чтобы окна заполнялись и вытесняли точки как в работе
+    @Benchmark
+    public void accept() {
+        SensorSnapshot s = snapshots[tick & (snapshots.length - 1)];
+        engine.accept(new SensorSnapshot(tick++ * 100L, s.getSources(), s.getCpu(), s.getRam(), s.getGpu(), s.getDisks()));
+    }
+}
@@ -0,0 +1,112 @@
+package engine.bench;
+
+import engine.SensorSnapshot;
+import engine.codec.BitReader;
+import engine.codec.BitWriter;
+import engine.codec.SnapshotBlockDecoder;
+import engine.codec.SnapshotBlockEncoder;
+import engine.codec.XorDoubleCodec;
+import engine.sched.ManualClock;
+import engine.store.SnapshotCodec;
+import engine.synthetic.SyntheticSensorProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Сжатие рядов снимков: время на снимок при кодировании и разборе блока и, в выводе setup,
+// байт на снимок против несжатого SnapshotCodec. Корректность кодеков проверяет CodecRoundTripTest
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecBenchmark {
+    private static final int SAMPLES = 1024;
+
+    @Param({"1", "16"})
+    public int disks;
+
+    private SensorSnapshot[] snapshots;
+    private final SnapshotBlockEncoder encoder = new SnapshotBlockEncoder();
+    private final SnapshotBlockDecoder decoder = new SnapshotBlockDecoder();
+    private ByteBuffer block;
+    private double[] usage;
+    private final BitWriter bits = new BitWriter(16 * 1024);
+    private final BitReader reader = new BitReader();
+    private byte[] usageBits;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        snapshots = series(7, SAMPLES, disks);
+
+        for (SensorSnapshot snapshot : snapshots) encoder.append(snapshot);
+        block = ByteBuffer.allocate(encoder.size());
+        encoder.writeTo(block);
+        block.flip();
+        ByteBuffer raw = ByteBuffer.allocate(SnapshotCodec.maxEncodedSize(snapshots[0]));
+        long rawBytes = 0;
+        for (SensorSnapshot snapshot : snapshots) {
+            raw.clear();
+            SnapshotCodec.encode(snapshot, raw);
+            rawBytes += raw.position();
+        }
+
+        usage = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) usage[i] = snapshots[i].getCpu().getUsage();
+        XorDoubleCodec codec = new XorDoubleCodec();
+        bits.reset();
+        for (double value : usage) codec.write(bits, value);
+        usageBits = bits.toByteArray();
+
+        System.out.printf("%n%d дисков: блок %.1f байт/снимок, SnapshotCodec %.1f байт/снимок (x%.1f); cpu.usage %.2f бит/значение%n",
+                disks, (double) block.remaining() / SAMPLES, (double) rawBytes / SAMPLES,
+                (double) rawBytes / block.remaining(), usageBits.length * 8.0 / SAMPLES);
+    }
+
+    // Ряд снимков синтетической машины с шагом 1 с — как запись живого опроса
+    private static SensorSnapshot[] series(long seed, int count, int disks) {
+        ManualClock clock = new ManualClock();
+        SyntheticSensorProvider provider = new SyntheticSensorProvider(seed, 16, 1, disks, clock);
+        SensorSnapshot[] result = new SensorSnapshot[count];
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            clock.advance(1, TimeUnit.SECONDS);
+            SensorSnapshot s = provider.sample(SensorSnapshot.ALL);
+            result[i] = new SensorSnapshot(start + i * 1000L, s.getSources(), s.getCpu(), s.getRam(), s.getGpu(), s.getDisks());
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int encodeBlock() {
+        encoder.reset();
+        for (SensorSnapshot snapshot : snapshots) encoder.append(snapshot);
+        return encoder.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void decodeBlock(Blackhole bh) {
+        decoder.decode(block.duplicate(), bh::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long encodeDoubles() {
+        XorDoubleCodec codec = new XorDoubleCodec();
+        bits.reset();
+        for (double value : usage) codec.write(bits, value);
+        return bits.getBitLength();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double decodeDoubles() {
+        XorDoubleCodec codec = new XorDoubleCodec();
+        reader.reset(usageBits, 0, usageBits.length);
+        double sum = 0;
+        for (int i = 0; i < SAMPLES; i++) sum += codec.read(reader);
+        return sum;
+    }
+}
@@ -0,0 +1,44 @@
+package engine.bench;
+
+import engine.sensors.SensorBackend;
+import engine.sensors.SensorKind;
+import engine.sensors.SensorRegistry;
+
+// Детерминированный бэкенд реестра: devices устройств по sensorsPerDevice датчиков разных видов
+public class FakeSensorBackend implements SensorBackend {
+    private static final SensorKind[] KINDS = { SensorKind.TEMPERATURE, SensorKind.FAN, SensorKind.LOAD, SensorKind.VOLTAGE };
+
+    private final int devices;
+    private final int sensorsPerDevice;
+    private int first;
+    private long tick;
+
+    public FakeSensorBackend(int devices, int sensorsPerDevice) {
+        this.devices = devices;
+        this.sensorsPerDevice = sensorsPerDevice;
+    }
+
+    @Override
+    public String getName() {
+        return "fake";
+    }
+
+    @Override
+    public void discover(SensorRegistry registry) {
+        first = registry.getChannelCount();
+        for (int d = 0; d < devices; d++) {
+            for (int s = 0; s < sensorsPerDevice; s++) {
+                registry.register("Fake GPU " + d, "Sensor " + s, KINDS[s % KINDS.length]);
+            }
+        }
+    }
+
+    @Override
+    public void sample(double[] values) {
+        tick++;
+        int count = devices * sensorsPerDevice;
+        for (int i = 0; i < count; i++) {
+            values[first + i] = (tick + i) % 100;
+        }
+    }
+}
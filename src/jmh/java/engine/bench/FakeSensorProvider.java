@@ -0,0 +1,100 @@
+package engine.bench;
+
+import engine.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Детерминированный провайдер: значения зависят только от номера вызова
+public class FakeSensorProvider implements SensorProvider {
+    private final int diskCount;
+    private final String[] diskNames;
+    private long tick;
+
+    public FakeSensorProvider(int diskCount) {
+        this.diskCount = diskCount;
+        diskNames = new String[diskCount];
+        for (int i = 0; i < diskCount; i++) {
+            diskNames[i] = "Disk " + i + " (" + (char) ('C' + i % 20) + ":)";
+        }
+    }
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        tick++;
+        CpuInfo info = new CpuInfo();
+        info.setName("Fake CPU 8-Core");
+        info.setCores(8);
+        info.setBaseClock(3600);
+        info.setUsage((tick * 37) % 100);
+        info.setTemperature(40 + (tick % 30));
+        return info;
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        RamInfo info = new RamInfo();
+        info.setTotal(32L << 30);
+        info.setFree((8L << 30) + (tick % 1024) * (1L << 20));
+        return info;
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        GpuInfo info = new GpuInfo();
+        info.setName("Fake GPU");
+        info.setGpuLoad((tick * 13) % 100);
+        info.setTemperature(50 + (tick % 25));
+        info.setVramTotal(8L << 30);
+        info.setVramUsed((tick % 8) << 30);
+        return info;
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        List<DiskInfo> disks = new ArrayList<>(diskCount);
+        for (int i = 0; i < diskCount; i++) {
+            DiskInfo disk = new DiskInfo();
+            disk.setName(diskNames[i]);
+            disk.setTotalSpace(512L << 30);
+            disk.setFreeSpace(((i + tick) % 512) << 30);
+            disks.add(disk);
+        }
+        return disks;
+    }
+
+    // Без аллокаций в установившемся режиме, чтобы gc-профайлер показывал накладные расходы самого пути
+    @Override
+    public void sampleInto(SnapshotBuffer buffer, int sources) {
+        buffer.begin(System.currentTimeMillis(), sources);
+        if ((sources & SensorSnapshot.CPU) != 0) {
+            tick++;
+            CpuInfo cpu = buffer.getCpu();
+            cpu.setName("Fake CPU 8-Core");
+            cpu.setCores(8);
+            cpu.setBaseClock(3600);
+            cpu.setUsage((tick * 37) % 100);
+            cpu.setTemperature(40 + (tick % 30));
+        }
+        if ((sources & SensorSnapshot.RAM) != 0) {
+            buffer.getRam().setTotal(32L << 30);
+            buffer.getRam().setFree((8L << 30) + (tick % 1024) * (1L << 20));
+        }
+        if ((sources & SensorSnapshot.GPU) != 0) {
+            GpuInfo gpu = buffer.getGpu();
+            gpu.setName("Fake GPU");
+            gpu.setGpuLoad((tick * 13) % 100);
+            gpu.setTemperature(50 + (tick % 25));
+            gpu.setVramTotal(8L << 30);
+            gpu.setVramUsed((tick % 8) << 30);
+        }
+        if ((sources & SensorSnapshot.DISKS) != 0) {
+            for (int i = 0; i < diskCount; i++) {
+                DiskInfo disk = buffer.nextDisk();
+                disk.setName(diskNames[i]);
+                disk.setTotalSpace(512L << 30);
+                disk.setFreeSpace(((i + tick) % 512) << 30);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package engine.bench;
+
+import engine.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatBenchmark {
+    private CpuInfo cpu;
+    private RamInfo ram;
+    private GpuInfo gpu;
+    private DiskInfo disk;
+
+    @Setup
+    public void setup() {
+        FakeSensorProvider provider = new FakeSensorProvider(1);
+        cpu = provider.getCpuInfo();
+        ram = provider.getRamInfo();
+        gpu = provider.getGpuInfo();
+        disk = provider.getDisksInfo().get(0);
+    }
+
+    @Benchmark
+    public void ramFormatBytes(Blackhole bh) {
+        bh.consume(ram.getFormattedUsed());
+        bh.consume(ram.getFormattedFree());
+        bh.consume(ram.getFormattedTotal());
+    }
+
+    @Benchmark
+    public void diskFormatBytes(Blackhole bh) {
+        bh.consume(disk.getFormattedUsedSpace());
+        bh.consume(disk.getFormattedFreeSpace());
+        bh.consume(disk.getFormattedTotalSpace());
+    }
+
+    @Benchmark
+    public void cpuFormatted(Blackhole bh) {
+        bh.consume(cpu.getFormattedUsage());
+        bh.consume(cpu.getFormattedClock());
+        bh.consume(cpu.getFormattedTemperature());
+    }
+
+    @Benchmark
+    public void gpuFormatted(Blackhole bh) {
+        bh.consume(gpu.getFormattedVramInfo());
+        bh.consume(gpu.getFormattedTemperature());
+    }
+}
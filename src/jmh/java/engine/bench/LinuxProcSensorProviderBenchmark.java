@@ -0,0 +1,38 @@
+package engine.bench;
+
+import engine.LinuxProcSensorProvider;
+import engine.SensorSnapshot;
+import engine.SnapshotBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Только на Linux: те же замеры, что у OshiSensorProviderBenchmark, для чтения procfs/sysfs напрямую
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LinuxProcSensorProviderBenchmark {
+    private LinuxProcSensorProvider provider;
+    private final SnapshotBuffer buffer = new SnapshotBuffer();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        provider = new LinuxProcSensorProvider();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        provider.close();
+    }
+
+    @Benchmark
+    public Object snapshot() {
+        return provider.sample(SensorSnapshot.ALL);
+    }
+
+    @Benchmark
+    public Object snapshotInto() {
+        provider.sampleInto(buffer, SensorSnapshot.ALL);
+        return buffer;
+    }
+}
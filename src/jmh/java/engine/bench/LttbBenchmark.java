@@ -0,0 +1,44 @@
+package engine.bench;
+
+import engine.history.Lttb;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Сжатие суток секундных точек до ширины графика
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LttbBenchmark {
+    @Param({"3600", "86400"})
+    public int points;
+
+    @Param({"600"})
+    public int width;
+
+    private long[] timestamps;
+    private double[] values;
+    private long[] outTimestamps;
+    private double[] outValues;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        timestamps = new long[points];
+        values = new double[points];
+        double value = 50;
+        for (int i = 0; i < points; i++) {
+            timestamps[i] = i * 1000L;
+            value = Math.max(0, Math.min(100, value + random.nextGaussian() * 3));
+            values[i] = value;
+        }
+        outTimestamps = new long[width];
+        outValues = new double[width];
+    }
+
+    @Benchmark
+    public int downsample() {
+        return Lttb.downsample(timestamps, values, points, width, outTimestamps, outValues);
+    }
+}
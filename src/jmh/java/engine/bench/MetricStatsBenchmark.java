@@ -0,0 +1,40 @@
+package engine.bench;
+
+import engine.SensorSnapshot;
+import engine.stats.MetricStats;
+import engine.stats.StatsSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Обновление скользящей статистики на снимок и запрос агрегатов карточки: оба без роста памяти
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetricStatsBenchmark {
+    private final MetricStats stats = MetricStats.createDefault();
+    private final SensorSnapshot[] snapshots = new SensorSnapshot[256];
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        FakeSensorProvider provider = new FakeSensorProvider(4);
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = provider.sample(SensorSnapshot.ALL);
+        }
+        // Окно заполнено, как после нескольких минут работы
+        for (int i = 0; i < 5 * 60 * 10; i++) accept();
+    }
+
+    // Метки времени идут по 100 мс, отрезки окна сменяются каждые 30 с
+    @Benchmark
+    public void accept() {
+        SensorSnapshot s = snapshots[tick & (snapshots.length - 1)];
+        stats.accept(new SensorSnapshot(tick++ * 100L, s.getSources(), s.getCpu(), s.getRam(), s.getGpu(), s.getDisks()));
+    }
+
+    @Benchmark
+    public StatsSummary summary() {
+        return stats.summary("cpu.usage");
+    }
+}
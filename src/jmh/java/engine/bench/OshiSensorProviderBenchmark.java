@@ -0,0 +1,53 @@
+package engine.bench;
+
+import engine.OshiSensorProvider;
+import engine.SensorSnapshot;
+import engine.SnapshotBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Замеряет реальное железо машины, на которой запущен бенчмарк
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OshiSensorProviderBenchmark {
+    private OshiSensorProvider provider;
+    private final SnapshotBuffer buffer = new SnapshotBuffer();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        provider = new OshiSensorProvider();
+    }
+
+    @Benchmark
+    public Object cpuInfo() {
+        return provider.getCpuInfo();
+    }
+
+    @Benchmark
+    public Object ramInfo() {
+        return provider.getRamInfo();
+    }
+
+    @Benchmark
+    public Object gpuInfo() {
+        return provider.getGpuInfo();
+    }
+
+    @Benchmark
+    public Object disksInfo() {
+        return provider.getDisksInfo();
+    }
+
+    @Benchmark
+    public Object snapshot() {
+        return provider.sample(SensorSnapshot.ALL);
+    }
+
+    @Benchmark
+    public Object snapshotInto() {
+        provider.sampleInto(buffer, SensorSnapshot.ALL);
+        return buffer;
+    }
+}
@@ -0,0 +1,45 @@
+package engine.bench;
+
+import engine.SensorSnapshot;
+import engine.export.PrometheusExporter;
+import engine.sensors.SensorRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Тик реестра датчиков: заполнение плоского кадра и экспорт всех каналов. Железо не нужно
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SensorRegistryBenchmark {
+    @Param({"1", "64"})
+    public int devices;
+
+    private SensorRegistry registry;
+    private double[] values;
+    private SensorSnapshot snapshot;
+    private final PrometheusExporter exporter = new PrometheusExporter();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        registry = new SensorRegistry().add(new FakeSensorBackend(devices, 16)).discover();
+        values = registry.newFrame();
+        snapshot = new FakeSensorProvider(4).sample(SensorSnapshot.ALL);
+    }
+
+    // Должен быть без аллокаций
+    @Benchmark
+    public void sample(Blackhole bh) {
+        registry.sample(values);
+        bh.consume(values);
+    }
+
+    @Benchmark
+    public void sampleAndRender(Blackhole bh) {
+        registry.sample(values);
+        exporter.render(snapshot);
+        exporter.renderSensors(registry, values);
+        bh.consume(exporter.getLength());
+    }
+}
@@ -0,0 +1,82 @@
+package engine.bench;
+
+import engine.*;
+import engine.history.MetricHistory;
+import engine.sched.AdaptiveScheduler;
+import engine.sched.ManualClock;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Повторяет работу одного тика SystemMonitorFX.updateData без FX-потока: выбор источников
+// AdaptiveScheduler, снимок, запись в историю и форматирование текстов карточек. Часы ручные и
+// каждый тик переводятся на срок ближайшего источника, так что набор источников в тике тот же,
+// что в приложении, но без ожидания. Чтение синхронное: пул чтения мерил бы передачу между потоками
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickBenchmark {
+    @Param({"4", "64"})
+    public int disks;
+
+    private SystemInfoService service;
+    private MetricHistory history;
+    private ManualClock clock;
+    private AdaptiveScheduler scheduler;
+    private int tickCounter;
+    private final SnapshotBuffer buffer = new SnapshotBuffer();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = new SystemInfoService(new FakeSensorProvider(disks));
+        history = new MetricHistory();
+        service.addListener(history::record);
+        clock = new ManualClock();
+        scheduler = AdaptiveScheduler.createDefault(clock);
+    }
+
+    @Benchmark
+    public void tick(Blackhole bh) {
+        clock.set(Math.max(clock.nanoTime(), scheduler.nextDueNanos()));
+        int sources = scheduler.due();
+        SensorSnapshot snapshot = service.readSnapshot(sources);
+        scheduler.complete(sources, snapshot);
+
+        if ((sources & SensorSnapshot.CPU) != 0) {
+            CpuInfo cpu = snapshot.getCpu();
+            bh.consume(String.format("%.1f%%", cpu.getUsage()));
+            bh.consume(String.format("%s\n%d Cores @ %.2f GHz", cpu.getName(), cpu.getCores(), cpu.getBaseClock()));
+        }
+        if ((sources & SensorSnapshot.RAM) != 0) {
+            RamInfo ram = snapshot.getRam();
+            bh.consume(String.format("%.0f%%", ram.getUsagePercent()));
+            bh.consume(String.format("Used: %s / Free: %s\nTotal: %s",
+                    ram.getFormattedUsed(), ram.getFormattedFree(), ram.getFormattedTotal()));
+        }
+        if ((sources & SensorSnapshot.GPU) != 0) {
+            GpuInfo gpu = snapshot.getGpu();
+            bh.consume(String.format("%.1f%%", gpu.getGpuLoad()));
+            bh.consume(String.format("%s\nVRAM: %s", gpu.getName(), gpu.getFormattedVramInfo()));
+            bh.consume(String.format("%.0f°C", gpu.getTemperature()));
+        }
+        if ((sources & SensorSnapshot.DISKS) != 0) {
+            for (DiskInfo disk : snapshot.getDisks()) {
+                bh.consume(String.format("%.0f%%", disk.getUsagePercent()));
+                bh.consume(String.format("%s free of %s", disk.getFormattedFreeSpace(), disk.getFormattedTotalSpace()));
+            }
+        }
+    }
+
+    // Установившийся цикл режима без аллокаций: gc.alloc.rate.norm должен быть около нуля.
+    // Планировщику нужен снимок, поэтому маски здесь чередуются по кругу — меряется только заполнение
+    @Benchmark
+    public void sampleInto(Blackhole bh) {
+        int sources = SensorSnapshot.CPU | SensorSnapshot.RAM | SensorSnapshot.GPU;
+        if (tickCounter++ % 4 == 0) sources |= SensorSnapshot.DISKS;
+        service.readInto(buffer, sources);
+        bh.consume(buffer.getCpu().getUsage());
+        bh.consume(buffer.getRam().getUsed());
+        bh.consume(buffer.getDiskCount());
+    }
+}
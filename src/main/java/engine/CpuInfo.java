@@ -6,6 +6,10 @@ public class CpuInfo {
     private String name = "Не определено";
     private int cores = 0;
     private double temperature = 0.0;
+    // Плоские массивы по логическим процессорам; переиспользуются, действительны первые logicalCount
+    private double[] coreLoads = new double[0];
+    private double[] coreFrequencies = new double[0];
+    private int logicalCount = 0;
 
     public CpuInfo() {}
 
@@ -14,6 +18,31 @@ public class CpuInfo {
     public String getName() { return name; }
     public int getCores() { return cores; }
     public double getTemperature() { return temperature; }
+    public int getLogicalCount() { return logicalCount; }
+
+    // Загрузка логического процессора в процентах
+    public double getCoreLoad(int core) {
+        if (core >= logicalCount) throw new IndexOutOfBoundsException(core);
+        return coreLoads[core];
+    }
+
+    // Текущая частота логического процессора в МГц, 0 если ОС её не сообщает
+    public double getCoreFrequency(int core) {
+        if (core >= logicalCount) throw new IndexOutOfBoundsException(core);
+        return coreFrequencies[core];
+    }
+
+    public double getAverageFrequency() {
+        double sum = 0;
+        int known = 0;
+        for (int i = 0; i < logicalCount; i++) {
+            if (coreFrequencies[i] > 0) {
+                sum += coreFrequencies[i];
+                known++;
+            }
+        }
+        return known > 0 ? sum / known : 0.0;
+    }
 
     public void setUsage(double usage) {
         this.usage = Math.max(0, Math.min(100, usage));
@@ -35,6 +64,23 @@ public class CpuInfo {
         this.temperature = temperature;
     }
 
+    // Копирует значения в собственные массивы; frequencies может быть null
+    public void setCoreData(double[] loads, double[] frequencies, int count) {
+        if (coreLoads.length < count) {
+            coreLoads = new double[count];
+            coreFrequencies = new double[count];
+        }
+        for (int i = 0; i < count; i++) {
+            coreLoads[i] = Math.max(0, Math.min(100, loads[i]));
+            coreFrequencies[i] = frequencies != null && i < frequencies.length ? Math.max(0, frequencies[i]) : 0.0;
+        }
+        logicalCount = count;
+    }
+
+    public void copyCoreDataFrom(CpuInfo other) {
+        setCoreData(other.coreLoads, other.coreFrequencies, other.logicalCount);
+    }
+
     public String getFormattedUsage() {
         return String.format("%.1f%%", usage);
     }
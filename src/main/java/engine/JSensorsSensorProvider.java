@@ -0,0 +1,103 @@
+package engine;
+
+import com.profesorfalken.jsensors.JSensors;
+import com.profesorfalken.jsensors.model.components.Components;
+import com.profesorfalken.jsensors.model.components.Cpu;
+import com.profesorfalken.jsensors.model.components.Gpu;
+import com.profesorfalken.jsensors.model.sensors.Load;
+import com.profesorfalken.jsensors.model.sensors.Temperature;
+import engine.diag.Diagnostics;
+import engine.diag.LatencyHistogram;
+
+import java.util.List;
+
+// Температуры CPU и имя, загрузка и температура GPU через JSensors. Память и диски не отдаёт.
+// Ошибки не глотаются: решать, когда снова пробовать, должен CompositeSensorProvider.
+public class JSensorsSensorProvider implements SensorProvider {
+    // CPU, GPU и реестр датчиков могут читаться параллельно: кто пришёл вторым, дождётся и возьмёт
+    // тот же результат. Кеш общий на процесс, как и сам JSensors
+    private static final long COMPONENTS_TTL_NANOS = 250_000_000L;
+    private static Components sharedComponents;
+    private static long componentsReadAt;
+
+    private static final LatencyHistogram latency = Diagnostics.getDefault().histogram("backend.jsensors");
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        CpuInfo info = new CpuInfo();
+        Components components = readComponents();
+        if (components.cpus != null && !components.cpus.isEmpty()) {
+            Cpu cpu = components.cpus.get(0);
+            info.setName(cpu.name);
+            if (cpu.sensors != null) info.setTemperature(firstTemperature(cpu.sensors.temperatures));
+        }
+        return info;
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        return new RamInfo();
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        GpuInfo info = new GpuInfo();
+        Components components = readComponents();
+        if (components.gpus == null || components.gpus.isEmpty()) return info;
+
+        Gpu gpu = components.gpus.get(0);
+        info.setName(gpu.name != null ? gpu.name : "GPU");
+        if (gpu.sensors != null) {
+            if (gpu.sensors.loads != null) {
+                for (Load load : gpu.sensors.loads) {
+                    String name = load.name;
+                    if (containsIgnoreCase(name, "load") || containsIgnoreCase(name, "usage")
+                            || containsIgnoreCase(name, "core")) {
+                        info.setGpuLoad(load.value);
+                        break;
+                    }
+                }
+            }
+            info.setTemperature(firstTemperature(gpu.sensors.temperatures));
+        }
+        return info;
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        return List.of();
+    }
+
+    public static synchronized Components readComponents() {
+        long start = System.nanoTime();
+        if (sharedComponents != null && start - componentsReadAt < COMPONENTS_TTL_NANOS) {
+            return sharedComponents;
+        }
+        try {
+            Components components = JSensors.get.components();
+            if (components == null) throw new IllegalStateException("JSensors вернул пустой список компонентов");
+            sharedComponents = components;
+            return components;
+        } finally {
+            componentsReadAt = System.nanoTime();
+            latency.record(componentsReadAt - start);
+        }
+    }
+
+    private static double firstTemperature(List<Temperature> temperatures) {
+        if (temperatures != null) {
+            for (Temperature t : temperatures) {
+                if (t.value > 0) return t.value;
+            }
+        }
+        return 0.0;
+    }
+
+    private static boolean containsIgnoreCase(String text, String part) {
+        if (text == null) return false;
+        for (int i = 0; i + part.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,389 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Провайдер для Linux напрямую из /proc и /sys без OSHI и JSensors. Файлы открываются один раз
+// при создании и перечитываются в те же буферы. Корень задаётся, чтобы можно было подложить
+// поддельное дерево proc/sys; имена и список устройств определяются при запуске.
+public class LinuxProcSensorProvider implements SensorProvider, AutoCloseable {
+    private static final byte[] CPU_PREFIX = "cpu".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MEM_TOTAL = "MemTotal:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MEM_AVAILABLE = "MemAvailable:".getBytes(StandardCharsets.US_ASCII);
+    // user nice system idle iowait irq softirq steal; guest уже входит в user
+    private static final int STAT_FIELDS = 8;
+    private static final int IDLE = 3;
+    private static final int IOWAIT = 4;
+
+    private static final Set<String> CPU_HWMON = Set.of("coretemp", "k10temp", "zenpower", "cpu_thermal");
+    private static final Set<String> GPU_HWMON = Set.of("amdgpu", "radeon", "nouveau", "i915");
+    private static final Set<String> DISK_TYPES = Set.of("ext2", "ext3", "ext4", "xfs", "btrfs", "f2fs",
+            "zfs", "jfs", "reiserfs", "vfat", "exfat", "ntfs", "ntfs3", "fuseblk", "hfsplus", "apfs");
+
+    private final Path root;
+
+    private final Object cpuLock = new Object();
+    private final ProcFile stat;
+    private final ProcFile[] coreFrequencyFiles;
+    private final ProcFile cpuTemperature;
+    private final String cpuName;
+    private final int physicalCores;
+    private final double baseClock;
+    private final int logicalCount;
+    private long[] prevTicks;
+    private long[] currTicks;
+    private final double[] coreLoads;
+    private final double[] coreFrequencies;
+
+    private final Object ramLock = new Object();
+    private final ProcFile meminfo;
+
+    private final Object gpuLock = new Object();
+    private final String gpuName;
+    private final ProcFile gpuTemperature;
+    private final ProcFile gpuBusy;
+    private final ProcFile vramTotal;
+    private final ProcFile vramUsed;
+
+    private final Object diskLock = new Object();
+    private final ProcFile mounts;
+    private int mountsHash;
+    private final List<String> diskNames = new ArrayList<>();
+    private final List<FileStore> diskStores = new ArrayList<>();
+
+    public LinuxProcSensorProvider() {
+        this(Paths.get("/"));
+    }
+
+    public LinuxProcSensorProvider(Path root) {
+        this.root = root;
+        stat = ProcFile.open(root.resolve("proc/stat"), 16 * 1024);
+        meminfo = ProcFile.open(root.resolve("proc/meminfo"), 8 * 1024);
+        mounts = ProcFile.open(root.resolve("proc/mounts"), 16 * 1024);
+
+        List<Integer> cpuIds = readCpuIds();
+        logicalCount = cpuIds.size();
+        prevTicks = new long[(logicalCount + 1) * STAT_FIELDS];
+        currTicks = new long[(logicalCount + 1) * STAT_FIELDS];
+        coreLoads = new double[logicalCount];
+        coreFrequencies = new double[logicalCount];
+        coreFrequencyFiles = new ProcFile[logicalCount];
+        for (int i = 0; i < logicalCount; i++) {
+            coreFrequencyFiles[i] = ProcFile.open(
+                    root.resolve("sys/devices/system/cpu/cpu" + cpuIds.get(i) + "/cpufreq/scaling_cur_freq"), 64);
+        }
+
+        String name = null;
+        Set<String> cores = new HashSet<>();
+        String physicalId = "0";
+        double cpuinfoMhz = 0;
+        for (String line : readLines(root.resolve("proc/cpuinfo"))) {
+            int colon = line.indexOf(':');
+            if (colon < 0) continue;
+            String key = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (key.equals("model name") && name == null) name = value;
+            else if (key.equals("physical id")) physicalId = value;
+            else if (key.equals("core id")) cores.add(physicalId + ":" + value);
+            else if (key.equals("cpu MHz") && cpuinfoMhz == 0) cpuinfoMhz = parseDouble(value);
+        }
+        cpuName = name;
+        physicalCores = cores.isEmpty() ? logicalCount : cores.size();
+        double maxKhz = readStaticLong(root.resolve("sys/devices/system/cpu/cpu0/cpufreq/base_frequency"));
+        if (maxKhz <= 0) maxKhz = readStaticLong(root.resolve("sys/devices/system/cpu/cpu0/cpufreq/cpuinfo_max_freq"));
+        baseClock = maxKhz > 0 ? maxKhz / 1000.0 : cpuinfoMhz;
+
+        Path cpuHwmon = null;
+        Path gpuHwmon = null;
+        String gpuDriver = null;
+        for (Path hwmon : listDirectory(root.resolve("sys/class/hwmon"))) {
+            String driver = readFirstLine(hwmon.resolve("name"));
+            if (cpuHwmon == null && CPU_HWMON.contains(driver)) cpuHwmon = hwmon;
+            else if (gpuHwmon == null && GPU_HWMON.contains(driver)) {
+                gpuHwmon = hwmon;
+                gpuDriver = driver;
+            }
+        }
+        cpuTemperature = cpuHwmon != null ? ProcFile.open(temperatureInput(cpuHwmon), 64) : null;
+
+        if (gpuHwmon != null) {
+            Path device = gpuHwmon.resolve("device");
+            gpuName = switch (gpuDriver) {
+                case "amdgpu", "radeon" -> "AMD Radeon (" + gpuDriver + ")";
+                case "nouveau" -> "NVIDIA (nouveau)";
+                default -> "Intel Graphics (" + gpuDriver + ")";
+            };
+            gpuTemperature = ProcFile.open(gpuHwmon.resolve("temp1_input"), 64);
+            gpuBusy = ProcFile.open(device.resolve("gpu_busy_percent"), 64);
+            vramTotal = ProcFile.open(device.resolve("mem_info_vram_total"), 64);
+            vramUsed = ProcFile.open(device.resolve("mem_info_vram_used"), 64);
+        } else {
+            gpuName = null;
+            gpuTemperature = gpuBusy = vramTotal = vramUsed = null;
+        }
+
+        synchronized (cpuLock) {
+            readTicks(prevTicks);
+        }
+    }
+
+    // Можно ли вообще работать через procfs под этим корнем
+    public static boolean isSupported(Path root) {
+        return Files.isReadable(root.resolve("proc/stat")) && Files.isReadable(root.resolve("proc/meminfo"));
+    }
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        return sample(SensorSnapshot.CPU).getCpu();
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        return sample(SensorSnapshot.RAM).getRam();
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        return sample(SensorSnapshot.GPU).getGpu();
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        return sample(SensorSnapshot.DISKS).getDisks();
+    }
+
+    @Override
+    public SensorSnapshot sample(int sources) {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        sampleInto(buffer, sources);
+        return buffer.detach();
+    }
+
+    @Override
+    public void sampleInto(SnapshotBuffer buffer, int sources) {
+        buffer.begin(System.currentTimeMillis(), sources);
+        long start = System.nanoTime();
+        if ((sources & SensorSnapshot.CPU) != 0) fillCpu(buffer.getCpu());
+        long afterCpu = System.nanoTime();
+        if ((sources & SensorSnapshot.RAM) != 0) fillRam(buffer.getRam());
+        long afterRam = System.nanoTime();
+        if ((sources & SensorSnapshot.GPU) != 0) fillGpu(buffer.getGpu());
+        long afterGpu = System.nanoTime();
+        if ((sources & SensorSnapshot.DISKS) != 0) fillDisks(buffer);
+        long end = System.nanoTime();
+
+        buffer.setReadNanos(SensorSnapshot.CPU, afterCpu - start);
+        buffer.setReadNanos(SensorSnapshot.RAM, afterRam - afterCpu);
+        buffer.setReadNanos(SensorSnapshot.GPU, afterGpu - afterRam);
+        buffer.setReadNanos(SensorSnapshot.DISKS, end - afterGpu);
+    }
+
+    private void fillCpu(CpuInfo info) {
+        synchronized (cpuLock) {
+            readTicks(currTicks);
+            info.setUsage(load(0) * 100);
+            for (int i = 0; i < logicalCount; i++) {
+                coreLoads[i] = load(i + 1) * 100;
+                ProcFile frequency = coreFrequencyFiles[i];
+                coreFrequencies[i] = frequency != null ? Math.max(0, frequency.readLong(0)) / 1000.0 : 0.0;
+            }
+            long[] swap = prevTicks;
+            prevTicks = currTicks;
+            currTicks = swap;
+
+            info.setName(cpuName);
+            info.setCores(physicalCores);
+            info.setBaseClock(baseClock);
+            info.setTemperature(cpuTemperature != null ? Math.max(0, cpuTemperature.readLong(0)) / 1000.0 : 0.0);
+            info.setCoreData(coreLoads, coreFrequencies, logicalCount);
+        }
+    }
+
+    // Строка 0 — суммарная "cpu", далее "cpuN" в порядке файла
+    private void readTicks(long[] ticks) {
+        if (stat == null || !stat.read()) return;
+        int line = 0;
+        do {
+            if (!stat.startsWith(CPU_PREFIX)) break;
+            stat.position(stat.position() + CPU_PREFIX.length);
+            if (line > 0) stat.nextLong(0);
+            int base = line * STAT_FIELDS;
+            for (int f = 0; f < STAT_FIELDS; f++) {
+                ticks[base + f] = stat.nextLong(0);
+            }
+            line++;
+        } while (line <= logicalCount && stat.nextLine());
+    }
+
+    private double load(int line) {
+        int base = line * STAT_FIELDS;
+        long total = 0;
+        for (int f = 0; f < STAT_FIELDS; f++) {
+            total += currTicks[base + f] - prevTicks[base + f];
+        }
+        long idle = currTicks[base + IDLE] + currTicks[base + IOWAIT] - prevTicks[base + IDLE] - prevTicks[base + IOWAIT];
+        return total > 0 && idle >= 0 ? (double) (total - idle) / total : 0.0;
+    }
+
+    private void fillRam(RamInfo info) {
+        synchronized (ramLock) {
+            if (meminfo == null || !meminfo.read()) return;
+            long total = meminfo.seekLine(MEM_TOTAL) ? meminfo.nextLong(0) : 0;
+            meminfo.position(0);
+            long available = meminfo.seekLine(MEM_AVAILABLE) ? meminfo.nextLong(0) : 0;
+            info.setTotal(total * 1024);
+            info.setFree(available * 1024);
+        }
+    }
+
+    private void fillGpu(GpuInfo info) {
+        synchronized (gpuLock) {
+            info.setName(gpuName != null ? gpuName : "GPU");
+            double temperature = gpuTemperature != null ? gpuTemperature.readLong(0) / 1000.0 : 0.0;
+            info.setTemperature(Math.max(0, temperature));
+            info.setGpuLoad(gpuBusy != null ? Math.max(0, gpuBusy.readLong(0)) : 0.0);
+            info.setVramTotal(vramTotal != null ? Math.max(0, vramTotal.readLong(0)) : 0);
+            info.setVramUsed(vramUsed != null ? Math.max(0, vramUsed.readLong(0)) : 0);
+        }
+    }
+
+    private void fillDisks(SnapshotBuffer buffer) {
+        synchronized (diskLock) {
+            refreshMounts();
+            for (int i = 0; i < diskStores.size(); i++) {
+                try {
+                    FileStore store = diskStores.get(i);
+                    long total = store.getTotalSpace();
+                    if (total <= 0) continue;
+                    DiskInfo disk = buffer.nextDisk();
+                    disk.setName(diskNames.get(i));
+                    disk.setTotalSpace(total);
+                    disk.setFreeSpace(store.getUsableSpace());
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    // Список точек монтирования разбирается заново, только если /proc/mounts изменился
+    private void refreshMounts() {
+        if (mounts == null || !mounts.read()) return;
+        int hash = mounts.contentHash();
+        if (hash == mountsHash && !diskStores.isEmpty()) return;
+        mountsHash = hash;
+        diskNames.clear();
+        diskStores.clear();
+
+        Set<String> devices = new HashSet<>();
+        while (!mounts.atEnd()) {
+            String[] fields = mounts.readLine().split(" ");
+            if (fields.length < 3 || !DISK_TYPES.contains(fields[2]) || !devices.add(fields[0])) continue;
+            String mountPoint = unescape(fields[1]);
+            try {
+                Path path = mountPoint.equals("/") ? root : root.resolve(mountPoint.substring(1));
+                diskStores.add(Files.getFileStore(path));
+                diskNames.add(mountPoint);
+            } catch (IOException | RuntimeException ignored) {
+            }
+        }
+    }
+
+    // В /proc/mounts пробелы и спецсимволы записаны как \040
+    private static String unescape(String field) {
+        if (field.indexOf('\\') < 0) return field;
+        StringBuilder sb = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 3 < field.length()) {
+                sb.append((char) Integer.parseInt(field.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private List<Integer> readCpuIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (String line : readLines(root.resolve("proc/stat"))) {
+            if (line.startsWith("cpu") && line.length() > 3 && Character.isDigit(line.charAt(3))) {
+                int space = line.indexOf(' ');
+                ids.add(Integer.parseInt(line.substring(3, space > 0 ? space : line.length())));
+            }
+        }
+        return ids;
+    }
+
+    // Для Intel это "Package id 0", для AMD Tdie/Tctl; иначе первый датчик
+    private static Path temperatureInput(Path hwmon) {
+        for (String wanted : new String[] { "Package id 0", "Tdie", "Tctl" }) {
+            for (int i = 1; i <= 32; i++) {
+                if (wanted.equals(readFirstLine(hwmon.resolve("temp" + i + "_label")))) {
+                    return hwmon.resolve("temp" + i + "_input");
+                }
+            }
+        }
+        return hwmon.resolve("temp1_input");
+    }
+
+    private static List<Path> listDirectory(Path dir) {
+        List<Path> entries = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return entries;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream) entries.add(entry);
+        } catch (IOException ignored) {
+        }
+        entries.sort(null);
+        return entries;
+    }
+
+    private static List<String> readLines(Path path) {
+        try {
+            return Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private static String readFirstLine(Path path) {
+        List<String> lines = readLines(path);
+        return lines.isEmpty() ? "" : lines.get(0).trim();
+    }
+
+    private static long readStaticLong(Path path) {
+        try {
+            return Long.parseLong(readFirstLine(path));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (ProcFile file : new ProcFile[] { stat, meminfo, mounts, cpuTemperature,
+                gpuTemperature, gpuBusy, vramTotal, vramUsed }) {
+            if (file != null) file.close();
+        }
+        for (ProcFile file : coreFrequencyFiles) {
+            if (file != null) file.close();
+        }
+    }
+}
@@ -3,12 +3,6 @@ package engine;
 import oshi.SystemInfo;
 import oshi.hardware.*;
 import oshi.software.os.OSFileStore;
-import com.profesorfalken.jsensors.JSensors;
-import com.profesorfalken.jsensors.model.components.Components;
-import com.profesorfalken.jsensors.model.components.Cpu;
-import com.profesorfalken.jsensors.model.components.Gpu;
-import com.profesorfalken.jsensors.model.sensors.Load;
-import com.profesorfalken.jsensors.model.sensors.Temperature;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,158 +13,217 @@ public class OshiSensorProvider implements SensorProvider {
     private final CentralProcessor processor = hardware.getProcessor();
     private final Sensors sensors = hardware.getSensors();
 
-    private long[] prevCpuTicks;
+    // Два буфера тиков CPU, которые меняются местами; OSHI сам по себе выделяет массив на каждый вызов
+    private long[] prevCpuTicks = new long[CentralProcessor.TickType.values().length];
+    private long[] currCpuTicks = new long[CentralProcessor.TickType.values().length];
+
+    // Тики по логическим процессорам одним плоским массивом: [ядро * TICK_TYPES + тип]
+    private static final int TICK_TYPES = CentralProcessor.TickType.values().length;
+    private final int logicalCount;
+    private long[] prevCoreTicks;
+    private long[] currCoreTicks;
+    private final double[] coreLoads;
+    private final double[] coreFrequencies;
+
+    private final List<String> diskRawNames = new ArrayList<>();
+    private final List<String> diskMounts = new ArrayList<>();
+    private final List<String> diskDisplayNames = new ArrayList<>();
+
+    // Список видеокарт OSHI собирает заново на каждый вызов, а состав не меняется
+    private final List<GraphicsCard> graphicsCards;
 
     private final String cachedCpuName;
     private final int cachedCpuCores;
     private final double cachedCpuClock;
 
-    private GpuInfo cachedGpuInfo = null;
-    private long lastGpuUpdateTime = 0;
-    private static final long GPU_CACHE_TIME_MS = 400;
-
     public OshiSensorProvider() {
-        prevCpuTicks = processor.getSystemCpuLoadTicks();
+        copyTicks(processor.getSystemCpuLoadTicks(), prevCpuTicks);
+        logicalCount = processor.getLogicalProcessorCount();
+        prevCoreTicks = new long[logicalCount * TICK_TYPES];
+        currCoreTicks = new long[logicalCount * TICK_TYPES];
+        coreLoads = new double[logicalCount];
+        coreFrequencies = new double[logicalCount];
+        copyCoreTicks(processor.getProcessorCpuLoadTicks(), prevCoreTicks);
         cachedCpuName = processor.getProcessorIdentifier().getName();
         cachedCpuCores = processor.getPhysicalProcessorCount();
         cachedCpuClock = processor.getProcessorIdentifier().getVendorFreq() / 1_000_000.0;
+        graphicsCards = hardware.getGraphicsCards();
     }
 
     @Override
     public CpuInfo getCpuInfo() {
-        CpuInfo info = new CpuInfo();
-        long[] currentTicks = processor.getSystemCpuLoadTicks();
-        double cpuLoad = processor.getSystemCpuLoadBetweenTicks(prevCpuTicks) * 100;
-        prevCpuTicks = currentTicks;
+        return sample(SensorSnapshot.CPU).getCpu();
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        RamInfo info = new RamInfo();
+        fillRam(info);
+        return info;
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        return sample(SensorSnapshot.GPU).getGpu();
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        return sample(SensorSnapshot.DISKS).getDisks();
+    }
+
+    @Override
+    public SensorSnapshot sample(int sources) {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        sampleInto(buffer, sources);
+        return buffer.detach();
+    }
+
+    // Только то, что даёт OSHI: температура CPU бывает не везде, у GPU нет загрузки и температуры.
+    // Недостающее добирает CompositeSensorProvider из других источников, например JSensorsSensorProvider
+    @Override
+    public void sampleInto(SnapshotBuffer buffer, int sources) {
+        buffer.begin(System.currentTimeMillis(), sources);
+        long start = System.nanoTime();
+        if ((sources & SensorSnapshot.CPU) != 0) {
+            double temperature = sensors.getCpuTemperature();
+            fillCpu(buffer.getCpu(), Double.isNaN(temperature) ? 0.0 : Math.max(0, temperature));
+        }
+        long afterCpu = System.nanoTime();
+        if ((sources & SensorSnapshot.RAM) != 0) {
+            fillRam(buffer.getRam());
+        }
+        long afterRam = System.nanoTime();
+        if ((sources & SensorSnapshot.GPU) != 0) {
+            fillGpu(buffer.getGpu());
+        }
+        long afterGpu = System.nanoTime();
+        if ((sources & SensorSnapshot.DISKS) != 0) {
+            fillDisks(buffer);
+        }
+        long end = System.nanoTime();
+
+        buffer.setReadNanos(SensorSnapshot.CPU, afterCpu - start);
+        buffer.setReadNanos(SensorSnapshot.RAM, afterRam - afterCpu);
+        buffer.setReadNanos(SensorSnapshot.GPU, afterGpu - afterRam);
+        buffer.setReadNanos(SensorSnapshot.DISKS, end - afterGpu);
+    }
 
-        info.setUsage(cpuLoad);
+    private void fillCpu(CpuInfo info, double temperature) {
+        info.setUsage(readCpuLoad() * 100);
         info.setName(cachedCpuName);
         info.setBaseClock(cachedCpuClock);
         info.setCores(cachedCpuCores);
+        info.setTemperature(temperature);
+        readCoreLoads();
+        info.setCoreData(coreLoads, coreFrequencies, logicalCount);
+    }
 
-        double temp = sensors.getCpuTemperature();
-        if (temp <= 0 || Double.isNaN(temp)) {
-            temp = getCpuTempFromJSensors();
+    // То же, что getSystemCpuLoadBetweenTicks, но без второго чтения тиков внутри OSHI
+    private synchronized double readCpuLoad() {
+        copyTicks(processor.getSystemCpuLoadTicks(), currCpuTicks);
+        long total = 0;
+        for (int i = 0; i < currCpuTicks.length; i++) {
+            total += currCpuTicks[i] - prevCpuTicks[i];
         }
-        info.setTemperature(temp);
-        return info;
+        int idleIndex = CentralProcessor.TickType.IDLE.getIndex();
+        int iowaitIndex = CentralProcessor.TickType.IOWAIT.getIndex();
+        long idle = currCpuTicks[idleIndex] + currCpuTicks[iowaitIndex]
+                - prevCpuTicks[idleIndex] - prevCpuTicks[iowaitIndex];
+
+        long[] swap = prevCpuTicks;
+        prevCpuTicks = currCpuTicks;
+        currCpuTicks = swap;
+        return total > 0 && idle >= 0 ? (double) (total - idle) / total : 0.0;
     }
 
-    private double getCpuTempFromJSensors() {
-        try {
-            Components components = JSensors.get.components();
-            if (components.cpus != null) {
-                for (Cpu cpu : components.cpus) {
-                    if (cpu.sensors != null && cpu.sensors.temperatures != null) {
-                        for (Temperature t : cpu.sensors.temperatures) {
-                            if (t.value > 0) {
-                                return t.value;
-                            }
-                        }
-                    }
-                }
+    private synchronized void readCoreLoads() {
+        copyCoreTicks(processor.getProcessorCpuLoadTicks(), currCoreTicks);
+        int idleIndex = CentralProcessor.TickType.IDLE.getIndex();
+        int iowaitIndex = CentralProcessor.TickType.IOWAIT.getIndex();
+        for (int core = 0, base = 0; core < logicalCount; core++, base += TICK_TYPES) {
+            long total = 0;
+            for (int t = 0; t < TICK_TYPES; t++) {
+                total += currCoreTicks[base + t] - prevCoreTicks[base + t];
             }
-        } catch (Exception ignored) { }
-        return 0.0;
+            long idle = currCoreTicks[base + idleIndex] + currCoreTicks[base + iowaitIndex]
+                    - prevCoreTicks[base + idleIndex] - prevCoreTicks[base + iowaitIndex];
+            coreLoads[core] = total > 0 && idle >= 0 ? 100.0 * (total - idle) / total : 0.0;
+        }
+        long[] swap = prevCoreTicks;
+        prevCoreTicks = currCoreTicks;
+        currCoreTicks = swap;
+
+        long[] frequencies = processor.getCurrentFreq();
+        for (int core = 0; core < logicalCount; core++) {
+            coreFrequencies[core] = core < frequencies.length && frequencies[core] > 0 ? frequencies[core] / 1_000_000.0 : 0.0;
+        }
     }
 
-    @Override
-    public RamInfo getRamInfo() {
-        RamInfo info = new RamInfo();
+    private void copyCoreTicks(long[][] from, long[] to) {
+        int cores = Math.min(from.length, logicalCount);
+        for (int core = 0; core < cores; core++) {
+            System.arraycopy(from[core], 0, to, core * TICK_TYPES, Math.min(from[core].length, TICK_TYPES));
+        }
+    }
+
+    private static void copyTicks(long[] from, long[] to) {
+        System.arraycopy(from, 0, to, 0, Math.min(from.length, to.length));
+    }
+
+    private void fillRam(RamInfo info) {
         GlobalMemory memory = hardware.getMemory();
         info.setTotal(memory.getTotal());
         info.setFree(memory.getAvailable());
-        return info;
     }
 
-    @Override
-    public GpuInfo getGpuInfo() {
-        long now = System.currentTimeMillis();
-        if (cachedGpuInfo != null && (now - lastGpuUpdateTime) < GPU_CACHE_TIME_MS) {
-            return cachedGpuInfo;
-        }
-
-        GpuInfo info = new GpuInfo();
-        try {
-            Components components = JSensors.get.components();
-            String gpuName = "GPU";
-            double gpuLoad = 0.0;
-            double gpuTemp = 0.0;
-
-            if (components.gpus != null && !components.gpus.isEmpty()) {
-                Gpu gpu = components.gpus.get(0);
-                gpuName = gpu.name != null ? gpu.name : "GPU";
-
-                if (gpu.sensors != null) {
-                    if (gpu.sensors.loads != null) {
-                        for (Load load : gpu.sensors.loads) {
-                            String name = load.name.toLowerCase();
-                            if (name.contains("load") || name.contains("usage") || name.contains("core")) {
-                                gpuLoad = load.value;
-                                break;
-                            }
-                        }
-                    }
-                    if (gpu.sensors.temperatures != null) {
-                        for (Temperature t : gpu.sensors.temperatures) {
-                            if (t.value > 0) {
-                                gpuTemp = t.value;
-                                break;
-                            }
-                        }
-                    }
-                }
-            } else {
-                List<GraphicsCard> cards = hardware.getGraphicsCards();
-                if (!cards.isEmpty()) {
-                    gpuName = cards.get(0).getName();
-                }
-            }
-
-            info.setName(gpuName);
-            info.setGpuLoad(gpuLoad);
-            info.setTemperature(gpuTemp);
-
-            List<GraphicsCard> cards = hardware.getGraphicsCards();
-            if (!cards.isEmpty()) {
-                long vram = cards.get(0).getVRam();
-                if (vram > 0) {
-                    info.setVramTotal(vram);
-                    info.setVramUsed((long)(vram * (gpuLoad / 100.0)));
-                }
-            }
-        } catch (Exception e) {
+    private void fillGpu(GpuInfo info) {
+        if (graphicsCards.isEmpty()) {
             info.setName("GPU");
+            info.setVramTotal(0);
+        } else {
+            info.setName(graphicsCards.get(0).getName());
+            info.setVramTotal(Math.max(0, graphicsCards.get(0).getVRam()));
         }
-
-        cachedGpuInfo = info;
-        lastGpuUpdateTime = now;
-        return info;
+        // Занятую VRAM OSHI не отдаёт; цепочка оценит её по загрузке GPU от другого провайдера
+        info.setVramUsed(0);
+        info.setGpuLoad(0);
+        info.setTemperature(0);
     }
 
-    @Override
-    public List<DiskInfo> getDisksInfo() {
-        List<DiskInfo> disks = new ArrayList<>();
+    private synchronized void fillDisks(SnapshotBuffer buffer) {
         List<OSFileStore> fileStores = systemInfo.getOperatingSystem().getFileSystem().getFileStores();
 
         for (OSFileStore fs : fileStores) {
-            if (fs.getTotalSpace() > 0) {
-                DiskInfo disk = new DiskInfo();
-                String name = fs.getName();
-                String mount = fs.getMount();
-                String mountClean = mount.replace("\\", "").replace("/", "");
-
-                if (name.contains(mountClean)) {
-                    disk.setName(name);
-                } else {
-                    disk.setName(name + " (" + mount + ")");
-                }
-
-                disk.setTotalSpace(fs.getTotalSpace());
+            long total = fs.getTotalSpace();
+            if (total > 0) {
+                int slot = buffer.getDiskCount();
+                DiskInfo disk = buffer.nextDisk();
+                disk.setName(displayName(slot, fs.getName(), fs.getMount()));
+                disk.setTotalSpace(total);
                 disk.setFreeSpace(fs.getUsableSpace());
-                disks.add(disk);
             }
         }
-        return disks;
     }
-}
\ No newline at end of file
+
+    // Имя строится заново, только если в этой позиции оказался другой диск
+    private String displayName(int slot, String name, String mount) {
+        if (slot < diskDisplayNames.size()
+                && name.equals(diskRawNames.get(slot)) && mount.equals(diskMounts.get(slot))) {
+            return diskDisplayNames.get(slot);
+        }
+
+        String mountClean = mount.replace("\\", "").replace("/", "");
+        String display = name.contains(mountClean) ? name : name + " (" + mount + ")";
+        if (slot < diskDisplayNames.size()) {
+            diskRawNames.set(slot, name);
+            diskMounts.set(slot, mount);
+            diskDisplayNames.set(slot, display);
+        } else {
+            diskRawNames.add(name);
+            diskMounts.add(mount);
+            diskDisplayNames.add(display);
+        }
+        return display;
+    }
+}
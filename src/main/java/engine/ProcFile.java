@@ -0,0 +1,168 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Файл procfs/sysfs, открытый один раз: каждое чтение идёт с позиции 0 в тот же direct-буфер,
+// а числа разбираются прямо из байтов курсором без создания строк.
+public final class ProcFile implements AutoCloseable {
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private int limit;
+    private int pos;
+
+    private ProcFile(FileChannel channel, int capacity) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    // null, если файла нет или он не читается
+    public static ProcFile open(Path path, int capacity) {
+        if (!Files.isReadable(path)) return null;
+        try {
+            return new ProcFile(FileChannel.open(path, StandardOpenOption.READ), capacity);
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    // Перечитывает файл целиком; буфер растёт, только если содержимое не поместилось
+    public boolean read() {
+        try {
+            while (true) {
+                buffer.clear();
+                long offset = 0;
+                int n;
+                while ((n = channel.read(buffer, offset)) > 0) {
+                    offset += n;
+                    if (!buffer.hasRemaining()) break;
+                }
+                if (buffer.hasRemaining() || n < 0) break;
+                buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            }
+            limit = buffer.position();
+            pos = 0;
+            return true;
+        } catch (IOException e) {
+            limit = 0;
+            pos = 0;
+            return false;
+        }
+    }
+
+    public int position() { return pos; }
+    public void position(int pos) { this.pos = pos; }
+    public boolean atEnd() { return pos >= limit; }
+
+    // Ставит курсор сразу за key, найденным в начале одной из строк, начиная с текущей
+    public boolean seekLine(byte[] key) {
+        int lineStart = pos;
+        while (lineStart < limit) {
+            if (startsWith(lineStart, key)) {
+                pos = lineStart + key.length;
+                return true;
+            }
+            lineStart = lineEnd(lineStart) + 1;
+        }
+        return false;
+    }
+
+    public boolean startsWith(byte[] key) {
+        return startsWith(pos, key);
+    }
+
+    private boolean startsWith(int at, byte[] key) {
+        if (at + key.length > limit) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(at + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    // Переходит на начало следующей строки; false в конце файла
+    public boolean nextLine() {
+        pos = lineEnd(pos) + 1;
+        return pos < limit;
+    }
+
+    private int lineEnd(int from) {
+        int i = from;
+        while (i < limit && buffer.get(i) != '\n') i++;
+        return i;
+    }
+
+    // Следующее целое в пределах текущей строки; missing, если чисел в строке больше нет
+    public long nextLong(long missing) {
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == '\n') return missing;
+            if ((b >= '0' && b <= '9') || b == '-') break;
+            pos++;
+        }
+        if (pos >= limit) return missing;
+        boolean negative = buffer.get(pos) == '-';
+        if (negative) pos++;
+        long value = 0;
+        boolean digits = false;
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b < '0' || b > '9') break;
+            value = value * 10 + (b - '0');
+            digits = true;
+            pos++;
+        }
+        if (!digits) return missing;
+        return negative ? -value : value;
+    }
+
+    // Пропускает пробелы и считает хеш байтов до stop по формуле Arrays.hashCode(byte[]);
+    // курсор встаёт за stop. Так имя в начале строки сверяется с известным без создания строки
+    public int hashUntil(byte stop) {
+        while (pos < limit && buffer.get(pos) == ' ') pos++;
+        int h = 1;
+        while (pos < limit) {
+            byte b = buffer.get(pos++);
+            if (b == stop || b == '\n') break;
+            h = 31 * h + b;
+        }
+        return h;
+    }
+
+    // Для однострочных файлов sysfs вроде temp1_input
+    public long readLong(long missing) {
+        return read() ? nextLong(missing) : missing;
+    }
+
+    // Строка только для редких случаев вроде смены списка монтирований, в обычном опросе не используется
+    public String readLine() {
+        int end = lineEnd(pos);
+        byte[] bytes = new byte[end - pos];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(pos + i);
+        }
+        pos = Math.min(end + 1, limit);
+        return new String(bytes, StandardCharsets.UTF_8).trim();
+    }
+
+    // Сравнение с прошлым содержимым без копирования: хеш всех байтов
+    public int contentHash() {
+        int h = 1;
+        for (int i = 0; i < limit; i++) {
+            h = 31 * h + buffer.get(i);
+        }
+        return h;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -7,6 +7,10 @@ public class RamInfo {
 
     public RamInfo() {}
 
+    public long getTotal() { return total; }
+    public long getFree() { return free; }
+    public long getUsed() { return used; }
+
     public void setTotal(long total) {
         this.total = Math.max(0, total);
         calculateUsed();
@@ -7,4 +7,29 @@ public interface SensorProvider {
     RamInfo getRamInfo();
     GpuInfo getGpuInfo();
     List<DiskInfo> getDisksInfo();
-}
\ No newline at end of file
+
+    default SensorSnapshot sample(int sources) {
+        long[] readNanos = new long[SensorSnapshot.SOURCE_COUNT];
+        long start = System.nanoTime();
+        CpuInfo cpu = (sources & SensorSnapshot.CPU) != 0 ? getCpuInfo() : null;
+        long afterCpu = System.nanoTime();
+        RamInfo ram = (sources & SensorSnapshot.RAM) != 0 ? getRamInfo() : null;
+        long afterRam = System.nanoTime();
+        GpuInfo gpu = (sources & SensorSnapshot.GPU) != 0 ? getGpuInfo() : null;
+        long afterGpu = System.nanoTime();
+        List<DiskInfo> disks = (sources & SensorSnapshot.DISKS) != 0 ? getDisksInfo() : null;
+        long end = System.nanoTime();
+
+        readNanos[SensorSnapshot.indexOf(SensorSnapshot.CPU)] = afterCpu - start;
+        readNanos[SensorSnapshot.indexOf(SensorSnapshot.RAM)] = afterRam - afterCpu;
+        readNanos[SensorSnapshot.indexOf(SensorSnapshot.GPU)] = afterGpu - afterRam;
+        readNanos[SensorSnapshot.indexOf(SensorSnapshot.DISKS)] = end - afterGpu;
+        return new SensorSnapshot(System.currentTimeMillis(), sources, cpu, ram, gpu, disks, readNanos);
+    }
+
+    // Режим без аллокаций: провайдер заполняет переданный буфер вместо создания новых объектов.
+    // Реализация по умолчанию просто копирует обычный снимок и годится для любого провайдера.
+    default void sampleInto(SnapshotBuffer buffer, int sources) {
+        buffer.copyFrom(sample(sources));
+    }
+}
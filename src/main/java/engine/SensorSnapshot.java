@@ -0,0 +1,80 @@
+package engine;
+
+import java.util.List;
+
+public final class SensorSnapshot {
+    public static final int CPU = 1;
+    public static final int RAM = 1 << 1;
+    public static final int GPU = 1 << 2;
+    public static final int DISKS = 1 << 3;
+    public static final int ALL = CPU | RAM | GPU | DISKS;
+    public static final int SOURCE_COUNT = 4;
+
+    private final long timestamp;
+    private final int sources;
+    private final CpuInfo cpu;
+    private final RamInfo ram;
+    private final GpuInfo gpu;
+    private final List<DiskInfo> disks;
+    private final long[] readNanos;
+    private final int staleSources;
+
+    public SensorSnapshot(long timestamp, int sources, CpuInfo cpu, RamInfo ram, GpuInfo gpu, List<DiskInfo> disks) {
+        this(timestamp, sources, cpu, ram, gpu, disks, null);
+    }
+
+    public SensorSnapshot(long timestamp, int sources, CpuInfo cpu, RamInfo ram, GpuInfo gpu,
+                          List<DiskInfo> disks, long[] readNanos) {
+        this(timestamp, sources, 0, cpu, ram, gpu, disks, readNanos);
+    }
+
+    public SensorSnapshot(long timestamp, int sources, int staleSources, CpuInfo cpu, RamInfo ram, GpuInfo gpu,
+                          List<DiskInfo> disks, long[] readNanos) {
+        this.timestamp = timestamp;
+        this.staleSources = staleSources & ALL & ~sources;
+        this.sources = sources & ALL;
+        this.cpu = cpu != null ? cpu : new CpuInfo();
+        this.ram = ram != null ? ram : new RamInfo();
+        this.gpu = gpu != null ? gpu : new GpuInfo();
+        this.disks = disks != null ? List.copyOf(disks) : List.of();
+        this.readNanos = readNanos != null ? readNanos.clone() : new long[SOURCE_COUNT];
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public int getSources() { return sources; }
+    public CpuInfo getCpu() { return cpu; }
+    public RamInfo getRam() { return ram; }
+    public GpuInfo getGpu() { return gpu; }
+    public List<DiskInfo> getDisks() { return disks; }
+
+    // Сколько заняло чтение источника в этом тике, 0 если он не опрашивался
+    public long getReadNanos(int source) {
+        return readNanos[indexOf(source)];
+    }
+
+    public static int indexOf(int source) {
+        return Integer.numberOfTrailingZeros(source);
+    }
+
+    // Источник опрашивался, но не уложился в срок: значение взято из предыдущего снимка
+    public boolean isStale(int source) {
+        return (staleSources & source) != 0;
+    }
+
+    public int getStaleSources() { return staleSources; }
+
+    public boolean has(int source) {
+        return (sources & source) == source;
+    }
+
+    // Источники, которые не опрашивались в этом тике, берутся из предыдущего снимка
+    public SensorSnapshot withMissingFrom(SensorSnapshot previous) {
+        if (previous == null || sources == ALL) return this;
+        return new SensorSnapshot(timestamp, sources, staleSources,
+                has(CPU) ? cpu : previous.cpu,
+                has(RAM) ? ram : previous.ram,
+                has(GPU) ? gpu : previous.gpu,
+                has(DISKS) ? disks : previous.disks,
+                readNanos);
+    }
+}
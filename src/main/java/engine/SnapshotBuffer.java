@@ -0,0 +1,139 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Переиспользуемый изменяемый снимок для режима без аллокаций: провайдер заполняет
+// одни и те же объекты каждый тик. Содержимое действительно до следующего sampleInto.
+public final class SnapshotBuffer {
+    private final CpuInfo cpu = new CpuInfo();
+    private final RamInfo ram = new RamInfo();
+    private final GpuInfo gpu = new GpuInfo();
+    private final List<DiskInfo> diskPool = new ArrayList<>();
+    private final long[] readNanos = new long[SensorSnapshot.SOURCE_COUNT];
+    private int diskCount;
+    private long timestamp;
+    private int sources;
+    private boolean detached;
+
+    public CpuInfo getCpu() { return cpu; }
+    public RamInfo getRam() { return ram; }
+    public GpuInfo getGpu() { return gpu; }
+    public long getTimestamp() { return timestamp; }
+    public int getSources() { return sources; }
+    public int getDiskCount() { return diskCount; }
+
+    public boolean has(int source) {
+        return (sources & source) == source;
+    }
+
+    public DiskInfo getDisk(int index) {
+        if (index >= diskCount) throw new IndexOutOfBoundsException(index);
+        return diskPool.get(index);
+    }
+
+    public long getReadNanos(int source) {
+        return readNanos[SensorSnapshot.indexOf(source)];
+    }
+
+    public void begin(long timestamp, int sources) {
+        if (detached) throw new IllegalStateException("Буфер уже отдан снимку");
+        this.timestamp = timestamp;
+        this.sources = sources & SensorSnapshot.ALL;
+        if ((sources & SensorSnapshot.DISKS) != 0) diskCount = 0;
+    }
+
+    public void setReadNanos(int source, long nanos) {
+        readNanos[SensorSnapshot.indexOf(source)] = nanos;
+    }
+
+    // Следующий свободный объект диска; новые создаются только когда дисков стало больше, чем когда-либо
+    public DiskInfo nextDisk() {
+        if (diskCount == diskPool.size()) {
+            diskPool.add(new DiskInfo());
+        }
+        return diskPool.get(diskCount++);
+    }
+
+    public SensorSnapshot toSnapshot() {
+        List<DiskInfo> disks = new ArrayList<>(diskCount);
+        for (int i = 0; i < diskCount; i++) {
+            disks.add(copyOf(diskPool.get(i)));
+        }
+        return new SensorSnapshot(timestamp, sources, copyOf(cpu), copyOf(ram), copyOf(gpu), disks, readNanos);
+    }
+
+    // Снимок из собственных объектов буфера без копирования — для одноразового буфера в sample.
+    // После этого буфер заполнять нельзя
+    public SensorSnapshot detach() {
+        detached = true;
+        return new SensorSnapshot(timestamp, sources, cpu, ram, gpu, diskPool.subList(0, diskCount), readNanos);
+    }
+
+    void copyFrom(SensorSnapshot snapshot) {
+        begin(snapshot.getTimestamp(), snapshot.getSources());
+        if (snapshot.has(SensorSnapshot.CPU)) copy(snapshot.getCpu(), cpu);
+        if (snapshot.has(SensorSnapshot.RAM)) copy(snapshot.getRam(), ram);
+        if (snapshot.has(SensorSnapshot.GPU)) copy(snapshot.getGpu(), gpu);
+        if (snapshot.has(SensorSnapshot.DISKS)) {
+            for (DiskInfo disk : snapshot.getDisks()) {
+                copy(disk, nextDisk());
+            }
+        }
+        for (int i = 0; i < SensorSnapshot.SOURCE_COUNT; i++) {
+            readNanos[i] = snapshot.getReadNanos(1 << i);
+        }
+    }
+
+    private static CpuInfo copyOf(CpuInfo source) {
+        CpuInfo copy = new CpuInfo();
+        copy(source, copy);
+        return copy;
+    }
+
+    private static RamInfo copyOf(RamInfo source) {
+        RamInfo copy = new RamInfo();
+        copy(source, copy);
+        return copy;
+    }
+
+    private static GpuInfo copyOf(GpuInfo source) {
+        GpuInfo copy = new GpuInfo();
+        copy(source, copy);
+        return copy;
+    }
+
+    private static DiskInfo copyOf(DiskInfo source) {
+        DiskInfo copy = new DiskInfo();
+        copy(source, copy);
+        return copy;
+    }
+
+    public static void copy(CpuInfo from, CpuInfo to) {
+        to.setName(from.getName());
+        to.setUsage(from.getUsage());
+        to.setBaseClock(from.getBaseClock());
+        to.setCores(from.getCores());
+        to.setTemperature(from.getTemperature());
+        to.copyCoreDataFrom(from);
+    }
+
+    public static void copy(RamInfo from, RamInfo to) {
+        to.setTotal(from.getTotal());
+        to.setFree(from.getFree());
+    }
+
+    public static void copy(GpuInfo from, GpuInfo to) {
+        to.setName(from.getName());
+        to.setGpuLoad(from.getGpuLoad());
+        to.setTemperature(from.getTemperature());
+        to.setVramTotal(from.getVramTotal());
+        to.setVramUsed(from.getVramUsed());
+    }
+
+    public static void copy(DiskInfo from, DiskInfo to) {
+        to.setName(from.getName());
+        to.setTotalSpace(from.getTotalSpace());
+        to.setFreeSpace(from.getFreeSpace());
+    }
+}
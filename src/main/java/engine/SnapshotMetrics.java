@@ -0,0 +1,63 @@
+package engine;
+
+import java.util.List;
+
+// Именованные числовые метрики снимка для правил оповещений и статистики. Имя разбирается в код
+// один раз, а извлечение по коду — простой switch без строк.
+public final class SnapshotMetrics {
+    public static final String[] NAMES = { "cpu.usage", "cpu.temperature", "ram.usage", "ram.used",
+            "gpu.load", "gpu.temperature", "gpu.vram.used", "gpu.vram.usage", "disk.usage.max" };
+    public static final String DISK_PREFIX = "disk.usage.";
+    // Заполненность конкретного диска; имя диска передаётся в extract отдельно
+    public static final int DISK_BY_NAME = NAMES.length;
+
+    private SnapshotMetrics() {}
+
+    public static int code(String metric) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(metric)) return i;
+        }
+        if (metric.startsWith(DISK_PREFIX) && metric.length() > DISK_PREFIX.length()) return DISK_BY_NAME;
+        throw new IllegalArgumentException("Неизвестная метрика: " + metric);
+    }
+
+    // Имя диска для метрики disk.usage.<имя>, иначе null
+    public static String diskName(String metric) {
+        return code(metric) == DISK_BY_NAME ? metric.substring(DISK_PREFIX.length()) : null;
+    }
+
+    // NaN — значения в этом снимке нет: источник не опрашивался или датчик не отвечает (температура 0)
+    public static double extract(SensorSnapshot snapshot, int code, String disk) {
+        switch (code) {
+            case 0: return snapshot.has(SensorSnapshot.CPU) ? snapshot.getCpu().getUsage() : Double.NaN;
+            case 1: return snapshot.has(SensorSnapshot.CPU) ? positive(snapshot.getCpu().getTemperature()) : Double.NaN;
+            case 2: return snapshot.has(SensorSnapshot.RAM) ? snapshot.getRam().getUsagePercent() : Double.NaN;
+            case 3: return snapshot.has(SensorSnapshot.RAM) ? snapshot.getRam().getUsed() : Double.NaN;
+            case 4: return snapshot.has(SensorSnapshot.GPU) ? snapshot.getGpu().getGpuLoad() : Double.NaN;
+            case 5: return snapshot.has(SensorSnapshot.GPU) ? positive(snapshot.getGpu().getTemperature()) : Double.NaN;
+            case 6: return snapshot.has(SensorSnapshot.GPU) ? snapshot.getGpu().getVramUsed() : Double.NaN;
+            case 7: {
+                if (!snapshot.has(SensorSnapshot.GPU) || snapshot.getGpu().getVramTotal() <= 0) return Double.NaN;
+                return 100.0 * snapshot.getGpu().getVramUsed() / snapshot.getGpu().getVramTotal();
+            }
+            default: {
+                if (!snapshot.has(SensorSnapshot.DISKS)) return Double.NaN;
+                List<DiskInfo> list = snapshot.getDisks();
+                double result = Double.NaN;
+                for (int i = 0; i < list.size(); i++) {
+                    DiskInfo info = list.get(i);
+                    if (code == DISK_BY_NAME) {
+                        if (info.getName().equals(disk)) return info.getUsagePercent();
+                    } else if (Double.isNaN(result) || info.getUsagePercent() > result) {
+                        result = info.getUsagePercent();
+                    }
+                }
+                return result;
+            }
+        }
+    }
+
+    private static double positive(double value) {
+        return value > 0 ? value : Double.NaN;
+    }
+}
@@ -1,9 +1,28 @@
 package engine;
 
+import engine.chain.CompositeSensorProvider;
+import engine.chain.LazySensorProvider;
+import engine.diag.Diagnostics;
+import engine.diag.InstrumentedSensorProvider;
+import engine.diag.StartupProfile;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class SystemInfoService {
     private final SensorProvider provider;
+    private final List<Consumer<SensorSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private volatile SensorSnapshot lastSnapshot;
+    // Источники, которые хоть раз пришли; до этого источник не считается устаревшим
+    private volatile int deliveredSources;
+
+    private ExecutorService readPool;
+    @SuppressWarnings("unchecked")
+    private final Future<SensorSnapshot>[] inFlight = (Future<SensorSnapshot>[]) new Future<?>[SensorSnapshot.SOURCE_COUNT];
 
     public SystemInfoService(SensorProvider provider) {
         this.provider = provider;
@@ -25,7 +44,172 @@ public class SystemInfoService {
         return provider.getDisksInfo();
     }
 
+    public SensorSnapshot readSnapshot() {
+        return readSnapshot(SensorSnapshot.ALL);
+    }
+
+    public SensorSnapshot readSnapshot(int sources) {
+        return publish(provider.sample(sources));
+    }
+
+    // Заполняет буфер вызывающего без создания снимка; слушатели и getLastSnapshot не обновляются
+    public void readInto(SnapshotBuffer buffer, int sources) {
+        provider.sampleInto(buffer, sources);
+    }
+
+    // Каждый источник читается в своём потоке. Что не успело к сроку, берётся из прошлого снимка
+    // и помечается как устаревшее; поздний результат будет использован в следующем вызове.
+    // Пока чтение источника висит, новое для него не запускается.
+    public synchronized SensorSnapshot readSnapshot(int sources, long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        ExecutorService pool = readPool();
+
+        for (int i = 0; i < SensorSnapshot.SOURCE_COUNT; i++) {
+            int source = 1 << i;
+            if ((sources & source) != 0 && inFlight[i] == null) {
+                inFlight[i] = pool.submit(() -> provider.sample(source));
+            }
+        }
+
+        long timestamp = System.currentTimeMillis();
+        int fresh = 0;
+        CpuInfo cpu = null;
+        RamInfo ram = null;
+        GpuInfo gpu = null;
+        List<DiskInfo> disks = null;
+        long[] readNanos = new long[SensorSnapshot.SOURCE_COUNT];
+
+        for (int i = 0; i < SensorSnapshot.SOURCE_COUNT; i++) {
+            int source = 1 << i;
+            Future<SensorSnapshot> future = inFlight[i];
+            if ((sources & source) == 0 || future == null) continue;
+            SensorSnapshot part;
+            try {
+                part = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                inFlight[i] = null;
+                e.getCause().printStackTrace();
+                continue;
+            }
+            inFlight[i] = null;
+            if (!part.has(source)) continue;
+            fresh |= source;
+            readNanos[i] = part.getReadNanos(source);
+            if (source == SensorSnapshot.CPU) cpu = part.getCpu();
+            else if (source == SensorSnapshot.RAM) ram = part.getRam();
+            else if (source == SensorSnapshot.GPU) gpu = part.getGpu();
+            else disks = part.getDisks();
+        }
+
+        // Пустой источник, которого ещё не было (провайдер запускается), не устарел: показывать нечего,
+        // и планировщик не должен реже его опрашивать
+        int stale = sources & ~fresh & deliveredSources;
+        return publish(new SensorSnapshot(timestamp, fresh, stale, cpu, ram, gpu, disks, readNanos));
+    }
+
+    private SensorSnapshot publish(SensorSnapshot sampled) {
+        SensorSnapshot snapshot = sampled.withMissingFrom(lastSnapshot);
+        lastSnapshot = snapshot;
+        deliveredSources |= sampled.getSources();
+        for (Consumer<SensorSnapshot> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return snapshot;
+    }
+
+    private ExecutorService readPool() {
+        if (readPool == null) {
+            readPool = Executors.newFixedThreadPool(SensorSnapshot.SOURCE_COUNT, r -> {
+                Thread t = new Thread(r, "ironvision-read");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return readPool;
+    }
+
+    public synchronized void shutdown() {
+        if (readPool != null) readPool.shutdownNow();
+    }
+
+    public void addListener(Consumer<SensorSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<SensorSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    public SensorSnapshot getLastSnapshot() {
+        return lastSnapshot;
+    }
+
     public static SystemInfoService createDefault() {
-        return new SystemInfoService(new OshiSensorProvider());
+        return new SystemInfoService(new InstrumentedSensorProvider(
+                createDefaultProvider(), Diagnostics.getDefault()));
+    }
+
+    public static SystemInfoService createStaged(Executor startup, StartupProfile profile) {
+        return new SystemInfoService(new InstrumentedSensorProvider(
+                createStagedProvider(startup, profile), Diagnostics.getDefault()));
+    }
+
+    // Пул для фоновой инициализации при запуске: провайдеры, открытие хранилища. Вызывающий
+    // отдаёт в него задачи и вызывает shutdown — уже отданные задачи доработают
+    public static ExecutorService newStartupPool() {
+        return Executors.newFixedThreadPool(3, r -> {
+            Thread t = new Thread(r, "ironvision-startup");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static SensorProvider createDefaultProvider() {
+        return createChain((name, factory) -> factory.get());
+    }
+
+    // Та же цепочка, но провайдеры создаются параллельно на пуле startup и вызов возвращается сразу.
+    // Пока провайдер не готов, его источники берёт следующий в цепочке
+    public static SensorProvider createStagedProvider(Executor startup, StartupProfile profile) {
+        return createChain((name, factory) -> new LazySensorProvider(name, factory::get).start(startup, profile));
+    }
+
+    // Как звено цепочки получает провайдер: создаёт сразу или откладывает
+    private interface ProviderFactory {
+        SensorProvider create(String name, Supplier<? extends SensorProvider> factory);
+    }
+
+    // На Linux сначала procfs/sysfs, затем OSHI; JSensors для GPU и недостающих температур
+    private static SensorProvider createChain(ProviderFactory factory) {
+        CompositeSensorProvider chain = new CompositeSensorProvider();
+        Path root = Paths.get("/");
+        if (System.getProperty("os.name", "").startsWith("Linux") && LinuxProcSensorProvider.isSupported(root)) {
+            chain.add("procfs", factory.create("procfs", () -> new LinuxProcSensorProvider(root)), SensorSnapshot.ALL);
+        }
+        SensorProvider jsensors = factory.create("jsensors", SystemInfoService::loadJSensors);
+        SensorProvider oshi = factory.create("oshi", OshiSensorProvider::new);
+        return chain.add("jsensors", jsensors, SensorSnapshot.GPU)
+                .add("oshi", oshi, SensorSnapshot.ALL)
+                .add("jsensors", jsensors, SensorSnapshot.CPU)
+                .reportTo(Diagnostics.getDefault());
+    }
+
+    // JSensors загружается при создании провайдера, а не в первом тике опроса
+    private static JSensorsSensorProvider loadJSensors() {
+        JSensorsSensorProvider provider = new JSensorsSensorProvider();
+        try {
+            JSensorsSensorProvider.readComponents();
+        } catch (RuntimeException ignored) {
+        }
+        return provider;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package engine.alert;
+
+import engine.SensorSnapshot;
+import engine.SnapshotMetrics;
+import engine.diag.Diagnostics;
+import engine.diag.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Оценивает правила на потоке снимков. При создании правила компилируются в плоские массивы:
+// каждая метрика извлекается из снимка один раз, одинаковые (метрика, окно) делят одно окно,
+// а проверка всех правил — один цикл по примитивам без обращений к AlertRule.
+public class AlertEngine implements Consumer<SensorSnapshot> {
+    private static final byte GT = 0, GE = 1, LT = 2, LE = 3;
+
+    private final List<AlertRule> rules;
+
+    private final int[] metricCodes;
+    private final String[] metricDisks;
+    private final double[] metricValues;
+
+    private final SlidingWindow[] windows;
+    private final int[] windowMetric;
+    private final boolean[] windowUpdated;
+
+    private final int[] ruleWindow;
+    private final byte[] ruleFunction;
+    private final byte[] ruleOperator;
+    private final double[] fireAt;
+    private final double[] clearAt;
+    private final long[] cooldown;
+    private final long[] lastFired;
+    private final AlertEvent[] active;
+
+    private final List<AlertSink> sinks = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram latency = Diagnostics.getDefault().histogram("alerts.eval");
+
+    public AlertEngine(List<AlertRule> rules) {
+        this.rules = List.copyOf(rules);
+        Map<String, Integer> metricIds = new HashMap<>();
+        Map<String, Integer> windowIds = new HashMap<>();
+        List<Integer> codes = new ArrayList<>();
+        List<String> disks = new ArrayList<>();
+        List<SlidingWindow> windowList = new ArrayList<>();
+        List<Integer> windowMetrics = new ArrayList<>();
+
+        int n = this.rules.size();
+        ruleWindow = new int[n];
+        ruleFunction = new byte[n];
+        ruleOperator = new byte[n];
+        fireAt = new double[n];
+        clearAt = new double[n];
+        cooldown = new long[n];
+        lastFired = new long[n];
+        active = new AlertEvent[n];
+
+        for (int r = 0; r < n; r++) {
+            AlertRule rule = this.rules.get(r);
+            Integer metric = metricIds.get(rule.getMetric());
+            if (metric == null) {
+                metric = codes.size();
+                codes.add(SnapshotMetrics.code(rule.getMetric()));
+                disks.add(SnapshotMetrics.diskName(rule.getMetric()));
+                metricIds.put(rule.getMetric(), metric);
+            }
+            String windowKey = metric + "/" + rule.getWindowMillis();
+            Integer window = windowIds.get(windowKey);
+            if (window == null) {
+                window = windowList.size();
+                windowList.add(new SlidingWindow(rule.getWindowMillis()));
+                windowMetrics.add(metric);
+                windowIds.put(windowKey, window);
+            }
+            ruleWindow[r] = window;
+            ruleFunction[r] = (byte) rule.getFunction().ordinal();
+            ruleOperator[r] = switch (rule.getOperator()) {
+                case ">" -> GT;
+                case ">=" -> GE;
+                case "<" -> LT;
+                default -> LE;
+            };
+            fireAt[r] = rule.getThreshold();
+            clearAt[r] = rule.getClearThreshold();
+            cooldown[r] = rule.getCooldownMillis();
+            lastFired[r] = Long.MIN_VALUE;
+        }
+
+        metricCodes = codes.stream().mapToInt(Integer::intValue).toArray();
+        metricDisks = disks.toArray(new String[0]);
+        metricValues = new double[metricCodes.length];
+        windows = windowList.toArray(new SlidingWindow[0]);
+        windowMetric = windowMetrics.stream().mapToInt(Integer::intValue).toArray();
+        windowUpdated = new boolean[windows.length];
+    }
+
+    // Правила из ~/.ironvision/alerts.rules, если файл есть, иначе встроенные
+    public static AlertEngine createDefault() {
+        Path file = defaultRulesFile();
+        if (Files.isRegularFile(file)) {
+            try {
+                return load(file);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Правила из " + file + " не загружены, используются встроенные: " + e.getMessage());
+            }
+        }
+        return new AlertEngine(AlertRule.parseAll(AlertRule.DEFAULT_RULES));
+    }
+
+    public static AlertEngine load(Path file) throws IOException {
+        return new AlertEngine(AlertRule.parseAll(Files.readString(file)));
+    }
+
+    public static Path defaultRulesFile() {
+        return Paths.get(System.getProperty("user.home"), ".ironvision", "alerts.rules");
+    }
+
+    public AlertEngine addSink(AlertSink sink) {
+        sinks.add(sink);
+        return this;
+    }
+
+    public void removeSink(AlertSink sink) {
+        sinks.remove(sink);
+    }
+
+    public List<AlertRule> getRules() {
+        return rules;
+    }
+
+    // Сработавшие и ещё не снятые правила
+    public synchronized List<AlertEvent> getFiring() {
+        List<AlertEvent> firing = new ArrayList<>();
+        for (AlertEvent event : active) {
+            if (event != null) firing.add(event);
+        }
+        return firing;
+    }
+
+    @Override
+    public synchronized void accept(SensorSnapshot snapshot) {
+        long start = System.nanoTime();
+        long now = snapshot.getTimestamp();
+        for (int m = 0; m < metricCodes.length; m++) {
+            metricValues[m] = SnapshotMetrics.extract(snapshot, metricCodes[m], metricDisks[m]);
+        }
+        for (int w = 0; w < windows.length; w++) {
+            double value = metricValues[windowMetric[w]];
+            windowUpdated[w] = !Double.isNaN(value);
+            if (windowUpdated[w]) windows[w].add(now, value);
+        }
+        // Правило проверяется только когда в его окно пришла новая точка
+        for (int r = 0; r < ruleWindow.length; r++) {
+            int w = ruleWindow[r];
+            if (!windowUpdated[w] || !windows[w].isCovered(now)) continue;
+            double value = aggregate(windows[w], ruleFunction[r]);
+            if (Double.isNaN(value)) continue;
+            if (active[r] == null) {
+                if (holds(ruleOperator[r], value, fireAt[r])
+                        && (lastFired[r] == Long.MIN_VALUE || now - lastFired[r] >= cooldown[r])) {
+                    lastFired[r] = now;
+                    active[r] = new AlertEvent(rules.get(r), AlertEvent.State.FIRING, value, now);
+                    publish(active[r]);
+                }
+            } else if (!holds(ruleOperator[r], value, clearAt[r])) {
+                active[r] = null;
+                publish(new AlertEvent(rules.get(r), AlertEvent.State.RESOLVED, value, now));
+            }
+        }
+        latency.record(System.nanoTime() - start);
+    }
+
+    private void publish(AlertEvent event) {
+        for (AlertSink sink : sinks) {
+            try {
+                sink.onAlert(event);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static double aggregate(SlidingWindow window, byte function) {
+        return switch (function) {
+            case 1 -> window.average();
+            case 2 -> window.min();
+            case 3 -> window.max();
+            case 4 -> window.rate();
+            default -> window.last();
+        };
+    }
+
+    private static boolean holds(byte operator, double value, double threshold) {
+        return switch (operator) {
+            case GT -> value > threshold;
+            case GE -> value >= threshold;
+            case LT -> value < threshold;
+            default -> value <= threshold;
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package engine.alert;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Переход правила: сработало или снято. Создаётся только на переходах, не на каждом тике
+public record AlertEvent(AlertRule rule, State state, double value, long timestamp) {
+    public enum State { FIRING, RESOLVED }
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    public String describe() {
+        String level = rule.getSeverity() == AlertRule.Severity.CRITICAL ? "CRIT" : "WARN";
+        String when = TIME.format(Instant.ofEpochMilli(timestamp));
+        return state == State.FIRING
+                ? String.format("%s [%s] %s: %s (now %s)", when, level, rule.getName(), rule.describe(),
+                        AlertRule.formatNumber(value))
+                : String.format("%s [ OK ] %s resolved (now %s)", when, rule.getName(), AlertRule.formatNumber(value));
+    }
+}
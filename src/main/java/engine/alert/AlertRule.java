@@ -0,0 +1,155 @@
+package engine.alert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Правило в одну строку:
+//   имя: функция(метрика[, окно]) оператор порог [clear порог] [cooldown длительность] [warning|critical]
+//   cpu-high: avg(cpu.usage, 30s) > 85 clear 75 cooldown 60s critical
+// Функции value, avg, min, max и rate (изменение в секунду). Правило срабатывает, когда условие
+// выполнено на заполненном окне, и снимается, только когда значение пересекло порог clear.
+public final class AlertRule {
+    public enum Function { VALUE, AVG, MIN, MAX, RATE }
+    public enum Severity { WARNING, CRITICAL }
+
+    public static final String DEFAULT_RULES = """
+            cpu-high:    avg(cpu.usage, 30s) > 85 clear 75 cooldown 60s critical
+            ram-high:    avg(ram.usage, 30s) > 90 clear 85 cooldown 60s critical
+            cpu-hot:     max(cpu.temperature, 10s) > 90 clear 85 cooldown 60s critical
+            gpu-hot:     max(gpu.temperature, 10s) > 82 clear 78 cooldown 60s critical
+            gpu-heating: rate(gpu.temperature, 30s) > 1 clear 0.2 cooldown 5m warning
+            disk-full:   value(disk.usage.max) > 95 clear 93 cooldown 10m warning
+            """;
+
+    private static final Pattern RULE = Pattern.compile(
+            "([\\w.-]+)\\s*:\\s*(\\w+)\\(\\s*([^,\\s)]+)\\s*(?:,\\s*(\\w+)\\s*)?\\)\\s*(>=|<=|>|<)\\s*(-?[\\d.]+)(.*)");
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)(ms|s|m|h)");
+
+    private final String name;
+    private final Function function;
+    private final String metric;
+    private final long windowMillis;
+    private final String operator;
+    private final double threshold;
+    private final double clearThreshold;
+    private final long cooldownMillis;
+    private final Severity severity;
+
+    public AlertRule(String name, Function function, String metric, long windowMillis, String operator,
+                     double threshold, double clearThreshold, long cooldownMillis, Severity severity) {
+        if (!List.of(">", ">=", "<", "<=").contains(operator)) throw new IllegalArgumentException("Оператор: " + operator);
+        if (function != Function.VALUE && windowMillis <= 0) throw new IllegalArgumentException(name + ": нужно окно");
+        boolean above = operator.startsWith(">");
+        if (above ? clearThreshold > threshold : clearThreshold < threshold) {
+            throw new IllegalArgumentException(name + ": порог clear должен быть по другую сторону от порога срабатывания");
+        }
+        this.name = name;
+        this.function = function;
+        this.metric = metric;
+        this.windowMillis = function == Function.VALUE ? 0 : windowMillis;
+        this.operator = operator;
+        this.threshold = threshold;
+        this.clearThreshold = clearThreshold;
+        this.cooldownMillis = cooldownMillis;
+        this.severity = severity;
+    }
+
+    public String getName() { return name; }
+    public Function getFunction() { return function; }
+    public String getMetric() { return metric; }
+    public long getWindowMillis() { return windowMillis; }
+    public String getOperator() { return operator; }
+    public double getThreshold() { return threshold; }
+    public double getClearThreshold() { return clearThreshold; }
+    public long getCooldownMillis() { return cooldownMillis; }
+    public Severity getSeverity() { return severity; }
+
+    // Пустые строки и строки с # пропускаются
+    public static List<AlertRule> parseAll(String text) {
+        List<AlertRule> rules = new ArrayList<>();
+        String[] lines = text.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            try {
+                rules.add(parse(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Строка " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return rules;
+    }
+
+    public static AlertRule parse(String line) {
+        Matcher m = RULE.matcher(line.trim());
+        if (!m.matches()) throw new IllegalArgumentException("Не разобрано правило: " + line);
+        Function function;
+        try {
+            function = Function.valueOf(m.group(2).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неизвестная функция: " + m.group(2));
+        }
+        long window = m.group(4) != null ? parseDuration(m.group(4)) : 0;
+        double threshold = Double.parseDouble(m.group(6));
+        double clear = threshold;
+        long cooldown = 0;
+        Severity severity = Severity.WARNING;
+
+        String[] options = m.group(7).trim().isEmpty() ? new String[0] : m.group(7).trim().split("\\s+");
+        for (int i = 0; i < options.length; i++) {
+            switch (options[i]) {
+                case "clear" -> clear = Double.parseDouble(value(options, ++i));
+                case "cooldown" -> cooldown = parseDuration(value(options, ++i));
+                case "warning" -> severity = Severity.WARNING;
+                case "critical" -> severity = Severity.CRITICAL;
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + options[i]);
+            }
+        }
+        return new AlertRule(m.group(1), function, m.group(3), window, m.group(5), threshold, clear, cooldown, severity);
+    }
+
+    private static String value(String[] options, int i) {
+        if (i >= options.length) throw new IllegalArgumentException("Нет значения у " + options[i - 1]);
+        return options[i];
+    }
+
+    // 500ms, 30s, 5m, 1h
+    static long parseDuration(String text) {
+        Matcher m = DURATION.matcher(text);
+        if (!m.matches()) throw new IllegalArgumentException("Длительность: " + text);
+        long n = Long.parseLong(m.group(1));
+        return switch (m.group(2)) {
+            case "ms" -> n;
+            case "s" -> n * 1000;
+            case "m" -> n * 60_000;
+            default -> n * 3_600_000;
+        };
+    }
+
+    // Условие в том виде, в каком его удобно показать пользователю
+    public String describe() {
+        String call = function == Function.VALUE ? metric
+                : function.name().toLowerCase(Locale.ROOT) + "(" + metric + ", " + formatDuration(windowMillis) + ")";
+        return call + " " + operator + " " + formatNumber(threshold);
+    }
+
+    static String formatDuration(long millis) {
+        if (millis % 3_600_000 == 0) return millis / 3_600_000 + "h";
+        if (millis % 60_000 == 0) return millis / 60_000 + "m";
+        if (millis % 1000 == 0) return millis / 1000 + "s";
+        return millis + "ms";
+    }
+
+    static String formatNumber(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + describe();
+    }
+}
@@ -0,0 +1,7 @@
+package engine.alert;
+
+// Получатель переходов правил. Вызывается в потоке опроса, поэтому не должен блокировать надолго
+@FunctionalInterface
+public interface AlertSink {
+    void onAlert(AlertEvent event);
+}
@@ -0,0 +1,20 @@
+package engine.alert;
+
+import java.io.PrintStream;
+
+public class ConsoleAlertSink implements AlertSink {
+    private final PrintStream out;
+
+    public ConsoleAlertSink() {
+        this(System.out);
+    }
+
+    public ConsoleAlertSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void onAlert(AlertEvent event) {
+        out.println(event.describe());
+    }
+}
@@ -0,0 +1,122 @@
+package engine.alert;
+
+// Окно последних windowMillis миллисекунд одной метрики. Сумма ведётся на ходу, минимум и максимум —
+// монотонными очередями, поэтому и добавление, и любой агрегат стоят O(1) амортизированно.
+// Кольца растут только если точек в окне стало больше, чем когда-либо.
+final class SlidingWindow {
+    // Сумма пересчитывается заново раз в столько добавлений, чтобы не копилась ошибка округления
+    private static final int RESUM_INTERVAL = 4096;
+
+    private final long windowMillis;
+    private long[] timestamps = new long[16];
+    private double[] values = new double[16];
+    private int mask = 15;
+    private long head;
+    private long tail;
+    private double sum;
+    private int sinceResum;
+    private long firstTimestamp = Long.MIN_VALUE;
+
+    // В очередях лежат номера точек; значения по ним монотонны от головы к хвосту
+    private long[] maxQueue = new long[16];
+    private long maxHead, maxTail;
+    private long[] minQueue = new long[16];
+    private long minHead, minTail;
+
+    SlidingWindow(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    void add(long timestamp, double value) {
+        if (firstTimestamp == Long.MIN_VALUE) firstTimestamp = timestamp;
+        while (head < tail && timestamp - timestamps[(int) head & mask] >= Math.max(1, windowMillis)) {
+            evict();
+        }
+        if (tail - head == timestamps.length) grow();
+
+        int slot = (int) tail & mask;
+        timestamps[slot] = timestamp;
+        values[slot] = value;
+        while (maxTail > maxHead && values[(int) maxQueue[(int) (maxTail - 1) & mask] & mask] <= value) maxTail--;
+        maxQueue[(int) maxTail++ & mask] = tail;
+        while (minTail > minHead && values[(int) minQueue[(int) (minTail - 1) & mask] & mask] >= value) minTail--;
+        minQueue[(int) minTail++ & mask] = tail;
+        tail++;
+
+        sum += value;
+        if (++sinceResum >= RESUM_INTERVAL) resum();
+    }
+
+    private void evict() {
+        sum -= values[(int) head & mask];
+        if (maxQueue[(int) maxHead & mask] == head) maxHead++;
+        if (minQueue[(int) minHead & mask] == head) minHead++;
+        head++;
+    }
+
+    private void resum() {
+        sum = 0;
+        for (long i = head; i < tail; i++) {
+            sum += values[(int) i & mask];
+        }
+        sinceResum = 0;
+    }
+
+    private void grow() {
+        int capacity = timestamps.length * 2;
+        int newMask = capacity - 1;
+        long[] newTimestamps = new long[capacity];
+        double[] newValues = new double[capacity];
+        for (long i = head; i < tail; i++) {
+            newTimestamps[(int) i & newMask] = timestamps[(int) i & mask];
+            newValues[(int) i & newMask] = values[(int) i & mask];
+        }
+        long[] newMax = new long[capacity];
+        for (long i = maxHead; i < maxTail; i++) {
+            newMax[(int) i & newMask] = maxQueue[(int) i & mask];
+        }
+        long[] newMin = new long[capacity];
+        for (long i = minHead; i < minTail; i++) {
+            newMin[(int) i & newMask] = minQueue[(int) i & mask];
+        }
+        timestamps = newTimestamps;
+        values = newValues;
+        maxQueue = newMax;
+        minQueue = newMin;
+        mask = newMask;
+    }
+
+    int size() {
+        return (int) (tail - head);
+    }
+
+    // Окно заполнено, когда точки поступают хотя бы windowMillis: «avg за 30 с» не сработает через 2 с после старта
+    boolean isCovered(long now) {
+        return head < tail && now - firstTimestamp >= windowMillis;
+    }
+
+    double last() {
+        return head < tail ? values[(int) (tail - 1) & mask] : Double.NaN;
+    }
+
+    double average() {
+        return head < tail ? sum / (tail - head) : Double.NaN;
+    }
+
+    double max() {
+        return maxHead < maxTail ? values[(int) maxQueue[(int) maxHead & mask] & mask] : Double.NaN;
+    }
+
+    double min() {
+        return minHead < minTail ? values[(int) minQueue[(int) minHead & mask] & mask] : Double.NaN;
+    }
+
+    // Изменение в секунду между самой старой и самой свежей точкой окна
+    double rate() {
+        if (tail - head < 2) return Double.NaN;
+        int first = (int) head & mask;
+        int last = (int) (tail - 1) & mask;
+        long dt = timestamps[last] - timestamps[first];
+        return dt > 0 ? (values[last] - values[first]) * 1000.0 / dt : Double.NaN;
+    }
+}
@@ -0,0 +1,84 @@
+package engine.chain;
+
+import engine.sched.Clock;
+
+import java.util.concurrent.TimeUnit;
+
+// После threshold неудач подряд источник закрывается на время ожидания, которое удваивается
+// после каждой неудачной пробы вплоть до maxBackoff. Пока он закрыт, allow() стоит одно чтение часов.
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public static final int DEFAULT_THRESHOLD = 3;
+    public static final long DEFAULT_BASE_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+    public static final long DEFAULT_MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Clock clock;
+    private final int threshold;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long backoffNanos;
+    private long retryAt;
+    private long successes;
+    private long failures;
+    private String lastError;
+
+    public CircuitBreaker(Clock clock) {
+        this(clock, DEFAULT_THRESHOLD, DEFAULT_BASE_BACKOFF_NANOS, DEFAULT_MAX_BACKOFF_NANOS);
+    }
+
+    public CircuitBreaker(Clock clock, int threshold, long baseBackoffNanos, long maxBackoffNanos) {
+        this.clock = clock;
+        this.threshold = Math.max(1, threshold);
+        this.baseBackoffNanos = baseBackoffNanos;
+        this.maxBackoffNanos = Math.max(baseBackoffNanos, maxBackoffNanos);
+        this.backoffNanos = baseBackoffNanos;
+    }
+
+    // true, если источник можно вызвать; в открытом состоянии раз в backoff пропускает одну пробу
+    public synchronized boolean allow() {
+        if (state == State.CLOSED) return true;
+        if (state == State.OPEN && clock.nanoTime() - retryAt >= 0) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void success() {
+        successes++;
+        consecutiveFailures = 0;
+        backoffNanos = baseBackoffNanos;
+        state = State.CLOSED;
+    }
+
+    public synchronized void failure(String reason) {
+        failures++;
+        consecutiveFailures++;
+        lastError = reason;
+        if (state == State.HALF_OPEN) {
+            backoffNanos = Math.min(backoffNanos * 2, maxBackoffNanos);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= threshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        retryAt = clock.nanoTime() + backoffNanos;
+    }
+
+    public synchronized State getState() { return state; }
+    public synchronized long getSuccesses() { return successes; }
+    public synchronized long getFailures() { return failures; }
+    public synchronized String getLastError() { return lastError; }
+
+    // Сколько осталось до следующей пробы, 0 если источник доступен
+    public synchronized long getRetryInNanos() {
+        return state == State.OPEN ? Math.max(0, retryAt - clock.nanoTime()) : 0;
+    }
+}
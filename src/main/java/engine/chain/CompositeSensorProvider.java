@@ -0,0 +1,223 @@
+package engine.chain;
+
+import engine.*;
+import engine.diag.Diagnostics;
+import engine.sched.Clock;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Цепочка провайдеров по приоритету отдельно для каждого источника. Берётся первый, чей ответ
+// пригоден, затем недостающие поля (температура CPU/GPU, объём VRAM) добираются у следующих.
+// Каждая пара провайдер/источник защищена своим CircuitBreaker, поэтому неработающий источник
+// в установившемся режиме не вызывается вовсе, а лишь изредка пробуется снова. Дозапрос полей
+// идёт через отдельный breaker: отсутствие температуры у провайдера — не поломка источника, и
+// закрыть ему основную роль оно не должно.
+public class CompositeSensorProvider implements SensorProvider {
+    private static final int MISSING_TEMPERATURE = 1;
+    private static final int MISSING_VRAM = 1 << 1;
+    private static final String[] SOURCE_NAMES = { "cpu", "ram", "gpu", "disks" };
+
+    private final Clock clock;
+    private volatile Backend[] backends = new Backend[0];
+
+    public CompositeSensorProvider() {
+        this(Clock.SYSTEM);
+    }
+
+    public CompositeSensorProvider(Clock clock) {
+        this.clock = clock;
+    }
+
+    // Порядок добавления задаёт приоритет; sources — маска источников, которые провайдер умеет.
+    // Один провайдер можно добавить несколько раз, чтобы у разных источников был разный приоритет
+    public synchronized CompositeSensorProvider add(String name, SensorProvider provider, int sources) {
+        CircuitBreaker[] breakers = new CircuitBreaker[SensorSnapshot.SOURCE_COUNT];
+        CircuitBreaker[] fillBreakers = new CircuitBreaker[SensorSnapshot.SOURCE_COUNT];
+        for (int i = 0; i < breakers.length; i++) {
+            breakers[i] = new CircuitBreaker(clock);
+            fillBreakers[i] = new CircuitBreaker(clock);
+        }
+        Backend[] grown = Arrays.copyOf(backends, backends.length + 1);
+        grown[backends.length] = new Backend(name, provider, sources & SensorSnapshot.ALL, breakers, fillBreakers);
+        backends = grown;
+        return this;
+    }
+
+    // Отчёт о состоянии источников попадает в общий отчёт диагностики
+    public CompositeSensorProvider reportTo(Diagnostics diagnostics) {
+        diagnostics.addSection(this::healthReport);
+        return this;
+    }
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        return sample(SensorSnapshot.CPU).getCpu();
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        return sample(SensorSnapshot.RAM).getRam();
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        return sample(SensorSnapshot.GPU).getGpu();
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        return sample(SensorSnapshot.DISKS).getDisks();
+    }
+
+    // Источник, который не дал ни один провайдер, не попадает в маску снимка
+    @Override
+    public SensorSnapshot sample(int sources) {
+        long[] readNanos = new long[SensorSnapshot.SOURCE_COUNT];
+        SensorSnapshot[] parts = new SensorSnapshot[SensorSnapshot.SOURCE_COUNT];
+        int delivered = 0;
+        for (int i = 0; i < SensorSnapshot.SOURCE_COUNT; i++) {
+            int source = 1 << i;
+            if ((sources & source) == 0) continue;
+            long start = System.nanoTime();
+            parts[i] = read(source);
+            readNanos[i] = System.nanoTime() - start;
+            if (parts[i] != null) delivered |= source;
+        }
+        return new SensorSnapshot(System.currentTimeMillis(), delivered,
+                parts[0] != null ? parts[0].getCpu() : null,
+                parts[1] != null ? parts[1].getRam() : null,
+                parts[2] != null ? parts[2].getGpu() : null,
+                parts[3] != null ? parts[3].getDisks() : null,
+                readNanos);
+    }
+
+    private SensorSnapshot read(int source) {
+        int index = SensorSnapshot.indexOf(source);
+        Backend[] chain = backends;
+        SensorSnapshot result = null;
+        int chosen = chain.length;
+        for (int i = 0; i < chain.length; i++) {
+            Backend backend = chain[i];
+            if ((backend.sources & source) == 0 || !backend.breakers[index].allow()) continue;
+            SensorSnapshot part = call(backend, source, backend.breakers[index]);
+            if (part == null) continue;
+            if (usable(source, part)) {
+                backend.breakers[index].success();
+                result = part;
+                chosen = i;
+                break;
+            }
+            backend.breakers[index].failure("пустой ответ");
+        }
+        if (result == null) return null;
+
+        int missing = missing(source, result);
+        for (int i = chosen + 1; i < chain.length && missing != 0; i++) {
+            Backend backend = chain[i];
+            CircuitBreaker breaker = backend.fillBreakers[index];
+            // Основной breaker только читается: allow() израсходовал бы его пробу, а её исход сюда не дойдёт
+            if ((backend.sources & source) == 0 || backend.breakers[index].getState() != CircuitBreaker.State.CLOSED
+                    || !breaker.allow()) continue;
+            SensorSnapshot part = call(backend, source, breaker);
+            if (part == null) continue;
+            int provided = missing & ~missing(source, part);
+            if (provided != 0) {
+                breaker.success();
+                result = fill(source, result, part, provided);
+                missing &= ~provided;
+            } else {
+                breaker.failure("нет недостающих значений");
+            }
+        }
+        return result;
+    }
+
+    private static SensorSnapshot call(Backend backend, int source, CircuitBreaker breaker) {
+        try {
+            return backend.provider.sample(source);
+        } catch (Exception e) {
+            breaker.failure(e.toString());
+            return null;
+        }
+    }
+
+    private static boolean usable(int source, SensorSnapshot part) {
+        if (source == SensorSnapshot.CPU) {
+            CpuInfo cpu = part.getCpu();
+            return cpu.getCores() > 0 || cpu.getLogicalCount() > 0 || cpu.getUsage() > 0;
+        }
+        if (source == SensorSnapshot.RAM) return part.getRam().getTotal() > 0;
+        if (source == SensorSnapshot.GPU) {
+            GpuInfo gpu = part.getGpu();
+            return gpu.getVramTotal() > 0 || gpu.getTemperature() > 0 || gpu.getGpuLoad() > 0
+                    || !("N/A".equals(gpu.getName()) || "GPU".equals(gpu.getName()));
+        }
+        return !part.getDisks().isEmpty();
+    }
+
+    private static int missing(int source, SensorSnapshot part) {
+        if (source == SensorSnapshot.CPU) {
+            return part.getCpu().getTemperature() > 0 ? 0 : MISSING_TEMPERATURE;
+        }
+        if (source == SensorSnapshot.GPU) {
+            GpuInfo gpu = part.getGpu();
+            return (gpu.getTemperature() > 0 ? 0 : MISSING_TEMPERATURE) | (gpu.getVramTotal() > 0 ? 0 : MISSING_VRAM);
+        }
+        return 0;
+    }
+
+    // Провайдер может отдавать свои объекты повторно, поэтому поля дописываются в копию
+    private static SensorSnapshot fill(int source, SensorSnapshot target, SensorSnapshot from, int fields) {
+        if (source == SensorSnapshot.CPU) {
+            CpuInfo cpu = new CpuInfo();
+            SnapshotBuffer.copy(target.getCpu(), cpu);
+            cpu.setTemperature(from.getCpu().getTemperature());
+            return new SensorSnapshot(target.getTimestamp(), source, cpu, null, null, null);
+        }
+        GpuInfo gpu = new GpuInfo();
+        SnapshotBuffer.copy(target.getGpu(), gpu);
+        if ((fields & MISSING_TEMPERATURE) != 0) gpu.setTemperature(from.getGpu().getTemperature());
+        if ((fields & MISSING_VRAM) != 0) {
+            gpu.setVramTotal(from.getGpu().getVramTotal());
+            // OSHI знает только объём VRAM; занятую тогда оцениваем по загрузке GPU
+            long used = from.getGpu().getVramUsed();
+            gpu.setVramUsed(used > 0 ? used : (long) (gpu.getVramTotal() * (gpu.getGpuLoad() / 100.0)));
+        }
+        return new SensorSnapshot(target.getTimestamp(), source, null, null, gpu, null);
+    }
+
+    public CircuitBreaker getBreaker(String backend, int source) {
+        for (Backend b : backends) {
+            if (b.name.equals(backend) && (b.sources & source) != 0) return b.breakers[SensorSnapshot.indexOf(source)];
+        }
+        return null;
+    }
+
+    public String healthReport() {
+        StringBuilder sb = new StringBuilder();
+        for (Backend backend : backends) {
+            for (int i = 0; i < SensorSnapshot.SOURCE_COUNT; i++) {
+                if ((backend.sources & (1 << i)) == 0) continue;
+                CircuitBreaker breaker = backend.breakers[i];
+                sb.append(String.format("%-18s %-9s ok %d  fail %d", backend.name + "." + SOURCE_NAMES[i],
+                        breaker.getState(), breaker.getSuccesses(), breaker.getFailures()));
+                long retryIn = breaker.getRetryInNanos();
+                if (retryIn > 0) sb.append("  retry in ").append(Diagnostics.formatNanos(retryIn));
+                if (breaker.getState() != CircuitBreaker.State.CLOSED && breaker.getLastError() != null) {
+                    sb.append("  (").append(breaker.getLastError()).append(')');
+                }
+                CircuitBreaker fill = backend.fillBreakers[i];
+                if (fill.getState() != CircuitBreaker.State.CLOSED) {
+                    sb.append("  поля: пауза ").append(Diagnostics.formatNanos(fill.getRetryInNanos()));
+                    if (fill.getLastError() != null) sb.append(" (").append(fill.getLastError()).append(')');
+                }
+                sb.append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+
+    private record Backend(String name, SensorProvider provider, int sources,
+                           CircuitBreaker[] breakers, CircuitBreaker[] fillBreakers) {}
+}
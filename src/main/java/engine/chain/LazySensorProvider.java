@@ -0,0 +1,84 @@
+package engine.chain;
+
+import engine.*;
+import engine.diag.StartupProfile;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+// Провайдер, который создаётся в фоне: окно и опрос стартуют сразу, а тяжёлая инициализация
+// (SystemInfo у OSHI, разбор /proc/cpuinfo и hwmon, загрузка JSensors) идёт параллельно с другими.
+// До готовности sample возвращает null — CompositeSensorProvider пропускает такой ответ, не считая
+// его неудачей, и берёт источник у следующего в цепочке. Если создать провайдер не удалось,
+// он так и остаётся пустым.
+public class LazySensorProvider implements SensorProvider {
+    private final String name;
+    private final Callable<? extends SensorProvider> factory;
+    private volatile SensorProvider delegate;
+    private volatile boolean done;
+
+    public LazySensorProvider(String name, Callable<? extends SensorProvider> factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    // Время создания попадает в профиль запуска как интервал "backend.<имя>"
+    public LazySensorProvider start(Executor executor, StartupProfile profile) {
+        String phase = "backend." + name;
+        profile.begin(phase);
+        executor.execute(() -> {
+            try {
+                delegate = factory.call();
+            } catch (Exception | LinkageError e) {
+                System.err.println("Источник " + name + " не запустился: " + e);
+            } finally {
+                done = true;
+                profile.end(phase);
+            }
+        });
+        return this;
+    }
+
+    public String getName() { return name; }
+    public boolean isReady() { return delegate != null; }
+    // Создание закончилось, удачно или нет
+    public boolean isDone() { return done; }
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        SensorProvider provider = delegate;
+        return provider != null ? provider.getCpuInfo() : new CpuInfo();
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        SensorProvider provider = delegate;
+        return provider != null ? provider.getRamInfo() : new RamInfo();
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        SensorProvider provider = delegate;
+        return provider != null ? provider.getGpuInfo() : new GpuInfo();
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        SensorProvider provider = delegate;
+        return provider != null ? provider.getDisksInfo() : List.of();
+    }
+
+    @Override
+    public SensorSnapshot sample(int sources) {
+        SensorProvider provider = delegate;
+        return provider != null ? provider.sample(sources) : null;
+    }
+
+    @Override
+    public void sampleInto(SnapshotBuffer buffer, int sources) {
+        SensorProvider provider = delegate;
+        if (provider != null) provider.sampleInto(buffer, sources);
+        else buffer.begin(System.currentTimeMillis(), 0);
+    }
+}
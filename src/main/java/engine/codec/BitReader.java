@@ -0,0 +1,56 @@
+package engine.codec;
+
+// Чтение потока, записанного BitWriter. Массив не копируется: reset() переключает читателя
+// на новый блок без выделения памяти.
+public final class BitReader {
+    private byte[] bytes;
+    private int position;
+    private int end;
+    private long acc;
+    private int accBits;
+
+    public BitReader() {
+        reset(new byte[0], 0, 0);
+    }
+
+    public BitReader(byte[] bytes) {
+        reset(bytes, 0, bytes.length);
+    }
+
+    public BitReader reset(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.end = offset + length;
+        this.acc = 0;
+        this.accBits = 0;
+        return this;
+    }
+
+    public boolean readBit() {
+        return readBits(1) != 0;
+    }
+
+    public long readBits(int n) {
+        if (n > 56) {
+            long high = readBits(n - 32);
+            return (high << 32) | readBits(32);
+        }
+        if (n == 0) return 0;
+        while (accBits < n) {
+            if (position >= end) throw new IllegalStateException("Поток битов закончился");
+            acc = (acc << 8) | (bytes[position++] & 0xFF);
+            accBits += 8;
+        }
+        accBits -= n;
+        return (acc >>> accBits) & ((1L << n) - 1);
+    }
+
+    // Позиция следующего непрочитанного байта, если дочитать текущий до конца
+    public int getBytePosition() {
+        return position;
+    }
+
+    public long getRemainingBits() {
+        return (long) (end - position) * 8 + accBits;
+    }
+}
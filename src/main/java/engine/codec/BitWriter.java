@@ -0,0 +1,70 @@
+package engine.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Запись битового потока старшим битом вперёд в растущий массив. Полные байты сбрасываются
+// сразу, в аккумуляторе остаётся меньше 8 бит. После reset() массив переиспользуется, так что
+// кодер, живущий дольше одного блока, не выделяет память в установившемся режиме.
+public final class BitWriter {
+    private byte[] bytes;
+    private int length;
+    private long acc;
+    private int accBits;
+
+    public BitWriter() {
+        this(256);
+    }
+
+    public BitWriter(int initialBytes) {
+        bytes = new byte[Math.max(16, initialBytes)];
+    }
+
+    public void reset() {
+        length = 0;
+        acc = 0;
+        accBits = 0;
+    }
+
+    public void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    // Младшие n бит value, n от 0 до 64
+    public void writeBits(long value, int n) {
+        if (n > 56) {
+            writeBits(value >>> 32, n - 32);
+            writeBits(value, 32);
+            return;
+        }
+        if (n == 0) return;
+        acc = (acc << n) | (value & ((1L << n) - 1));
+        accBits += n;
+        while (accBits >= 8) {
+            accBits -= 8;
+            if (length == bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            bytes[length++] = (byte) (acc >>> accBits);
+        }
+    }
+
+    public long getBitLength() {
+        return (long) length * 8 + accBits;
+    }
+
+    // Байт с учётом неполного последнего
+    public int getByteLength() {
+        return length + (accBits > 0 ? 1 : 0);
+    }
+
+    // Неполный последний байт дописывается нулями только в копии: поток можно продолжать
+    public void writeTo(ByteBuffer out) {
+        out.put(bytes, 0, length);
+        if (accBits > 0) out.put((byte) (acc << (8 - accBits)));
+    }
+
+    public byte[] toByteArray() {
+        ByteBuffer out = ByteBuffer.allocate(getByteLength());
+        writeTo(out);
+        return out.array();
+    }
+}
@@ -0,0 +1,21 @@
+package engine.codec;
+
+// Медленно меняющиеся счётчики и объёмы (занятая память, свободное место): разность с прошлым
+// значением в zigzag-varint. Неизменное значение стоит байт, изменение на килобайты — два-три.
+public final class DeltaLongCodec {
+    private long previous;
+
+    public void reset() {
+        previous = 0;
+    }
+
+    public void write(BitWriter out, long value) {
+        VarInts.writeVarLong(out, VarInts.zigZag(value - previous));
+        previous = value;
+    }
+
+    public long read(BitReader in) {
+        previous += VarInts.unZigZag(VarInts.readVarLong(in));
+        return previous;
+    }
+}
@@ -0,0 +1,113 @@
+package engine.codec;
+
+import engine.CpuInfo;
+import engine.DiskInfo;
+import engine.GpuInfo;
+import engine.RamInfo;
+import engine.SensorSnapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Разбор блока SnapshotBlockEncoder. Декодер можно переиспользовать: кодеры столбцов и буфер
+// битов сбрасываются на каждый блок.
+public final class SnapshotBlockDecoder {
+    private final BitReader bits = new BitReader();
+    private byte[] data = new byte[4096];
+    private final TimestampCodec timestamps = new TimestampCodec();
+    private final XorDoubleCodec cpuUsage = new XorDoubleCodec();
+    private final XorDoubleCodec cpuTemperature = new XorDoubleCodec();
+    private final XorDoubleCodec cpuClock = new XorDoubleCodec();
+    private final DeltaLongCodec ramTotal = new DeltaLongCodec();
+    private final DeltaLongCodec ramFree = new DeltaLongCodec();
+    private final XorDoubleCodec gpuLoad = new XorDoubleCodec();
+    private final XorDoubleCodec gpuTemperature = new XorDoubleCodec();
+    private final DeltaLongCodec vramTotal = new DeltaLongCodec();
+    private final DeltaLongCodec vramUsed = new DeltaLongCodec();
+
+    public List<SensorSnapshot> decode(ByteBuffer in) {
+        List<SensorSnapshot> result = new ArrayList<>();
+        decode(in, result::add);
+        return result;
+    }
+
+    public void decode(ByteBuffer in, Consumer<SensorSnapshot> consumer) {
+        if (in.getInt() != SnapshotBlockEncoder.MAGIC) throw new IllegalArgumentException("Не блок снимков");
+        int version = in.getShort();
+        if (version != SnapshotBlockEncoder.VERSION) throw new IllegalArgumentException("Версия блока " + version);
+        int count = in.getInt();
+        String cpuName = getString(in);
+        String gpuName = getString(in);
+        int cores = in.getShort();
+        int diskCount = in.getShort() & 0xFFFF;
+        String[] diskNames = new String[diskCount];
+        for (int i = 0; i < diskCount; i++) {
+            diskNames[i] = getString(in);
+        }
+        int length = in.getInt();
+        if (data.length < length) data = new byte[Math.max(length, data.length * 2)];
+        in.get(data, 0, length);
+        bits.reset(data, 0, length);
+
+        timestamps.reset();
+        cpuUsage.reset();
+        cpuTemperature.reset();
+        cpuClock.reset();
+        ramTotal.reset();
+        ramFree.reset();
+        gpuLoad.reset();
+        gpuTemperature.reset();
+        vramTotal.reset();
+        vramUsed.reset();
+        DeltaLongCodec[] diskTotal = new DeltaLongCodec[diskCount];
+        DeltaLongCodec[] diskFree = new DeltaLongCodec[diskCount];
+        for (int i = 0; i < diskCount; i++) {
+            diskTotal[i] = new DeltaLongCodec();
+            diskFree[i] = new DeltaLongCodec();
+        }
+
+        for (int n = 0; n < count; n++) {
+            int sources = (int) bits.readBits(4);
+            int stale = (int) bits.readBits(4);
+            long timestamp = timestamps.read(bits);
+
+            CpuInfo cpu = new CpuInfo();
+            cpu.setName(cpuName);
+            cpu.setCores(cores);
+            cpu.setUsage(cpuUsage.read(bits));
+            cpu.setTemperature(cpuTemperature.read(bits));
+            cpu.setBaseClock(cpuClock.read(bits));
+
+            RamInfo ram = new RamInfo();
+            ram.setTotal(ramTotal.read(bits));
+            ram.setFree(ramFree.read(bits));
+
+            GpuInfo gpu = new GpuInfo();
+            gpu.setName(gpuName);
+            gpu.setGpuLoad(gpuLoad.read(bits));
+            gpu.setTemperature(gpuTemperature.read(bits));
+            gpu.setVramTotal(vramTotal.read(bits));
+            gpu.setVramUsed(vramUsed.read(bits));
+
+            List<DiskInfo> disks = new ArrayList<>(diskCount);
+            for (int i = 0; i < diskCount; i++) {
+                DiskInfo disk = new DiskInfo();
+                disk.setName(diskNames[i]);
+                disk.setTotalSpace(diskTotal[i].read(bits));
+                disk.setFreeSpace(diskFree[i].read(bits));
+                disks.add(disk);
+            }
+            consumer.accept(new SensorSnapshot(timestamp, sources, stale, cpu, ram, gpu, disks, null));
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.get() & 0xFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,173 @@
+package engine.codec;
+
+import engine.CpuInfo;
+import engine.DiskInfo;
+import engine.GpuInfo;
+import engine.RamInfo;
+import engine.SensorSnapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Блок подряд идущих снимков одной машины в сжатом виде. Имена CPU, GPU и дисков пишутся один раз
+// в заголовок блока, числа — по столбцам своими кодерами: время — разностью разностей, доли и
+// температуры — XOR, байты — разностью. Формат блока:
+//   [magic:4][версия:2][снимков:4][CPU][GPU][ядер:2][дисков:2][имена дисков][длина битов:4][биты]
+// Поля те же, что у SnapshotCodec. Снимок с другим набором имён в блок не ложится — append
+// вернёт false, и вызывающий начинает новый блок.
+public final class SnapshotBlockEncoder {
+    public static final int MAGIC = 0x49564731; // "IVG1"
+    public static final int VERSION = 1;
+    static final int MAX_STRING_BYTES = 255;
+
+    private final BitWriter bits = new BitWriter(4096);
+    private final TimestampCodec timestamps = new TimestampCodec();
+    private final XorDoubleCodec cpuUsage = new XorDoubleCodec();
+    private final XorDoubleCodec cpuTemperature = new XorDoubleCodec();
+    private final XorDoubleCodec cpuClock = new XorDoubleCodec();
+    private final DeltaLongCodec ramTotal = new DeltaLongCodec();
+    private final DeltaLongCodec ramFree = new DeltaLongCodec();
+    private final XorDoubleCodec gpuLoad = new XorDoubleCodec();
+    private final XorDoubleCodec gpuTemperature = new XorDoubleCodec();
+    private final DeltaLongCodec vramTotal = new DeltaLongCodec();
+    private final DeltaLongCodec vramUsed = new DeltaLongCodec();
+    private DeltaLongCodec[] diskTotal = new DeltaLongCodec[0];
+    private DeltaLongCodec[] diskFree = new DeltaLongCodec[0];
+
+    private String cpuName;
+    private String gpuName;
+    private int cores;
+    private String[] diskNames;
+    private int headerBytes;
+    private int count;
+
+    public void reset() {
+        bits.reset();
+        timestamps.reset();
+        cpuUsage.reset();
+        cpuTemperature.reset();
+        cpuClock.reset();
+        ramTotal.reset();
+        ramFree.reset();
+        gpuLoad.reset();
+        gpuTemperature.reset();
+        vramTotal.reset();
+        vramUsed.reset();
+        for (int i = 0; i < diskTotal.length; i++) {
+            diskTotal[i].reset();
+            diskFree[i].reset();
+        }
+        cpuName = null;
+        count = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Размер блока, если закончить его сейчас
+    public int size() {
+        return count == 0 ? 0 : headerBytes + 4 + bits.getByteLength();
+    }
+
+    public boolean append(SensorSnapshot snapshot) {
+        CpuInfo cpu = snapshot.getCpu();
+        GpuInfo gpu = snapshot.getGpu();
+        List<DiskInfo> disks = snapshot.getDisks();
+        if (count == 0) {
+            start(cpu, gpu, disks);
+        } else if (!sameLayout(cpu, gpu, disks)) {
+            return false;
+        }
+
+        bits.writeBits(snapshot.getSources(), 4);
+        bits.writeBits(snapshot.getStaleSources(), 4);
+        timestamps.write(bits, snapshot.getTimestamp());
+        cpuUsage.write(bits, cpu.getUsage());
+        cpuTemperature.write(bits, cpu.getTemperature());
+        cpuClock.write(bits, cpu.getBaseClock());
+        RamInfo ram = snapshot.getRam();
+        ramTotal.write(bits, ram.getTotal());
+        ramFree.write(bits, ram.getFree());
+        gpuLoad.write(bits, gpu.getGpuLoad());
+        gpuTemperature.write(bits, gpu.getTemperature());
+        vramTotal.write(bits, gpu.getVramTotal());
+        vramUsed.write(bits, gpu.getVramUsed());
+        for (int i = 0; i < disks.size(); i++) {
+            diskTotal[i].write(bits, disks.get(i).getTotalSpace());
+            diskFree[i].write(bits, disks.get(i).getFreeSpace());
+        }
+        count++;
+        return true;
+    }
+
+    private void start(CpuInfo cpu, GpuInfo gpu, List<DiskInfo> disks) {
+        cpuName = cpu.getName();
+        gpuName = gpu.getName();
+        cores = cpu.getCores();
+        if (diskTotal.length < disks.size()) {
+            diskTotal = new DeltaLongCodec[disks.size()];
+            diskFree = new DeltaLongCodec[disks.size()];
+            for (int i = 0; i < disks.size(); i++) {
+                diskTotal[i] = new DeltaLongCodec();
+                diskFree[i] = new DeltaLongCodec();
+            }
+        }
+        diskNames = new String[disks.size()];
+        headerBytes = 4 + 2 + 4 + stringSize(cpuName) + stringSize(gpuName) + 2 + 2;
+        for (int i = 0; i < diskNames.length; i++) {
+            diskNames[i] = disks.get(i).getName();
+            headerBytes += stringSize(diskNames[i]);
+        }
+    }
+
+    private boolean sameLayout(CpuInfo cpu, GpuInfo gpu, List<DiskInfo> disks) {
+        if (!cpuName.equals(cpu.getName()) || !gpuName.equals(gpu.getName()) || cores != cpu.getCores()) return false;
+        if (disks.size() != diskNames.length) return false;
+        for (int i = 0; i < diskNames.length; i++) {
+            if (!diskNames[i].equals(disks.get(i).getName())) return false;
+        }
+        return true;
+    }
+
+    // Пишет блок в out (нужно не меньше size() байт свободного места); возвращает число байт.
+    // Блок после этого можно продолжать — следующий writeTo запишет его целиком заново
+    public int writeTo(ByteBuffer out) {
+        int start = out.position();
+        int bitBytes = bits.getByteLength();
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.putInt(count);
+        putString(out, cpuName != null ? cpuName : "");
+        putString(out, gpuName != null ? gpuName : "");
+        out.putShort((short) cores);
+        int diskCount = count == 0 ? 0 : diskNames.length;
+        out.putShort((short) diskCount);
+        for (int i = 0; i < diskCount; i++) {
+            putString(out, diskNames[i]);
+        }
+        out.putInt(bitBytes);
+        bits.writeTo(out);
+        return out.position() - start;
+    }
+
+    public byte[] toByteArray() {
+        ByteBuffer out = ByteBuffer.allocate(Math.max(size(), 32));
+        writeTo(out);
+        byte[] result = new byte[out.position()];
+        out.flip().get(result);
+        return result;
+    }
+
+    private static int stringSize(String value) {
+        return 1 + Math.min(value.getBytes(StandardCharsets.UTF_8).length, MAX_STRING_BYTES);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        out.put((byte) length);
+        out.put(bytes, 0, length);
+    }
+}
@@ -0,0 +1,71 @@
+package engine.codec;
+
+// Метки времени по схеме Gorilla: первая — целиком, вторая — разностью (varint), дальше —
+// разность разностей. При ровном опросе она почти всегда 0 и стоит один бит, дрожание
+// планировщика в единицы-сотни миллисекунд укладывается в 9–15 бит.
+//   0            dod == 0
+//   10   + 7     dod в [-63, 64]
+//   110  + 9     dod в [-255, 256]
+//   1110 + 12    dod в [-2047, 2048]
+//   1111 + 64    остальное
+public final class TimestampCodec {
+    private long previous;
+    private long previousDelta;
+    private int count;
+
+    public void reset() {
+        count = 0;
+    }
+
+    public void write(BitWriter out, long timestamp) {
+        if (count == 0) {
+            out.writeBits(timestamp, 64);
+        } else if (count == 1) {
+            previousDelta = timestamp - previous;
+            VarInts.writeVarLong(out, VarInts.zigZag(previousDelta));
+        } else {
+            long delta = timestamp - previous;
+            long dod = delta - previousDelta;
+            if (dod == 0) {
+                out.writeBits(0, 1);
+            } else if (dod >= -63 && dod <= 64) {
+                out.writeBits(0b10, 2);
+                out.writeBits(dod + 63, 7);
+            } else if (dod >= -255 && dod <= 256) {
+                out.writeBits(0b110, 3);
+                out.writeBits(dod + 255, 9);
+            } else if (dod >= -2047 && dod <= 2048) {
+                out.writeBits(0b1110, 4);
+                out.writeBits(dod + 2047, 12);
+            } else {
+                out.writeBits(0b1111, 4);
+                out.writeBits(dod, 64);
+            }
+            previousDelta = delta;
+        }
+        previous = timestamp;
+        count++;
+    }
+
+    public long read(BitReader in) {
+        long timestamp;
+        if (count == 0) {
+            timestamp = in.readBits(64);
+        } else if (count == 1) {
+            previousDelta = VarInts.unZigZag(VarInts.readVarLong(in));
+            timestamp = previous + previousDelta;
+        } else {
+            long dod;
+            if (!in.readBit()) dod = 0;
+            else if (!in.readBit()) dod = in.readBits(7) - 63;
+            else if (!in.readBit()) dod = in.readBits(9) - 255;
+            else if (!in.readBit()) dod = in.readBits(12) - 2047;
+            else dod = in.readBits(64);
+            previousDelta += dod;
+            timestamp = previous + previousDelta;
+        }
+        previous = timestamp;
+        count++;
+        return timestamp;
+    }
+}
@@ -0,0 +1,62 @@
+package engine.codec;
+
+import java.nio.ByteBuffer;
+
+// Целые переменной длины: по 7 бит на байт, старший бит — «дальше есть ещё». Знаковые значения
+// сначала проходят zigzag, чтобы малые отрицательные тоже занимали один байт.
+public final class VarInts {
+    private VarInts() {}
+
+    public static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static void writeVarLong(BitWriter out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeBits((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        out.writeBits(value, 8);
+    }
+
+    public static long readVarLong(BitReader in) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            long b = in.readBits(8);
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IllegalStateException("Слишком длинный varint");
+    }
+
+    public static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static long getVarLong(ByteBuffer in) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IllegalStateException("Слишком длинный varint");
+    }
+
+    public static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
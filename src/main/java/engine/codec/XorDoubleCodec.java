@@ -0,0 +1,61 @@
+package engine.codec;
+
+// Числа с плавающей точкой по схеме Gorilla: XOR с предыдущим значением. Повтор стоит один бит;
+// если значимые биты XOR помещаются в окно прошлого значения — 2 бита и само окно; иначе
+// 2 бита, 5 бит ведущих нулей, 6 бит длины и значимые биты. Сжатие без потерь: NaN, -0.0
+// и бесконечности восстанавливаются побитно.
+public final class XorDoubleCodec {
+    private long previous;
+    private int leading = -1;
+    private int trailing;
+    private int count;
+
+    public void reset() {
+        count = 0;
+        leading = -1;
+    }
+
+    public void write(BitWriter out, double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (count++ == 0) {
+            out.writeBits(bits, 64);
+            previous = bits;
+            return;
+        }
+        long xor = bits ^ previous;
+        previous = bits;
+        if (xor == 0) {
+            out.writeBits(0, 1);
+            return;
+        }
+        int newLeading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int newTrailing = Long.numberOfTrailingZeros(xor);
+        if (leading >= 0 && newLeading >= leading && newTrailing >= trailing) {
+            out.writeBits(0b10, 2);
+            out.writeBits(xor >>> trailing, 64 - leading - trailing);
+        } else {
+            int meaningful = 64 - newLeading - newTrailing;
+            out.writeBits(0b11, 2);
+            out.writeBits(newLeading, 5);
+            // Длина от 1 до 64 хранится как length - 1
+            out.writeBits(meaningful - 1, 6);
+            out.writeBits(xor >>> newTrailing, meaningful);
+            leading = newLeading;
+            trailing = newTrailing;
+        }
+    }
+
+    public double read(BitReader in) {
+        if (count++ == 0) {
+            previous = in.readBits(64);
+        } else if (in.readBit()) {
+            if (in.readBit()) {
+                leading = (int) in.readBits(5);
+                int meaningful = (int) in.readBits(6) + 1;
+                trailing = 64 - leading - meaningful;
+            }
+            previous ^= in.readBits(64 - leading - trailing) << trailing;
+        }
+        return Double.longBitsToDouble(previous);
+    }
+}
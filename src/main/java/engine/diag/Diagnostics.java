@@ -0,0 +1,71 @@
+package engine.diag;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class Diagnostics {
+    private static final Diagnostics DEFAULT = new Diagnostics();
+
+    private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> counters = new LinkedHashMap<>();
+    // Дополнительные разделы отчёта от подсистем, у которых своё состояние
+    private final List<Supplier<String>> sections = new CopyOnWriteArrayList<>();
+
+    public static Diagnostics getDefault() {
+        return DEFAULT;
+    }
+
+    public synchronized LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public synchronized AtomicLong counter(String name) {
+        return counters.computeIfAbsent(name, k -> new AtomicLong());
+    }
+
+    public void addSection(Supplier<String> section) {
+        sections.add(section);
+    }
+
+    public synchronized List<LatencyHistogram> getHistograms() {
+        return new ArrayList<>(histograms.values());
+    }
+
+    public synchronized Map<String, Long> getCounters() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counters.forEach((name, value) -> result.put(name, value.get()));
+        return result;
+    }
+
+    public synchronized void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(c -> c.set(0));
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (LatencyHistogram h : getHistograms()) {
+            if (h.getCount() == 0) continue;
+            sb.append(String.format("%-18s p50 %7s  p99 %7s  max %7s  n=%d%n", h.getName(),
+                    formatNanos(h.getPercentile(50)), formatNanos(h.getPercentile(99)),
+                    formatNanos(h.getMax()), h.getCount()));
+        }
+        getCounters().forEach((name, value) -> sb.append(String.format("%-18s %d%n", name, value)));
+        for (Supplier<String> section : sections) {
+            sb.append(section.get());
+        }
+        return sb.toString();
+    }
+
+    public static String formatNanos(long nanos) {
+        if (nanos < 1_000) return nanos + "ns";
+        if (nanos < 1_000_000) return String.format("%.1fus", nanos / 1_000.0);
+        if (nanos < 1_000_000_000) return String.format("%.1fms", nanos / 1_000_000.0);
+        return String.format("%.2fs", nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,113 @@
+package engine.diag;
+
+import engine.*;
+
+import java.util.List;
+
+public class InstrumentedSensorProvider implements SensorProvider {
+    private final SensorProvider delegate;
+    private final LatencyHistogram cpu;
+    private final LatencyHistogram ram;
+    private final LatencyHistogram gpu;
+    private final LatencyHistogram disks;
+    private final LatencyHistogram sample;
+    // По индексу источника в маске
+    private final LatencyHistogram[] bySource;
+
+    public InstrumentedSensorProvider(SensorProvider delegate, Diagnostics diagnostics) {
+        this.delegate = delegate;
+        cpu = diagnostics.histogram("provider.cpu");
+        ram = diagnostics.histogram("provider.ram");
+        gpu = diagnostics.histogram("provider.gpu");
+        disks = diagnostics.histogram("provider.disks");
+        sample = diagnostics.histogram("provider.sample");
+        bySource = new LatencyHistogram[] { cpu, ram, gpu, disks };
+    }
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getCpuInfo();
+        } finally {
+            cpu.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getRamInfo();
+        } finally {
+            ram.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getGpuInfo();
+        } finally {
+            gpu.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getDisksInfo();
+        } finally {
+            disks.record(System.nanoTime() - start);
+        }
+    }
+
+    // provider.sample — весь вызов; источники пишутся в свои гистограммы: единственный запрошенный —
+    // временем вызова, несколько — временем, которое провайдер замерил для каждого
+    @Override
+    public SensorSnapshot sample(int sources) {
+        long start = System.nanoTime();
+        SensorSnapshot snapshot = null;
+        try {
+            snapshot = delegate.sample(sources);
+            return snapshot;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            sample.record(elapsed);
+            if (snapshot != null) {
+                for (int i = 0; i < bySource.length; i++) {
+                    int source = 1 << i;
+                    if ((sources & snapshot.getSources() & source) != 0) {
+                        recordSource(i, sources, elapsed, snapshot.getReadNanos(source));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void sampleInto(SnapshotBuffer buffer, int sources) {
+        long start = System.nanoTime();
+        boolean filled = false;
+        try {
+            delegate.sampleInto(buffer, sources);
+            filled = true;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            sample.record(elapsed);
+            for (int i = 0; filled && i < bySource.length; i++) {
+                int source = 1 << i;
+                if ((sources & buffer.getSources() & source) != 0) {
+                    recordSource(i, sources, elapsed, buffer.getReadNanos(source));
+                }
+            }
+        }
+    }
+
+    private void recordSource(int index, int sources, long elapsed, long readNanos) {
+        if (Integer.bitCount(sources) == 1) bySource[index].record(elapsed);
+        else if (readNanos > 0) bySource[index].record(readNanos);
+    }
+}
@@ -0,0 +1,97 @@
+package engine.diag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Фазы запуска в миллисекундах от старта JVM: отметки (первый кадр, первые данные источника)
+// и интервалы (инициализация провайдеров, которые идут параллельно). Записывается всегда — это
+// десяток записей, а незавершённые интервалы говорят, закончился ли запуск. Печать отчёта
+// включает --startup-profile.
+public class StartupProfile {
+    private static final StartupProfile DEFAULT = new StartupProfile(jvmStartNanos());
+
+    private final long originNanos;
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private int pending;
+    private volatile boolean enabled;
+    private boolean printed;
+
+    public StartupProfile(long originNanos) {
+        this.originNanos = originNanos;
+    }
+
+    public static StartupProfile getDefault() {
+        return DEFAULT;
+    }
+
+    // Время старта процесса переводится на шкалу nanoTime; если ОС его не отдаёт — момент загрузки класса
+    private static long jvmStartNanos() {
+        long now = System.nanoTime();
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> now - Math.max(0, System.currentTimeMillis() - start.toEpochMilli()) * 1_000_000L)
+                .orElse(now);
+    }
+
+    public StartupProfile setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Повторная отметка с тем же именем игнорируется: важен первый раз
+    public synchronized void mark(String phase) {
+        long now = System.nanoTime();
+        phases.putIfAbsent(phase, new long[] { now, now });
+    }
+
+    public synchronized void begin(String phase) {
+        long now = System.nanoTime();
+        if (phases.putIfAbsent(phase, new long[] { now, -1 }) == null) pending++;
+    }
+
+    public synchronized void end(String phase) {
+        long[] span = phases.get(phase);
+        if (span == null || span[1] >= 0) return;
+        span[1] = System.nanoTime();
+        pending--;
+    }
+
+    // Все начатые интервалы закончились
+    public synchronized boolean isSettled() {
+        return pending == 0;
+    }
+
+    // Миллисекунды от старта JVM до отметки или конца интервала; -1, если её ещё не было
+    public synchronized double elapsedMillis(String phase) {
+        long[] span = phases.get(phase);
+        return span == null || span[1] < 0 ? -1 : (span[1] - originNanos) / 1e6;
+    }
+
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder("Запуск, мс от старта JVM:\n");
+        phases.forEach((name, span) -> {
+            double start = (span[0] - originNanos) / 1e6;
+            if (span[1] == span[0]) {
+                sb.append(String.format("  %-22s %8.1f%n", name, start));
+            } else if (span[1] < 0) {
+                sb.append(String.format("  %-22s %8.1f → не завершено%n", name, start));
+            } else {
+                double end = (span[1] - originNanos) / 1e6;
+                sb.append(String.format("  %-22s %8.1f → %8.1f  (%.1f)%n", name, start, end, end - start));
+            }
+        });
+        return sb.toString();
+    }
+
+    // Печатает отчёт один раз, если профиль включён
+    public void printOnce() {
+        synchronized (this) {
+            if (!enabled || printed) return;
+            printed = true;
+        }
+        System.out.print(report());
+    }
+}
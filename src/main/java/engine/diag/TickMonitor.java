@@ -0,0 +1,30 @@
+package engine.diag;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Задержка старта тика относительно расписания и перерасход бюджета тика
+public class TickMonitor {
+    private final long budgetNanos;
+    private final LatencyHistogram jitter;
+    private final LatencyHistogram duration;
+    private final AtomicLong overruns;
+
+    public TickMonitor(Diagnostics diagnostics, String name, long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        jitter = diagnostics.histogram(name + ".jitter");
+        duration = diagnostics.histogram(name + ".duration");
+        overruns = diagnostics.counter(name + ".overruns");
+    }
+
+    public long begin(long scheduledNanos) {
+        long now = System.nanoTime();
+        jitter.record(now - scheduledNanos);
+        return now;
+    }
+
+    public void end(long start) {
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed);
+        if (elapsed > budgetNanos) overruns.incrementAndGet();
+    }
+}
@@ -0,0 +1,284 @@
+package engine.export;
+
+import engine.*;
+import engine.sensors.SensorChannel;
+import engine.sensors.SensorKind;
+import engine.sensors.SensorRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Рендерит снимок в текстовый формат Prometheus в переиспользуемый буфер байтов.
+// Вызывается один раз на снимок; запросы /metrics отдают уже готовый массив.
+public class PrometheusExporter {
+    private static final byte[] GAUGE = " gauge\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HELP = "# HELP ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TYPE = "# TYPE ".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer = new byte[8 * 1024];
+    private int length;
+    private final String prefix;
+    private String[] coreLabels = new String[0];
+    private SensorRegistry indexedRegistry;
+    private int[][] channelsByKind;
+
+    public PrometheusExporter() {
+        this("ironvision_");
+    }
+
+    public PrometheusExporter(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public byte[] renderToArray(SensorSnapshot snapshot) {
+        render(snapshot);
+        return Arrays.copyOf(buffer, length);
+    }
+
+    public byte[] renderToArray(SensorSnapshot snapshot, SensorRegistry registry, double[] values) {
+        render(snapshot);
+        renderSensors(registry, values);
+        return Arrays.copyOf(buffer, length);
+    }
+
+    // Каналы реестра дописываются после снимка, по метрике на вид датчика; NaN пропускается
+    public void renderSensors(SensorRegistry registry, double[] values) {
+        if (registry != indexedRegistry) {
+            SensorKind[] kinds = SensorKind.values();
+            channelsByKind = new int[kinds.length][];
+            for (SensorKind kind : kinds) {
+                channelsByKind[kind.ordinal()] = registry.channelsOf(kind);
+            }
+            indexedRegistry = registry;
+        }
+        for (SensorKind kind : SensorKind.values()) {
+            int[] ids = channelsByKind[kind.ordinal()];
+            if (ids.length == 0) continue;
+            String name = sensorMetric(kind);
+            header(name, "Hardware sensor reading from the sensor registry.");
+            for (int id : ids) {
+                if (Double.isNaN(values[id])) continue;
+                SensorChannel channel = registry.getChannel(id);
+                sample(name, "device", channel.device(), "sensor", channel.name(), values[id]);
+            }
+        }
+    }
+
+    private static String sensorMetric(SensorKind kind) {
+        return switch (kind) {
+            case LOAD -> "sensor_load_percent";
+            case TEMPERATURE -> "sensor_temperature_celsius";
+            case FAN -> "sensor_fan_rpm";
+            case VOLTAGE -> "sensor_voltage_volts";
+            case CLOCK -> "sensor_clock_mhz";
+            case DATA -> "sensor_data_bytes";
+            case LEVEL -> "sensor_level_percent";
+        };
+    }
+
+    public void render(SensorSnapshot snapshot) {
+        length = 0;
+        CpuInfo cpu = snapshot.getCpu();
+        RamInfo ram = snapshot.getRam();
+        GpuInfo gpu = snapshot.getGpu();
+
+        gauge("snapshot_timestamp_seconds", "Time of the last sensor snapshot.", snapshot.getTimestamp() / 1000.0);
+
+        header("cpu_usage_percent", "Total CPU load.");
+        sample("cpu_usage_percent", "cpu", cpu.getName(), cpu.getUsage());
+        header("cpu_temperature_celsius", "CPU package temperature, 0 when unavailable.");
+        sample("cpu_temperature_celsius", "cpu", cpu.getName(), cpu.getTemperature());
+        gauge("cpu_base_clock_mhz", "CPU base clock.", cpu.getBaseClock());
+        gauge("cpu_cores", "Physical CPU cores.", cpu.getCores());
+        if (cpu.getLogicalCount() > 0) {
+            String[] cores = coreLabels(cpu.getLogicalCount());
+            header("cpu_core_usage_percent", "Load of a logical processor.");
+            for (int i = 0; i < cores.length; i++) {
+                sample("cpu_core_usage_percent", "core", cores[i], cpu.getCoreLoad(i));
+            }
+            header("cpu_core_frequency_mhz", "Current frequency of a logical processor, 0 when unavailable.");
+            for (int i = 0; i < cores.length; i++) {
+                sample("cpu_core_frequency_mhz", "core", cores[i], cpu.getCoreFrequency(i));
+            }
+        }
+
+        gauge("ram_total_bytes", "Installed memory.", ram.getTotal());
+        gauge("ram_used_bytes", "Used memory.", ram.getUsed());
+        gauge("ram_free_bytes", "Available memory.", ram.getFree());
+
+        header("gpu_load_percent", "GPU core load.");
+        sample("gpu_load_percent", "gpu", gpu.getName(), gpu.getGpuLoad());
+        header("gpu_temperature_celsius", "GPU temperature, 0 when unavailable.");
+        sample("gpu_temperature_celsius", "gpu", gpu.getName(), gpu.getTemperature());
+        header("gpu_vram_total_bytes", "GPU video memory.");
+        sample("gpu_vram_total_bytes", "gpu", gpu.getName(), gpu.getVramTotal());
+        header("gpu_vram_used_bytes", "Used GPU video memory.");
+        sample("gpu_vram_used_bytes", "gpu", gpu.getName(), gpu.getVramUsed());
+
+        List<DiskInfo> disks = snapshot.getDisks();
+        header("disk_total_bytes", "File store capacity.");
+        for (int i = 0; i < disks.size(); i++) {
+            sample("disk_total_bytes", "disk", disks.get(i).getName(), disks.get(i).getTotalSpace());
+        }
+        header("disk_free_bytes", "Usable free space on the file store.");
+        for (int i = 0; i < disks.size(); i++) {
+            sample("disk_free_bytes", "disk", disks.get(i).getName(), disks.get(i).getFreeSpace());
+        }
+    }
+
+    private String[] coreLabels(int count) {
+        if (coreLabels.length != count) {
+            coreLabels = new String[count];
+            for (int i = 0; i < count; i++) {
+                coreLabels[i] = Integer.toString(i);
+            }
+        }
+        return coreLabels;
+    }
+
+    public byte[] getBuffer() { return buffer; }
+    public int getLength() { return length; }
+
+    private void gauge(String name, String help, double value) {
+        header(name, help);
+        sample(name, null, null, value);
+    }
+
+    private void header(String name, String help) {
+        write(HELP);
+        writeAscii(prefix);
+        writeAscii(name);
+        writeByte(' ');
+        writeAscii(help);
+        writeByte('\n');
+        write(TYPE);
+        writeAscii(prefix);
+        writeAscii(name);
+        write(GAUGE);
+    }
+
+    private void sample(String name, String label, String labelValue, double value) {
+        sample(name, label, labelValue, null, null, value);
+    }
+
+    private void sample(String name, String label, String labelValue, String label2, String label2Value, double value) {
+        writeAscii(prefix);
+        writeAscii(name);
+        if (label != null) {
+            writeByte('{');
+            writeLabel(label, labelValue);
+            if (label2 != null) {
+                writeByte(',');
+                writeLabel(label2, label2Value);
+            }
+            writeByte('}');
+        }
+        writeByte(' ');
+        writeNumber(value);
+        writeByte('\n');
+    }
+
+    private void writeLabel(String label, String value) {
+        writeAscii(label);
+        writeByte('=');
+        writeByte('"');
+        writeLabelValue(value);
+        writeByte('"');
+    }
+
+    private void writeLabelValue(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                writeByte('\\');
+                writeByte(c);
+            } else if (c == '\n') {
+                writeByte('\\');
+                writeByte('n');
+            } else if (c < 0x80) {
+                writeByte(c);
+            } else {
+                writeUtf8(c);
+            }
+        }
+    }
+
+    private void writeUtf8(char c) {
+        if (c < 0x800) {
+            writeByte(0xC0 | (c >> 6));
+            writeByte(0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            writeByte('?');
+        } else {
+            writeByte(0xE0 | (c >> 12));
+            writeByte(0x80 | ((c >> 6) & 0x3F));
+            writeByte(0x80 | (c & 0x3F));
+        }
+    }
+
+    // Три знака после запятой без промежуточных строк
+    private void writeNumber(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeAscii(Double.isNaN(value) ? "NaN" : value > 0 ? "+Inf" : "-Inf");
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        if (value >= 1e15) {
+            writeLong((long) value);
+            return;
+        }
+        long scaled = Math.round(value * 1000);
+        writeLong(scaled / 1000);
+        long fraction = scaled % 1000;
+        if (fraction != 0) {
+            writeByte('.');
+            writeByte('0' + (int) (fraction / 100));
+            writeByte('0' + (int) (fraction / 10 % 10));
+            writeByte('0' + (int) (fraction % 10));
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value == 0) {
+            writeByte('0');
+            return;
+        }
+        int start = length;
+        while (value > 0) {
+            writeByte('0' + (int) (value % 10));
+            value /= 10;
+        }
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    private void writeAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            writeByte(s.charAt(i));
+        }
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package engine.fleet;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+// Пул прямых буферов одного размера для соединений коллектора. Буфер берётся на время
+// соединения и возвращается при закрытии, так что переподключения не выделяют новую
+// внеheap-память. Используется только из потока коллектора, поэтому без синхронизации.
+final class BufferPool {
+    private final int bufferBytes;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private int allocated;
+
+    BufferPool(int bufferBytes, int maxPooled) {
+        this.bufferBytes = bufferBytes;
+        this.maxPooled = maxPooled;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferBytes);
+            allocated++;
+        }
+        return buffer.clear();
+    }
+
+    void release(ByteBuffer buffer) {
+        if (free.size() < maxPooled) free.push(buffer);
+        else allocated--;
+    }
+
+    int getAllocated() {
+        return allocated;
+    }
+
+    int getFree() {
+        return free.size();
+    }
+}
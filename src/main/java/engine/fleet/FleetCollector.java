@@ -0,0 +1,287 @@
+package engine.fleet;
+
+import engine.diag.Diagnostics;
+import engine.diag.LatencyHistogram;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Принимает снимки сотен агентов в одном потоке: неблокирующие каналы на одном Selector, у каждого
+// соединения прямой буфер из пула, кадры разбираются прямо в буфере без промежуточных массивов.
+// Хосты хранятся по имени из HELLO и переживают переподключение вместе с историей. Хост, отключённый
+// дольше hostExpiryMillis, забывается; при maxHosts новый хост вытесняет самый давно отключённый,
+// а если отключённых нет — соединение закрывается.
+public class FleetCollector implements Closeable {
+    public enum SortKey { CPU, RAM, TEMPERATURE }
+
+    private static final int BUFFER_BYTES = 4096;
+    private static final int MAX_POOLED = 1024;
+    // Соединение без данных дольше этого считается оборванным
+    private static final long IDLE_TIMEOUT_MS = 10_000;
+    public static final int DEFAULT_MAX_HOSTS = 4096;
+    public static final long DEFAULT_HOST_EXPIRY_MS = 3_600_000;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final BufferPool pool = new BufferPool(BUFFER_BYTES, MAX_POOLED);
+    private final Map<String, FleetHost> hosts = new ConcurrentHashMap<>();
+    private final int maxHosts;
+    private final long hostExpiryMillis;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private int connections;
+
+    private final AtomicLong frames = Diagnostics.getDefault().counter("fleet.frames");
+    private final AtomicLong bytes = Diagnostics.getDefault().counter("fleet.bytes");
+    private final AtomicLong errors = Diagnostics.getDefault().counter("fleet.errors");
+    private final LatencyHistogram readLatency = Diagnostics.getDefault().histogram("fleet.read");
+
+    // Порт 0 — любой свободный, см. getPort()
+    public FleetCollector(int port) throws IOException {
+        this(new InetSocketAddress(port));
+    }
+
+    public FleetCollector(InetSocketAddress address) throws IOException {
+        this(address, DEFAULT_MAX_HOSTS, DEFAULT_HOST_EXPIRY_MS);
+    }
+
+    public FleetCollector(InetSocketAddress address, int maxHosts, long hostExpiryMillis) throws IOException {
+        this.maxHosts = Math.max(1, maxHosts);
+        this.hostExpiryMillis = hostExpiryMillis;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        try {
+            server.bind(address, 512);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+        thread = new Thread(this::run, "ironvision-fleet");
+        thread.setDaemon(true);
+    }
+
+    public FleetCollector start() {
+        thread.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public FleetHost getHost(String name) {
+        return hosts.get(name);
+    }
+
+    public Collection<FleetHost> getHosts() {
+        return hosts.values();
+    }
+
+    // Хосты по убыванию метрики; хосты без значения и отключённые — в конце
+    public List<FleetHost> getHosts(SortKey key) {
+        List<Ranked> ranked = new ArrayList<>(hosts.size());
+        for (FleetHost host : hosts.values()) {
+            double value = host.get(key);
+            ranked.add(new Ranked(host, host.isConnected(), Double.isNaN(value) ? Double.NEGATIVE_INFINITY : value));
+        }
+        ranked.sort(Comparator.comparing(Ranked::connected).thenComparingDouble(Ranked::value).reversed());
+        List<FleetHost> sorted = new ArrayList<>(ranked.size());
+        for (Ranked r : ranked) sorted.add(r.host());
+        return sorted;
+    }
+
+    // Значения снимаются один раз до сортировки: поток коллектора меняет их на ходу
+    private record Ranked(FleetHost host, boolean connected, double value) {}
+
+    public int getConnectedCount() {
+        int count = 0;
+        for (FleetHost host : hosts.values()) {
+            if (host.isConnected()) count++;
+        }
+        return count;
+    }
+
+    private void run() {
+        long lastSweep = System.currentTimeMillis();
+        while (running) {
+            try {
+                selector.select(1000);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else if (key.isReadable()) read(key);
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastSweep >= 1000) {
+                    sweep(now);
+                    lastSweep = now;
+                }
+            } catch (IOException e) {
+                if (running) e.printStackTrace();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel, pool.acquire(), System.currentTimeMillis());
+            channel.register(selector, SelectionKey.OP_READ, connection);
+            connections++;
+        }
+    }
+
+    private void read(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        long start = System.nanoTime();
+        try {
+            int n = connection.channel.read(connection.buffer);
+            if (n < 0) {
+                close(key);
+                return;
+            }
+            bytes.addAndGet(n);
+            connection.lastRead = System.currentTimeMillis();
+            ByteBuffer buffer = connection.buffer.flip();
+            while (buffer.remaining() >= FleetProtocol.FRAME_HEADER_BYTES) {
+                int frameStart = buffer.position();
+                byte type = buffer.get(frameStart);
+                int length = buffer.getShort(frameStart + 1) & 0xFFFF;
+                if (length > FleetProtocol.MAX_FRAME_BYTES) throw new IOException("Кадр длиной " + length);
+                if (buffer.remaining() < FleetProtocol.FRAME_HEADER_BYTES + length) break;
+                // Кадр не может читать за свою длину: испорченный HELLO упадёт на BufferUnderflow, а не съест следующий
+                int frameEnd = frameStart + FleetProtocol.FRAME_HEADER_BYTES + length;
+                int limit = buffer.limit();
+                buffer.limit(frameEnd).position(frameStart + FleetProtocol.FRAME_HEADER_BYTES);
+                handle(connection, type, buffer, length);
+                buffer.limit(limit).position(frameEnd);
+                frames.incrementAndGet();
+            }
+            buffer.compact();
+        } catch (IOException | RuntimeException e) {
+            errors.incrementAndGet();
+            close(key);
+        } finally {
+            readLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    private void handle(Connection connection, byte type, ByteBuffer in, int length) throws IOException {
+        if (type == FleetProtocol.HELLO) {
+            if (in.getInt() != FleetProtocol.MAGIC) throw new IOException("Не агент IronVision");
+            int version = in.getShort();
+            if (version != FleetProtocol.VERSION) throw new IOException("Версия протокола " + version);
+            // Имя соединения не меняется: иначе прежний хост остался бы на связи навсегда
+            if (connection.host != null) throw new IOException("Повторный HELLO");
+            String name = FleetProtocol.getString(in);
+            FleetHost host = hosts.get(name);
+            boolean added = host == null;
+            if (added) {
+                if (hosts.size() >= maxHosts && !evictOldest()) throw new IOException("Хостов больше " + maxHosts);
+                host = new FleetHost(name);
+            }
+            // Новый хост попадает в таблицу уже на связи; битый HELLO его не оставит
+            host.hello(connection, String.valueOf(connection.channel.getRemoteAddress()), in);
+            if (added) hosts.put(name, host);
+            connection.host = host;
+        } else if (type == FleetProtocol.SAMPLE) {
+            if (connection.host == null) throw new IOException("SAMPLE до HELLO");
+            if (length < FleetProtocol.SAMPLE_BYTES) throw new IOException("Короткий SAMPLE: " + length);
+            connection.host.sample(in, connection.lastRead);
+        }
+        // Неизвестные типы пропускаются: более новый агент может слать то, чего коллектор ещё не знает
+    }
+
+    // Закрывает соединения, которые давно молчат: агент мог пропасть без FIN. Забывает хосты,
+    // отключённые дольше hostExpiryMillis
+    private void sweep(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection && now - connection.lastRead > IDLE_TIMEOUT_MS) {
+                close(key);
+            }
+        }
+        hosts.values().removeIf(host -> host.isExpired(now, hostExpiryMillis));
+    }
+
+    private boolean evictOldest() {
+        FleetHost oldest = null;
+        for (FleetHost host : hosts.values()) {
+            if (!host.isConnected() && (oldest == null || host.getDisconnectedMillis() < oldest.getDisconnectedMillis())) {
+                oldest = host;
+            }
+        }
+        return oldest != null && hosts.remove(oldest.getName(), oldest);
+    }
+
+    private void close(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException ignored) {
+        }
+        if (connection.host != null) connection.host.disconnected(connection, System.currentTimeMillis());
+        if (connection.buffer != null) {
+            pool.release(connection.buffer);
+            connection.buffer = null;
+            connections--;
+        }
+    }
+
+    // Для диагностики: число открытых соединений и прямых буферов; читается вне потока коллектора приблизительно
+    public String describe() {
+        return String.format("%d хостов, %d на связи, %d соединений, буферов %d (свободно %d)",
+                hosts.size(), getConnectedCount(), connections, pool.getAllocated(), pool.getFree());
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) close(key);
+        }
+        server.close();
+        selector.close();
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        ByteBuffer buffer;
+        long lastRead;
+        FleetHost host;
+
+        Connection(SocketChannel channel, ByteBuffer buffer, long now) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.lastRead = now;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package engine.fleet;
+
+import java.nio.ByteBuffer;
+
+// Состояние одного хоста парка: последние значения и короткая история загрузки CPU, памяти и
+// температуры в кольцах фиксированной длины. Пишет только поток коллектора, читают под тем же замком.
+public final class FleetHost {
+    public static final int HISTORY = 120;
+
+    private final String name;
+    private String address = "";
+    private String cpuName = "";
+    private String gpuName = "";
+    private int cores;
+    private int logicalCount;
+    private boolean connected;
+    private long lastSeenMillis;
+    private long disconnectedMillis;
+    private long frames;
+    // Соединение, от которого хост получил последний HELLO: старое при переподключении не снимет флаг
+    private Object owner;
+
+    private long timestamp;
+    private int stale;
+    private float cpuUsage = Float.NaN;
+    private float cpuTemperature = Float.NaN;
+    private long ramUsed;
+    private long ramTotal;
+    private float gpuLoad = Float.NaN;
+    private float gpuTemperature = Float.NaN;
+    private long vramUsed;
+    private long vramTotal;
+    private float diskMax = Float.NaN;
+
+    private final float[] cpuHistory = new float[HISTORY];
+    private final float[] ramHistory = new float[HISTORY];
+    private final float[] temperatureHistory = new float[HISTORY];
+    private long historyCount;
+
+    FleetHost(String name) {
+        this.name = name;
+    }
+
+    synchronized void hello(Object owner, String address, ByteBuffer in) {
+        this.owner = owner;
+        this.address = address;
+        cpuName = FleetProtocol.getString(in);
+        gpuName = FleetProtocol.getString(in);
+        cores = in.getShort();
+        logicalCount = in.getShort();
+        connected = true;
+    }
+
+    synchronized void sample(ByteBuffer in, long now) {
+        timestamp = in.getLong();
+        in.get();
+        stale = in.get();
+        cpuUsage = in.getFloat();
+        cpuTemperature = in.getFloat();
+        ramUsed = in.getLong();
+        ramTotal = in.getLong();
+        gpuLoad = in.getFloat();
+        gpuTemperature = in.getFloat();
+        vramUsed = in.getLong();
+        vramTotal = in.getLong();
+        diskMax = in.getFloat();
+        lastSeenMillis = now;
+        frames++;
+
+        int i = (int) (historyCount++ % HISTORY);
+        cpuHistory[i] = cpuUsage;
+        ramHistory[i] = (float) getRamUsage();
+        temperatureHistory[i] = (float) getTemperature();
+    }
+
+    synchronized void disconnected(Object owner, long now) {
+        if (this.owner != owner) return;
+        connected = false;
+        disconnectedMillis = now;
+    }
+
+    // Хост без HELLO (разбор оборвался) считается отключённым давно
+    synchronized boolean isExpired(long now, long expiryMillis) {
+        return !connected && now - disconnectedMillis >= expiryMillis;
+    }
+
+    public String getName() { return name; }
+    public synchronized String getAddress() { return address; }
+    public synchronized String getCpuName() { return cpuName; }
+    public synchronized String getGpuName() { return gpuName; }
+    public synchronized int getCores() { return cores; }
+    public synchronized int getLogicalCount() { return logicalCount; }
+    public synchronized boolean isConnected() { return connected; }
+    public synchronized long getLastSeenMillis() { return lastSeenMillis; }
+    public synchronized long getDisconnectedMillis() { return disconnectedMillis; }
+    public synchronized long getFrames() { return frames; }
+    public synchronized long getTimestamp() { return timestamp; }
+    public synchronized int getStaleSources() { return stale; }
+    public synchronized double getCpuUsage() { return cpuUsage; }
+    public synchronized double getCpuTemperature() { return cpuTemperature; }
+    public synchronized long getRamUsed() { return ramUsed; }
+    public synchronized long getRamTotal() { return ramTotal; }
+    public synchronized double getGpuLoad() { return gpuLoad; }
+    public synchronized double getGpuTemperature() { return gpuTemperature; }
+    public synchronized long getVramUsed() { return vramUsed; }
+    public synchronized long getVramTotal() { return vramTotal; }
+    public synchronized double getDiskMax() { return diskMax; }
+
+    public synchronized double getRamUsage() {
+        return ramTotal > 0 ? 100.0 * ramUsed / ramTotal : Double.NaN;
+    }
+
+    // Самый горячий из CPU и GPU; датчик, вернувший 0, не считается
+    public synchronized double getTemperature() {
+        double cpu = cpuTemperature > 0 ? cpuTemperature : Double.NaN;
+        double gpu = gpuTemperature > 0 ? gpuTemperature : Double.NaN;
+        if (Double.isNaN(cpu)) return gpu;
+        return Double.isNaN(gpu) ? cpu : Math.max(cpu, gpu);
+    }
+
+    public synchronized double get(FleetCollector.SortKey key) {
+        return switch (key) {
+            case CPU -> cpuUsage;
+            case RAM -> getRamUsage();
+            case TEMPERATURE -> getTemperature();
+        };
+    }
+
+    // История метрики от старой точки к новой, не длиннее HISTORY
+    public synchronized float[] history(FleetCollector.SortKey key) {
+        float[] ring = switch (key) {
+            case CPU -> cpuHistory;
+            case RAM -> ramHistory;
+            case TEMPERATURE -> temperatureHistory;
+        };
+        int count = (int) Math.min(historyCount, HISTORY);
+        float[] result = new float[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ring[(int) ((historyCount - count + i) % HISTORY)];
+        }
+        return result;
+    }
+}
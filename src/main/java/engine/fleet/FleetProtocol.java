@@ -0,0 +1,95 @@
+package engine.fleet;
+
+import engine.CpuInfo;
+import engine.DiskInfo;
+import engine.GpuInfo;
+import engine.RamInfo;
+import engine.SensorSnapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Протокол отправки снимков коллектору. Поток кадров [тип:1][длина:2][тело], big-endian.
+// HELLO один раз после подключения: сигнатура, версия, имя хоста и постоянные сведения о машине.
+// SAMPLE на каждый снимок — фиксированные 62 байта с числами, которые нужны обзору парка;
+// имена в нём не повторяются, поэтому сотни агентов при 1–2 Гц дают единицы КБ/с.
+public final class FleetProtocol {
+    public static final int DEFAULT_PORT = 9465;
+    public static final int MAGIC = 0x49564631; // "IVF1"
+    public static final int VERSION = 1;
+
+    public static final byte HELLO = 1;
+    public static final byte SAMPLE = 2;
+    public static final int FRAME_HEADER_BYTES = 3;
+    public static final int SAMPLE_BYTES = 62;
+    public static final int MAX_FRAME_BYTES = 1024;
+    private static final int MAX_STRING_BYTES = 255;
+
+    private FleetProtocol() {}
+
+    public static void writeHello(ByteBuffer out, String host, SensorSnapshot snapshot) {
+        int start = beginFrame(out, HELLO);
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        putString(out, host);
+        putString(out, snapshot.getCpu().getName());
+        putString(out, snapshot.getGpu().getName());
+        out.putShort((short) snapshot.getCpu().getCores());
+        out.putShort((short) snapshot.getCpu().getLogicalCount());
+        endFrame(out, start);
+    }
+
+    public static void writeSample(ByteBuffer out, SensorSnapshot snapshot) {
+        int start = beginFrame(out, SAMPLE);
+        CpuInfo cpu = snapshot.getCpu();
+        RamInfo ram = snapshot.getRam();
+        GpuInfo gpu = snapshot.getGpu();
+        out.putLong(snapshot.getTimestamp());
+        out.put((byte) snapshot.getSources());
+        out.put((byte) snapshot.getStaleSources());
+        out.putFloat((float) cpu.getUsage());
+        out.putFloat((float) cpu.getTemperature());
+        out.putLong(ram.getUsed());
+        out.putLong(ram.getTotal());
+        out.putFloat((float) gpu.getGpuLoad());
+        out.putFloat((float) gpu.getTemperature());
+        out.putLong(gpu.getVramUsed());
+        out.putLong(gpu.getVramTotal());
+        out.putFloat((float) maxDiskUsage(snapshot.getDisks()));
+        endFrame(out, start);
+    }
+
+    private static double maxDiskUsage(List<DiskInfo> disks) {
+        double max = 0;
+        for (int i = 0; i < disks.size(); i++) {
+            max = Math.max(max, disks.get(i).getUsagePercent());
+        }
+        return max;
+    }
+
+    private static int beginFrame(ByteBuffer out, byte type) {
+        int start = out.position();
+        out.put(type);
+        out.putShort((short) 0);
+        return start;
+    }
+
+    private static void endFrame(ByteBuffer out, int start) {
+        out.putShort(start + 1, (short) (out.position() - start - FRAME_HEADER_BYTES));
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        out.put((byte) length);
+        out.put(bytes, 0, length);
+    }
+
+    static String getString(ByteBuffer in) {
+        int length = in.get() & 0xFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,172 @@
+package engine.fleet;
+
+import engine.SensorSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+
+// Отправляет снимки коллектору. send() пишет синхронно в вызывающем потоке и сам переподключается;
+// как слушатель SystemInfoService (accept) снимок только откладывается, а пишет отдельный поток —
+// медленный или недоступный коллектор не задерживает опрос датчиков, лишние снимки просто теряются.
+public class FleetPublisher implements Consumer<SensorSnapshot>, Closeable {
+    private static final long MIN_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+
+    private final String hostName;
+    private final InetSocketAddress collector;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(2 * FleetProtocol.MAX_FRAME_BYTES);
+    private SocketChannel channel;
+    private long retryAt;
+    private long backoff = MIN_BACKOFF_MS;
+    private long sent;
+
+    private final Object lock = new Object();
+    private SensorSnapshot pending;
+    private Thread sender;
+    private volatile boolean closed;
+
+    public FleetPublisher(String hostName, InetSocketAddress collector) {
+        this.hostName = hostName;
+        this.collector = collector;
+    }
+
+    // "host:port" или "host" с портом по умолчанию
+    public static InetSocketAddress parseAddress(String text) {
+        int colon = text.lastIndexOf(':');
+        if (colon < 0) return new InetSocketAddress(text, FleetProtocol.DEFAULT_PORT);
+        try {
+            return new InetSocketAddress(text.substring(0, colon), Integer.parseInt(text.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Адрес коллектора: " + text);
+        }
+    }
+
+    public static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    public String getHostName() {
+        return hostName;
+    }
+
+    public synchronized long getSentCount() {
+        return sent;
+    }
+
+    public synchronized boolean isConnected() {
+        return channel != null;
+    }
+
+    // false — соединения нет и время повторной попытки ещё не пришло
+    public synchronized boolean send(SensorSnapshot snapshot) {
+        if (closed) return false;
+        if (channel == null) {
+            if (System.currentTimeMillis() < retryAt) return false;
+            try {
+                connect(snapshot);
+            } catch (IOException e) {
+                fail();
+                return false;
+            }
+        }
+        out.clear();
+        FleetProtocol.writeSample(out, snapshot);
+        try {
+            write(out.flip());
+            sent++;
+            return true;
+        } catch (IOException e) {
+            fail();
+            return false;
+        }
+    }
+
+    private void connect(SensorSnapshot snapshot) throws IOException {
+        SocketChannel socket = SocketChannel.open();
+        try {
+            socket.socket().setTcpNoDelay(true);
+            socket.socket().connect(collector, CONNECT_TIMEOUT_MS);
+            channel = socket;
+            out.clear();
+            FleetProtocol.writeHello(out, hostName, snapshot);
+            write(out.flip());
+        } catch (IOException e) {
+            socket.close();
+            channel = null;
+            throw e;
+        }
+        backoff = MIN_BACKOFF_MS;
+    }
+
+    private void write(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    private void fail() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+        retryAt = System.currentTimeMillis() + backoff;
+        backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+    }
+
+    @Override
+    public void accept(SensorSnapshot snapshot) {
+        synchronized (lock) {
+            if (closed) return;
+            pending = snapshot;
+            if (sender == null) {
+                sender = new Thread(this::drain, "ironvision-fleet-push");
+                sender.setDaemon(true);
+                sender.start();
+            }
+            lock.notify();
+        }
+    }
+
+    private void drain() {
+        while (!closed) {
+            SensorSnapshot snapshot;
+            synchronized (lock) {
+                while (pending == null && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                snapshot = pending;
+                pending = null;
+            }
+            if (snapshot != null) send(snapshot);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notify();
+        }
+        synchronized (this) {
+            fail();
+        }
+    }
+}
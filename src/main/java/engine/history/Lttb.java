@@ -0,0 +1,66 @@
+package engine.history;
+
+// Largest-Triangle-Three-Buckets: из каждой корзины берётся точка, образующая наибольший
+// треугольник с выбранной точкой предыдущей корзины и средним следующей. Форма ряда сохраняется
+// лучше, чем при усреднении, а пики не пропадают.
+public final class Lttb {
+    private Lttb() {}
+
+    // Индекс точки из [from, to) с наибольшей площадью треугольника (a, точка, c); -1 если корзина пуста
+    public static int select(long[] timestamps, double[] values, int from, int to,
+                             double ax, double ay, double cx, double cy) {
+        int best = -1;
+        double bestArea = -1;
+        for (int i = from; i < to; i++) {
+            double area = Math.abs((ax - cx) * (values[i] - ay) - (ax - timestamps[i]) * (cy - ay));
+            if (area > bestArea) {
+                bestArea = area;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // Классический вариант с равными по числу точек корзинами; первая и последняя точки сохраняются.
+    // Возвращает количество записанных точек
+    public static int downsample(long[] timestamps, double[] values, int n, int threshold,
+                                 long[] outTimestamps, double[] outValues) {
+        if (threshold >= n) {
+            System.arraycopy(timestamps, 0, outTimestamps, 0, n);
+            System.arraycopy(values, 0, outValues, 0, n);
+            return n;
+        }
+        if (threshold < 3) throw new IllegalArgumentException("threshold < 3: " + threshold);
+
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        outTimestamps[0] = timestamps[0];
+        outValues[0] = values[0];
+        int out = 1;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = (int) ((bucket + 1) * bucketSize) + 1;
+
+            int nextFrom = to;
+            int nextTo = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+            double cx = 0, cy = 0;
+            for (int i = nextFrom; i < nextTo; i++) {
+                cx += timestamps[i];
+                cy += values[i];
+            }
+            int nextCount = nextTo - nextFrom;
+            cx /= nextCount;
+            cy /= nextCount;
+
+            a = select(timestamps, values, from, to, timestamps[a], values[a], cx, cy);
+            outTimestamps[out] = timestamps[a];
+            outValues[out] = values[a];
+            out++;
+        }
+
+        outTimestamps[out] = timestamps[n - 1];
+        outValues[out] = values[n - 1];
+        return out + 1;
+    }
+}
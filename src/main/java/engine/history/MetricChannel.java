@@ -0,0 +1,133 @@
+package engine.history;
+
+final class MetricChannel {
+    private static final Resolution[] TIERS = {
+            Resolution.TEN_SECONDS, Resolution.ONE_MINUTE, Resolution.TEN_MINUTES
+    };
+
+    private final long[] rawTimes;
+    private final double[] rawValues;
+    private int rawHead;
+    private int rawCount;
+
+    private final RollupRing[] tiers = new RollupRing[TIERS.length];
+
+    MetricChannel(int rawCapacity) {
+        rawTimes = new long[rawCapacity];
+        rawValues = new double[rawCapacity];
+        for (int i = 0; i < TIERS.length; i++) {
+            tiers[i] = new RollupRing(TIERS[i].getPeriodMillis(), TIERS[i].getCapacity());
+        }
+    }
+
+    synchronized void add(long timestamp, double value) {
+        rawTimes[rawHead] = timestamp;
+        rawValues[rawHead] = value;
+        rawHead = (rawHead + 1) % rawTimes.length;
+        if (rawCount < rawTimes.length) rawCount++;
+
+        for (RollupRing tier : tiers) {
+            tier.add(timestamp, value);
+        }
+    }
+
+    synchronized double latest() {
+        if (rawCount == 0) return Double.NaN;
+        return rawValues[(rawHead - 1 + rawValues.length) % rawValues.length];
+    }
+
+    // Время последней точки; Long.MIN_VALUE, если точек не было
+    synchronized long lastTimestamp() {
+        if (rawCount == 0) return Long.MIN_VALUE;
+        return rawTimes[(rawHead - 1 + rawTimes.length) % rawTimes.length];
+    }
+
+    synchronized int readRaw(long[] timestamps, double[] values) {
+        int n = Math.min(rawCount, Math.min(timestamps.length, values.length));
+        int start = (rawHead - n + rawTimes.length) % rawTimes.length;
+        for (int i = 0; i < n; i++) {
+            int idx = (start + i) % rawTimes.length;
+            timestamps[i] = rawTimes[idx];
+            values[i] = rawValues[idx];
+        }
+        return n;
+    }
+
+    synchronized int readRollup(int tier, long[] timestamps, double[] min, double[] max, double[] mean) {
+        return tiers[tier].read(timestamps, min, max, mean);
+    }
+
+    private static final class RollupRing {
+        private final long period;
+        private final long[] bucketStart;
+        private final double[] min;
+        private final double[] max;
+        private final double[] mean;
+        private int head;
+        private int count;
+
+        private long currentBucket = Long.MIN_VALUE;
+        private double currentMin;
+        private double currentMax;
+        private double currentSum;
+        private int currentCount;
+
+        RollupRing(long period, int capacity) {
+            this.period = period;
+            bucketStart = new long[capacity];
+            min = new double[capacity];
+            max = new double[capacity];
+            mean = new double[capacity];
+        }
+
+        void add(long timestamp, double value) {
+            long bucket = timestamp - Math.floorMod(timestamp, period);
+            if (bucket != currentBucket) {
+                flush();
+                currentBucket = bucket;
+                currentMin = value;
+                currentMax = value;
+                currentSum = 0;
+                currentCount = 0;
+            }
+            if (value < currentMin) currentMin = value;
+            if (value > currentMax) currentMax = value;
+            currentSum += value;
+            currentCount++;
+        }
+
+        private void flush() {
+            if (currentCount == 0) return;
+            bucketStart[head] = currentBucket;
+            min[head] = currentMin;
+            max[head] = currentMax;
+            mean[head] = currentSum / currentCount;
+            head = (head + 1) % bucketStart.length;
+            if (count < bucketStart.length) count++;
+        }
+
+        // Незакрытое текущее окно отдаётся последней точкой
+        int read(long[] outTimes, double[] outMin, double[] outMax, double[] outMean) {
+            int limit = Math.min(outTimes.length, Math.min(outMin.length, Math.min(outMax.length, outMean.length)));
+            int pending = currentCount > 0 ? 1 : 0;
+            int closed = Math.min(count, limit - pending);
+            if (closed < 0) closed = 0;
+            int start = (head - closed + bucketStart.length) % bucketStart.length;
+            for (int i = 0; i < closed; i++) {
+                int idx = (start + i) % bucketStart.length;
+                outTimes[i] = bucketStart[idx];
+                outMin[i] = min[idx];
+                outMax[i] = max[idx];
+                outMean[i] = mean[idx];
+            }
+            if (pending == 1 && closed < limit) {
+                outTimes[closed] = currentBucket;
+                outMin[closed] = currentMin;
+                outMax[closed] = currentMax;
+                outMean[closed] = currentSum / currentCount;
+                return closed + 1;
+            }
+            return closed;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package engine.history;
+
+import engine.DiskInfo;
+import engine.SensorSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MetricHistory {
+    public static final String CPU_USAGE = "cpu.usage";
+    public static final String CPU_TEMPERATURE = "cpu.temperature";
+    public static final String RAM_USAGE = "ram.usage";
+    public static final String RAM_USED = "ram.used";
+    public static final String GPU_LOAD = "gpu.load";
+    public static final String GPU_TEMPERATURE = "gpu.temperature";
+    public static final String GPU_VRAM_USED = "gpu.vram.used";
+    public static final String DISK_USAGE_PREFIX = "disk.usage.";
+    // Байт/с по всем интерфейсам; пишутся опросом сети, а не record(snapshot)
+    public static final String NET_RX = "net.rx";
+    public static final String NET_TX = "net.tx";
+
+    public static final int DEFAULT_RAW_CAPACITY = 600;
+    public static final int DEFAULT_MAX_DISK_CHANNELS = 64;
+    // Канал диска, в который не писали дольше самого длинного уровня, больше ничего не показывает
+    private static final long DISK_EXPIRY_MILLIS = Resolution.TEN_MINUTES.getSpanMillis();
+
+    private final int rawCapacity;
+    private final int maxDiskChannels;
+    private final Map<String, Integer> channelIds = new HashMap<>();
+    private final Map<String, Integer> diskChannels = new HashMap<>();
+    private final List<String> channelNames = new ArrayList<>();
+    private volatile MetricChannel[] channels = new MetricChannel[0];
+
+    private final int cpuUsage, cpuTemperature, ramUsage, ramUsed, gpuLoad, gpuTemperature, gpuVramUsed;
+
+    public MetricHistory() {
+        this(DEFAULT_RAW_CAPACITY);
+    }
+
+    public MetricHistory(int rawCapacity) {
+        this(rawCapacity, DEFAULT_MAX_DISK_CHANNELS);
+    }
+
+    public MetricHistory(int rawCapacity, int maxDiskChannels) {
+        this.rawCapacity = Math.max(2, rawCapacity);
+        this.maxDiskChannels = Math.max(1, maxDiskChannels);
+        cpuUsage = channel(CPU_USAGE);
+        cpuTemperature = channel(CPU_TEMPERATURE);
+        ramUsage = channel(RAM_USAGE);
+        ramUsed = channel(RAM_USED);
+        gpuLoad = channel(GPU_LOAD);
+        gpuTemperature = channel(GPU_TEMPERATURE);
+        gpuVramUsed = channel(GPU_VRAM_USED);
+    }
+
+    public synchronized int channel(String name) {
+        Integer id = channelIds.get(name);
+        if (id != null) return id;
+
+        int newId = channelNames.size();
+        MetricChannel[] grown = new MetricChannel[newId + 1];
+        System.arraycopy(channels, 0, grown, 0, newId);
+        grown[newId] = new MetricChannel(rawCapacity);
+        channelNames.add(name);
+        channelIds.put(name, newId);
+        channels = grown;
+        return newId;
+    }
+
+    public synchronized int findChannel(String name) {
+        Integer id = channelIds.get(name);
+        return id != null ? id : -1;
+    }
+
+    public synchronized List<String> getChannelNames() {
+        return List.copyOf(channelNames);
+    }
+
+    public int getChannelCount() {
+        return channels.length;
+    }
+
+    public void record(int channel, long timestamp, double value) {
+        if (Double.isNaN(value)) return;
+        channels[channel].add(timestamp, value);
+    }
+
+    public void record(SensorSnapshot snapshot) {
+        long ts = snapshot.getTimestamp();
+        if (snapshot.has(SensorSnapshot.CPU)) {
+            record(cpuUsage, ts, snapshot.getCpu().getUsage());
+            record(cpuTemperature, ts, snapshot.getCpu().getTemperature());
+        }
+        if (snapshot.has(SensorSnapshot.RAM)) {
+            record(ramUsage, ts, snapshot.getRam().getUsagePercent());
+            record(ramUsed, ts, snapshot.getRam().getUsed());
+        }
+        if (snapshot.has(SensorSnapshot.GPU)) {
+            record(gpuLoad, ts, snapshot.getGpu().getGpuLoad());
+            record(gpuTemperature, ts, snapshot.getGpu().getTemperature());
+            record(gpuVramUsed, ts, snapshot.getGpu().getVramUsed());
+        }
+        if (snapshot.has(SensorSnapshot.DISKS)) {
+            List<DiskInfo> disks = snapshot.getDisks();
+            for (int i = 0; i < disks.size(); i++) {
+                DiskInfo disk = disks.get(i);
+                record(diskChannel(disk.getName(), ts), ts, disk.getUsagePercent());
+            }
+        }
+    }
+
+    // Диски приходят и уходят (флешки, тома контейнеров), и каналы по их именам не должны копиться.
+    // Новый диск занимает канал того, в который дольше всех не писали, если тот просрочен или
+    // каналов дисков уже maxDiskChannels; иначе заводится новый. Номер канала при этом остаётся
+    // прежним, меняются имя и данные
+    private synchronized int diskChannel(String diskName, long now) {
+        Integer id = diskChannels.get(diskName);
+        if (id != null) return id;
+
+        String oldest = null;
+        long oldestTime = Long.MAX_VALUE;
+        for (Map.Entry<String, Integer> entry : diskChannels.entrySet()) {
+            long last = channels[entry.getValue()].lastTimestamp();
+            if (last < oldestTime) {
+                oldest = entry.getKey();
+                oldestTime = last;
+            }
+        }
+        String name = DISK_USAGE_PREFIX + diskName;
+        if (oldest != null && (diskChannels.size() >= maxDiskChannels
+                || oldestTime == Long.MIN_VALUE || now - oldestTime > DISK_EXPIRY_MILLIS)) {
+            id = diskChannels.remove(oldest);
+            channelIds.remove(channelNames.get(id));
+            channelNames.set(id, name);
+            channelIds.put(name, id);
+            MetricChannel[] replaced = channels.clone();
+            replaced[id] = new MetricChannel(rawCapacity);
+            channels = replaced;
+        } else {
+            id = channel(name);
+        }
+        diskChannels.put(diskName, id);
+        return id;
+    }
+
+    // Точек в кольце RAW каждого канала
+    public int getRawCapacity() {
+        return rawCapacity;
+    }
+
+    // Возвращают количество скопированных точек, от старых к новым
+    public int readRaw(int channel, long[] timestamps, double[] values) {
+        return channels[channel].readRaw(timestamps, values);
+    }
+
+    public int readRollup(int channel, Resolution resolution,
+                          long[] timestamps, double[] min, double[] max, double[] mean) {
+        if (resolution == Resolution.RAW) {
+            int n = readRaw(channel, timestamps, mean);
+            System.arraycopy(mean, 0, min, 0, n);
+            System.arraycopy(mean, 0, max, 0, n);
+            return n;
+        }
+        return channels[channel].readRollup(resolution.ordinal() - 1, timestamps, min, max, mean);
+    }
+
+    public double latest(int channel) {
+        return channels[channel].latest();
+    }
+
+    public long estimatedBytes() {
+        long perChannel = rawCapacity * 16L;
+        for (Resolution r : Resolution.values()) {
+            perChannel += r.getCapacity() * 32L;
+        }
+        return perChannel * channels.length;
+    }
+}
@@ -0,0 +1,23 @@
+package engine.history;
+
+public enum Resolution {
+    RAW(0, 0),
+    TEN_SECONDS(10_000, 360),
+    ONE_MINUTE(60_000, 360),
+    TEN_MINUTES(600_000, 144);
+
+    private final long periodMillis;
+    private final int capacity;
+
+    Resolution(long periodMillis, int capacity) {
+        this.periodMillis = periodMillis;
+        this.capacity = capacity;
+    }
+
+    public long getPeriodMillis() { return periodMillis; }
+    public int getCapacity() { return capacity; }
+
+    public long getSpanMillis() {
+        return periodMillis * capacity;
+    }
+}
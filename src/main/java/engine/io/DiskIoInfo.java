@@ -0,0 +1,57 @@
+package engine.io;
+
+public final class DiskIoInfo {
+    private final String name;
+    private final String model;
+    private final double readBytesPerSec;
+    private final double writeBytesPerSec;
+    private final double readIops;
+    private final double writeIops;
+    private final long queueLength;
+    private final double busyPercent;
+
+    public DiskIoInfo(String name, String model, double readBytesPerSec, double writeBytesPerSec,
+                      double readIops, double writeIops, long queueLength, double busyPercent) {
+        this.name = name != null && !name.isEmpty() ? name : "Не определен";
+        this.model = model != null ? model : "";
+        this.readBytesPerSec = readBytesPerSec;
+        this.writeBytesPerSec = writeBytesPerSec;
+        this.readIops = readIops;
+        this.writeIops = writeIops;
+        this.queueLength = queueLength;
+        this.busyPercent = busyPercent;
+    }
+
+    public String getName() { return name; }
+    public String getModel() { return model; }
+    public double getReadBytesPerSec() { return readBytesPerSec; }
+    public double getWriteBytesPerSec() { return writeBytesPerSec; }
+    public double getReadIops() { return readIops; }
+    public double getWriteIops() { return writeIops; }
+    public double getIops() { return readIops + writeIops; }
+    // Запросов в очереди устройства на момент замера
+    public long getQueueLength() { return queueLength; }
+    // Доля времени, когда устройство обслуживало запросы, 0..100
+    public double getBusyPercent() { return busyPercent; }
+
+    public String getFormattedReadRate() {
+        return formatRate(readBytesPerSec);
+    }
+
+    public String getFormattedWriteRate() {
+        return formatRate(writeBytesPerSec);
+    }
+
+    public static String formatRate(double bytesPerSec) {
+        if (bytesPerSec < 1024) return String.format("%.0f B/s", bytesPerSec);
+        int exp = Math.min(4, (int) (Math.log(bytesPerSec) / Math.log(1024)));
+        String[] units = {"KB/s", "MB/s", "GB/s", "TB/s"};
+        return String.format("%.1f %s", bytesPerSec / Math.pow(1024, exp), units[exp - 1]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: R %s, W %s, %.0f IOPS, q %d, %.0f%%",
+                name, getFormattedReadRate(), getFormattedWriteRate(), getIops(), queueLength, busyPercent);
+    }
+}
@@ -0,0 +1,148 @@
+package engine.io;
+
+import oshi.SystemInfo;
+import oshi.hardware.HWDiskStore;
+import oshi.hardware.HardwareAbstractionLayer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Скорость чтения и записи, IOPS, очередь и занятость физических дисков по HWDiskStore.
+// Счётчики растут с загрузки системы, поэтому скорости считаются по разнице с прошлым замером;
+// прошлые значения лежат в массивах по номеру диска. Перечень дисков дорогой (на Linux это обход
+// udev), поэтому он строится заново, только когда меняется набор устройств: на Linux — по списку
+// /sys/block, на других системах — раз в RESCAN_NANOS. Диск, который перестал отвечать, тоже
+// вызывает перечень, но не чаще раза в RESCAN_NANOS: иначе сломанный диск стоил бы обхода каждый тик.
+public class DiskIoSampler {
+    private static final long RESCAN_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final File SYS_BLOCK = new File("/sys/block");
+
+    private final HardwareAbstractionLayer hardware;
+    private List<HWDiskStore> stores = List.of();
+    private String[] names = new String[0];
+    private int deviceHash;
+    private long lastScanNanos;
+    private boolean rescan = true;
+    private boolean failed;
+
+    private long[] prevReads = new long[0];
+    private long[] prevWrites = new long[0];
+    private long[] prevReadBytes = new long[0];
+    private long[] prevWriteBytes = new long[0];
+    private long[] prevTransferTime = new long[0];
+    private long[] prevTimeStamp = new long[0];
+
+    public DiskIoSampler() {
+        this(new SystemInfo().getHardware());
+    }
+
+    public DiskIoSampler(HardwareAbstractionLayer hardware) {
+        this.hardware = hardware;
+    }
+
+    // Первый замер после появления диска даёт нули: сравнивать ещё не с чем
+    public synchronized List<DiskIoInfo> sample() {
+        refreshStores();
+        List<DiskIoInfo> result = new ArrayList<>(stores.size());
+        for (int i = 0; i < stores.size(); i++) {
+            HWDiskStore store = stores.get(i);
+            if (!store.updateAttributes()) {
+                failed = true;
+                continue;
+            }
+            long reads = store.getReads();
+            long writes = store.getWrites();
+            long readBytes = store.getReadBytes();
+            long writeBytes = store.getWriteBytes();
+            long transferTime = store.getTransferTime();
+            long stamp = store.getTimeStamp();
+
+            long elapsedMs = prevTimeStamp[i] > 0 ? stamp - prevTimeStamp[i] : 0;
+            double perSec = elapsedMs > 0 ? 1000.0 / elapsedMs : 0;
+            double busy = elapsedMs > 0 ? Math.min(100, delta(transferTime, prevTransferTime[i]) * 100.0 / elapsedMs) : 0;
+            result.add(new DiskIoInfo(names[i], store.getModel(),
+                    delta(readBytes, prevReadBytes[i]) * perSec,
+                    delta(writeBytes, prevWriteBytes[i]) * perSec,
+                    delta(reads, prevReads[i]) * perSec,
+                    delta(writes, prevWrites[i]) * perSec,
+                    Math.max(0, store.getCurrentQueueLength()), busy));
+
+            prevReads[i] = reads;
+            prevWrites[i] = writes;
+            prevReadBytes[i] = readBytes;
+            prevWriteBytes[i] = writeBytes;
+            prevTransferTime[i] = transferTime;
+            prevTimeStamp[i] = stamp;
+        }
+        return result;
+    }
+
+    // Счётчик, сброшенный драйвером, даёт один нулевой замер вместо огромного скачка
+    private static long delta(long current, long previous) {
+        return current >= previous ? current - previous : 0;
+    }
+
+    private void refreshStores() {
+        long now = System.nanoTime();
+        String[] devices = SYS_BLOCK.list();
+        if (devices != null) {
+            Arrays.sort(devices);
+            int hash = Arrays.hashCode(devices);
+            if (hash != deviceHash) rescan = true;
+            deviceHash = hash;
+        } else if (now - lastScanNanos >= RESCAN_NANOS) {
+            rescan = true;
+        }
+        if (failed && now - lastScanNanos >= RESCAN_NANOS) rescan = true;
+        if (!rescan) return;
+        rescan = false;
+        failed = false;
+        lastScanNanos = now;
+
+        List<HWDiskStore> fresh = new ArrayList<>();
+        for (HWDiskStore store : hardware.getDiskStores()) {
+            if (store.getSize() > 0) fresh.add(store);
+        }
+        String[] freshNames = new String[fresh.size()];
+        for (int i = 0; i < freshNames.length; i++) freshNames[i] = fresh.get(i).getName();
+        // Набор тот же, но объекты новые: старые могли перестать обновляться
+        if (Arrays.equals(freshNames, names)) {
+            stores = fresh;
+            return;
+        }
+
+        // Прошлые счётчики переносятся по имени, чтобы оставшиеся диски не теряли замер
+        long[] reads = new long[freshNames.length];
+        long[] writes = new long[freshNames.length];
+        long[] readBytes = new long[freshNames.length];
+        long[] writeBytes = new long[freshNames.length];
+        long[] transferTime = new long[freshNames.length];
+        long[] timeStamp = new long[freshNames.length];
+        for (int i = 0; i < freshNames.length; i++) {
+            int old = Arrays.asList(names).indexOf(freshNames[i]);
+            if (old < 0) continue;
+            reads[i] = prevReads[old];
+            writes[i] = prevWrites[old];
+            readBytes[i] = prevReadBytes[old];
+            writeBytes[i] = prevWriteBytes[old];
+            transferTime[i] = prevTransferTime[old];
+            timeStamp[i] = prevTimeStamp[old];
+        }
+        stores = fresh;
+        names = freshNames;
+        prevReads = reads;
+        prevWrites = writes;
+        prevReadBytes = readBytes;
+        prevWriteBytes = writeBytes;
+        prevTransferTime = transferTime;
+        prevTimeStamp = timeStamp;
+    }
+
+    // Сколько физических дисков в текущем перечне
+    public synchronized int getDiskCount() {
+        return stores.size();
+    }
+}
@@ -0,0 +1,45 @@
+package engine.io;
+
+public final class NetworkInfo {
+    private final String name;
+    private final double rxBytesPerSec;
+    private final double txBytesPerSec;
+    private final double rxPacketsPerSec;
+    private final double txPacketsPerSec;
+    private final long errors;
+    private final long drops;
+
+    public NetworkInfo(String name, double rxBytesPerSec, double txBytesPerSec,
+                       double rxPacketsPerSec, double txPacketsPerSec, long errors, long drops) {
+        this.name = name != null && !name.isEmpty() ? name : "Не определен";
+        this.rxBytesPerSec = rxBytesPerSec;
+        this.txBytesPerSec = txBytesPerSec;
+        this.rxPacketsPerSec = rxPacketsPerSec;
+        this.txPacketsPerSec = txPacketsPerSec;
+        this.errors = errors;
+        this.drops = drops;
+    }
+
+    public String getName() { return name; }
+    public double getRxBytesPerSec() { return rxBytesPerSec; }
+    public double getTxBytesPerSec() { return txBytesPerSec; }
+    public double getRxPacketsPerSec() { return rxPacketsPerSec; }
+    public double getTxPacketsPerSec() { return txPacketsPerSec; }
+    // Ошибки и отброшенные пакеты приёма и передачи с прошлого замера
+    public long getErrors() { return errors; }
+    public long getDrops() { return drops; }
+
+    public String getFormattedRxRate() {
+        return DiskIoInfo.formatRate(rxBytesPerSec);
+    }
+
+    public String getFormattedTxRate() {
+        return DiskIoInfo.formatRate(txBytesPerSec);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: RX %s, TX %s, %.0f/%.0f pkt/s, errors %d, drops %d", name,
+                getFormattedRxRate(), getFormattedTxRate(), rxPacketsPerSec, txPacketsPerSec, errors, drops);
+    }
+}
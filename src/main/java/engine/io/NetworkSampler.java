@@ -0,0 +1,241 @@
+package engine.io;
+
+import engine.ProcFile;
+import engine.process.TopN;
+import oshi.SystemInfo;
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.hardware.NetworkIF;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Скорость приёма и передачи, пакеты, ошибки и отброшенные пакеты сетевых интерфейсов.
+// Сырые счётчики лежат плоскими массивами по FIELDS на интерфейс; прошлый и текущий массивы
+// меняются местами, как тики CPU. На Linux все интерфейсы берутся одним чтением /proc/net/dev:
+// имя в начале строки сверяется с известным по хешу, числа разбираются из байтов, так что
+// десятки veth стоят одного файла за тик, а не нескольких файлов sysfs на интерфейс, как у
+// NetworkIF.updateAttributes. Строки создаются, только когда набор интерфейсов поменялся.
+// На других системах опрос идёт через NetworkIF, а перечень строится не чаще раза в RESCAN_NANOS.
+public class NetworkSampler {
+    static final int RX_BYTES = 0, RX_PACKETS = 1, RX_ERRORS = 2, RX_DROPS = 3;
+    static final int TX_BYTES = 4, TX_PACKETS = 5, TX_ERRORS = 6, TX_DROPS = 7;
+    static final int FIELDS = 8;
+    private static final long RESCAN_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long WRAP_32 = 1L << 32;
+
+    private final ProcFile netDev;
+    private final HardwareAbstractionLayer hardware;
+    private List<NetworkIF> interfaces = List.of();
+    private long lastScanNanos;
+    private boolean rescan = true;
+
+    private String[] names = new String[0];
+    private int[] nameHashes = new int[0];
+    private boolean[] counted = new boolean[0];
+    private boolean[] known = new boolean[0];
+    private long[] prev = new long[0];
+    private long[] curr = new long[0];
+    private long prevNanos;
+
+    private final TopN top = new TopN(8);
+    private int[] winners = new int[8];
+    private double rxBytesPerSec;
+    private double txBytesPerSec;
+    private long errors;
+    private long drops;
+
+    public NetworkSampler() {
+        this(Paths.get("/"));
+    }
+
+    // Корень с proc/net/dev; если файла нет — счётчики берутся у OSHI
+    public NetworkSampler(Path root) {
+        netDev = ProcFile.open(root.resolve("proc/net/dev"), 16 * 1024);
+        hardware = netDev == null ? new SystemInfo().getHardware() : null;
+    }
+
+    public NetworkSampler(HardwareAbstractionLayer hardware) {
+        this.netDev = null;
+        this.hardware = hardware;
+    }
+
+    // Самые загруженные limit интерфейсов по сумме приёма и передачи. Первый замер после
+    // появления интерфейса даёт нули: сравнивать ещё не с чем
+    public synchronized List<NetworkInfo> sample(int limit) {
+        long now = System.nanoTime();
+        int n = netDev != null ? readProcNetDev() : readOshi(now);
+        double seconds = prevNanos > 0 ? (now - prevNanos) / 1e9 : 0;
+        prevNanos = now;
+
+        rxBytesPerSec = txBytesPerSec = 0;
+        errors = drops = 0;
+        top.reset(limit);
+        for (int i = 0; i < n; i++) {
+            if (!known[i] || seconds <= 0) {
+                top.offer(i, 0);
+                continue;
+            }
+            double rx = change(i, RX_BYTES) / seconds;
+            double tx = change(i, TX_BYTES) / seconds;
+            if (counted[i]) {
+                rxBytesPerSec += rx;
+                txBytesPerSec += tx;
+                errors += change(i, RX_ERRORS) + change(i, TX_ERRORS);
+                drops += change(i, RX_DROPS) + change(i, TX_DROPS);
+            }
+            top.offer(i, rx + tx);
+        }
+
+        if (winners.length < limit) winners = new int[limit];
+        int count = top.drainDescending(winners);
+        List<NetworkInfo> result = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            int i = winners[k];
+            double perSec = known[i] && seconds > 0 ? 1 / seconds : 0;
+            result.add(new NetworkInfo(names[i],
+                    change(i, RX_BYTES) * perSec, change(i, TX_BYTES) * perSec,
+                    change(i, RX_PACKETS) * perSec, change(i, TX_PACKETS) * perSec,
+                    perSec > 0 ? change(i, RX_ERRORS) + change(i, TX_ERRORS) : 0,
+                    perSec > 0 ? change(i, RX_DROPS) + change(i, TX_DROPS) : 0));
+        }
+
+        long[] swap = prev;
+        prev = curr;
+        curr = swap;
+        Arrays.fill(known, 0, n, true);
+        return result;
+    }
+
+    private long change(int i, int field) {
+        int at = i * FIELDS + field;
+        return delta(curr[at], prev[at], netDev == null);
+    }
+
+    // Уменьшение счётчика — сброс (интерфейс пересоздан под тем же именем), он даёт один нулевой
+    // замер. Переполнением оно считается, только если источник может отдавать 32-битные счётчики
+    // (таблицы интерфейсов Windows через OSHI; в /proc/net/dev они 64-битные) и с поправкой счётчик
+    // прошёл меньше половины диапазона — иначе сброс маленького счётчика дал бы гигабайты за тик
+    static long delta(long current, long previous, boolean wraps32) {
+        if (current >= previous) return current - previous;
+        if (wraps32 && previous < WRAP_32 && current < WRAP_32) {
+            long wrapped = current + WRAP_32 - previous;
+            if (wrapped < WRAP_32 / 2) return wrapped;
+        }
+        return 0;
+    }
+
+    private int readProcNetDev() {
+        if (!netDev.read()) return 0;
+        int n = parseProcNetDev();
+        if (n < 0) {
+            rebuildProcNetDev();
+            n = parseProcNetDev();
+        }
+        return Math.max(0, n);
+    }
+
+    // -1, если интерфейсы не совпали с известными по числу, порядку или имени
+    private int parseProcNetDev() {
+        netDev.position(0);
+        if (!netDev.nextLine() || !netDev.nextLine()) return names.length == 0 ? 0 : -1;
+        int i = 0;
+        while (!netDev.atEnd()) {
+            int hash = netDev.hashUntil((byte) ':');
+            if (i >= names.length || hash != nameHashes[i]) return -1;
+            int base = i * FIELDS;
+            // Приём: bytes packets errs drop fifo frame compressed multicast; передача: bytes packets errs drop ...
+            curr[base + RX_BYTES] = netDev.nextLong(0);
+            curr[base + RX_PACKETS] = netDev.nextLong(0);
+            curr[base + RX_ERRORS] = netDev.nextLong(0);
+            curr[base + RX_DROPS] = netDev.nextLong(0);
+            for (int skip = 0; skip < 4; skip++) netDev.nextLong(0);
+            curr[base + TX_BYTES] = netDev.nextLong(0);
+            curr[base + TX_PACKETS] = netDev.nextLong(0);
+            curr[base + TX_ERRORS] = netDev.nextLong(0);
+            curr[base + TX_DROPS] = netDev.nextLong(0);
+            i++;
+            if (!netDev.nextLine()) break;
+        }
+        return i == names.length ? i : -1;
+    }
+
+    private void rebuildProcNetDev() {
+        netDev.position(0);
+        List<String> fresh = new ArrayList<>();
+        if (netDev.nextLine() && netDev.nextLine()) {
+            while (!netDev.atEnd()) {
+                String line = netDev.readLine();
+                int colon = line.indexOf(':');
+                if (colon > 0) fresh.add(line.substring(0, colon).trim());
+            }
+        }
+        remap(fresh.toArray(new String[0]));
+        for (int i = 0; i < names.length; i++) counted[i] = !names[i].equals("lo");
+    }
+
+    private int readOshi(long now) {
+        if (rescan || now - lastScanNanos >= RESCAN_NANOS) {
+            rescan = false;
+            lastScanNanos = now;
+            List<NetworkIF> fresh = hardware.getNetworkIFs(false);
+            String[] freshNames = new String[fresh.size()];
+            for (int i = 0; i < freshNames.length; i++) freshNames[i] = fresh.get(i).getName();
+            interfaces = fresh;
+            if (!Arrays.equals(freshNames, names)) {
+                remap(freshNames);
+                Arrays.fill(counted, true);
+            }
+        }
+        for (int i = 0; i < interfaces.size(); i++) {
+            NetworkIF net = interfaces.get(i);
+            if (!net.updateAttributes()) rescan = true;
+            int base = i * FIELDS;
+            curr[base + RX_BYTES] = net.getBytesRecv();
+            curr[base + RX_PACKETS] = net.getPacketsRecv();
+            curr[base + RX_ERRORS] = net.getInErrors();
+            curr[base + RX_DROPS] = net.getInDrops();
+            curr[base + TX_BYTES] = net.getBytesSent();
+            curr[base + TX_PACKETS] = net.getPacketsSent();
+            curr[base + TX_ERRORS] = net.getOutErrors();
+            curr[base + TX_DROPS] = 0;
+        }
+        return interfaces.size();
+    }
+
+    // Прошлые счётчики переносятся по имени, чтобы оставшиеся интерфейсы не теряли замер
+    private void remap(String[] freshNames) {
+        int n = freshNames.length;
+        long[] freshPrev = new long[n * FIELDS];
+        boolean[] freshKnown = new boolean[n];
+        int[] freshHashes = new int[n];
+        List<String> oldNames = Arrays.asList(names);
+        for (int i = 0; i < n; i++) {
+            freshHashes[i] = Arrays.hashCode(freshNames[i].getBytes(StandardCharsets.UTF_8));
+            int old = oldNames.indexOf(freshNames[i]);
+            if (old < 0 || !known[old]) continue;
+            System.arraycopy(prev, old * FIELDS, freshPrev, i * FIELDS, FIELDS);
+            freshKnown[i] = true;
+        }
+        names = freshNames;
+        nameHashes = freshHashes;
+        prev = freshPrev;
+        known = freshKnown;
+        curr = new long[n * FIELDS];
+        counted = new boolean[n];
+    }
+
+    // Сумма по всем интерфейсам, кроме loopback, за последний замер
+    public synchronized double getRxBytesPerSec() { return rxBytesPerSec; }
+    public synchronized double getTxBytesPerSec() { return txBytesPerSec; }
+    public synchronized long getErrors() { return errors; }
+    public synchronized long getDrops() { return drops; }
+
+    public synchronized int getInterfaceCount() {
+        return names.length;
+    }
+}
@@ -0,0 +1,86 @@
+package engine.process;
+
+import java.util.Arrays;
+
+// Открытая адресация по PID без упаковки в Integer: прошлое процессорное время и время старта
+// (чтобы не считать дельту для переиспользованного PID). Таблица очищается целиком каждый замер,
+// поэтому удаление умерших процессов не нужно.
+final class PidTable {
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private long[] cpuTimes;
+    private long[] startTimes;
+    private int mask;
+    private int size;
+
+    PidTable(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    int size() { return size; }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    // Слот PID или -1
+    int find(int pid) {
+        for (int slot = mix(pid) & mask; ; slot = (slot + 1) & mask) {
+            int key = keys[slot];
+            if (key == pid) return slot;
+            if (key == EMPTY) return -1;
+        }
+    }
+
+    long cpuTime(int slot) { return cpuTimes[slot]; }
+    long startTime(int slot) { return startTimes[slot]; }
+
+    void put(int pid, long cpuTime, long startTime) {
+        if ((size + 1) * 2 > keys.length) grow();
+        int slot = mix(pid) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != pid) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) size++;
+        keys[slot] = pid;
+        cpuTimes[slot] = cpuTime;
+        startTimes[slot] = startTime;
+    }
+
+    // Заранее расширяет таблицу, чтобы рост не случился посреди замера
+    void ensureCapacity(int expected) {
+        if (expected * 2 > keys.length) {
+            int[] oldKeys = keys;
+            long[] oldCpu = cpuTimes;
+            long[] oldStart = startTimes;
+            allocate(capacityFor(expected));
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldCpu[i], oldStart[i]);
+            }
+        }
+    }
+
+    private void grow() {
+        ensureCapacity(keys.length);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        cpuTimes = new long[capacity];
+        startTimes = new long[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private static int capacityFor(int expected) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, expected) * 2 - 1) << 1);
+    }
+
+    private static int mix(int pid) {
+        int h = pid * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
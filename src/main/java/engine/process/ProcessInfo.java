@@ -0,0 +1,28 @@
+package engine.process;
+
+public final class ProcessInfo {
+    private final int pid;
+    private final String name;
+    private final double cpuPercent;
+    private final long residentBytes;
+
+    public ProcessInfo(int pid, String name, double cpuPercent, long residentBytes) {
+        this.pid = pid;
+        this.name = name != null && !name.isEmpty() ? name : "Не определено";
+        this.cpuPercent = cpuPercent;
+        this.residentBytes = residentBytes;
+    }
+
+    public int getPid() { return pid; }
+    public String getName() { return name; }
+    // Доля всей мощности процессора, 0..100 как у общей загрузки
+    public double getCpuPercent() { return cpuPercent; }
+    public long getResidentBytes() { return residentBytes; }
+
+    public String getFormattedMemory() {
+        if (residentBytes < 1024) return residentBytes + " B";
+        int exp = (int) (Math.log(residentBytes) / Math.log(1024));
+        String[] units = {"KB", "MB", "GB", "TB"};
+        return String.format("%.1f %s", residentBytes / Math.pow(1024, exp), units[exp - 1]);
+    }
+}
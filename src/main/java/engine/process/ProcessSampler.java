@@ -0,0 +1,80 @@
+package engine.process;
+
+import oshi.SystemInfo;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Самые активные процессы. Загрузка CPU считается по разнице процессорного времени с прошлым
+// замером; прошлые значения лежат в PidTable, а лучшие N отбираются кучей без сортировки списка.
+public class ProcessSampler {
+    public enum SortKey { CPU, MEMORY }
+
+    private final OperatingSystem os;
+    private final int logicalCount;
+    private PidTable previous = new PidTable(1024);
+    private PidTable current = new PidTable(1024);
+    private final TopN top = new TopN(16);
+    private double[] cpuPercents = new double[1024];
+    private int[] winners = new int[16];
+    private long previousSampleNanos;
+    private int processCount;
+
+    public ProcessSampler() {
+        SystemInfo systemInfo = new SystemInfo();
+        os = systemInfo.getOperatingSystem();
+        logicalCount = Math.max(1, systemInfo.getHardware().getProcessor().getLogicalProcessorCount());
+    }
+
+    public synchronized List<ProcessInfo> sample(SortKey key, int limit) {
+        List<OSProcess> processes = os.getProcesses();
+        long now = System.nanoTime();
+        double elapsedMs = previousSampleNanos > 0 ? (now - previousSampleNanos) / 1_000_000.0 : 0;
+        previousSampleNanos = now;
+
+        int n = processes.size();
+        processCount = n;
+        if (cpuPercents.length < n) cpuPercents = new double[n + n / 4];
+        current.ensureCapacity(n);
+        current.clear();
+        top.reset(limit);
+
+        for (int i = 0; i < n; i++) {
+            OSProcess process = processes.get(i);
+            int pid = process.getProcessID();
+            long cpuTime = process.getKernelTime() + process.getUserTime();
+            long startTime = process.getStartTime();
+
+            double cpu = 0;
+            int slot = previous.find(pid);
+            if (slot >= 0 && previous.startTime(slot) == startTime && elapsedMs > 0) {
+                long delta = cpuTime - previous.cpuTime(slot);
+                cpu = delta > 0 ? Math.min(100, delta / elapsedMs / logicalCount * 100) : 0;
+            }
+            cpuPercents[i] = cpu;
+            current.put(pid, cpuTime, startTime);
+            top.offer(i, key == SortKey.CPU ? cpu : process.getResidentSetSize());
+        }
+
+        PidTable swap = previous;
+        previous = current;
+        current = swap;
+
+        if (winners.length < limit) winners = new int[limit];
+        int count = top.drainDescending(winners);
+        List<ProcessInfo> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OSProcess process = processes.get(winners[i]);
+            result.add(new ProcessInfo(process.getProcessID(), process.getName(),
+                    cpuPercents[winners[i]], process.getResidentSetSize()));
+        }
+        return result;
+    }
+
+    // Сколько процессов было в последнем замере
+    public synchronized int getProcessCount() {
+        return processCount;
+    }
+}
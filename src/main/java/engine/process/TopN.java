@@ -0,0 +1,76 @@
+package engine.process;
+
+// Ограниченная min-куча: хранит индексы N кандидатов с наибольшим счётом.
+// Вставка O(log N), поэтому полная сортировка тысяч процессов не нужна.
+public final class TopN {
+    private int[] indices;
+    private double[] scores;
+    private int size;
+    private int limit;
+
+    public TopN(int limit) {
+        reset(limit);
+    }
+
+    public void reset(int limit) {
+        this.limit = Math.max(0, limit);
+        if (indices == null || indices.length < this.limit) {
+            indices = new int[this.limit];
+            scores = new double[this.limit];
+        }
+        size = 0;
+    }
+
+    public int size() { return size; }
+
+    public void offer(int index, double score) {
+        if (limit == 0) return;
+        if (size < limit) {
+            indices[size] = index;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            indices[0] = index;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    // Разбирает кучу в порядке убывания счёта; после вызова куча пуста
+    public int drainDescending(int[] out) {
+        int n = size;
+        for (int i = n - 1; i >= 0; i--) {
+            out[i] = indices[0];
+            size--;
+            indices[0] = indices[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return n;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[i] <= scores[smallest]) break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int index = indices[a]; indices[a] = indices[b]; indices[b] = index;
+        double score = scores[a]; scores[a] = scores[b]; scores[b] = score;
+    }
+}
@@ -0,0 +1,137 @@
+package engine.sched;
+
+import engine.DiskInfo;
+import engine.SensorSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Решает, какие источники опрашивать в очередном тике.
+// Период источника растёт, пока значения не меняются или чтение дорогое, и сокращается, когда значения скачут.
+public class AdaptiveScheduler {
+    private static final double BACKOFF_FACTOR = 1.5;
+    private static final int STABLE_SAMPLES_BEFORE_BACKOFF = 3;
+
+    private final Clock clock;
+    private final List<MetricSource> sources = new ArrayList<>();
+    private final long coalesceNanos;
+
+    public AdaptiveScheduler(Clock clock) {
+        this(clock, TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    public AdaptiveScheduler(Clock clock, long coalesceNanos) {
+        this.clock = clock;
+        this.coalesceNanos = coalesceNanos;
+    }
+
+    public static AdaptiveScheduler createDefault(Clock clock) {
+        AdaptiveScheduler scheduler = new AdaptiveScheduler(clock);
+        scheduler.register(new MetricSource("cpu", SensorSnapshot.CPU, 500, 250, 2000, 50, 2.0,
+                s -> s.getCpu().getUsage()));
+        scheduler.register(new MetricSource("ram", SensorSnapshot.RAM, 500, 500, 2000, 20, 1.0,
+                s -> s.getRam().getUsagePercent()));
+        scheduler.register(new MetricSource("gpu", SensorSnapshot.GPU, 500, 400, 3000, 100, 2.0,
+                s -> s.getGpu().getGpuLoad() + s.getGpu().getTemperature()));
+        scheduler.register(new MetricSource("disks", SensorSnapshot.DISKS, 2000, 2000, 30000, 200, 0.1,
+                AdaptiveScheduler::totalDiskUsage));
+        return scheduler;
+    }
+
+    private static double totalDiskUsage(SensorSnapshot snapshot) {
+        double sum = 0;
+        for (DiskInfo disk : snapshot.getDisks()) {
+            sum += disk.getUsagePercent();
+        }
+        return sum;
+    }
+
+    public synchronized void register(MetricSource source) {
+        source.nextDueNanos = clock.nanoTime();
+        sources.add(source);
+    }
+
+    public synchronized List<MetricSource> getSources() {
+        return List.copyOf(sources);
+    }
+
+    // Маска источников, срок которых наступил; близкие по сроку объединяются в один тик
+    public synchronized int due() {
+        long now = clock.nanoTime();
+        int mask = 0;
+        for (MetricSource source : sources) {
+            if (source.nextDueNanos - now <= coalesceNanos) {
+                mask |= source.getSourceMask();
+            }
+        }
+        return mask;
+    }
+
+    public synchronized long nextDueNanos() {
+        long next = Long.MAX_VALUE;
+        for (MetricSource source : sources) {
+            next = Math.min(next, source.nextDueNanos);
+        }
+        return next;
+    }
+
+    public long nanosUntilNextDue() {
+        return Math.max(0, nextDueNanos() - clock.nanoTime());
+    }
+
+    // Опрошенными считаются пришедшие и устаревшие источники снимка
+    public void complete(SensorSnapshot snapshot) {
+        complete(snapshot.getSources() | snapshot.getStaleSources(), snapshot);
+    }
+
+    // requested — маска, которую опрашивали в этом тике. Источник, который не пришёл и не помечен
+    // устаревшим (провайдер ещё запускается или такого устройства нет), тоже переносится на период
+    // вперёд, иначе он остаётся просроченным и тики идут без паузы
+    public synchronized void complete(int requested, SensorSnapshot snapshot) {
+        long now = clock.nanoTime();
+        for (MetricSource source : sources) {
+            int mask = source.getSourceMask();
+            if (snapshot.has(mask)) {
+                adapt(source, snapshot, now);
+            } else if (snapshot.isStale(mask)) {
+                backOff(source, now);
+            } else if ((requested & mask) != 0) {
+                source.nextDueNanos = now + Math.max(source.getPeriodNanos(), source.getBasePeriodNanos());
+            }
+        }
+    }
+
+    // Чтение не уложилось в срок: не дёргаем источник снова сразу, а увеличиваем период
+    private void backOff(MetricSource source, long now) {
+        synchronized (source) {
+            source.periodNanos = source.clamp(source.periodNanos * 2);
+        }
+        source.stableSamples = 0;
+        source.nextDueNanos = now + source.periodNanos;
+    }
+
+    private void adapt(MetricSource source, SensorSnapshot snapshot, long now) {
+        double value = source.signal(snapshot);
+        long readNanos = snapshot.getReadNanos(source.getSourceMask());
+        long period = source.periodNanos;
+
+        if (source.getCostBudgetNanos() > 0 && readNanos > source.getCostBudgetNanos()) {
+            period = (long) (period * BACKOFF_FACTOR * Math.min(4.0, (double) readNanos / source.getCostBudgetNanos()));
+            source.stableSamples = 0;
+        } else if (!Double.isNaN(source.lastValue) && Math.abs(value - source.lastValue) >= source.getChangeThreshold()) {
+            period = Math.min(period, source.getBasePeriodNanos()) / 2;
+            source.stableSamples = 0;
+        } else if (++source.stableSamples >= STABLE_SAMPLES_BEFORE_BACKOFF) {
+            period = (long) (period * BACKOFF_FACTOR);
+            source.stableSamples = 0;
+        }
+
+        synchronized (source) {
+            source.periodNanos = source.clamp(period);
+        }
+        source.lastValue = value;
+        source.lastSampledNanos = now;
+        source.nextDueNanos = now + source.periodNanos;
+    }
+}
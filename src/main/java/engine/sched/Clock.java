@@ -0,0 +1,7 @@
+package engine.sched;
+
+public interface Clock {
+    Clock SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
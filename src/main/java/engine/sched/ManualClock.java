@@ -0,0 +1,29 @@
+package engine.sched;
+
+import java.util.concurrent.TimeUnit;
+
+// Часы, которые двигаются только вручную: для тестов и воспроизведения записей
+public class ManualClock implements Clock {
+    private volatile long now;
+
+    public ManualClock() {
+        this(0);
+    }
+
+    public ManualClock(long startNanos) {
+        this.now = startNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    public void set(long nanos) {
+        now = nanos;
+    }
+
+    public void advance(long amount, TimeUnit unit) {
+        now += unit.toNanos(amount);
+    }
+}
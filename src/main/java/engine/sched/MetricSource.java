@@ -0,0 +1,57 @@
+package engine.sched;
+
+import engine.SensorSnapshot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// Описание источника для AdaptiveScheduler: свой период, допустимая устарелость и цена чтения.
+// Состояние (текущий период, срок следующего опроса) меняет только планировщик.
+public class MetricSource {
+    private final String name;
+    private final int sourceMask;
+    private final long basePeriodNanos;
+    private final long minPeriodNanos;
+    private final long stalenessBudgetNanos;
+    private final long costBudgetNanos;
+    private final double changeThreshold;
+    private final ToDoubleFunction<SensorSnapshot> signal;
+
+    long periodNanos;
+    long nextDueNanos;
+    long lastSampledNanos = Long.MIN_VALUE;
+    double lastValue = Double.NaN;
+    int stableSamples;
+
+    public MetricSource(String name, int sourceMask, long basePeriodMs, long minPeriodMs,
+                        long stalenessBudgetMs, long costBudgetMs, double changeThreshold,
+                        ToDoubleFunction<SensorSnapshot> signal) {
+        this.name = name;
+        this.sourceMask = sourceMask;
+        this.minPeriodNanos = TimeUnit.MILLISECONDS.toNanos(minPeriodMs);
+        this.stalenessBudgetNanos = Math.max(minPeriodNanos, TimeUnit.MILLISECONDS.toNanos(stalenessBudgetMs));
+        this.basePeriodNanos = clamp(TimeUnit.MILLISECONDS.toNanos(basePeriodMs));
+        this.costBudgetNanos = TimeUnit.MILLISECONDS.toNanos(costBudgetMs);
+        this.changeThreshold = changeThreshold;
+        this.signal = signal;
+        this.periodNanos = basePeriodNanos;
+    }
+
+    public String getName() { return name; }
+    public int getSourceMask() { return sourceMask; }
+    public long getBasePeriodNanos() { return basePeriodNanos; }
+    public long getMinPeriodNanos() { return minPeriodNanos; }
+    public long getStalenessBudgetNanos() { return stalenessBudgetNanos; }
+    public long getCostBudgetNanos() { return costBudgetNanos; }
+    public double getChangeThreshold() { return changeThreshold; }
+
+    public synchronized long getPeriodNanos() { return periodNanos; }
+
+    double signal(SensorSnapshot snapshot) {
+        return signal.applyAsDouble(snapshot);
+    }
+
+    long clamp(long period) {
+        return Math.max(minPeriodNanos, Math.min(stalenessBudgetNanos, period));
+    }
+}
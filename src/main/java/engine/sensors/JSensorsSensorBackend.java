@@ -0,0 +1,183 @@
+package engine.sensors;
+
+import com.profesorfalken.jsensors.model.components.Component;
+import com.profesorfalken.jsensors.model.components.Components;
+import com.profesorfalken.jsensors.model.sensors.Fan;
+import com.profesorfalken.jsensors.model.sensors.Load;
+import com.profesorfalken.jsensors.model.sensors.Temperature;
+import engine.JSensorsSensorProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Все компоненты JSensors (CPU, GPU, диски, материнские платы) со всеми температурами, вентиляторами
+// и загрузками. Для каждой позиции обхода модели запоминаются устройство, имя датчика и канал; sample
+// проверяет их на ходу, так что значение не попадёт в чужой канал. Если состав датчиков поменялся,
+// кадр целиком остаётся NaN, а перед следующим опросом позиции заново сопоставляются каналам по
+// (устройство, имя). Каналы, которых больше нет, остаются NaN; новые датчики видны после перезапуска.
+public class JSensorsSensorBackend implements SensorBackend {
+    private final Supplier<Components> source;
+    private int first;
+    private int count;
+    private final Map<String, Integer> channels = new HashMap<>();
+    // По позиции обхода: имя компонента, имя датчика и канал относительно first (-1 — датчика не было при поиске)
+    private String[] devices = new String[0];
+    private String[] names = new String[0];
+    private int[] slots = new int[0];
+    private boolean stale;
+
+    public JSensorsSensorBackend() {
+        this(JSensorsSensorProvider::readComponents);
+    }
+
+    // Модель компонентов берётся у source — в тестах её можно собрать вручную
+    JSensorsSensorBackend(Supplier<Components> source) {
+        this.source = source;
+    }
+
+    @Override
+    public String getName() {
+        return "jsensors";
+    }
+
+    @Override
+    public void discover(SensorRegistry registry) {
+        List<Position> positions = layout(source.get());
+        first = registry.getChannelCount();
+        for (Position position : positions) {
+            int id = registry.register(position.device(), position.name(), position.kind());
+            channels.putIfAbsent(key(position.device(), position.name()), id - first);
+        }
+        count = registry.getChannelCount() - first;
+        map(positions);
+    }
+
+    private static List<Position> layout(Components components) {
+        List<Position> positions = new ArrayList<>();
+        Set<String> devices = new HashSet<>();
+        layout(components.cpus, "CPU", devices, positions);
+        layout(components.gpus, "GPU", devices, positions);
+        layout(components.disks, "Disk", devices, positions);
+        layout(components.mobos, "Board", devices, positions);
+        return positions;
+    }
+
+    private static void layout(List<? extends Component> group, String fallback, Set<String> devices,
+                               List<Position> positions) {
+        if (group == null) return;
+        for (Component component : group) {
+            String raw = componentName(component, fallback);
+            String device = uniqueName(raw, devices);
+            if (component.sensors == null) continue;
+            if (component.sensors.temperatures != null) {
+                for (Temperature t : component.sensors.temperatures) {
+                    positions.add(new Position(raw, device, t.name, SensorKind.TEMPERATURE));
+                }
+            }
+            if (component.sensors.fans != null) {
+                for (Fan f : component.sensors.fans) {
+                    positions.add(new Position(raw, device, f.name, SensorKind.FAN));
+                }
+            }
+            if (component.sensors.loads != null) {
+                for (Load l : component.sensors.loads) {
+                    positions.add(new Position(raw, device, l.name, SensorKind.LOAD));
+                }
+            }
+        }
+    }
+
+    // Позиции сопоставляются каналам по (устройство, имя); один канал достаётся только одной позиции
+    private void map(List<Position> positions) {
+        int n = positions.size();
+        devices = new String[n];
+        names = new String[n];
+        slots = new int[n];
+        boolean[] used = new boolean[count];
+        for (int p = 0; p < n; p++) {
+            Position position = positions.get(p);
+            devices[p] = position.raw();
+            names[p] = position.name();
+            Integer slot = channels.get(key(position.device(), position.name()));
+            slots[p] = slot != null && !used[slot] ? slot : -1;
+            if (slots[p] >= 0) used[slot] = true;
+        }
+    }
+
+    private static String componentName(Component component, String fallback) {
+        return component.name != null && !component.name.isBlank() ? component.name : fallback;
+    }
+
+    // Две одинаковые видеокарты не должны слиться в одно устройство
+    private static String uniqueName(String name, Set<String> devices) {
+        String unique = name;
+        for (int n = 2; !devices.add(unique); n++) {
+            unique = name + " #" + n;
+        }
+        return unique;
+    }
+
+    private static String key(String device, String name) {
+        return device + '\0' + name;
+    }
+
+    @Override
+    public void sample(double[] values) {
+        Components components = source.get();
+        Arrays.fill(values, first, first + count, Double.NaN);
+        if (stale) {
+            map(layout(components));
+            stale = false;
+        }
+        int p = 0;
+        p = sample(components.cpus, "CPU", values, p);
+        p = sample(components.gpus, "GPU", values, p);
+        p = sample(components.disks, "Disk", values, p);
+        p = sample(components.mobos, "Board", values, p);
+        if (p != slots.length) {
+            Arrays.fill(values, first, first + count, Double.NaN);
+            stale = true;
+        }
+    }
+
+    // -1, если обход разошёлся с запомненными позициями
+    private int sample(List<? extends Component> group, String fallback, double[] values, int p) {
+        if (group == null || p < 0) return p;
+        for (Component component : group) {
+            if (component.sensors == null) continue;
+            String device = componentName(component, fallback);
+            if (component.sensors.temperatures != null) {
+                for (Temperature t : component.sensors.temperatures) {
+                    if ((p = put(values, p, device, t.name, t.value)) < 0) return -1;
+                }
+            }
+            if (component.sensors.fans != null) {
+                for (Fan f : component.sensors.fans) {
+                    if ((p = put(values, p, device, f.name, f.value)) < 0) return -1;
+                }
+            }
+            if (component.sensors.loads != null) {
+                for (Load l : component.sensors.loads) {
+                    if ((p = put(values, p, device, l.name, l.value)) < 0) return -1;
+                }
+            }
+        }
+        return p;
+    }
+
+    private int put(double[] values, int p, String device, String name, Double value) {
+        if (p >= slots.length || !device.equals(devices[p]) || !Objects.equals(name, names[p])) return -1;
+        if (slots[p] >= 0 && value != null) values[first + slots[p]] = value;
+        return p + 1;
+    }
+
+    // raw — имя компонента в модели, device — имя устройства в реестре (с номером для одинаковых)
+    private record Position(String raw, String device, String name, SensorKind kind) {}
+}
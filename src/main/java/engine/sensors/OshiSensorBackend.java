@@ -0,0 +1,82 @@
+package engine.sensors;
+
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.GraphicsCard;
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.hardware.Sensors;
+
+import java.util.List;
+
+// Датчики OSHI: температура и напряжение CPU, все вентиляторы, частота каждого логического
+// процессора и объём памяти каждой видеокарты, а не только первой. Объём VRAM не меняется,
+// поэтому читается один раз при поиске.
+public class OshiSensorBackend implements SensorBackend {
+    private final HardwareAbstractionLayer hardware = new SystemInfo().getHardware();
+    private final Sensors sensors = hardware.getSensors();
+    private final CentralProcessor processor = hardware.getProcessor();
+
+    private int cpuTemperature;
+    private int cpuVoltage;
+    private int firstFan;
+    private int fanCount;
+    private int firstClock;
+    private int clockCount;
+    private int firstVram;
+    private double[] vram = new double[0];
+
+    @Override
+    public String getName() {
+        return "oshi";
+    }
+
+    @Override
+    public void discover(SensorRegistry registry) {
+        String cpu = processor.getProcessorIdentifier().getName().trim();
+        cpuTemperature = registry.register(cpu, "Package", SensorKind.TEMPERATURE);
+        cpuVoltage = registry.register(cpu, "Vcore", SensorKind.VOLTAGE);
+
+        clockCount = processor.getLogicalProcessorCount();
+        firstClock = registry.getChannelCount();
+        for (int i = 0; i < clockCount; i++) {
+            registry.register(cpu, "Core " + i + " clock", SensorKind.CLOCK);
+        }
+
+        fanCount = sensors.getFanSpeeds().length;
+        firstFan = registry.getChannelCount();
+        for (int i = 0; i < fanCount; i++) {
+            registry.register("System", "Fan " + (i + 1), SensorKind.FAN);
+        }
+
+        List<GraphicsCard> cards = hardware.getGraphicsCards();
+        vram = new double[cards.size()];
+        firstVram = registry.getChannelCount();
+        for (int i = 0; i < cards.size(); i++) {
+            GraphicsCard card = cards.get(i);
+            String name = cards.size() > 1 ? card.getName() + " #" + (i + 1) : card.getName();
+            registry.register(name, "VRAM total", SensorKind.DATA);
+            vram[i] = card.getVRam() > 0 ? card.getVRam() : Double.NaN;
+        }
+    }
+
+    // 0 у OSHI означает «не удалось прочитать»
+    @Override
+    public void sample(double[] values) {
+        values[cpuTemperature] = positiveOrNaN(sensors.getCpuTemperature());
+        values[cpuVoltage] = positiveOrNaN(sensors.getCpuVoltage());
+
+        long[] frequencies = processor.getCurrentFreq();
+        for (int i = 0; i < clockCount; i++) {
+            values[firstClock + i] = i < frequencies.length ? positiveOrNaN(frequencies[i] / 1_000_000.0) : Double.NaN;
+        }
+        int[] fans = sensors.getFanSpeeds();
+        for (int i = 0; i < fanCount; i++) {
+            values[firstFan + i] = i < fans.length ? positiveOrNaN(fans[i]) : Double.NaN;
+        }
+        System.arraycopy(vram, 0, values, firstVram, vram.length);
+    }
+
+    private static double positiveOrNaN(double value) {
+        return value > 0 ? value : Double.NaN;
+    }
+}
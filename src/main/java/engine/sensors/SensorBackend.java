@@ -0,0 +1,12 @@
+package engine.sensors;
+
+// Источник каналов для SensorRegistry. discover вызывается один раз и регистрирует все каналы,
+// sample — каждый тик и пишет значения в values[id] без обхода вложенных моделей у потребителя.
+public interface SensorBackend {
+    String getName();
+
+    void discover(SensorRegistry registry) throws Exception;
+
+    // Значение, которого сейчас нет, записывается как NaN
+    void sample(double[] values) throws Exception;
+}
@@ -0,0 +1,13 @@
+package engine.sensors;
+
+// Описание канала реестра; id — индекс его значения в массиве кадра
+public record SensorChannel(int id, String device, String name, SensorKind kind) {
+    public String unit() {
+        return kind.getUnit();
+    }
+
+    @Override
+    public String toString() {
+        return device + " / " + name + " [" + kind.getUnit() + "]";
+    }
+}
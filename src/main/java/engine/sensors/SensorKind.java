@@ -0,0 +1,20 @@
+package engine.sensors;
+
+public enum SensorKind {
+    LOAD("%"),
+    TEMPERATURE("°C"),
+    FAN("RPM"),
+    VOLTAGE("V"),
+    CLOCK("MHz"),
+    DATA("B"),
+    // Заполненность, например диска
+    LEVEL("%");
+
+    private final String unit;
+
+    SensorKind(String unit) {
+        this.unit = unit;
+    }
+
+    public String getUnit() { return unit; }
+}
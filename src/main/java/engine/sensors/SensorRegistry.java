@@ -0,0 +1,152 @@
+package engine.sensors;
+
+import engine.chain.CircuitBreaker;
+import engine.sched.Clock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Все устройства и датчики всех бэкендов: каналы находятся один раз в discover и получают плотные
+// id, а каждый тик значения пишутся в плоский double[] кадра. Каналы бэкенда идут подряд, поэтому
+// отказавший бэкенд просто заливает свой диапазон NaN; повторные попытки ограничивает CircuitBreaker.
+public class SensorRegistry {
+    private final Clock clock;
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<SensorChannel> channels = new ArrayList<>();
+    private final Map<String, Integer> index = new HashMap<>();
+    private Entry discovering;
+    private boolean discovered;
+
+    public SensorRegistry() {
+        this(Clock.SYSTEM);
+    }
+
+    public SensorRegistry(Clock clock) {
+        this.clock = clock;
+    }
+
+    // JSensors и OSHI; каналы уже найдены
+    public static SensorRegistry createDefault() {
+        return new SensorRegistry().add(new JSensorsSensorBackend()).add(new OshiSensorBackend()).discover();
+    }
+
+    public synchronized SensorRegistry add(SensorBackend backend) {
+        if (discovered) throw new IllegalStateException("Бэкенды добавляются до discover");
+        entries.add(new Entry(backend, new CircuitBreaker(clock)));
+        return this;
+    }
+
+    // Бэкенд, упавший при поиске, остаётся без каналов и больше не опрашивается
+    public synchronized SensorRegistry discover() {
+        if (discovered) return this;
+        for (Entry entry : entries) {
+            entry.from = channels.size();
+            discovering = entry;
+            try {
+                entry.backend.discover(this);
+            } catch (Exception e) {
+                System.err.println("Датчики " + entry.backend.getName() + " недоступны: " + e);
+                channels.subList(entry.from, channels.size()).clear();
+                entry.failed = true;
+            } finally {
+                discovering = null;
+            }
+            entry.to = channels.size();
+        }
+        for (int i = 0; i < channels.size(); i++) {
+            SensorChannel channel = channels.get(i);
+            index.putIfAbsent(key(channel.device(), channel.name()), i);
+        }
+        discovered = true;
+        return this;
+    }
+
+    // Вызывается бэкендом только из его discover; возвращает id канала
+    public int register(String device, String name, SensorKind kind) {
+        if (discovering == null) throw new IllegalStateException("Каналы регистрируются только в discover");
+        int id = channels.size();
+        channels.add(new SensorChannel(id, device != null ? device : discovering.backend.getName(),
+                name != null ? name : "#" + id, kind));
+        return id;
+    }
+
+    public int getChannelCount() {
+        return channels.size();
+    }
+
+    public SensorChannel getChannel(int id) {
+        return channels.get(id);
+    }
+
+    public List<SensorChannel> getChannels() {
+        return Collections.unmodifiableList(channels);
+    }
+
+    // -1, если такого канала нет
+    public int find(String device, String name) {
+        Integer id = index.get(key(device, name));
+        return id != null ? id : -1;
+    }
+
+    public int[] channelsOf(SensorKind kind) {
+        return channels.stream().filter(c -> c.kind() == kind).mapToInt(SensorChannel::id).toArray();
+    }
+
+    public double[] newFrame() {
+        double[] values = new double[channels.size()];
+        Arrays.fill(values, Double.NaN);
+        return values;
+    }
+
+    // Заполняет кадр значениями всех бэкендов; values не короче getChannelCount()
+    public synchronized void sample(double[] values) {
+        if (!discovered) throw new IllegalStateException("Сначала discover");
+        for (Entry entry : entries) {
+            if (entry.failed || entry.from == entry.to) continue;
+            if (!entry.breaker.allow()) {
+                Arrays.fill(values, entry.from, entry.to, Double.NaN);
+                continue;
+            }
+            try {
+                entry.backend.sample(values);
+                entry.breaker.success();
+            } catch (Exception e) {
+                Arrays.fill(values, entry.from, entry.to, Double.NaN);
+                entry.breaker.failure(e.toString());
+            }
+        }
+    }
+
+    // Таблица каналов со значениями кадра; values может быть null
+    public String describe(double[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (SensorChannel channel : channels) {
+            String value = values == null || Double.isNaN(values[channel.id()]) ? "-"
+                    : String.format("%.1f", values[channel.id()]);
+            sb.append(String.format("%4d  %-32s %-24s %10s %s%n", channel.id(), channel.device(), channel.name(),
+                    value, channel.unit()));
+        }
+        return sb.toString();
+    }
+
+    private static String key(String device, String name) {
+        return device + '\0' + name;
+    }
+
+    private static final class Entry {
+        final SensorBackend backend;
+        final CircuitBreaker breaker;
+        int from;
+        int to;
+        boolean failed;
+
+        Entry(SensorBackend backend, CircuitBreaker breaker) {
+            this.backend = backend;
+            this.breaker = breaker;
+        }
+    }
+}
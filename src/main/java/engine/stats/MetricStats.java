@@ -0,0 +1,82 @@
+package engine.stats;
+
+import engine.SensorSnapshot;
+import engine.SnapshotMetrics;
+import engine.diag.Diagnostics;
+import engine.diag.LatencyHistogram;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Скользящая статистика по метрикам снимков (имена как в правилах оповещений): минимум, максимум,
+// среднее, отклонение и квантили за окно. Память постоянная и не зависит от частоты опроса.
+public class MetricStats implements Consumer<SensorSnapshot> {
+    public static final long DEFAULT_WINDOW_MILLIS = 5 * 60_000;
+    public static final List<String> DEFAULT_METRICS = List.of("cpu.usage", "cpu.temperature", "ram.usage",
+            "gpu.load", "gpu.temperature", "gpu.vram.usage", "disk.usage.max");
+
+    private final List<String> metrics;
+    private final int[] codes;
+    private final String[] disks;
+    private final RollingStats[] stats;
+    private final Map<String, Integer> index = new HashMap<>();
+    private final LatencyHistogram latency = Diagnostics.getDefault().histogram("stats.update");
+
+    public MetricStats(long windowMillis, List<String> metrics) {
+        this.metrics = List.copyOf(metrics);
+        int n = this.metrics.size();
+        codes = new int[n];
+        disks = new String[n];
+        stats = new RollingStats[n];
+        for (int i = 0; i < n; i++) {
+            String metric = this.metrics.get(i);
+            codes[i] = SnapshotMetrics.code(metric);
+            disks[i] = SnapshotMetrics.diskName(metric);
+            stats[i] = new RollingStats(windowMillis);
+            index.put(metric, i);
+        }
+    }
+
+    public static MetricStats createDefault() {
+        return new MetricStats(DEFAULT_WINDOW_MILLIS, DEFAULT_METRICS);
+    }
+
+    public List<String> getMetrics() {
+        return metrics;
+    }
+
+    public long getWindowMillis() {
+        return stats.length > 0 ? stats[0].getWindowMillis() : 0;
+    }
+
+    @Override
+    public void accept(SensorSnapshot snapshot) {
+        long start = System.nanoTime();
+        long now = snapshot.getTimestamp();
+        for (int i = 0; i < stats.length; i++) {
+            // NaN только сдвигает окно: метрика без данных со временем пустеет
+            stats[i].add(now, SnapshotMetrics.extract(snapshot, codes[i], disks[i]));
+        }
+        latency.record(System.nanoTime() - start);
+    }
+
+    public RollingStats get(String metric) {
+        Integer i = index.get(metric);
+        if (i == null) throw new IllegalArgumentException("Метрика не отслеживается: " + metric);
+        return stats[i];
+    }
+
+    public StatsSummary summary(String metric) {
+        return get(metric).summary();
+    }
+
+    public double quantile(String metric, double q) {
+        return get(metric).quantile(q);
+    }
+
+    public double max(String metric) {
+        return get(metric).getMax();
+    }
+}
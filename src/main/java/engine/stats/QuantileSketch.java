@@ -0,0 +1,156 @@
+package engine.stats;
+
+import java.util.Arrays;
+
+// Скетч квантилей с относительной точностью (по мотивам DDSketch): значение попадает в корзину
+// ceil(log_gamma(x)), так что ошибка любого квантиля не больше accuracy от его значения.
+// Корзин фиксированное число; если диапазон шире, нижние корзины сливаются в одну — точность
+// теряют только самые малые значения, а p95/p99 остаются точными. Скетчи с одинаковыми
+// параметрами складываются поштучно, поэтому их можно сливать по окнам и по хостам.
+public final class QuantileSketch {
+    public static final double DEFAULT_ACCURACY = 0.01;
+    public static final int DEFAULT_BINS = 512;
+    // Всё, что меньше, считается нулём (загрузка 0%, пустой диск)
+    private static final double MIN_POSITIVE = 1e-6;
+
+    private final double accuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final long[] bins;
+    // Индекс корзины bins[0]; задаётся первой точкой
+    private int offset;
+    private boolean anchored;
+    private long zeroCount;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch() {
+        this(DEFAULT_ACCURACY, DEFAULT_BINS);
+    }
+
+    public QuantileSketch(double accuracy, int binCount) {
+        if (accuracy <= 0 || accuracy >= 1) throw new IllegalArgumentException("Точность: " + accuracy);
+        if (binCount < 16) throw new IllegalArgumentException("Корзин слишком мало: " + binCount);
+        this.accuracy = accuracy;
+        this.gamma = (1 + accuracy) / (1 - accuracy);
+        this.logGamma = Math.log(gamma);
+        this.bins = new long[binCount];
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch sketch = new QuantileSketch(accuracy, bins.length);
+        sketch.copyFrom(this);
+        return sketch;
+    }
+
+    // Отрицательные значения в мониторинге не встречаются и учитываются как ноль
+    public void add(double value) {
+        if (Double.isNaN(value)) return;
+        if (count == 0 || value < min) min = value;
+        if (count == 0 || value > max) max = value;
+        count++;
+        if (value < MIN_POSITIVE) {
+            zeroCount++;
+        } else {
+            place((int) Math.ceil(Math.log(value) / logGamma), 1);
+        }
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.bins.length != bins.length || other.gamma != gamma) {
+            throw new IllegalArgumentException("Скетчи с разными параметрами не сливаются");
+        }
+        if (other.count == 0) return;
+        if (count == 0 || other.min < min) min = other.min;
+        if (count == 0 || other.max > max) max = other.max;
+        count += other.count;
+        zeroCount += other.zeroCount;
+        if (!other.anchored) return;
+        // Сверху вниз: сначала расширяемся к большим индексам, и нижние корзины сливаются не больше одного раза
+        for (int i = other.bins.length - 1; i >= 0; i--) {
+            if (other.bins[i] != 0) place(other.offset + i, other.bins[i]);
+        }
+    }
+
+    public void copyFrom(QuantileSketch other) {
+        if (other.bins.length != bins.length || other.gamma != gamma) {
+            throw new IllegalArgumentException("Скетчи с разными параметрами не копируются");
+        }
+        System.arraycopy(other.bins, 0, bins, 0, bins.length);
+        offset = other.offset;
+        anchored = other.anchored;
+        zeroCount = other.zeroCount;
+        count = other.count;
+        min = other.min;
+        max = other.max;
+    }
+
+    public void clear() {
+        Arrays.fill(bins, 0);
+        anchored = false;
+        zeroCount = 0;
+        count = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    private void place(int index, long n) {
+        if (!anchored) {
+            // Первая точка ставится в верхнюю половину: рост чаще идёт вниз, чем вверх
+            offset = index - bins.length * 3 / 4;
+            anchored = true;
+        }
+        if (index >= offset + bins.length) {
+            int shift = index - (offset + bins.length - 1);
+            if (shift >= bins.length) {
+                long total = 0;
+                for (long b : bins) total += b;
+                Arrays.fill(bins, 0);
+                bins[0] = total;
+            } else {
+                long collapsed = 0;
+                for (int i = 0; i <= shift; i++) collapsed += bins[i];
+                System.arraycopy(bins, shift, bins, 0, bins.length - shift);
+                Arrays.fill(bins, bins.length - shift, bins.length, 0);
+                bins[0] = collapsed;
+            }
+            offset += shift;
+        } else if (index < offset) {
+            // Сдвигаемся вниз только пока верхние занятые корзины остаются в массиве, иначе сливаем в нижнюю
+            int top = bins.length - 1;
+            while (top > 0 && bins[top] == 0) top--;
+            int shift = Math.min(offset - index, bins.length - 1 - top);
+            if (shift > 0) {
+                System.arraycopy(bins, 0, bins, shift, bins.length - shift);
+                Arrays.fill(bins, 0, shift, 0);
+                offset -= shift;
+            }
+            index = Math.max(index, offset);
+        }
+        bins[index - offset] += n;
+    }
+
+    public long getCount() { return count; }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+    public double getAccuracy() { return accuracy; }
+
+    // q от 0 до 1; NaN, если точек нет
+    public double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) return Math.max(min, 0);
+        long seen = zeroCount;
+        for (int i = 0; i < bins.length; i++) {
+            seen += bins[i];
+            if (seen > rank) {
+                double value = 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,156 @@
+package engine.stats;
+
+// Статистика одной метрики за последние windowMillis в постоянной памяти: окно нарезано на slots
+// отрезков, у каждого свои RunningStats и QuantileSketch, а сырые точки не хранятся. Граница окна
+// сдвигается по отрезку, так что окно охватывает от (slots-1)/slots до полного windowMillis.
+// Минимум и максимум закрытых отрезков ведут монотонные очереди, а закрытые отрезки сливаются
+// один раз при смене отрезка — запрос объединяет только две части: закрытое и текущий отрезок.
+public final class RollingStats {
+    private final long windowMillis;
+    private final long slotMillis;
+    private final int slots;
+    private final RunningStats[] slotStats;
+    private final QuantileSketch[] slotSketches;
+    private long current = Long.MIN_VALUE;
+
+    // Номера закрытых отрезков; их максимумы убывают, минимумы растут от головы к хвосту
+    private final long[] maxQueue;
+    private long maxHead, maxTail;
+    private final long[] minQueue;
+    private long minHead, minTail;
+
+    private final RunningStats closedStats = new RunningStats();
+    private final QuantileSketch closedSketch = new QuantileSketch();
+    private final RunningStats scratchStats = new RunningStats();
+    private final QuantileSketch scratchSketch = new QuantileSketch();
+
+    public RollingStats(long windowMillis) {
+        this(windowMillis, 10);
+    }
+
+    public RollingStats(long windowMillis, int slots) {
+        if (slots < 2) throw new IllegalArgumentException("Нужно хотя бы 2 отрезка: " + slots);
+        if (windowMillis < slots) throw new IllegalArgumentException("Окно слишком короткое: " + windowMillis);
+        this.windowMillis = windowMillis;
+        this.slotMillis = windowMillis / slots;
+        this.slots = slots;
+        slotStats = new RunningStats[slots];
+        slotSketches = new QuantileSketch[slots];
+        for (int i = 0; i < slots; i++) {
+            slotStats[i] = new RunningStats();
+            slotSketches[i] = new QuantileSketch();
+        }
+        maxQueue = new long[slots];
+        minQueue = new long[slots];
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    // Точки с временем раньше текущего отрезка (часы отскочили назад) попадают в текущий отрезок
+    public synchronized void add(long timestamp, double value) {
+        advance(timestamp);
+        if (Double.isNaN(value)) return;
+        int i = index(current);
+        slotStats[i].add(value);
+        slotSketches[i].add(value);
+    }
+
+    // Сдвигает окно без новой точки, чтобы пропавшая метрика со временем опустела
+    public synchronized void advance(long timestamp) {
+        long slot = Math.floorDiv(timestamp, slotMillis);
+        if (slot > current) rotate(slot);
+    }
+
+    private void rotate(long slot) {
+        long previous = current;
+        if (previous != Long.MIN_VALUE && slotStats[index(previous)].getCount() > 0) {
+            RunningStats closing = slotStats[index(previous)];
+            while (maxTail > maxHead && slotStats[index(maxQueue[(int) ((maxTail - 1) % slots)])].getMax() <= closing.getMax()) maxTail--;
+            maxQueue[(int) (maxTail++ % slots)] = previous;
+            while (minTail > minHead && slotStats[index(minQueue[(int) ((minTail - 1) % slots)])].getMin() >= closing.getMin()) minTail--;
+            minQueue[(int) (minTail++ % slots)] = previous;
+        }
+        current = slot;
+        // Выпавшие отрезки уходят из голов очередей раньше, чем их место в кольце очищается
+        while (maxHead < maxTail && maxQueue[(int) (maxHead % slots)] <= current - slots) maxHead++;
+        while (minHead < minTail && minQueue[(int) (minHead % slots)] <= current - slots) minHead++;
+        // Новый отрезок и пропущенные без точек ещё хранят данные прошлого круга кольца
+        long from = previous == Long.MIN_VALUE ? current - slots : Math.max(previous, current - slots);
+        for (long s = from + 1; s <= current; s++) {
+            slotStats[index(s)].clear();
+            slotSketches[index(s)].clear();
+        }
+        closedStats.clear();
+        closedSketch.clear();
+        for (long s = current - slots + 1; s < current; s++) {
+            closedStats.merge(slotStats[index(s)]);
+            closedSketch.merge(slotSketches[index(s)]);
+        }
+    }
+
+    private int index(long slot) {
+        return (int) Math.floorMod(slot, (long) slots);
+    }
+
+    public synchronized long getCount() {
+        return current == Long.MIN_VALUE ? 0 : closedStats.getCount() + slotStats[index(current)].getCount();
+    }
+
+    public synchronized double getMax() {
+        double max = current == Long.MIN_VALUE ? Double.NaN : slotStats[index(current)].getMax();
+        if (maxHead < maxTail) {
+            double closed = slotStats[index(maxQueue[(int) (maxHead % slots)])].getMax();
+            if (Double.isNaN(max) || closed > max) max = closed;
+        }
+        return max;
+    }
+
+    public synchronized double getMin() {
+        double min = current == Long.MIN_VALUE ? Double.NaN : slotStats[index(current)].getMin();
+        if (minHead < minTail) {
+            double closed = slotStats[index(minQueue[(int) (minHead % slots)])].getMin();
+            if (Double.isNaN(min) || closed < min) min = closed;
+        }
+        return min;
+    }
+
+    public synchronized double getMean() {
+        return merged().getMean();
+    }
+
+    public synchronized double getStdDev() {
+        return merged().getStdDev();
+    }
+
+    // q от 0 до 1
+    public synchronized double quantile(double q) {
+        mergedSketch();
+        return scratchSketch.quantile(q);
+    }
+
+    public synchronized StatsSummary summary() {
+        RunningStats stats = merged();
+        mergedSketch();
+        return new StatsSummary(stats.getCount(), getMin(), getMax(), stats.getMean(), stats.getStdDev(),
+                scratchSketch.quantile(0.5), scratchSketch.quantile(0.95), scratchSketch.quantile(0.99));
+    }
+
+    // Копия скетча окна — например, чтобы слить окна нескольких хостов
+    public synchronized QuantileSketch sketch() {
+        mergedSketch();
+        return scratchSketch.copy();
+    }
+
+    private RunningStats merged() {
+        scratchStats.copyFrom(closedStats);
+        if (current != Long.MIN_VALUE) scratchStats.merge(slotStats[index(current)]);
+        return scratchStats;
+    }
+
+    private void mergedSketch() {
+        scratchSketch.copyFrom(closedSketch);
+        if (current != Long.MIN_VALUE) scratchSketch.merge(slotSketches[index(current)]);
+    }
+}
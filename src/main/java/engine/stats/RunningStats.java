@@ -0,0 +1,68 @@
+package engine.stats;
+
+// Счётчик, среднее и дисперсия по Уэлфорду плюс минимум и максимум. Два набора сливаются
+// формулой Чана, поэтому статистику можно собирать по кускам и объединять без исходных точек.
+public final class RunningStats {
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (count == 1 || value < min) min = value;
+        if (count == 1 || value > max) max = value;
+    }
+
+    public void merge(RunningStats other) {
+        if (other.count == 0) return;
+        if (count == 0) {
+            copyFrom(other);
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        if (other.min < min) min = other.min;
+        if (other.max > max) max = other.max;
+    }
+
+    public void copyFrom(RunningStats other) {
+        count = other.count;
+        mean = other.mean;
+        m2 = other.m2;
+        min = other.min;
+        max = other.max;
+    }
+
+    public void clear() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    public long getCount() { return count; }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+
+    public double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    // Выборочная дисперсия
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : count == 1 ? 0 : Double.NaN;
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+}
@@ -0,0 +1,9 @@
+package engine.stats;
+
+// Агрегаты окна одной метрики; при пустом окне count 0, остальное NaN
+public record StatsSummary(long count, double min, double max, double mean, double stdDev,
+                           double p50, double p95, double p99) {
+    public boolean isEmpty() {
+        return count == 0;
+    }
+}
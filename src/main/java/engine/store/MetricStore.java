@@ -0,0 +1,301 @@
+package engine.store;
+
+import engine.SensorSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class MetricStore implements Closeable {
+    public static final int DEFAULT_SEGMENT_BYTES = 4 << 20;
+    public static final long DEFAULT_SEGMENT_SPAN_MS = TimeUnit.HOURS.toMillis(1);
+    public static final long DEFAULT_MAX_AGE_MS = TimeUnit.DAYS.toMillis(30);
+    public static final long DEFAULT_MAX_TOTAL_BYTES = 512L << 20;
+    public static final long DEFAULT_COMPACT_AFTER_MS = TimeUnit.DAYS.toMillis(1);
+    public static final long COMPACTED_RESOLUTION_MS = 10_000;
+
+    private static final long INDEX_INTERVAL_MS = 5_000;
+    private static final String SEGMENT_PREFIX = "seg-";
+    private static final String SEGMENT_SUFFIX = ".ivs";
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final String LOCK_FILE = "lock";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long segmentSpanMs;
+    private final long maxAgeMs;
+    private final long maxTotalBytes;
+    private final long compactAfterMs;
+
+    private final BlockingQueue<SensorSnapshot> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private ByteBuffer encodeBuffer = ByteBuffer.allocate(64 * 1024);
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong oversized = new AtomicLong();
+    private final Object segmentsLock = new Object();
+    private final List<Path> closedSegments = new ArrayList<>();
+    private final Thread writer;
+    // Окно, агент и консоль пишут в один каталог; открыть его может только один процесс
+    private final FileChannel lockChannel;
+
+    private volatile Segment active;
+    private volatile boolean running = true;
+
+    public MetricStore(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_SEGMENT_SPAN_MS,
+                DEFAULT_MAX_AGE_MS, DEFAULT_MAX_TOTAL_BYTES, DEFAULT_COMPACT_AFTER_MS);
+    }
+
+    public MetricStore(Path directory, int segmentBytes, long segmentSpanMs,
+                       long maxAgeMs, long maxTotalBytes, long compactAfterMs) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = Math.max(Segment.DATA_START + 4096, segmentBytes);
+        this.segmentSpanMs = segmentSpanMs;
+        this.maxAgeMs = maxAgeMs;
+        this.maxTotalBytes = maxTotalBytes;
+        this.compactAfterMs = compactAfterMs;
+
+        Files.createDirectories(directory);
+        lockChannel = lock(directory);
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+
+        writer = new Thread(this::writeLoop, "ironvision-store");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static FileChannel lock(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.tryLock() != null) return channel;
+        } catch (OverlappingFileLockException ignored) {
+        }
+        channel.close();
+        throw new IOException("Каталог " + directory + " уже занят другим экземпляром");
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".ironvision", "history");
+    }
+
+    // Никогда не блокирует поток опроса: при переполнении очереди снимок отбрасывается
+    public void append(SensorSnapshot snapshot) {
+        if (!running || !queue.offer(snapshot)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Записи, которые не помещаются даже в пустой сегмент, в хранилище не попадают
+    public long getOversizedCount() {
+        return oversized.get();
+    }
+
+    public void scan(long from, long to, Consumer<SensorSnapshot> consumer) {
+        List<Path> paths;
+        Segment current;
+        synchronized (segmentsLock) {
+            paths = new ArrayList<>(closedSegments);
+            current = active;
+        }
+
+        for (int i = 0; i < paths.size(); i++) {
+            long start = startTimeOf(paths.get(i));
+            long nextStart = i + 1 < paths.size() ? startTimeOf(paths.get(i + 1))
+                    : current != null ? current.getStartTime() : Long.MAX_VALUE;
+            if (nextStart < from || start > to) continue;
+            try (Segment segment = Segment.open(paths.get(i), false)) {
+                segment.scan(from, to, consumer);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Не удалось прочитать сегмент " + paths.get(i) + ": " + e.getMessage());
+            }
+        }
+        if (current != null && current.getStartTime() <= to) {
+            current.scan(from, to, consumer);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> paths = listSegments();
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            if (i == paths.size() - 1) {
+                try {
+                    active = Segment.open(path, true);
+                    continue;
+                } catch (IOException e) {
+                    System.err.println("Сегмент " + path + " повреждён, начинаем новый: " + e.getMessage());
+                }
+            }
+            closedSegments.add(path);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted((a, b) -> Long.compare(startTimeOf(a), startTimeOf(b)))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static long startTimeOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                SensorSnapshot snapshot = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (snapshot != null) write(snapshot);
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void write(SensorSnapshot snapshot) throws IOException {
+        int size = SnapshotCodec.maxEncodedSize(snapshot);
+        if (encodeBuffer.capacity() < size) {
+            encodeBuffer = ByteBuffer.allocate(Math.max(size, encodeBuffer.capacity() * 2));
+        }
+        encodeBuffer.clear();
+        SnapshotCodec.encode(snapshot, encodeBuffer);
+        encodeBuffer.flip();
+
+        if (Segment.RECORD_HEADER + encodeBuffer.remaining() > segmentBytes - Segment.DATA_START) {
+            if (oversized.getAndIncrement() == 0) {
+                System.err.println("Снимок не помещается в сегмент (" + encodeBuffer.remaining()
+                        + " байт), такие записи пропускаются");
+            }
+            return;
+        }
+
+        long timestamp = snapshot.getTimestamp();
+        Segment segment = active;
+        if (segment == null || timestamp - segment.getStartTime() >= segmentSpanMs
+                || !segment.append(encodeBuffer, timestamp, INDEX_INTERVAL_MS)) {
+            roll(timestamp);
+            if (!active.append(encodeBuffer, timestamp, INDEX_INTERVAL_MS)) oversized.incrementAndGet();
+        }
+    }
+
+    private void roll(long timestamp) throws IOException {
+        Segment previous = active;
+        Path path = directory.resolve(SEGMENT_PREFIX + timestamp + SEGMENT_SUFFIX);
+        Segment next = Segment.create(path, timestamp, segmentBytes);
+        synchronized (segmentsLock) {
+            if (previous != null) closedSegments.add(previous.getPath());
+            active = next;
+        }
+        if (previous != null) {
+            previous.force();
+            previous.close();
+        }
+        applyRetention(timestamp);
+    }
+
+    private void applyRetention(long now) {
+        List<Path> paths;
+        synchronized (segmentsLock) {
+            paths = new ArrayList<>(closedSegments);
+        }
+
+        long total = segmentBytes;
+        for (Path path : paths) {
+            total += sizeOf(path);
+        }
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            long end = i + 1 < paths.size() ? startTimeOf(paths.get(i + 1)) : now;
+            if (now - end > maxAgeMs || total > maxTotalBytes) {
+                long size = sizeOf(path);
+                if (delete(path)) total -= size;
+            } else if (now - end > compactAfterMs) {
+                compact(path);
+            }
+        }
+    }
+
+    private void compact(Path path) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (Segment.isCompacted(path)) return;
+            try (Segment segment = Segment.open(path, false)) {
+                segment.writeCompacted(tmp, COMPACTED_RESOLUTION_MS, INDEX_INTERVAL_MS);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // На Windows файл может быть ещё отображён в память, попробуем при следующей ротации
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) { }
+        }
+    }
+
+    private boolean delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+            synchronized (segmentsLock) {
+                closedSegments.remove(path);
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Segment segment = active;
+        if (segment != null) {
+            segment.force();
+            segment.close();
+        }
+        lockChannel.close();
+    }
+}
@@ -0,0 +1,104 @@
+package engine.store;
+
+import engine.*;
+import engine.sched.Clock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Обёртка, которая пишет каждый снимок провайдера в файл записи: заголовок, затем записи
+// [длина][нс от начала записи][снимок в формате SnapshotCodec]. Частичные снимки (один источник
+// при параллельном чтении) пишутся как есть, ReplaySensorProvider их снова склеит.
+public class RecordingSensorProvider implements SensorProvider, AutoCloseable {
+    public static final int MAGIC = 0x49565231; // "IVR1"
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_HEADER_BYTES = 12;
+
+    private final SensorProvider delegate;
+    private final Clock clock;
+    private final FileChannel file;
+    private final long startNanos;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private long recorded;
+
+    public RecordingSensorProvider(SensorProvider delegate, Path path) throws IOException {
+        this(delegate, path, Clock.SYSTEM);
+    }
+
+    public RecordingSensorProvider(SensorProvider delegate, Path path, Clock clock) throws IOException {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.startNanos = clock.nanoTime();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(1).putLong(System.currentTimeMillis()).flip();
+        writeFully(header);
+    }
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        return sample(SensorSnapshot.CPU).getCpu();
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        return sample(SensorSnapshot.RAM).getRam();
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        return sample(SensorSnapshot.GPU).getGpu();
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        return sample(SensorSnapshot.DISKS).getDisks();
+    }
+
+    @Override
+    public SensorSnapshot sample(int sources) {
+        SensorSnapshot snapshot = delegate.sample(sources);
+        record(snapshot);
+        return snapshot;
+    }
+
+    private synchronized void record(SensorSnapshot snapshot) {
+        long elapsed = clock.nanoTime() - startNanos;
+        int size = RECORD_HEADER_BYTES + SnapshotCodec.maxEncodedSize(snapshot);
+        if (buffer.capacity() < size) buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        buffer.clear();
+        buffer.position(RECORD_HEADER_BYTES);
+        SnapshotCodec.encode(snapshot, buffer);
+        int length = buffer.position() - RECORD_HEADER_BYTES;
+        buffer.putInt(0, length).putLong(4, elapsed).flip();
+        try {
+            writeFully(buffer);
+            recorded++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized long getRecordedCount() {
+        return recorded;
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            file.write(data);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        file.force(false);
+        file.close();
+    }
+}
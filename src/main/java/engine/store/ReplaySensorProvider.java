@@ -0,0 +1,189 @@
+package engine.store;
+
+import engine.*;
+import engine.sched.Clock;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Проигрывает файл RecordingSensorProvider. Время записи идёт со скоростью speed относительно clock;
+// каждый вызов отдаёт состояние на текущий момент записи с исходными метками времени.
+// При speed = AS_FAST_AS_POSSIBLE запись сдвигается на один тик: подряд идущие записи с непересекающимися
+// источниками (частичные снимки параллельного чтения) применяются вместе, а следующий тик начинается,
+// когда источник запрашивают повторно. Так параллельное чтение по источникам не проматывает запись.
+public class ReplaySensorProvider implements SensorProvider, AutoCloseable {
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    private final FileChannel file;
+    private final MappedByteBuffer data;
+    private final Clock clock;
+    private final double speed;
+    private final long recordedAtMillis;
+    // Границы целых записей; оборванный хвост файла отбрасывается
+    private final int end;
+    private final int recordCount;
+    private final long lapMillis;
+    private final long lapNanos;
+    private boolean loop;
+
+    private long startNanos;
+    private int lap;
+    private int position;
+    private SensorSnapshot state;
+    private int seenSources;
+    private int servedSources;
+    private long replayed;
+
+    public ReplaySensorProvider(Path path, double speed) throws IOException {
+        this(path, speed, Clock.SYSTEM);
+    }
+
+    public ReplaySensorProvider(Path path, double speed, Clock clock) throws IOException {
+        if (!(speed > 0)) throw new IllegalArgumentException("speed must be positive: " + speed);
+        this.file = FileChannel.open(path, StandardOpenOption.READ);
+        this.data = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        this.clock = clock;
+        this.speed = speed;
+        if (data.limit() < RecordingSensorProvider.HEADER_BYTES || data.getInt(0) != RecordingSensorProvider.MAGIC) {
+            file.close();
+            throw new IOException("Не файл записи IronVision: " + path);
+        }
+        this.recordedAtMillis = data.getLong(8);
+
+        int at = RecordingSensorProvider.HEADER_BYTES;
+        int count = 0;
+        long firstTimestamp = 0, lastTimestamp = 0, lastElapsed = 0;
+        while (hasRecord(at)) {
+            long timestamp = SnapshotCodec.peekTimestamp(data, at + RecordingSensorProvider.RECORD_HEADER_BYTES);
+            if (count == 0) firstTimestamp = timestamp;
+            lastTimestamp = timestamp;
+            lastElapsed = data.getLong(at + 4);
+            count++;
+            at += RecordingSensorProvider.RECORD_HEADER_BYTES + data.getInt(at);
+        }
+        this.end = at;
+        this.recordCount = count;
+        // Круг длиннее записи на средний интервал, чтобы последняя и первая записи не совпали по времени
+        long step = count > 1 ? lastElapsed / (count - 1) : 1_000_000_000L;
+        this.lapNanos = lastElapsed + step;
+        this.lapMillis = lastTimestamp - firstTimestamp + Math.max(1, step / 1_000_000);
+        rewind();
+    }
+
+    // По окончании записи начать сначала, сдвинув метки времени на длину записи
+    public synchronized ReplaySensorProvider setLoop(boolean loop) {
+        this.loop = loop;
+        return this;
+    }
+
+    public synchronized void rewind() {
+        position = RecordingSensorProvider.HEADER_BYTES;
+        startNanos = clock.nanoTime();
+        lap = 0;
+        state = null;
+        seenSources = 0;
+        servedSources = SensorSnapshot.ALL;
+    }
+
+    public long getRecordedAtMillis() { return recordedAtMillis; }
+    public int getRecordCount() { return recordCount; }
+
+    public synchronized boolean isFinished() {
+        return !loop && position >= end;
+    }
+
+    public synchronized long getReplayedCount() {
+        return replayed;
+    }
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        return sample(SensorSnapshot.CPU).getCpu();
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        return sample(SensorSnapshot.RAM).getRam();
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        return sample(SensorSnapshot.GPU).getGpu();
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        return sample(SensorSnapshot.DISKS).getDisks();
+    }
+
+    @Override
+    public synchronized SensorSnapshot sample(int sources) {
+        if (speed == AS_FAST_AS_POSSIBLE) {
+            if ((servedSources & sources) != 0) {
+                applyTick();
+                servedSources = 0;
+            }
+            servedSources |= sources;
+        } else {
+            double target = (clock.nanoTime() - startNanos) * speed;
+            while (nextRecord() && data.getLong(position + 4) + lap * lapNanos <= target) {
+                applyNext();
+            }
+        }
+        if (state == null) {
+            return new SensorSnapshot(recordedAtMillis, 0, null, null, null, null);
+        }
+        return new SensorSnapshot(state.getTimestamp(), sources & seenSources,
+                state.getCpu(), state.getRam(), state.getGpu(), state.getDisks());
+    }
+
+    // Есть ли следующая запись; в режиме повтора в конце файла начинается новый круг
+    private boolean nextRecord() {
+        if (position < end) return true;
+        if (!loop || recordCount == 0) return false;
+        lap++;
+        position = RecordingSensorProvider.HEADER_BYTES;
+        return true;
+    }
+
+    // Записи одного тика: пока источники следующей записи не пересекаются с уже применёнными.
+    // Не больше круга за раз — иначе записи без источников зациклили бы повтор
+    private void applyTick() {
+        int applied = 0;
+        for (int n = 0; n < recordCount && nextRecord(); n++) {
+            int recordSources = data.getInt(position + RecordingSensorProvider.RECORD_HEADER_BYTES + 8);
+            if ((recordSources & applied) != 0) break;
+            applied |= recordSources;
+            applyNext();
+        }
+    }
+
+    private boolean hasRecord(int at) {
+        if (at + RecordingSensorProvider.RECORD_HEADER_BYTES > data.limit()) return false;
+        int length = data.getInt(at);
+        return length > 0 && at + RecordingSensorProvider.RECORD_HEADER_BYTES + length <= data.limit();
+    }
+
+    private void applyNext() {
+        int length = data.getInt(position);
+        SensorSnapshot snapshot = SnapshotCodec.decode(
+                data.slice(position + RecordingSensorProvider.RECORD_HEADER_BYTES, length));
+        if (lap > 0) {
+            snapshot = new SensorSnapshot(snapshot.getTimestamp() + lap * lapMillis, snapshot.getSources(),
+                    snapshot.getCpu(), snapshot.getRam(), snapshot.getGpu(), snapshot.getDisks());
+        }
+        state = snapshot.withMissingFrom(state);
+        seenSources |= snapshot.getSources();
+        position += RecordingSensorProvider.RECORD_HEADER_BYTES + length;
+        replayed++;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,249 @@
+package engine.store;
+
+import engine.SensorSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Формат файла: заголовок, таблица индекса (время -> смещение), затем записи [длина][crc32][данные].
+// Длина пишется последней и служит признаком того, что запись завершена.
+final class Segment implements Closeable {
+    static final int MAGIC = 0x49564D53;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int INDEX_ENTRIES = 1024;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final int DATA_START = HEADER_SIZE + INDEX_ENTRIES * INDEX_ENTRY_SIZE;
+    static final int RECORD_HEADER = 8;
+
+    static final int FLAG_COMPACTED = 1;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_START_TIME = 8;
+    private static final int OFFSET_INDEX_COUNT = 16;
+    private static final int OFFSET_FLAGS = 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long startTime;
+    private final CRC32 crc = new CRC32();
+
+    private int position;
+    private int indexCount;
+    private long lastIndexedTime = Long.MIN_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private volatile int committed;
+
+    private Segment(Path path, FileChannel channel, MappedByteBuffer buffer, long startTime) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.startTime = startTime;
+    }
+
+    static Segment create(Path path, long startTime, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+        buffer.putInt(OFFSET_VERSION, VERSION);
+        buffer.putLong(OFFSET_START_TIME, startTime);
+        buffer.putInt(OFFSET_INDEX_COUNT, 0);
+        buffer.putInt(OFFSET_FLAGS, 0);
+
+        Segment segment = new Segment(path, channel, buffer, startTime);
+        segment.position = DATA_START;
+        segment.committed = DATA_START;
+        return segment;
+    }
+
+    static Segment open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < DATA_START || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Повреждённый сегмент: " + path);
+        }
+        MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE
+                : FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buffer.getInt(OFFSET_MAGIC) != MAGIC || buffer.getInt(OFFSET_VERSION) != VERSION) {
+            channel.close();
+            throw new IOException("Неизвестный формат сегмента: " + path);
+        }
+
+        Segment segment = new Segment(path, channel, buffer, buffer.getLong(OFFSET_START_TIME));
+        segment.recover(writable);
+        return segment;
+    }
+
+    // Проходим записи до первой битой: всё, что дальше, считается оборванным хвостом
+    private void recover(boolean writable) {
+        int pos = DATA_START;
+        while (pos + RECORD_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + RECORD_HEADER + length > buffer.capacity()) break;
+            if (checksum(pos + RECORD_HEADER, length) != buffer.getInt(pos + 4)) break;
+            lastTimestamp = SnapshotCodec.peekTimestamp(buffer, pos + RECORD_HEADER);
+            pos += RECORD_HEADER + length;
+        }
+        position = pos;
+        committed = pos;
+
+        int storedEntries = Math.min(buffer.getInt(OFFSET_INDEX_COUNT), INDEX_ENTRIES);
+        indexCount = 0;
+        for (int i = 0; i < storedEntries; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            if (buffer.getLong(entry + 8) >= pos) break;
+            lastIndexedTime = buffer.getLong(entry);
+            indexCount++;
+        }
+
+        if (writable) {
+            for (int i = pos; i < buffer.capacity(); i++) {
+                if (buffer.get(i) != 0) buffer.put(i, (byte) 0);
+            }
+            buffer.putInt(OFFSET_INDEX_COUNT, indexCount);
+        }
+    }
+
+    boolean append(ByteBuffer payload, long timestamp, long indexIntervalMs) {
+        int length = payload.remaining();
+        if (position + RECORD_HEADER + length > buffer.capacity()) return false;
+
+        int dataPos = position + RECORD_HEADER;
+        buffer.put(dataPos, payload, payload.position(), length);
+        buffer.putInt(position + 4, checksum(dataPos, length));
+        buffer.putInt(position, length);
+
+        if (indexCount < INDEX_ENTRIES && (indexCount == 0 || timestamp - lastIndexedTime >= indexIntervalMs)) {
+            int entry = HEADER_SIZE + indexCount * INDEX_ENTRY_SIZE;
+            buffer.putLong(entry, timestamp);
+            buffer.putLong(entry + 8, position);
+            indexCount++;
+            buffer.putInt(OFFSET_INDEX_COUNT, indexCount);
+            lastIndexedTime = timestamp;
+        }
+
+        position += RECORD_HEADER + length;
+        lastTimestamp = timestamp;
+        committed = position;
+        return true;
+    }
+
+    void scan(long from, long to, Consumer<SensorSnapshot> consumer) {
+        int end = committed;
+        ByteBuffer view = buffer.duplicate();
+        int pos = seek(from);
+        while (pos + RECORD_HEADER <= end) {
+            int length = view.getInt(pos);
+            if (length <= 0) break;
+            int dataPos = pos + RECORD_HEADER;
+            long timestamp = SnapshotCodec.peekTimestamp(view, dataPos);
+            if (timestamp > to) break;
+            if (timestamp >= from) {
+                view.limit(dataPos + length).position(dataPos);
+                consumer.accept(SnapshotCodec.decode(view));
+                view.clear();
+            }
+            pos = dataPos + length;
+        }
+    }
+
+    // Прореживает закрытый сегмент до одной записи на bucketMs и пишет его без отображения в память,
+    // чтобы файл занимал ровно столько, сколько в нём данных
+    void writeCompacted(Path target, long bucketMs, long indexIntervalMs) throws IOException {
+        int end = committed;
+        ByteBuffer out = ByteBuffer.allocate(end);
+        out.putInt(OFFSET_MAGIC, MAGIC);
+        out.putInt(OFFSET_VERSION, VERSION);
+        out.putLong(OFFSET_START_TIME, startTime);
+        out.putInt(OFFSET_FLAGS, FLAG_COMPACTED);
+
+        int written = DATA_START;
+        int entries = 0;
+        long lastEntryTime = Long.MIN_VALUE;
+        long lastBucket = Long.MIN_VALUE;
+        int pos = DATA_START;
+        while (pos + RECORD_HEADER <= end) {
+            int length = buffer.getInt(pos);
+            if (length <= 0) break;
+            long timestamp = SnapshotCodec.peekTimestamp(buffer, pos + RECORD_HEADER);
+            long bucket = Math.floorDiv(timestamp, bucketMs);
+            if (bucket != lastBucket) {
+                lastBucket = bucket;
+                if (entries < INDEX_ENTRIES && (entries == 0 || timestamp - lastEntryTime >= indexIntervalMs)) {
+                    int entry = HEADER_SIZE + entries * INDEX_ENTRY_SIZE;
+                    out.putLong(entry, timestamp);
+                    out.putLong(entry + 8, written);
+                    entries++;
+                    lastEntryTime = timestamp;
+                }
+                out.put(written, buffer, pos, RECORD_HEADER + length);
+                written += RECORD_HEADER + length;
+            }
+            pos += RECORD_HEADER + length;
+        }
+        out.putInt(OFFSET_INDEX_COUNT, entries);
+        out.limit(written).position(0);
+
+        try (FileChannel file = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                file.write(out);
+            }
+            file.force(true);
+        }
+    }
+
+    private int seek(long from) {
+        int result = DATA_START;
+        for (int i = 0; i < indexCount; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            if (buffer.getLong(entry) > from) break;
+            result = (int) buffer.getLong(entry + 8);
+        }
+        return result;
+    }
+
+    private int checksum(int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + length).position(offset);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    Path getPath() { return path; }
+    long getStartTime() { return startTime; }
+    long getLastTimestamp() { return lastTimestamp; }
+    int getUsedBytes() { return committed; }
+    boolean isEmpty() { return committed == DATA_START; }
+
+    static boolean isCompacted(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            return header.getInt(OFFSET_MAGIC) == MAGIC && (header.getInt(OFFSET_FLAGS) & FLAG_COMPACTED) != 0;
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,113 @@
+package engine.store;
+
+import engine.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SnapshotCodec {
+    public static final int MAX_STRING_BYTES = 255;
+    public static final int MAX_DISKS = 0xFFFF;
+    private static final int MAX_STRING_FIELD = 1 + MAX_STRING_BYTES;
+    private static final int FIXED_BYTES = 8 + 4 + MAX_STRING_FIELD + 3 * 8 + 4 + 2 * 8
+            + MAX_STRING_FIELD + 2 * 8 + 2 * 8 + 2;
+    private static final int DISK_BYTES = MAX_STRING_FIELD + 2 * 8;
+
+    private SnapshotCodec() {}
+
+    // Верхняя граница размера записи: строки считаются по максимуму
+    public static int maxEncodedSize(SensorSnapshot snapshot) {
+        return FIXED_BYTES + Math.min(snapshot.getDisks().size(), MAX_DISKS) * DISK_BYTES;
+    }
+
+    public static void encode(SensorSnapshot snapshot, ByteBuffer out) {
+        out.putLong(snapshot.getTimestamp());
+        out.putInt(snapshot.getSources());
+
+        CpuInfo cpu = snapshot.getCpu();
+        putString(out, cpu.getName());
+        out.putDouble(cpu.getUsage());
+        out.putDouble(cpu.getTemperature());
+        out.putDouble(cpu.getBaseClock());
+        out.putInt(cpu.getCores());
+
+        RamInfo ram = snapshot.getRam();
+        out.putLong(ram.getTotal());
+        out.putLong(ram.getFree());
+
+        GpuInfo gpu = snapshot.getGpu();
+        putString(out, gpu.getName());
+        out.putDouble(gpu.getGpuLoad());
+        out.putDouble(gpu.getTemperature());
+        out.putLong(gpu.getVramTotal());
+        out.putLong(gpu.getVramUsed());
+
+        List<DiskInfo> disks = snapshot.getDisks();
+        int diskCount = Math.min(disks.size(), MAX_DISKS);
+        out.putShort((short) diskCount);
+        for (int i = 0; i < diskCount; i++) {
+            DiskInfo disk = disks.get(i);
+            putString(out, disk.getName());
+            out.putLong(disk.getTotalSpace());
+            out.putLong(disk.getFreeSpace());
+        }
+    }
+
+    public static SensorSnapshot decode(ByteBuffer in) {
+        long timestamp = in.getLong();
+        int sources = in.getInt();
+
+        CpuInfo cpu = new CpuInfo();
+        cpu.setName(getString(in));
+        cpu.setUsage(in.getDouble());
+        cpu.setTemperature(in.getDouble());
+        cpu.setBaseClock(in.getDouble());
+        cpu.setCores(in.getInt());
+
+        RamInfo ram = new RamInfo();
+        ram.setTotal(in.getLong());
+        ram.setFree(in.getLong());
+
+        GpuInfo gpu = new GpuInfo();
+        gpu.setName(getString(in));
+        gpu.setGpuLoad(in.getDouble());
+        gpu.setTemperature(in.getDouble());
+        gpu.setVramTotal(in.getLong());
+        gpu.setVramUsed(in.getLong());
+
+        int diskCount = in.getShort() & 0xFFFF;
+        List<DiskInfo> disks = new ArrayList<>(diskCount);
+        for (int i = 0; i < diskCount; i++) {
+            DiskInfo disk = new DiskInfo();
+            disk.setName(getString(in));
+            disk.setTotalSpace(in.getLong());
+            disk.setFreeSpace(in.getLong());
+            disks.add(disk);
+        }
+        return new SensorSnapshot(timestamp, sources, cpu, ram, gpu, disks);
+    }
+
+    public static long peekTimestamp(ByteBuffer in, int offset) {
+        return in.getLong(offset);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        // Обрезка только по границе символа: байты продолжения UTF-8 имеют вид 10xxxxxx
+        if (length < bytes.length) {
+            while (length > 0 && (bytes[length] & 0xC0) == 0x80) length--;
+        }
+        out.put((byte) length);
+        out.put(bytes, 0, length);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.get() & 0xFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,371 @@
+package engine.synthetic;
+
+import engine.*;
+import engine.sched.Clock;
+import engine.sensors.SensorBackend;
+import engine.sensors.SensorKind;
+import engine.sensors.SensorRegistry;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Искусственная машина произвольного размера для проверки масштабирования. Нагрузка ядер и GPU —
+// случайное блуждание к меняющейся цели, температура догоняет нагрузку с тепловой инерцией,
+// диски заполняются и время от времени чистятся. Всё задаётся seed: у каждого источника свой
+// генератор, поэтому порядок опроса источников не влияет на значения. С ManualClock
+// последовательность снимков полностью воспроизводима. Как бэкенд реестра отдаёт каждое ядро, каждую
+// GPU и каждый диск отдельными каналами.
+public class SyntheticSensorProvider implements SensorProvider, SensorBackend {
+    private static final double AMBIENT = 30.0;
+    private static final double CPU_TAU_SECONDS = 8.0;
+    private static final double GPU_TAU_SECONDS = 15.0;
+    private static final double LOAD_TAU_SECONDS = 2.0;
+    private static final double PHASE_SECONDS = 20.0;
+    // Долгая пауза между опросами не должна превращаться в один гигантский шаг модели
+    private static final double MAX_STEP_SECONDS = 5.0;
+    private static final double BASE_CLOCK_MHZ = 2400;
+    private static final double BOOST_CLOCK_MHZ = 3800;
+    private static final long GIB = 1L << 30;
+    private static final long[] DISK_SIZES = { 64 * GIB, 256 * GIB, 512 * GIB, 1024 * GIB, 4096 * GIB, 16384 * GIB };
+
+    private final int logicalCount;
+    private final int gpuCount;
+    private final int diskCount;
+    private final Clock clock;
+
+    private final SplittableRandom cpuRandom;
+    private final SplittableRandom ramRandom;
+    private final SplittableRandom gpuRandom;
+    private final SplittableRandom diskRandom;
+    private final long[] lastNanos = new long[SensorSnapshot.SOURCE_COUNT];
+
+    private final String cpuName;
+    private final double[] coreLoads;
+    private final double[] coreTargets;
+    private final double[] coreFrequencies;
+    private double cpuTemperature = AMBIENT;
+
+    private final long ramTotal;
+    private long ramUsed;
+    private double ramTarget;
+
+    private final String[] gpuNames;
+    private final double[] gpuLoads;
+    private final double[] gpuTargets;
+    private final double[] gpuTemperatures;
+    private final long gpuVramTotal = 24 * GIB;
+    private final long[] gpuVramUsed;
+
+    private final String[] diskNames;
+    private final long[] diskTotals;
+    private final long[] diskUsed;
+    private final double[] diskFillRates;
+
+    private int firstCoreChannel;
+    private int firstGpuChannel;
+    private int firstDiskChannel;
+    private int cpuTemperatureChannel;
+
+    public SyntheticSensorProvider(long seed, int logicalCount, int gpuCount, int diskCount) {
+        this(seed, logicalCount, gpuCount, diskCount, Clock.SYSTEM);
+    }
+
+    public SyntheticSensorProvider(long seed, int logicalCount, int gpuCount, int diskCount, Clock clock) {
+        if (logicalCount < 1 || gpuCount < 0 || diskCount < 0) {
+            throw new IllegalArgumentException("cpus >= 1, gpus >= 0, disks >= 0");
+        }
+        this.logicalCount = logicalCount;
+        this.gpuCount = gpuCount;
+        this.diskCount = diskCount;
+        this.clock = clock;
+        SplittableRandom root = new SplittableRandom(seed);
+        cpuRandom = root.split();
+        ramRandom = root.split();
+        gpuRandom = root.split();
+        diskRandom = root.split();
+        for (int i = 0; i < lastNanos.length; i++) {
+            lastNanos[i] = Long.MIN_VALUE;
+        }
+
+        cpuName = "Synthetic CPU " + logicalCount + "-Thread";
+        coreLoads = new double[logicalCount];
+        coreTargets = new double[logicalCount];
+        coreFrequencies = new double[logicalCount];
+        for (int i = 0; i < logicalCount; i++) {
+            coreTargets[i] = nextTarget(cpuRandom);
+            coreLoads[i] = coreTargets[i];
+        }
+
+        ramTotal = Math.max(16, logicalCount * 2L) * GIB;
+        ramTarget = 0.3 + ramRandom.nextDouble() * 0.5;
+        ramUsed = (long) (ramTotal * ramTarget);
+
+        gpuNames = new String[gpuCount];
+        gpuLoads = new double[gpuCount];
+        gpuTargets = new double[gpuCount];
+        gpuTemperatures = new double[gpuCount];
+        gpuVramUsed = new long[gpuCount];
+        for (int i = 0; i < gpuCount; i++) {
+            gpuNames[i] = gpuCount == 1 ? "Synthetic GPU" : "Synthetic GPU " + i;
+            gpuTargets[i] = nextTarget(gpuRandom);
+            gpuLoads[i] = gpuTargets[i];
+            gpuTemperatures[i] = AMBIENT + 10;
+            gpuVramUsed[i] = (long) (gpuVramTotal * (0.1 + gpuLoads[i] / 100.0 * 0.8));
+        }
+
+        diskNames = new String[diskCount];
+        diskTotals = new long[diskCount];
+        diskUsed = new long[diskCount];
+        diskFillRates = new double[diskCount];
+        for (int i = 0; i < diskCount; i++) {
+            diskNames[i] = i == 0 ? "/" : String.format("/mnt/vol%04d", i);
+            diskTotals[i] = DISK_SIZES[diskRandom.nextInt(DISK_SIZES.length)];
+            diskUsed[i] = (long) (diskTotals[i] * (0.1 + diskRandom.nextDouble() * 0.8));
+            diskFillRates[i] = nextFillRate(diskTotals[i]);
+        }
+    }
+
+    // Формат "cpus=512,gpus=64,disks=2000,seed=7"; пропущенные поля берутся по умолчанию
+    public static SyntheticSensorProvider parse(String spec) {
+        long seed = 1;
+        int cpus = 16, gpus = 1, disks = 4;
+        if (spec != null && !spec.isBlank()) {
+            for (String part : spec.split(",")) {
+                String[] kv = part.split("=", 2);
+                if (kv.length != 2) throw new IllegalArgumentException("Ожидалось имя=значение: " + part);
+                String value = kv[1].trim();
+                switch (kv[0].trim()) {
+                    case "cpus" -> cpus = Integer.parseInt(value);
+                    case "gpus" -> gpus = Integer.parseInt(value);
+                    case "disks" -> disks = Integer.parseInt(value);
+                    case "seed" -> seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Неизвестный параметр: " + kv[0]);
+                }
+            }
+        }
+        return new SyntheticSensorProvider(seed, cpus, gpus, disks);
+    }
+
+    public int getLogicalCount() { return logicalCount; }
+    public int getGpuCount() { return gpuCount; }
+    public int getDiskCount() { return diskCount; }
+
+    @Override
+    public CpuInfo getCpuInfo() {
+        return sample(SensorSnapshot.CPU).getCpu();
+    }
+
+    @Override
+    public RamInfo getRamInfo() {
+        return sample(SensorSnapshot.RAM).getRam();
+    }
+
+    @Override
+    public GpuInfo getGpuInfo() {
+        return sample(SensorSnapshot.GPU).getGpu();
+    }
+
+    @Override
+    public List<DiskInfo> getDisksInfo() {
+        return sample(SensorSnapshot.DISKS).getDisks();
+    }
+
+    @Override
+    public SensorSnapshot sample(int sources) {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        sampleInto(buffer, sources);
+        return buffer.detach();
+    }
+
+    // В снимок попадает первая GPU, остальные доступны через readGpu
+    @Override
+    public synchronized void sampleInto(SnapshotBuffer buffer, int sources) {
+        buffer.begin(System.currentTimeMillis(), sources);
+        if ((sources & SensorSnapshot.CPU) != 0) {
+            long start = System.nanoTime();
+            stepCpu(elapsedSeconds(SensorSnapshot.CPU));
+            CpuInfo cpu = buffer.getCpu();
+            cpu.setName(cpuName);
+            cpu.setCores(Math.max(1, logicalCount / 2));
+            cpu.setBaseClock(BASE_CLOCK_MHZ);
+            double sum = 0;
+            for (int i = 0; i < logicalCount; i++) {
+                sum += coreLoads[i];
+            }
+            cpu.setUsage(sum / logicalCount);
+            cpu.setTemperature(cpuTemperature);
+            cpu.setCoreData(coreLoads, coreFrequencies, logicalCount);
+            buffer.setReadNanos(SensorSnapshot.CPU, System.nanoTime() - start);
+        }
+        if ((sources & SensorSnapshot.RAM) != 0) {
+            long start = System.nanoTime();
+            stepRam(elapsedSeconds(SensorSnapshot.RAM));
+            buffer.getRam().setTotal(ramTotal);
+            buffer.getRam().setUsed(ramUsed);
+            buffer.setReadNanos(SensorSnapshot.RAM, System.nanoTime() - start);
+        }
+        if ((sources & SensorSnapshot.GPU) != 0) {
+            long start = System.nanoTime();
+            stepGpus(elapsedSeconds(SensorSnapshot.GPU));
+            if (gpuCount > 0) fillGpu(0, buffer.getGpu());
+            buffer.setReadNanos(SensorSnapshot.GPU, System.nanoTime() - start);
+        }
+        if ((sources & SensorSnapshot.DISKS) != 0) {
+            long start = System.nanoTime();
+            stepDisks(elapsedSeconds(SensorSnapshot.DISKS));
+            for (int i = 0; i < diskCount; i++) {
+                DiskInfo disk = buffer.nextDisk();
+                disk.setName(diskNames[i]);
+                disk.setTotalSpace(diskTotals[i]);
+                disk.setFreeSpace(diskTotals[i] - diskUsed[i]);
+            }
+            buffer.setReadNanos(SensorSnapshot.DISKS, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "synthetic";
+    }
+
+    // На ядро загрузка и частота, на GPU загрузка, температура и занятая память, на диск заполненность
+    @Override
+    public void discover(SensorRegistry registry) {
+        cpuTemperatureChannel = registry.register(cpuName, "Package", SensorKind.TEMPERATURE);
+        firstCoreChannel = registry.getChannelCount();
+        for (int i = 0; i < logicalCount; i++) {
+            registry.register(cpuName, "Core " + i, SensorKind.LOAD);
+            registry.register(cpuName, "Core " + i + " clock", SensorKind.CLOCK);
+        }
+        firstGpuChannel = registry.getChannelCount();
+        for (int i = 0; i < gpuCount; i++) {
+            registry.register(gpuNames[i], "Load", SensorKind.LOAD);
+            registry.register(gpuNames[i], "Temperature", SensorKind.TEMPERATURE);
+            registry.register(gpuNames[i], "VRAM used", SensorKind.DATA);
+        }
+        firstDiskChannel = registry.getChannelCount();
+        for (int i = 0; i < diskCount; i++) {
+            registry.register(diskNames[i], "Used", SensorKind.LEVEL);
+        }
+    }
+
+    @Override
+    public synchronized void sample(double[] values) {
+        stepCpu(elapsedSeconds(SensorSnapshot.CPU));
+        stepGpus(elapsedSeconds(SensorSnapshot.GPU));
+        stepDisks(elapsedSeconds(SensorSnapshot.DISKS));
+        values[cpuTemperatureChannel] = cpuTemperature;
+        for (int i = 0, id = firstCoreChannel; i < logicalCount; i++, id += 2) {
+            values[id] = coreLoads[i];
+            values[id + 1] = coreFrequencies[i];
+        }
+        for (int i = 0, id = firstGpuChannel; i < gpuCount; i++, id += 3) {
+            values[id] = gpuLoads[i];
+            values[id + 1] = gpuTemperatures[i];
+            values[id + 2] = gpuVramUsed[i];
+        }
+        for (int i = 0; i < diskCount; i++) {
+            values[firstDiskChannel + i] = 100.0 * diskUsed[i] / diskTotals[i];
+        }
+    }
+
+    // Состояние GPU на момент последнего опроса источника GPU
+    public synchronized void readGpu(int index, GpuInfo into) {
+        if (index >= gpuCount) throw new IndexOutOfBoundsException(index);
+        fillGpu(index, into);
+    }
+
+    private void fillGpu(int index, GpuInfo gpu) {
+        gpu.setName(gpuNames[index]);
+        gpu.setGpuLoad(gpuLoads[index]);
+        gpu.setTemperature(gpuTemperatures[index]);
+        gpu.setVramTotal(gpuVramTotal);
+        gpu.setVramUsed(gpuVramUsed[index]);
+    }
+
+    private double elapsedSeconds(int source) {
+        int index = SensorSnapshot.indexOf(source);
+        long now = clock.nanoTime();
+        long last = lastNanos[index];
+        lastNanos[index] = now;
+        if (last == Long.MIN_VALUE) return 0;
+        return Math.min(MAX_STEP_SECONDS, Math.max(0, now - last) / 1e9);
+    }
+
+    private void stepCpu(double dt) {
+        double sum = 0;
+        for (int i = 0; i < logicalCount; i++) {
+            if (cpuRandom.nextDouble() < dt / PHASE_SECONDS) coreTargets[i] = nextTarget(cpuRandom);
+            coreLoads[i] = walk(cpuRandom, coreLoads[i], coreTargets[i], dt);
+            sum += coreLoads[i];
+        }
+        double usage = sum / logicalCount;
+        cpuTemperature = approach(cpuTemperature, AMBIENT + usage * 0.6, dt, CPU_TAU_SECONDS)
+                + cpuRandom.nextGaussian() * 0.2;
+        // Буст растёт с нагрузкой ядра, а перегретый процессор сбрасывает частоту
+        double throttle = cpuTemperature > 90 ? 0.75 : 1.0;
+        for (int i = 0; i < logicalCount; i++) {
+            double boost = Math.min(1.0, coreLoads[i] / 60.0);
+            coreFrequencies[i] = (BASE_CLOCK_MHZ + (BOOST_CLOCK_MHZ - BASE_CLOCK_MHZ) * boost) * throttle
+                    + cpuRandom.nextGaussian() * 15;
+        }
+    }
+
+    private void stepRam(double dt) {
+        if (ramRandom.nextDouble() < dt / (PHASE_SECONDS * 3)) ramTarget = 0.3 + ramRandom.nextDouble() * 0.6;
+        double fraction = (double) ramUsed / ramTotal;
+        fraction = approach(fraction, ramTarget, dt, PHASE_SECONDS) + ramRandom.nextGaussian() * 0.002 * Math.sqrt(dt);
+        ramUsed = (long) (ramTotal * Math.max(0.05, Math.min(0.98, fraction)));
+    }
+
+    private void stepGpus(double dt) {
+        for (int i = 0; i < gpuCount; i++) {
+            if (gpuRandom.nextDouble() < dt / PHASE_SECONDS) gpuTargets[i] = nextTarget(gpuRandom);
+            gpuLoads[i] = walk(gpuRandom, gpuLoads[i], gpuTargets[i], dt);
+            gpuTemperatures[i] = approach(gpuTemperatures[i], AMBIENT + 10 + gpuLoads[i] * 0.5, dt, GPU_TAU_SECONDS)
+                    + gpuRandom.nextGaussian() * 0.2;
+            // Память следует за нагрузкой медленнее самой нагрузки
+            double vramTarget = 0.1 + gpuLoads[i] / 100.0 * 0.8;
+            double vram = approach((double) gpuVramUsed[i] / gpuVramTotal, vramTarget, dt, PHASE_SECONDS / 2);
+            gpuVramUsed[i] = (long) (gpuVramTotal * vram);
+        }
+    }
+
+    private void stepDisks(double dt) {
+        for (int i = 0; i < diskCount; i++) {
+            long used = diskUsed[i] + (long) (diskFillRates[i] * dt);
+            if (used > diskTotals[i] * 0.97) {
+                // Очистка: место освобождается разом, а скорость заполнения выбирается заново
+                used = (long) (diskTotals[i] * (0.4 + diskRandom.nextDouble() * 0.3));
+                diskFillRates[i] = nextFillRate(diskTotals[i]);
+            } else if (diskRandom.nextDouble() < dt / (PHASE_SECONDS * 10)) {
+                diskFillRates[i] = nextFillRate(diskTotals[i]);
+            }
+            diskUsed[i] = Math.max(0, used);
+        }
+    }
+
+    // Простой, обычная работа или полная загрузка
+    private static double nextTarget(SplittableRandom random) {
+        double p = random.nextDouble();
+        if (p < 0.4) return random.nextDouble() * 10;
+        if (p < 0.85) return 30 + random.nextDouble() * 50;
+        return 90 + random.nextDouble() * 10;
+    }
+
+    private static double walk(SplittableRandom random, double value, double target, double dt) {
+        double next = approach(value, target, dt, LOAD_TAU_SECONDS) + random.nextGaussian() * 4 * Math.sqrt(dt);
+        return Math.max(0, Math.min(100, next));
+    }
+
+    private static double approach(double value, double target, double dt, double tau) {
+        return value + (target - value) * (1 - Math.exp(-dt / tau));
+    }
+
+    // От полного диска за сутки до медленного освобождения места
+    private double nextFillRate(long total) {
+        double perDay = diskRandom.nextDouble() < 0.8 ? diskRandom.nextDouble() * 0.05 : -diskRandom.nextDouble() * 0.01;
+        if (diskRandom.nextDouble() < 0.02) perDay = 1.0;
+        return total * perDay / 86_400.0;
+    }
+}
@@ -0,0 +1,141 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import engine.SensorSnapshot;
+import engine.SystemInfoService;
+import engine.alert.ConsoleAlertSink;
+import engine.export.PrometheusExporter;
+import engine.fleet.FleetPublisher;
+import engine.sensors.SensorRegistry;
+import engine.sched.AdaptiveScheduler;
+import engine.sched.Clock;
+import engine.store.MetricStore;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class Agent {
+    private static final int DEFAULT_PORT = 9464;
+    private static final int DEFAULT_INTERVAL_MS = 1000;
+
+    private final SystemInfoService service;
+    private final SensorRegistry registry;
+    private final double[] sensorValues;
+    private final PrometheusExporter exporter = new PrometheusExporter();
+    private final int intervalMs;
+    private final AdaptiveScheduler scheduler = AdaptiveScheduler.createDefault(Clock.SYSTEM);
+    private volatile byte[] rendered;
+
+    public Agent(SystemInfoService service, int intervalMs) {
+        this(service, new SensorRegistry().discover(), intervalMs);
+    }
+
+    // Каналы реестра экспортируются вместе со снимком как ironvision_sensor_*
+    public Agent(SystemInfoService service, SensorRegistry registry, int intervalMs) {
+        this.service = service;
+        this.registry = registry;
+        this.sensorValues = registry.newFrame();
+        this.intervalMs = intervalMs;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "error");
+        int port = intArg(args, "--port", DEFAULT_PORT);
+        int interval = intArg(args, "--interval", DEFAULT_INTERVAL_MS);
+
+        SystemInfoService service = Launcher.createService(args);
+        MetricStore store = Launcher.openStore(args, service);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> Launcher.closeQuietly(store), "ironvision-store-close"));
+        service.addListener(Launcher.createAlerts(args).addSink(new ConsoleAlertSink()));
+        FleetPublisher publisher = Launcher.createPublisher(args);
+        if (publisher != null) service.addListener(publisher);
+        Agent agent = new Agent(service, Launcher.createRegistry(args), interval);
+        try {
+            agent.start(port);
+        } catch (IOException e) {
+            System.err.println("Не удалось открыть порт " + port + ": " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("IronVision agent: http://0.0.0.0:" + port + "/metrics");
+
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void start(int port) throws IOException {
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ironvision-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        sampler.scheduleAtFixedRate(this::sample, 0, intervalMs, TimeUnit.MILLISECONDS);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", this::handleMetrics);
+        server.setExecutor(Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "ironvision-http");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+    }
+
+    private void sample() {
+        try {
+            int sources = scheduler.due();
+            if (sources == 0) return;
+
+            SensorSnapshot snapshot = service.readSnapshot(sources, intervalMs / 2, TimeUnit.MILLISECONDS);
+            scheduler.complete(sources, snapshot);
+            registry.sample(sensorValues);
+            rendered = exporter.renderToArray(snapshot, registry, sensorValues);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = rendered;
+            if (body == null) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    static int intArg(String[] args, String name, int defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (name.equals(args[i])) {
+                try {
+                    return Integer.parseInt(args[i + 1]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Неверное значение " + name + ": " + args[i + 1]);
+                }
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,159 @@
+package org.example;
+
+import engine.CpuInfo;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+// Тепловая карта логических процессоров на одном Canvas: цвет ячейки — загрузка,
+// полоска снизу — текущая частота. Перерисовываются только ячейки, чьё значение заметно изменилось,
+// так что стоимость кадра не зависит от числа узлов сцены при 4 и при 256 ядрах.
+public class CoreHeatmap extends Canvas {
+    private static final double GAP = 2;
+    private static final double MIN_CELL = 14;
+    private static final double MAX_CELL = 36;
+    private static final double FREQ_BAR = 3;
+    private static final int LEVELS = 64;
+    private static final Color FREQ_COLOR = Color.web("#e0e0e0", 0.7);
+    private static final Color[] PALETTE = buildPalette();
+
+    private double[] loads = new double[0];
+    private double[] frequencies = new double[0];
+    private int[] drawnLevel = new int[0];
+    private int[] drawnFreq = new int[0];
+    private int count;
+    private double maxFrequency;
+    private int columns = 1;
+    private double cell = MIN_CELL;
+    private final Tooltip tooltip = new Tooltip();
+
+    public CoreHeatmap() {
+        super(0, MIN_CELL);
+        widthProperty().addListener((obs, old, width) -> relayout());
+        Tooltip.install(this, tooltip);
+        setOnMouseMoved(e -> {
+            int core = coreAt(e.getX(), e.getY());
+            if (core >= 0) {
+                tooltip.setText(String.format("CPU %d: %.0f%% @ %s", core, loads[core],
+                        frequencies[core] > 0 ? String.format("%.2f GHz", frequencies[core] / 1000.0) : "N/A"));
+            } else {
+                tooltip.setText("");
+            }
+        });
+    }
+
+    @Override
+    public boolean isResizable() {
+        return true;
+    }
+
+    @Override
+    public double prefWidth(double height) {
+        return 0;
+    }
+
+    @Override
+    public double prefHeight(double width) {
+        return getHeight();
+    }
+
+    @Override
+    public double minHeight(double width) {
+        return getHeight();
+    }
+
+    @Override
+    public void resize(double width, double height) {
+        setWidth(width);
+    }
+
+    // Вызывается из FX-потока
+    public void update(CpuInfo cpu) {
+        int n = cpu.getLogicalCount();
+        if (n != count) {
+            count = n;
+            loads = new double[n];
+            frequencies = new double[n];
+            drawnLevel = new int[n];
+            drawnFreq = new int[n];
+            relayout();
+        }
+        for (int i = 0; i < n; i++) {
+            loads[i] = cpu.getCoreLoad(i);
+            frequencies[i] = cpu.getCoreFrequency(i);
+            maxFrequency = Math.max(maxFrequency, frequencies[i]);
+        }
+        drawChanged();
+    }
+
+    private void relayout() {
+        double width = getWidth();
+        if (count == 0 || width <= 0) return;
+
+        // Самая крупная ячейка, при которой все ядра помещаются в разумную высоту
+        cell = MAX_CELL;
+        columns = Math.max(1, (int) ((width + GAP) / (cell + GAP)));
+        while (cell > MIN_CELL && rows() > 8) {
+            cell--;
+            columns = Math.max(1, (int) ((width + GAP) / (cell + GAP)));
+        }
+        double height = rows() * (cell + GAP) - GAP;
+        if (height != getHeight()) {
+            setHeight(height);
+            if (getParent() != null) getParent().requestLayout();
+        }
+
+        getGraphicsContext2D().clearRect(0, 0, width, getHeight());
+        Arrays.fill(drawnLevel, -1);
+        Arrays.fill(drawnFreq, -1);
+        drawChanged();
+    }
+
+    private int rows() {
+        return (count + columns - 1) / columns;
+    }
+
+    private void drawChanged() {
+        if (getWidth() <= 0) return;
+        GraphicsContext g = getGraphicsContext2D();
+        for (int i = 0; i < count; i++) {
+            int level = (int) Math.round(loads[i] / 100.0 * (LEVELS - 1));
+            int freq = maxFrequency > 0 ? (int) Math.round(frequencies[i] / maxFrequency * cell) : 0;
+            if (level == drawnLevel[i] && freq == drawnFreq[i]) continue;
+            drawnLevel[i] = level;
+            drawnFreq[i] = freq;
+
+            double x = (i % columns) * (cell + GAP);
+            double y = (i / columns) * (cell + GAP);
+            g.setFill(PALETTE[level]);
+            g.fillRect(x, y, cell, cell);
+            if (freq > 0) {
+                g.setFill(FREQ_COLOR);
+                g.fillRect(x, y + cell - FREQ_BAR, freq, FREQ_BAR);
+            }
+        }
+    }
+
+    private int coreAt(double x, double y) {
+        int column = (int) (x / (cell + GAP));
+        int row = (int) (y / (cell + GAP));
+        if (column >= columns || x - column * (cell + GAP) > cell || y - row * (cell + GAP) > cell) return -1;
+        int core = row * columns + column;
+        return core < count ? core : -1;
+    }
+
+    // От фона карточки через синий и жёлтый к красному, как у полос загрузки
+    private static Color[] buildPalette() {
+        Color[] stops = { Color.web("#37474f"), Color.web("#2196f3"), Color.web("#ffca28"), Color.web("#ef5350") };
+        Color[] palette = new Color[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            double t = (double) i / (LEVELS - 1) * (stops.length - 1);
+            int stop = Math.min((int) t, stops.length - 2);
+            palette[i] = stops[stop].interpolate(stops[stop + 1], t - stop);
+        }
+        return palette;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+import engine.DiskInfo;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+import java.util.List;
+
+// Список дисков с ключом по имени: строки-ячейки создаются только для видимой области
+// и переиспользуются, а при обновлении заменяются лишь элементы, у которых изменились значения.
+public class DiskListView extends ListView<DiskInfo> {
+    private static final double ROW_HEIGHT = 52;
+
+    private final ObservableList<DiskInfo> disks = FXCollections.observableArrayList();
+
+    public DiskListView() {
+        setItems(disks);
+        setFixedCellSize(ROW_HEIGHT);
+        setFocusTraversable(false);
+        getStyleClass().add("disk-list");
+        setCellFactory(list -> new DiskCell());
+    }
+
+    // Вызывается из FX-потока
+    public void update(List<DiskInfo> fresh) {
+        if (!sameKeys(fresh)) {
+            disks.setAll(fresh);
+            return;
+        }
+        for (int i = 0; i < fresh.size(); i++) {
+            DiskInfo current = disks.get(i);
+            DiskInfo next = fresh.get(i);
+            if (current.getFreeSpace() != next.getFreeSpace() || current.getTotalSpace() != next.getTotalSpace()) {
+                disks.set(i, next);
+            }
+        }
+    }
+
+    private boolean sameKeys(List<DiskInfo> fresh) {
+        if (fresh.size() != disks.size()) return false;
+        for (int i = 0; i < fresh.size(); i++) {
+            if (!fresh.get(i).getName().equals(disks.get(i).getName())) return false;
+        }
+        return true;
+    }
+
+    private static class DiskCell extends ListCell<DiskInfo> {
+        private final Label name = new Label();
+        private final Label stats = new Label();
+        private final ProgressBar bar = new ProgressBar(0);
+        private final Label details = new Label();
+        private final VBox row = new VBox(4);
+        private long shownFree = -1;
+        private long shownTotal = -1;
+
+        DiskCell() {
+            name.setStyle("-fx-text-fill: white; -fx-font-weight: bold; -fx-font-size: 11px;");
+            stats.setStyle("-fx-text-fill: #a0a0a0; -fx-font-size: 11px;");
+            Region spacer = new Region(); HBox.setHgrow(spacer, Priority.ALWAYS);
+            HBox topRow = new HBox(name, spacer, stats);
+
+            bar.setMaxWidth(Double.MAX_VALUE);
+            bar.getStyleClass().add("disk-bar");
+            bar.setPrefHeight(6);
+
+            details.setStyle("-fx-text-fill: #606060; -fx-font-size: 10px;");
+            row.getChildren().addAll(topRow, bar, details);
+            setText(null);
+        }
+
+        @Override
+        protected void updateItem(DiskInfo disk, boolean empty) {
+            super.updateItem(disk, empty);
+            if (empty || disk == null) {
+                setGraphic(null);
+                shownFree = shownTotal = -1;
+                return;
+            }
+            if (!disk.getName().equals(name.getText())) {
+                name.setText(disk.getName());
+            }
+            if (disk.getFreeSpace() != shownFree || disk.getTotalSpace() != shownTotal) {
+                shownFree = disk.getFreeSpace();
+                shownTotal = disk.getTotalSpace();
+                double usage = disk.getUsagePercent();
+                stats.setText(String.format("%.0f%%", usage));
+                bar.setProgress(usage / 100.0);
+                SystemMonitorFX.updateBarStyle(bar, usage, 80, 92, "state-ok-cyan");
+                details.setText(String.format("%s free of %s", disk.getFormattedFreeSpace(), disk.getFormattedTotalSpace()));
+            }
+            if (getGraphic() != row) {
+                setGraphic(row);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.example;
+
+import engine.SensorSnapshot;
+import engine.diag.Diagnostics;
+import engine.diag.LatencyHistogram;
+import engine.fleet.FleetCollector;
+import engine.fleet.FleetHost;
+import engine.fleet.FleetPublisher;
+import engine.synthetic.SyntheticSensorProvider;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Парк на одной машине: коллектор на loopback и N синтетических агентов, каждый со своим
+// соединением и своим seed. Агенты шлют с заданной частотой со сдвигом фаз, как реальные машины;
+// в конце печатаются принятые кадры, потери, ошибки разбора и задержка цикла коллектора.
+//
+//   --fleet-sim [300] [--rate 2] [--duration 10] [--seed 1] [--senders 4]
+public class FleetHarness {
+    public static void main(String[] args) {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "error");
+        try {
+            run(args);
+        } catch (IOException e) {
+            System.err.println("Коллектор не запущен: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void run(String[] args) throws IOException, InterruptedException {
+        int agents = Agent.intArg(args, "--fleet-sim", 300);
+        int rate = Math.max(1, Agent.intArg(args, "--rate", 2));
+        int duration = Agent.intArg(args, "--duration", 10);
+        long seed = Long.parseLong(Launcher.stringArg(args, "--seed", "1"));
+        int senders = Math.max(1, Agent.intArg(args, "--senders", 4));
+
+        Diagnostics diagnostics = Diagnostics.getDefault();
+        LatencyHistogram sendLatency = diagnostics.histogram("fleet.send");
+        FleetCollector collector = new FleetCollector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)).start();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), collector.getPort());
+
+        SyntheticSensorProvider[] providers = new SyntheticSensorProvider[agents];
+        FleetPublisher[] publishers = new FleetPublisher[agents];
+        for (int i = 0; i < agents; i++) {
+            providers[i] = new SyntheticSensorProvider(seed + i, 8, 1, 2);
+            publishers[i] = new FleetPublisher(String.format("sim-%03d", i), address);
+        }
+
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(senders, r -> {
+            Thread t = new Thread(r, "ironvision-fleet-sim");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMicros = 1_000_000L / rate;
+        for (int i = 0; i < agents; i++) {
+            SyntheticSensorProvider provider = providers[i];
+            FleetPublisher publisher = publishers[i];
+            executor.scheduleAtFixedRate(() -> {
+                SensorSnapshot snapshot = provider.sample(SensorSnapshot.ALL);
+                long start = System.nanoTime();
+                publisher.send(snapshot);
+                sendLatency.record(System.nanoTime() - start);
+            }, periodMicros * i / agents, periodMicros, TimeUnit.MICROSECONDS);
+        }
+
+        long framesBefore = diagnostics.getCounters().getOrDefault("fleet.frames", 0L);
+        long bytesBefore = diagnostics.getCounters().getOrDefault("fleet.bytes", 0L);
+        long startNanos = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        // Последние кадры ещё в пути
+        Thread.sleep(500);
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        long sent = 0;
+        long received = 0;
+        for (int i = 0; i < agents; i++) {
+            sent += publishers[i].getSentCount();
+            FleetHost host = collector.getHost(publishers[i].getHostName());
+            if (host != null) received += host.getFrames();
+        }
+        Map<String, Long> counters = diagnostics.getCounters();
+        long frames = counters.getOrDefault("fleet.frames", 0L) - framesBefore;
+        long bytes = counters.getOrDefault("fleet.bytes", 0L) - bytesBefore;
+
+        System.out.printf("agents %d, rate %d Hz, %.1f s%n", agents, rate, seconds);
+        System.out.printf("connected %d, frames %d (%.0f/s), %.1f bytes/frame, %.1f KB/s%n",
+                collector.getConnectedCount(), frames, frames / seconds, frames > 0 ? (double) bytes / frames : 0,
+                bytes / seconds / 1024);
+        System.out.printf("samples sent %d, received %d, lost %d, protocol errors %d%n",
+                sent, received, sent - received, counters.getOrDefault("fleet.errors", 0L));
+        LatencyHistogram read = diagnostics.histogram("fleet.read");
+        System.out.printf("collector read p50 %s p99 %s max %s, send p99 %s%n",
+                Diagnostics.formatNanos(read.getPercentile(50)), Diagnostics.formatNanos(read.getPercentile(99)),
+                Diagnostics.formatNanos(read.getMax()),
+                Diagnostics.formatNanos(sendLatency.getPercentile(99)));
+        System.out.println(collector.describe());
+
+        for (FleetCollector.SortKey key : FleetCollector.SortKey.values()) {
+            List<FleetHost> top = collector.getHosts(key);
+            StringBuilder line = new StringBuilder("top " + key.name().toLowerCase() + ":");
+            for (int i = 0; i < Math.min(5, top.size()); i++) {
+                line.append(String.format(" %s=%.1f", top.get(i).getName(), top.get(i).get(key)));
+            }
+            System.out.println(line);
+        }
+
+        for (FleetPublisher publisher : publishers) publisher.close();
+        collector.close();
+    }
+}
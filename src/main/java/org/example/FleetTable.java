@@ -0,0 +1,110 @@
+package org.example;
+
+import engine.fleet.FleetCollector;
+import engine.fleet.FleetHost;
+import javafx.geometry.HPos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+
+import java.util.List;
+
+// Обзор парка: первые строки хостов, отсортированных по CPU, памяти или температуре.
+// Как и ProcessTable, строки постоянные — меняется только текст; сортировка по щелчку на заголовке.
+public class FleetTable extends GridPane {
+    private final Label[] names;
+    private final Label[] cpus;
+    private final Label[] rams;
+    private final Label[] temperatures;
+    private final Label[] disks;
+    private final Label cpuHeader = header("CPU");
+    private final Label ramHeader = header("RAM");
+    private final Label temperatureHeader = header("TEMP");
+    private volatile FleetCollector.SortKey sortKey = FleetCollector.SortKey.CPU;
+
+    public FleetTable(int rows) {
+        setHgap(12);
+        setVgap(3);
+        ColumnConstraints name = new ColumnConstraints();
+        name.setHgrow(Priority.ALWAYS);
+        getColumnConstraints().add(name);
+        for (int i = 0; i < 4; i++) {
+            ColumnConstraints column = new ColumnConstraints(60);
+            column.setHalignment(HPos.RIGHT);
+            getColumnConstraints().add(column);
+        }
+
+        addRow(0, header("HOST"), cpuHeader, ramHeader, temperatureHeader, header("DISK"));
+        cpuHeader.setOnMouseClicked(e -> setSortKey(FleetCollector.SortKey.CPU));
+        ramHeader.setOnMouseClicked(e -> setSortKey(FleetCollector.SortKey.RAM));
+        temperatureHeader.setOnMouseClicked(e -> setSortKey(FleetCollector.SortKey.TEMPERATURE));
+        setSortKey(FleetCollector.SortKey.CPU);
+
+        names = new Label[rows];
+        cpus = new Label[rows];
+        rams = new Label[rows];
+        temperatures = new Label[rows];
+        disks = new Label[rows];
+        for (int i = 0; i < rows; i++) {
+            names[i] = cell("-fx-text-fill: white;");
+            cpus[i] = cell("-fx-text-fill: #a0a0a0;");
+            rams[i] = cell("-fx-text-fill: #a0a0a0;");
+            temperatures[i] = cell("-fx-text-fill: #a0a0a0;");
+            disks[i] = cell("-fx-text-fill: #606060;");
+            addRow(i + 1, names[i], cpus[i], rams[i], temperatures[i], disks[i]);
+        }
+    }
+
+    public int getRows() { return names.length; }
+
+    public FleetCollector.SortKey getSortKey() { return sortKey; }
+
+    private void setSortKey(FleetCollector.SortKey key) {
+        sortKey = key;
+        cpuHeader.setText(key == FleetCollector.SortKey.CPU ? "CPU ▼" : "CPU");
+        ramHeader.setText(key == FleetCollector.SortKey.RAM ? "RAM ▼" : "RAM");
+        temperatureHeader.setText(key == FleetCollector.SortKey.TEMPERATURE ? "TEMP ▼" : "TEMP");
+    }
+
+    // Вызывается из FX-потока; отключённые хосты показываются серыми
+    public void update(List<FleetHost> hosts) {
+        for (int i = 0; i < names.length; i++) {
+            if (i < hosts.size()) {
+                FleetHost host = hosts.get(i);
+                setIfChanged(names[i], host.getName());
+                names[i].setOpacity(host.isConnected() ? 1.0 : 0.4);
+                setIfChanged(cpus[i], format("%.1f%%", host.getCpuUsage()));
+                setIfChanged(rams[i], format("%.0f%%", host.getRamUsage()));
+                setIfChanged(temperatures[i], format("%.0f°C", host.getTemperature()));
+                setIfChanged(disks[i], format("%.0f%%", host.getDiskMax()));
+            } else {
+                setIfChanged(names[i], "");
+                setIfChanged(cpus[i], "");
+                setIfChanged(rams[i], "");
+                setIfChanged(temperatures[i], "");
+                setIfChanged(disks[i], "");
+            }
+        }
+    }
+
+    private static String format(String format, double value) {
+        return Double.isNaN(value) ? "-" : String.format(format, value);
+    }
+
+    private static void setIfChanged(Label label, String text) {
+        if (!text.equals(label.getText())) label.setText(text);
+    }
+
+    private static Label header(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-text-fill: #808080; -fx-font-size: 10px; -fx-font-weight: bold;");
+        return label;
+    }
+
+    private static Label cell(String style) {
+        Label label = new Label("");
+        label.setStyle(style + " -fx-font-size: 11px;");
+        return label;
+    }
+}
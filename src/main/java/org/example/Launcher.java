@@ -1,7 +1,182 @@
 package org.example;
 
+import engine.SensorProvider;
+import engine.SystemInfoService;
+import engine.alert.AlertEngine;
+import engine.diag.Diagnostics;
+import engine.diag.InstrumentedSensorProvider;
+import engine.diag.StartupProfile;
+import engine.fleet.FleetCollector;
+import engine.fleet.FleetProtocol;
+import engine.fleet.FleetPublisher;
+import engine.sensors.SensorRegistry;
+import engine.stats.MetricStats;
+import engine.store.MetricStore;
+import engine.store.RecordingSensorProvider;
+import engine.store.ReplaySensorProvider;
+import engine.synthetic.SyntheticSensorProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.Executor;
+
 public class Launcher {
+    private static SyntheticSensorProvider synthetic;
+
     public static void main(String[] args) {
+        StartupProfile.getDefault().setEnabled(hasFlag(args, "--startup-profile")).mark("main");
+        for (String arg : args) {
+            if ("--agent".equals(arg)) {
+                Agent.main(args);
+                return;
+            }
+            if ("--fleet-sim".equals(arg)) {
+                FleetHarness.main(args);
+                return;
+            }
+            if ("--stress".equals(arg)) {
+                StressHarness.main(args);
+                return;
+            }
+            if ("--list-sensors".equals(arg)) {
+                System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "error");
+                SensorRegistry registry = createRegistry(args);
+                double[] values = registry.newFrame();
+                registry.sample(values);
+                System.out.print(registry.describe(values));
+                return;
+            }
+        }
         SystemMonitorFX.main(args);
     }
-}
\ No newline at end of file
+
+    static SystemInfoService createService(String[] args) {
+        return createService(args, null);
+    }
+
+    // --replay <файл> [--speed N|max] [--loop] или --synthetic cpus=N,gpus=N,disks=N,seed=N вместо
+    // живых датчиков, --record <файл> пишет опрос в файл. Если задан startup, живые провайдеры
+    // создаются в фоне на этом пуле
+    static SystemInfoService createService(String[] args, Executor startup) {
+        String replay = stringArg(args, "--replay", null);
+        String record = stringArg(args, "--record", null);
+        boolean synthetic = hasFlag(args, "--synthetic");
+        StartupProfile profile = StartupProfile.getDefault();
+        if (replay == null && record == null && !synthetic) {
+            return startup != null ? SystemInfoService.createStaged(startup, profile) : SystemInfoService.createDefault();
+        }
+
+        try {
+            SensorProvider provider;
+            if (replay != null) {
+                String speed = stringArg(args, "--speed", "1");
+                provider = new ReplaySensorProvider(Paths.get(replay),
+                        "max".equals(speed) ? ReplaySensorProvider.AS_FAST_AS_POSSIBLE : Double.parseDouble(speed))
+                        .setLoop(hasFlag(args, "--loop"));
+            } else if (synthetic) {
+                provider = synthetic(args);
+            } else {
+                provider = startup != null
+                        ? SystemInfoService.createStagedProvider(startup, profile) : SystemInfoService.createDefaultProvider();
+            }
+            if (record != null) {
+                provider = new RecordingSensorProvider(provider, Paths.get(record));
+            }
+            return new SystemInfoService(new InstrumentedSensorProvider(provider, Diagnostics.getDefault()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // --alerts <файл> с правилами, иначе ~/.ironvision/alerts.rules или встроенные
+    static AlertEngine createAlerts(String[] args) {
+        String file = stringArg(args, "--alerts", null);
+        if (file == null) return AlertEngine.createDefault();
+        try {
+            return AlertEngine.load(Paths.get(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // История живых датчиков пишется в ~/.ironvision/history; воспроизведённая запись и синтетика
+    // не должны в неё попадать, --no-history отключает запись. null, если писать не нужно или не вышло
+    static MetricStore openStore(String[] args, SystemInfoService service) {
+        if (stringArg(args, "--replay", null) != null || hasFlag(args, "--synthetic") || hasFlag(args, "--no-history")) {
+            return null;
+        }
+        try {
+            MetricStore store = new MetricStore(MetricStore.defaultDirectory());
+            service.addListener(store::append);
+            return store;
+        } catch (IOException e) {
+            System.err.println("История не будет сохраняться: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static void closeQuietly(MetricStore store) {
+        if (store == null) return;
+        try {
+            store.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Окно скользящей статистики в минутах задаёт --stats-window
+    static MetricStats createStats(String[] args) {
+        int minutes = Agent.intArg(args, "--stats-window", (int) (MetricStats.DEFAULT_WINDOW_MILLIS / 60_000));
+        return new MetricStats(Math.max(1, minutes) * 60_000L, MetricStats.DEFAULT_METRICS);
+    }
+
+    // --push host[:port] отправляет снимки коллектору под именем --host-name (по умолчанию имя машины)
+    static FleetPublisher createPublisher(String[] args) {
+        String address = stringArg(args, "--push", null);
+        if (address == null) return null;
+        return new FleetPublisher(stringArg(args, "--host-name", FleetPublisher.localHostName()),
+                FleetPublisher.parseAddress(address));
+    }
+
+    // --collector [порт] принимает снимки агентов и включает обзор парка
+    static FleetCollector createCollector(String[] args) {
+        if (!hasFlag(args, "--collector")) return null;
+        String port = stringArg(args, "--collector", "");
+        try {
+            return new FleetCollector(port.matches("\\d+") ? Integer.parseInt(port) : FleetProtocol.DEFAULT_PORT).start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Реестр датчиков тех же источников, что и у createService; в записи каналов реестра нет
+    static SensorRegistry createRegistry(String[] args) {
+        if (stringArg(args, "--replay", null) != null) return new SensorRegistry().discover();
+        if (hasFlag(args, "--synthetic")) return new SensorRegistry().add(synthetic(args)).discover();
+        return SensorRegistry.createDefault();
+    }
+
+    // Один экземпляр на процесс, чтобы сервис и реестр видели одну и ту же машину
+    private static synchronized SyntheticSensorProvider synthetic(String[] args) {
+        if (synthetic == null) {
+            String spec = stringArg(args, "--synthetic", "");
+            synthetic = SyntheticSensorProvider.parse(spec.startsWith("--") ? "" : spec);
+        }
+        return synthetic;
+    }
+
+    static String stringArg(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (name.equals(args[i])) return args[i + 1];
+        }
+        return defaultValue;
+    }
+
+    static boolean hasFlag(String[] args, String name) {
+        for (String arg : args) {
+            if (name.equals(arg)) return true;
+        }
+        return false;
+    }
+}
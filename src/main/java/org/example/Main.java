@@ -1,6 +1,9 @@
 package org.example;
 
 import engine.*;
+import engine.sched.AdaptiveScheduler;
+import engine.sched.Clock;
+import engine.store.MetricStore;
 import java.util.Scanner;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -15,9 +18,14 @@ public class Main {
         System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "error");
         printWelcomeMessage();
 
-        SystemInfoService service = SystemInfoService.createDefault();
+        SystemInfoService service = Launcher.createService(args);
+        MetricStore store = Launcher.openStore(args, service);
         startInputThread();
-        runMonitoringLoop(service);
+        try {
+            runMonitoringLoop(service);
+        } finally {
+            Launcher.closeQuietly(store);
+        }
     }
 
     private static void printWelcomeMessage() {
@@ -46,16 +54,22 @@ public class Main {
         double prevCpuLoad = -1;
         double prevGpuLoad = -1;
         boolean firstIteration = true;
+        AdaptiveScheduler scheduler = AdaptiveScheduler.createDefault(Clock.SYSTEM);
 
         try {
             while (!shouldExit.get()) {
                 long iterationStartTime = System.currentTimeMillis();
-                displaySystemInfo(service, prevCpuLoad, prevGpuLoad, firstIteration);
+                int due = scheduler.due();
+                SensorSnapshot snapshot = service.getLastSnapshot();
+                // Повторный показ прошлого снимка не замер: планировщик его не видит
+                if (due != 0 || snapshot == null) {
+                    snapshot = service.readSnapshot(due);
+                    scheduler.complete(due, snapshot);
+                }
+                displaySystemInfo(snapshot, prevCpuLoad, prevGpuLoad, firstIteration);
 
-                CpuInfo cpu = service.readCpu();
-                GpuInfo gpu = service.readGpu();
-                prevCpuLoad = cpu.getUsage();
-                prevGpuLoad = gpu.getGpuLoad();
+                prevCpuLoad = snapshot.getCpu().getUsage();
+                prevGpuLoad = snapshot.getGpu().getGpuLoad();
                 firstIteration = false;
 
                 waitForNextUpdate(iterationStartTime);
@@ -67,13 +81,13 @@ public class Main {
         }
     }
 
-    private static void displaySystemInfo(SystemInfoService service,
+    private static void displaySystemInfo(SensorSnapshot snapshot,
                                           double prevCpuLoad, double prevGpuLoad,
                                           boolean firstIteration) throws Exception {
-        CpuInfo cpu = service.readCpu();
-        RamInfo ram = service.readRam();
-        GpuInfo gpu = service.readGpu();
-        List<DiskInfo> disks = service.readDisks();
+        CpuInfo cpu = snapshot.getCpu();
+        RamInfo ram = snapshot.getRam();
+        GpuInfo gpu = snapshot.getGpu();
+        List<DiskInfo> disks = snapshot.getDisks();
 
         clearConsole();
 
@@ -0,0 +1,95 @@
+package org.example;
+
+import engine.process.ProcessInfo;
+import engine.process.ProcessSampler;
+import javafx.geometry.HPos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+
+import java.util.List;
+
+// Таблица лучших процессов с постоянным набором строк: при обновлении меняется только текст
+public class ProcessTable extends GridPane {
+    private final Label[] names;
+    private final Label[] pids;
+    private final Label[] cpus;
+    private final Label[] memories;
+    private final Label cpuHeader = header("CPU");
+    private final Label memoryHeader = header("MEMORY");
+    private volatile ProcessSampler.SortKey sortKey = ProcessSampler.SortKey.CPU;
+
+    public ProcessTable(int rows) {
+        setHgap(12);
+        setVgap(3);
+        ColumnConstraints name = new ColumnConstraints();
+        name.setHgrow(Priority.ALWAYS);
+        ColumnConstraints pid = new ColumnConstraints(60);
+        ColumnConstraints cpu = new ColumnConstraints(60);
+        ColumnConstraints memory = new ColumnConstraints(80);
+        pid.setHalignment(HPos.RIGHT);
+        cpu.setHalignment(HPos.RIGHT);
+        memory.setHalignment(HPos.RIGHT);
+        getColumnConstraints().addAll(name, pid, cpu, memory);
+
+        addRow(0, header("NAME"), header("PID"), cpuHeader, memoryHeader);
+        cpuHeader.setOnMouseClicked(e -> setSortKey(ProcessSampler.SortKey.CPU));
+        memoryHeader.setOnMouseClicked(e -> setSortKey(ProcessSampler.SortKey.MEMORY));
+        setSortKey(ProcessSampler.SortKey.CPU);
+
+        names = new Label[rows];
+        pids = new Label[rows];
+        cpus = new Label[rows];
+        memories = new Label[rows];
+        for (int i = 0; i < rows; i++) {
+            names[i] = cell("-fx-text-fill: white;");
+            pids[i] = cell("-fx-text-fill: #606060;");
+            cpus[i] = cell("-fx-text-fill: #a0a0a0;");
+            memories[i] = cell("-fx-text-fill: #a0a0a0;");
+            addRow(i + 1, names[i], pids[i], cpus[i], memories[i]);
+        }
+    }
+
+    public ProcessSampler.SortKey getSortKey() { return sortKey; }
+
+    private void setSortKey(ProcessSampler.SortKey key) {
+        sortKey = key;
+        cpuHeader.setText(key == ProcessSampler.SortKey.CPU ? "CPU ▼" : "CPU");
+        memoryHeader.setText(key == ProcessSampler.SortKey.MEMORY ? "MEMORY ▼" : "MEMORY");
+    }
+
+    // Вызывается из FX-потока
+    public void update(List<ProcessInfo> processes) {
+        for (int i = 0; i < names.length; i++) {
+            if (i < processes.size()) {
+                ProcessInfo p = processes.get(i);
+                setIfChanged(names[i], p.getName());
+                setIfChanged(pids[i], Integer.toString(p.getPid()));
+                setIfChanged(cpus[i], String.format("%.1f%%", p.getCpuPercent()));
+                setIfChanged(memories[i], p.getFormattedMemory());
+            } else {
+                setIfChanged(names[i], "");
+                setIfChanged(pids[i], "");
+                setIfChanged(cpus[i], "");
+                setIfChanged(memories[i], "");
+            }
+        }
+    }
+
+    private static void setIfChanged(Label label, String text) {
+        if (!text.equals(label.getText())) label.setText(text);
+    }
+
+    private static Label header(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-text-fill: #808080; -fx-font-size: 10px; -fx-font-weight: bold;");
+        return label;
+    }
+
+    private static Label cell(String style) {
+        Label label = new Label("");
+        label.setStyle(style + " -fx-font-size: 11px;");
+        return label;
+    }
+}
@@ -0,0 +1,252 @@
+package org.example;
+
+import engine.history.Lttb;
+import engine.history.MetricHistory;
+import engine.history.Resolution;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+// График канала истории на двух Canvas-лентах. Каждый пиксельный столбец — корзина времени,
+// из которой LTTB выбирает одну точку; уже нарисованные столбцы не трогаются, новые дописываются
+// в ленту, а ленты просто сдвигаются. Полная перерисовка только при смене размера или окна.
+public class Sparkline extends Region {
+    private static final long[] SPANS_MS = { 10 * 60_000L, 60 * 60_000L, 6 * 60 * 60_000L, 24 * 60 * 60_000L };
+    private static final String[] SPAN_NAMES = { "10 min", "1 h", "6 h", "24 h" };
+
+    private final MetricHistory history;
+    private final int channel;
+    private double maxValue;
+    private double autoScaleFloor;
+    private final Color lineColor;
+    private final Color areaColor;
+    private final Canvas[] tiles = { new Canvas(), new Canvas() };
+    private final Tooltip tooltip = new Tooltip();
+
+    private int spanIndex;
+    private int width;
+    private double height;
+    private long columnMillis;
+    private long holdMillis;
+    private long lastColumn = Long.MIN_VALUE;
+    private double prevTime = Double.NaN;
+    private double prevValue = Double.NaN;
+
+    private long[] timestamps = new long[0];
+    private double[] values = new double[0];
+    private double[] scratchMin = new double[0];
+    private double[] scratchMax = new double[0];
+
+    public Sparkline(MetricHistory history, int channel, double maxValue, Color color) {
+        this.history = history;
+        this.channel = channel;
+        this.maxValue = maxValue;
+        this.lineColor = color;
+        this.areaColor = color.deriveColor(0, 1, 1, 0.18);
+        getChildren().addAll(tiles);
+        setPrefHeight(36);
+        setMinHeight(36);
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+        Tooltip.install(this, tooltip);
+        updateTooltip();
+        setOnMouseClicked(e -> {
+            spanIndex = (spanIndex + 1) % SPANS_MS.length;
+            updateTooltip();
+            reset();
+            refresh(System.currentTimeMillis());
+        });
+    }
+
+    // Для величин без верхней границы вроде байт/с: шкала подстраивается под максимум окна,
+    // но не опускается ниже floor
+    public void setAutoScale(double floor) {
+        autoScaleFloor = floor;
+        maxValue = Math.max(maxValue, floor);
+    }
+
+    private void updateTooltip() {
+        tooltip.setText("Last " + SPAN_NAMES[spanIndex] + " (click to change)");
+    }
+
+    @Override
+    protected void layoutChildren() {
+        int w = (int) Math.ceil(getWidth());
+        double h = getHeight();
+        if (w != width || h != height) {
+            width = w;
+            height = h;
+            for (Canvas tile : tiles) {
+                tile.setWidth(w);
+                tile.setHeight(h);
+            }
+            reset();
+            refresh(System.currentTimeMillis());
+        }
+    }
+
+    private void reset() {
+        lastColumn = Long.MIN_VALUE;
+        prevTime = Double.NaN;
+        prevValue = Double.NaN;
+        for (Canvas tile : tiles) {
+            tile.getGraphicsContext2D().clearRect(0, 0, tile.getWidth(), tile.getHeight());
+        }
+    }
+
+    // Вызывается из FX-потока; дорисовывает столбцы, закончившиеся к моменту now
+    public void refresh(long now) {
+        if (width <= 0 || height <= 0) return;
+        columnMillis = Math.max(1, SPANS_MS[spanIndex] / width);
+        long newest = now / columnMillis - 1;
+        if (newest <= lastColumn) {
+            position(newest);
+            return;
+        }
+        int n = readPoints(now);
+        if (autoScaleFloor > 0 && rescale(n, (newest - width + 1) * columnMillis)) reset();
+        long first = Math.max(lastColumn + 1, newest - width + 1);
+        if (first > lastColumn + 1) {
+            prevTime = Double.NaN;
+            prevValue = Double.NaN;
+        }
+
+        int index = lowerBound(n, first * columnMillis);
+        for (long column = first; column <= newest; column++) {
+            long end = (column + 1) * columnMillis;
+            int to = index;
+            while (to < n && timestamps[to] < end) to++;
+            drawColumn(column, index, to, n);
+            index = to;
+        }
+        lastColumn = newest;
+        position(newest);
+    }
+
+    private void drawColumn(long column, int from, int to, int n) {
+        Canvas tile = tiles[(int) Math.floorMod(Math.floorDiv(column, width), 2L)];
+        int x = (int) Math.floorMod(column, (long) width);
+        GraphicsContext g = tile.getGraphicsContext2D();
+        g.clearRect(x, 0, 1, height);
+        if (from == to) {
+            // Корзина уже периода данных: держим прошлое значение, пока разрыв не стал настоящим
+            if (!Double.isNaN(prevTime) && (column + 1) * columnMillis - prevTime <= holdMillis) {
+                plot(g, x, prevValue);
+            } else {
+                prevTime = Double.NaN;
+                prevValue = Double.NaN;
+            }
+            return;
+        }
+
+        // Среднее следующей корзины; для самого свежего столбца её ещё нет, берём текущую
+        long end = (column + 1) * columnMillis;
+        int nextTo = to;
+        while (nextTo < n && timestamps[nextTo] < end + columnMillis) nextTo++;
+        int avgFrom = nextTo > to ? to : from;
+        int avgTo = nextTo > to ? nextTo : to;
+        double cx = 0, cy = 0;
+        for (int i = avgFrom; i < avgTo; i++) {
+            cx += timestamps[i];
+            cy += values[i];
+        }
+        cx /= avgTo - avgFrom;
+        cy /= avgTo - avgFrom;
+
+        double ax = Double.isNaN(prevTime) ? timestamps[from] : prevTime;
+        double ay = Double.isNaN(prevValue) ? values[from] : prevValue;
+        int picked = Lttb.select(timestamps, values, from, to, ax, ay, cx, cy);
+        plot(g, x, values[picked]);
+        prevTime = timestamps[picked];
+        prevValue = values[picked];
+    }
+
+    private void plot(GraphicsContext g, int x, double value) {
+        double y = toPixel(value);
+        g.setFill(areaColor);
+        g.fillRect(x, y, 1, height - y);
+        if (!Double.isNaN(prevValue)) {
+            g.setStroke(lineColor);
+            g.setLineWidth(1.5);
+            g.strokeLine(x - 0.5, toPixel(prevValue), x + 0.5, y);
+        }
+    }
+
+    // Шкала — степень двойки над максимумом окна. Уменьшается, только когда максимум упал вчетверо,
+    // чтобы график не перерисовывался целиком на каждом всплеске
+    private boolean rescale(int n, long from) {
+        double max = 0;
+        for (int i = lowerBound(n, from); i < n; i++) max = Math.max(max, values[i]);
+        if (max <= maxValue && max * 4 >= maxValue) return false;
+        double scale = Math.max(autoScaleFloor, Math.pow(2, Math.ceil(Math.log(Math.max(max, 1)) / Math.log(2))));
+        if (scale == maxValue) return false;
+        maxValue = scale;
+        return true;
+    }
+
+    private double toPixel(double value) {
+        double clamped = Math.max(0, Math.min(maxValue, value));
+        return height - 1 - clamped / maxValue * (height - 2);
+    }
+
+    // Правый край показывает столбец newest; ленты стоят на своих блоках по width столбцов
+    private void position(long newest) {
+        long leftColumn = newest - width + 1;
+        long block = Math.floorDiv(leftColumn, width);
+        for (long b = block; b <= block + 1; b++) {
+            tiles[(int) Math.floorMod(b, 2L)].setLayoutX(b * width - leftColumn);
+        }
+    }
+
+    // Копирует в буферы точки канала из самого подробного уровня, покрывающего окно. Сколько
+    // времени держит RAW, зависит от периода опроса, поэтому это проверяется по самим точкам:
+    // если кольцо заполнено, а старейшая точка моложе начала окна, берётся 10-секундный уровень
+    private int readPoints(long now) {
+        long span = SPANS_MS[spanIndex];
+        Resolution resolution = resolutionFor(span);
+        if (resolution == Resolution.RAW) {
+            int capacity = history.getRawCapacity();
+            ensureCapacity(capacity);
+            int n = history.readRaw(channel, timestamps, values);
+            if (n < capacity || timestamps[0] <= now - span) {
+                holdMillis = 10_000L;
+                return n;
+            }
+            resolution = Resolution.TEN_SECONDS;
+        }
+        holdMillis = Math.max(10_000L, resolution.getPeriodMillis() * 2);
+        ensureCapacity(resolution.getCapacity());
+        return history.readRollup(channel, resolution, timestamps, scratchMin, scratchMax, values);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (timestamps.length >= capacity) return;
+        timestamps = new long[capacity];
+        values = new double[capacity];
+        scratchMin = new double[capacity];
+        scratchMax = new double[capacity];
+    }
+
+    private static Resolution resolutionFor(long span) {
+        if (span <= 10 * 60_000L) return Resolution.RAW;
+        for (Resolution r : Resolution.values()) {
+            if (r != Resolution.RAW && r.getSpanMillis() >= span) return r;
+        }
+        return Resolution.TEN_MINUTES;
+    }
+
+    private int lowerBound(int n, long time) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] < time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
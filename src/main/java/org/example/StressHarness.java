@@ -0,0 +1,243 @@
+package org.example;
+
+import engine.*;
+import engine.diag.Diagnostics;
+import engine.diag.LatencyHistogram;
+import engine.history.MetricHistory;
+import engine.synthetic.SyntheticSensorProvider;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+// Нагрузочный прогон на синтетических датчиках. Для каждого уровня размера (потоки x GPU x диски)
+// выполняет тот же тик, что и SystemMonitorFX.updateData: опрос со сроком, запись в историю и
+// обновление карточек, затем печатает пропускную способность, задержку тика, аллокации и прирост
+// кучи. Без --fx вместо виджетов форматируются их тексты, так что прогон работает и без дисплея.
+//
+//   --stress [16x1x4,512x64x2000] [--rate 10] [--duration 10] [--seed 1] [--fx]
+public class StressHarness {
+    private static final String DEFAULT_LEVELS = "16x1x4,64x4x64,256x16x500,512x64x2000";
+    private static final long READ_DEADLINE_MS = 300;
+
+    private final long seed;
+    private final int rate;
+    private final long durationNanos;
+    private final boolean fx;
+
+    public StressHarness(long seed, int rate, int durationSeconds, boolean fx) {
+        this.seed = seed;
+        this.rate = rate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.fx = fx;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "error");
+        String levels = Launcher.stringArg(args, "--stress", DEFAULT_LEVELS);
+        if (levels.startsWith("--")) levels = DEFAULT_LEVELS;
+        StressHarness harness = new StressHarness(Long.parseLong(Launcher.stringArg(args, "--seed", "1")),
+                Agent.intArg(args, "--rate", 10), Agent.intArg(args, "--duration", 10), Launcher.hasFlag(args, "--fx"));
+        if (harness.fx) {
+            Platform.setImplicitExit(false);
+            Platform.startup(() -> {});
+        }
+
+        System.out.printf("%-16s %7s %8s %8s %8s %8s %8s %10s %10s %6s%n", "level", "ticks", "tick/s",
+                "p50", "p99", "max", "ui p99", "alloc/tick", "heap +", "stale");
+        for (String level : levels.split(",")) {
+            String[] parts = level.trim().split("x");
+            if (parts.length != 3) throw new IllegalArgumentException("Ожидался уровень вида 512x64x2000: " + level);
+            Result r = harness.run(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            System.out.printf("%-16s %7d %8.1f %8s %8s %8s %8s %10s %10s %6d%n", level.trim(), r.ticks,
+                    r.ticks / (r.elapsedNanos / 1e9), Diagnostics.formatNanos(r.tick.getPercentile(50)),
+                    Diagnostics.formatNanos(r.tick.getPercentile(99)), Diagnostics.formatNanos(r.tick.getMax()),
+                    Diagnostics.formatNanos(r.ui.getPercentile(99)), formatBytes(r.allocatedBytes / Math.max(1, r.ticks)),
+                    formatBytes(r.heapGrowth), r.staleTicks);
+        }
+        if (harness.fx) Platform.exit();
+    }
+
+    public Result run(int cpus, int gpus, int disks) {
+        SystemInfoService service = new SystemInfoService(new SyntheticSensorProvider(seed, cpus, gpus, disks));
+        MetricHistory history = new MetricHistory();
+        service.addListener(history::record);
+        Cards cards = fx ? onFxThread(() -> new Cards(history, cpus + "x" + gpus + "x" + disks)) : null;
+
+        Result result = new Result();
+        long heapBefore = usedHeapAfterGc();
+        long allocatedBefore = allocatedBytes();
+        long period = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+        long start = System.nanoTime();
+        long next = start;
+        try {
+            while (System.nanoTime() - start < durationNanos) {
+                if (period > 0) {
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                    next += period;
+                }
+                // Диски реже остальных, как в расписании по умолчанию
+                int sources = SensorSnapshot.CPU | SensorSnapshot.RAM | SensorSnapshot.GPU;
+                if (result.ticks % 4 == 0) sources |= SensorSnapshot.DISKS;
+
+                long tickStart = System.nanoTime();
+                SensorSnapshot snapshot = service.readSnapshot(sources, READ_DEADLINE_MS, TimeUnit.MILLISECONDS);
+                long uiStart = System.nanoTime();
+                if (cards != null) cards.apply(snapshot);
+                else render(snapshot);
+                long end = System.nanoTime();
+                result.ui.record(end - uiStart);
+                result.tick.record(end - tickStart);
+                if (snapshot.getStaleSources() != 0) result.staleTicks++;
+                result.ticks++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        result.allocatedBytes = allocatedBytes() - allocatedBefore;
+        service.shutdown();
+        // История ещё жива, поэтому прирост включает и её: это и есть цена размера в установившемся режиме
+        result.heapGrowth = usedHeapAfterGc() - heapBefore;
+        Reference.reachabilityFence(history);
+        if (cards != null) onFxThread(cards::close);
+        return result;
+    }
+
+    // Те же тексты, что выставляет SystemMonitorFX; потребляются через хеш, чтобы их не выбросил JIT
+    private int sink;
+
+    private void render(SensorSnapshot snapshot) {
+        CpuInfo cpu = snapshot.getCpu();
+        RamInfo ram = snapshot.getRam();
+        GpuInfo gpu = snapshot.getGpu();
+        sink += String.format("%.1f%%", cpu.getUsage()).hashCode();
+        sink += String.format("%s\n%d Cores @ %.2f GHz", cpu.getName(), cpu.getCores(), cpu.getBaseClock()).hashCode();
+        sink += String.format("%d Threads, avg %.2f GHz", cpu.getLogicalCount(), cpu.getAverageFrequency() / 1000.0).hashCode();
+        sink += String.format("Used: %s / Free: %s\nTotal: %s",
+                ram.getFormattedUsed(), ram.getFormattedFree(), ram.getFormattedTotal()).hashCode();
+        sink += String.format("%s\nVRAM: %s", gpu.getName(), gpu.getFormattedVramInfo()).hashCode();
+        sink += String.format("%.0f°C", gpu.getTemperature()).hashCode();
+        if (snapshot.has(SensorSnapshot.DISKS)) {
+            for (DiskInfo disk : snapshot.getDisks()) {
+                sink += String.format("%s free of %s", disk.getFormattedFreeSpace(), disk.getFormattedTotalSpace()).hashCode();
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Сумма по всем живым потокам, включая пул чтения SystemInfoService; -1, если JVM не умеет
+    private static long allocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)) return -1;
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 0) return "-" + formatBytes(-bytes);
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static <T> T onFxThread(Callable<T> action) {
+        FutureTask<T> task = new FutureTask<>(action);
+        Platform.runLater(task);
+        try {
+            return task.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Result {
+        private final LatencyHistogram tick = new LatencyHistogram("stress.tick");
+        private final LatencyHistogram ui = new LatencyHistogram("stress.ui");
+        private long ticks;
+        private long staleTicks;
+        private long elapsedNanos;
+        private long allocatedBytes;
+        private long heapGrowth;
+
+        public LatencyHistogram getTick() { return tick; }
+        public LatencyHistogram getUi() { return ui; }
+        public long getTicks() { return ticks; }
+        public long getStaleTicks() { return staleTicks; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public long getAllocatedBytes() { return allocatedBytes; }
+        public long getHeapGrowth() { return heapGrowth; }
+    }
+
+    // Виджеты карточек SystemMonitorFX в отдельном окне; тик ждёт, пока FX-поток применит снимок
+    private static final class Cards {
+        private final Stage stage = new Stage();
+        private final Label cpuValue = new Label();
+        private final Label cpuDetail = new Label();
+        private final ProgressBar cpuBar = new ProgressBar(0);
+        private final Label coresDetail = new Label();
+        private final CoreHeatmap heatmap = new CoreHeatmap();
+        private final Sparkline cpuChart;
+        private final Label gpuDetail = new Label();
+        private final ProgressBar gpuBar = new ProgressBar(0);
+        private final DiskListView diskList = new DiskListView();
+
+        Cards(MetricHistory history, String title) {
+            cpuChart = new Sparkline(history, history.channel(MetricHistory.CPU_USAGE), 100, Color.web("#2196f3"));
+            diskList.setPrefHeight(300);
+            VBox root = new VBox(8, cpuValue, cpuDetail, cpuBar, cpuChart, coresDetail, heatmap, gpuDetail, gpuBar, diskList);
+            stage.setTitle("IronVision stress " + title);
+            stage.setScene(new Scene(root, 700, 900));
+            stage.show();
+        }
+
+        void apply(SensorSnapshot snapshot) throws InterruptedException {
+            CountDownLatch done = new CountDownLatch(1);
+            Platform.runLater(() -> {
+                try {
+                    CpuInfo cpu = snapshot.getCpu();
+                    GpuInfo gpu = snapshot.getGpu();
+                    cpuValue.setText(String.format("%.1f%%", cpu.getUsage()));
+                    cpuDetail.setText(String.format("%s\n%d Cores @ %.2f GHz", cpu.getName(), cpu.getCores(), cpu.getBaseClock()));
+                    cpuBar.setProgress(cpu.getUsage() / 100.0);
+                    SystemMonitorFX.updateBarStyle(cpuBar, cpu.getUsage(), 60, 85, "state-ok-blue");
+                    heatmap.update(cpu);
+                    coresDetail.setText(String.format("%d Threads, avg %.2f GHz",
+                            cpu.getLogicalCount(), cpu.getAverageFrequency() / 1000.0));
+                    cpuChart.refresh(System.currentTimeMillis());
+                    gpuDetail.setText(String.format("%s\nVRAM: %s", gpu.getName(), gpu.getFormattedVramInfo()));
+                    gpuBar.setProgress(gpu.getGpuLoad() / 100.0);
+                    SystemMonitorFX.updateBarStyle(gpuBar, gpu.getGpuLoad(), 60, 90, "state-ok-pink");
+                    if (snapshot.has(SensorSnapshot.DISKS)) diskList.update(snapshot.getDisks());
+                } finally {
+                    done.countDown();
+                }
+            });
+            done.await();
+        }
+
+        Void close() {
+            stage.close();
+            return null;
+        }
+    }
+}
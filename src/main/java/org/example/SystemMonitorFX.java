@@ -1,6 +1,29 @@
 package org.example;
 
 import engine.*;
+import engine.alert.AlertEngine;
+import engine.alert.AlertEvent;
+import engine.alert.AlertRule;
+import engine.alert.ConsoleAlertSink;
+import engine.diag.Diagnostics;
+import engine.diag.LatencyHistogram;
+import engine.diag.StartupProfile;
+import engine.diag.TickMonitor;
+import engine.fleet.FleetCollector;
+import engine.fleet.FleetHost;
+import engine.fleet.FleetPublisher;
+import engine.history.MetricHistory;
+import engine.io.DiskIoInfo;
+import engine.io.DiskIoSampler;
+import engine.io.NetworkInfo;
+import engine.io.NetworkSampler;
+import engine.process.ProcessInfo;
+import engine.process.ProcessSampler;
+import engine.sched.AdaptiveScheduler;
+import engine.sched.Clock;
+import engine.stats.MetricStats;
+import engine.stats.StatsSummary;
+import engine.store.MetricStore;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -8,20 +31,36 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.effect.DropShadow;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.stage.Screen;
 import javafx.stage.Stage;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class SystemMonitorFX extends Application {
 
     private SystemInfoService service;
+    private final MetricHistory history = new MetricHistory();
+    private volatile MetricStore store;
     private ScheduledExecutorService executor;
+    private AlertEngine alerts;
+
+    private Rectangle statusDot;
+    private Label statusText;
+    private final Tooltip alertTooltip = new Tooltip("No active alerts");
+    private static final String STATUS_STYLE = "-fx-font-size: 10px; -fx-font-weight: bold; -fx-text-fill: ";
+    // Помещается на экран 1366×768 вместе с панелью задач; остальное прокручивается
+    private static final double INITIAL_HEIGHT = 720;
 
     private Label cpuValueLabel, cpuDetailLabel;
     private ProgressBar cpuBar;
@@ -35,11 +74,55 @@ public class SystemMonitorFX extends Application {
     private Label gpuTempValueLabel, gpuTempDetailLabel;
     private ProgressBar gpuTempBar;
 
-    private VBox disksContainer;
-
-    private volatile List<DiskInfo> cachedDisks = null;
+    // Скользящие агрегаты под графиками карточек
+    private MetricStats stats;
+    private Label cpuStatsLabel, ramStatsLabel, gpuLoadStatsLabel, gpuTempStatsLabel;
+    private long lastStatsRefresh = 0;
+
+    private Sparkline cpuChart, ramChart, gpuLoadChart, gpuTempChart;
+
+    private CoreHeatmap coreHeatmap;
+    private Label coresDetailLabel;
+
+    private DiskListView diskList;
+    private Label diskPlaceholder;
+    private Label diskIoLabel;
+    private DiskIoSampler diskIoSampler;
+
+    private static final int TOP_INTERFACES = 4;
+    private Label networkValueLabel, networkDetailLabel;
+    private Sparkline rxChart, txChart;
+    private NetworkSampler networkSampler;
+
+    private static final int TOP_PROCESSES = 8;
+    private ProcessTable processTable;
+    private Label processCountLabel;
+    private ProcessSampler processSampler;
+    private ScheduledExecutorService processExecutor;
+
+    private static final int FLEET_ROWS = 12;
+    private FleetCollector collector;
+    private FleetPublisher publisher;
+    private FleetTable fleetTable;
+    private Label fleetCountLabel;
+
+    private VBox diagnosticsCard;
+    private Label diagnosticsLabel;
+    private final Diagnostics diagnostics = Diagnostics.getDefault();
+    private final StartupProfile startup = StartupProfile.getDefault();
+    // Источники, карточки которых уже показывают данные; пишется только потоком опроса
+    private int shownSources;
+    private static final String[] SOURCE_NAMES = { "cpu", "ram", "gpu", "disks" };
+    private final TickMonitor tickMonitor = new TickMonitor(diagnostics, "tick", TimeUnit.MILLISECONDS.toNanos(500));
+    private final LatencyHistogram fxLatency = diagnostics.histogram("fx.latency");
+    private final LatencyHistogram fxUpdate = diagnostics.histogram("fx.update");
+
+    private static final long READ_DEADLINE_MS = 300;
+    private static final double STYLE_HYSTERESIS = 3.0;
+
+    private final AdaptiveScheduler scheduler = AdaptiveScheduler.createDefault(Clock.SYSTEM);
     private volatile double cachedGpuTemp = 0.0;
-    private int tickCounter = 0;
+    private long lastDiagnosticsRefresh = 0;
 
     private static final String CSS_STYLES = """
         .root {
@@ -69,6 +152,7 @@ public class SystemMonitorFX extends Application {
             -fx-font-weight: bold;
             -fx-text-fill: white;
         }
+        .skeleton { -fx-text-fill: #4a4a4a; }
         .metric-detail {
             -fx-font-size: 12px;
             -fx-text-fill: #808080;
@@ -97,13 +181,33 @@ public class SystemMonitorFX extends Application {
         .scroll-bar:vertical { -fx-pref-width: 8px; }
         .scroll-bar .track { -fx-background-color: #2d2d2d; -fx-background-radius: 4px; }
         .scroll-bar .thumb { -fx-background-color: #555555; -fx-background-radius: 4px; }
+        .disk-list { -fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: 0; }
+        .disk-list .list-cell { -fx-background-color: transparent; -fx-padding: 0 5 0 0; }
         .scroll-bar .increment-button, .scroll-bar .decrement-button { -fx-pref-height: 0; -fx-pref-width: 0; }
     """;
 
     @Override
     public void start(Stage primaryStage) {
-        service = SystemInfoService.createDefault();
-
+        String[] args = getParameters().getRaw().toArray(new String[0]);
+        if (Launcher.hasFlag(args, "--startup-profile")) startup.setEnabled(true);
+        startup.mark("fx.start");
+        // Провайдеры создаются в фоне: окно появляется сразу, карточки заполняются по мере готовности
+        startup.begin("services");
+        ExecutorService startupPool = SystemInfoService.newStartupPool();
+        service = Launcher.createService(args, startupPool);
+        openHistory(startupPool);
+        startupPool.shutdown();
+        alerts = Launcher.createAlerts(args);
+        alerts.addSink(new ConsoleAlertSink()).addSink(event -> Platform.runLater(this::showAlerts));
+        service.addListener(alerts);
+        stats = Launcher.createStats(args);
+        service.addListener(stats);
+        publisher = Launcher.createPublisher(args);
+        if (publisher != null) service.addListener(publisher);
+        collector = Launcher.createCollector(args);
+        startup.end("services");
+
+        startup.begin("ui");
         BorderPane root = new BorderPane();
         root.getStylesheets().add("data:text/css," + CSS_STYLES.replaceAll("\n", ""));
 
@@ -112,12 +216,13 @@ public class SystemMonitorFX extends Application {
         header.setPadding(new Insets(20));
         Label title = new Label("IRON VISION");
         title.getStyleClass().add("header-label");
-        Rectangle statusDot = new Rectangle(8, 8, Color.LIMEGREEN);
+        statusDot = new Rectangle(8, 8, Color.LIMEGREEN);
         statusDot.setArcWidth(8);
         statusDot.setArcHeight(8);
-        Label statusText = new Label(" MONITORING ACTIVE");
-        statusText.setStyle("-fx-text-fill: #606060; -fx-font-size: 10px; -fx-font-weight: bold;");
+        statusText = new Label(" MONITORING ACTIVE");
+        statusText.setStyle(STATUS_STYLE + "#606060;");
         HBox statusBox = new HBox(5, statusDot, statusText);
+        Tooltip.install(statusBox, alertTooltip);
         statusBox.setAlignment(Pos.CENTER_LEFT);
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -133,52 +238,142 @@ public class SystemMonitorFX extends Application {
         grid.getColumnConstraints().addAll(col1, col2);
 
         VBox cpuCard = createCard("PROCESSOR (CPU)");
-        cpuValueLabel = new Label("0%"); cpuValueLabel.getStyleClass().add("metric-value");
+        cpuValueLabel = new Label("—"); cpuValueLabel.getStyleClass().addAll("metric-value", "skeleton");
         cpuDetailLabel = new Label("Loading..."); cpuDetailLabel.getStyleClass().add("metric-detail");
         cpuBar = new ProgressBar(0); cpuBar.setMaxWidth(Double.MAX_VALUE); cpuBar.getStyleClass().add("state-ok-blue");
-        cpuCard.getChildren().addAll(cpuValueLabel, cpuBar, cpuDetailLabel);
+        cpuChart = new Sparkline(history, history.channel(MetricHistory.CPU_USAGE), 100, Color.web("#2196f3"));
+        cpuStatsLabel = new Label(" "); cpuStatsLabel.getStyleClass().add("metric-detail");
+        cpuCard.getChildren().addAll(cpuValueLabel, cpuBar, cpuChart, cpuStatsLabel, cpuDetailLabel);
         grid.add(cpuCard, 0, 0);
 
         VBox ramCard = createCard("MEMORY (RAM)");
-        ramValueLabel = new Label("0%"); ramValueLabel.getStyleClass().add("metric-value");
+        ramValueLabel = new Label("—"); ramValueLabel.getStyleClass().addAll("metric-value", "skeleton");
         ramDetailLabel = new Label("Loading..."); ramDetailLabel.getStyleClass().add("metric-detail");
         ramBar = new ProgressBar(0); ramBar.setMaxWidth(Double.MAX_VALUE); ramBar.getStyleClass().add("state-ok-purple");
-        ramCard.getChildren().addAll(ramValueLabel, ramBar, ramDetailLabel);
+        ramChart = new Sparkline(history, history.channel(MetricHistory.RAM_USAGE), 100, Color.web("#ab47bc"));
+        ramStatsLabel = new Label(" "); ramStatsLabel.getStyleClass().add("metric-detail");
+        ramCard.getChildren().addAll(ramValueLabel, ramBar, ramChart, ramStatsLabel, ramDetailLabel);
         grid.add(ramCard, 1, 0);
 
         VBox gpuLoadCard = createCard("GPU LOAD & VRAM");
-        gpuLoadValueLabel = new Label("0%"); gpuLoadValueLabel.getStyleClass().add("metric-value");
+        gpuLoadValueLabel = new Label("—"); gpuLoadValueLabel.getStyleClass().addAll("metric-value", "skeleton");
         gpuLoadDetailLabel = new Label("Loading..."); gpuLoadDetailLabel.getStyleClass().add("metric-detail");
         gpuLoadBar = new ProgressBar(0); gpuLoadBar.setMaxWidth(Double.MAX_VALUE); gpuLoadBar.getStyleClass().add("state-ok-pink");
-        gpuLoadCard.getChildren().addAll(gpuLoadValueLabel, gpuLoadBar, gpuLoadDetailLabel);
+        gpuLoadChart = new Sparkline(history, history.channel(MetricHistory.GPU_LOAD), 100, Color.web("#ec407a"));
+        gpuLoadStatsLabel = new Label(" "); gpuLoadStatsLabel.getStyleClass().add("metric-detail");
+        gpuLoadCard.getChildren().addAll(gpuLoadValueLabel, gpuLoadBar, gpuLoadChart, gpuLoadStatsLabel, gpuLoadDetailLabel);
         grid.add(gpuLoadCard, 0, 1);
 
         VBox gpuTempCard = createCard("GPU TEMPERATURE");
-        gpuTempValueLabel = new Label("0°C"); gpuTempValueLabel.getStyleClass().add("metric-value");
+        gpuTempValueLabel = new Label("—"); gpuTempValueLabel.getStyleClass().addAll("metric-value", "skeleton");
         gpuTempDetailLabel = new Label("Thermal Status"); gpuTempDetailLabel.getStyleClass().add("metric-detail");
         gpuTempBar = new ProgressBar(0); gpuTempBar.setMaxWidth(Double.MAX_VALUE); gpuTempBar.getStyleClass().add("state-ok-green");
-        gpuTempCard.getChildren().addAll(gpuTempValueLabel, gpuTempBar, gpuTempDetailLabel);
+        gpuTempChart = new Sparkline(history, history.channel(MetricHistory.GPU_TEMPERATURE), 100, Color.web("#66bb6a"));
+        gpuTempStatsLabel = new Label(" "); gpuTempStatsLabel.getStyleClass().add("metric-detail");
+        gpuTempCard.getChildren().addAll(gpuTempValueLabel, gpuTempBar, gpuTempChart, gpuTempStatsLabel, gpuTempDetailLabel);
         grid.add(gpuTempCard, 1, 1);
 
+        VBox coresCard = createCard("CPU CORES");
+        coreHeatmap = new CoreHeatmap();
+        coresDetailLabel = new Label("Loading..."); coresDetailLabel.getStyleClass().add("metric-detail");
+        coresCard.getChildren().addAll(coreHeatmap, coresDetailLabel);
+        grid.add(coresCard, 0, 2, 2, 1);
+
         VBox diskCard = createCard("STORAGE");
-        disksContainer = new VBox(10); disksContainer.setPadding(new Insets(0, 5, 0, 0));
-        ScrollPane scrollPane = new ScrollPane(disksContainer);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background-color: transparent; -fx-background: transparent;");
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        scrollPane.setPrefHeight(100);
-        diskCard.getChildren().add(scrollPane);
-        grid.add(diskCard, 0, 2, 2, 1);
-
-        root.setCenter(grid);
-        Scene scene = new Scene(root, 700, 580);
+        diskList = new DiskListView();
+        diskList.setPrefHeight(110);
+        diskPlaceholder = new Label("Waiting for sensors..."); diskPlaceholder.getStyleClass().add("metric-detail");
+        diskList.setPlaceholder(diskPlaceholder);
+        diskIoLabel = new Label("Loading..."); diskIoLabel.getStyleClass().add("metric-detail");
+        diskCard.getChildren().addAll(diskList, diskIoLabel);
+        grid.add(diskCard, 0, 3, 2, 1);
+
+        VBox networkCard = createCard("NETWORK");
+        networkValueLabel = new Label("RX 0 B/s   TX 0 B/s"); networkValueLabel.getStyleClass().add("metric-value");
+        rxChart = new Sparkline(history, history.channel(MetricHistory.NET_RX), 0, Color.web("#26c6da"));
+        rxChart.setAutoScale(64 * 1024);
+        txChart = new Sparkline(history, history.channel(MetricHistory.NET_TX), 0, Color.web("#ffa726"));
+        txChart.setAutoScale(64 * 1024);
+        networkDetailLabel = new Label("Loading..."); networkDetailLabel.getStyleClass().add("metric-detail");
+        networkCard.getChildren().addAll(networkValueLabel, rxChart, txChart, networkDetailLabel);
+        grid.add(networkCard, 0, 4, 2, 1);
+
+        VBox processCard = createCard("TOP PROCESSES");
+        processTable = new ProcessTable(TOP_PROCESSES);
+        processCountLabel = new Label("Loading..."); processCountLabel.getStyleClass().add("metric-detail");
+        processCard.getChildren().addAll(processTable, processCountLabel);
+        grid.add(processCard, 0, 5, 2, 1);
+
+        if (collector != null) {
+            VBox fleetCard = createCard("FLEET");
+            fleetTable = new FleetTable(FLEET_ROWS);
+            fleetCountLabel = new Label("Waiting for agents on port " + collector.getPort() + "...");
+            fleetCountLabel.getStyleClass().add("metric-detail");
+            fleetCard.getChildren().addAll(fleetTable, fleetCountLabel);
+            grid.add(fleetCard, 0, 6, 2, 1);
+        }
+
+        diagnosticsCard = createCard("DIAGNOSTICS (F12)");
+        diagnosticsLabel = new Label("Collecting...");
+        diagnosticsLabel.setStyle("-fx-text-fill: #a0a0a0; -fx-font-family: 'Consolas', monospace; -fx-font-size: 11px;");
+        diagnosticsCard.getChildren().add(diagnosticsLabel);
+        setDiagnosticsVisible(getParameters().getRaw().contains("--diagnostics"));
+        grid.add(diagnosticsCard, 0, 7, 2, 1);
+
+        // Карточки прокручиваются, а окно по высоте не больше рабочей области экрана
+        ScrollPane scroll = new ScrollPane(grid);
+        scroll.setFitToWidth(true);
+        scroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        root.setCenter(scroll);
+        double height = Math.min(INITIAL_HEIGHT, Screen.getPrimary().getVisualBounds().getHeight() - 40);
+        Scene scene = new Scene(root, 700, height);
+        scene.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.F12) setDiagnosticsVisible(!diagnosticsCard.isVisible());
+        });
         primaryStage.setTitle("IronVision v1.1");
         primaryStage.setScene(scene);
 
         startMonitoring();
         primaryStage.setOnCloseRequest(e -> stopMonitoring());
+        startup.end("ui");
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                startup.mark("first.frame");
+                scene.removePostLayoutPulseListener(this);
+            }
+        });
         primaryStage.show();
+        startup.mark("stage.shown");
+    }
+
+    private void setDiagnosticsVisible(boolean visible) {
+        diagnosticsCard.setVisible(visible);
+        diagnosticsCard.setManaged(visible);
+    }
+
+    // Кратчайшее окно графиков; длинные окна читают свертки, которые заполнятся по ходу работы
+    private static final long PRELOAD_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    // Открытие хранилища с восстановлением хвоста и подгрузка последних десяти минут идут на пуле
+    // запуска, параллельно с провайдерами; открытие попадает в профиль интервалом "store"
+    private void openHistory(Executor startupPool) {
+        String[] args = getParameters().getRaw().toArray(new String[0]);
+        startup.begin("store");
+        startupPool.execute(() -> {
+            MetricStore opened;
+            try {
+                opened = Launcher.openStore(args, service);
+                store = opened;
+            } finally {
+                startup.end("store");
+            }
+            if (opened != null) {
+                long now = System.currentTimeMillis();
+                opened.scan(now - PRELOAD_MILLIS, now, history::record);
+            }
+            service.addListener(history::record);
+        });
     }
 
     private VBox createCard(String titleText) {
@@ -201,98 +396,297 @@ public class SystemMonitorFX extends Application {
             t.setDaemon(true);
             return t;
         });
-        executor.scheduleAtFixedRate(this::updateData, 0, 500, TimeUnit.MILLISECONDS);
+        executor.execute(this::updateData);
+
+        // Процессы опрашиваются отдельно: обход тысяч процессов не должен задерживать датчики
+        processExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ironvision-processes");
+            t.setDaemon(true);
+            return t;
+        });
+        processExecutor.scheduleWithFixedDelay(this::updateProcesses, 0, 1, TimeUnit.SECONDS);
+        processExecutor.scheduleWithFixedDelay(this::updateDiskIo, 0, 1, TimeUnit.SECONDS);
+        processExecutor.scheduleWithFixedDelay(this::updateNetwork, 0, 1, TimeUnit.SECONDS);
+        if (collector != null) processExecutor.scheduleWithFixedDelay(this::updateFleet, 1, 1, TimeUnit.SECONDS);
     }
 
-    private void updateData() {
+    // Сортировка сотен хостов — вне FX-потока, туда уходят только первые строки
+    private void updateFleet() {
         try {
-            CpuInfo cpu = service.readCpu();
-            RamInfo ram = service.readRam();
-            GpuInfo gpu = service.readGpu();
+            List<FleetHost> hosts = collector.getHosts(fleetTable.getSortKey());
+            List<FleetHost> top = hosts.subList(0, Math.min(hosts.size(), fleetTable.getRows()));
+            int connected = collector.getConnectedCount();
+            Platform.runLater(() -> {
+                fleetTable.update(top);
+                fleetCountLabel.setText(String.format("%d hosts, %d connected", hosts.size(), connected));
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-            if (tickCounter % 4 == 0) {
-                cachedDisks = service.readDisks();
+    private void updateProcesses() {
+        try {
+            if (processSampler == null) processSampler = new ProcessSampler();
+            List<ProcessInfo> top = processSampler.sample(processTable.getSortKey(), TOP_PROCESSES);
+            int count = processSampler.getProcessCount();
+            Platform.runLater(() -> {
+                processTable.update(top);
+                processCountLabel.setText(count + " processes");
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void updateDiskIo() {
+        try {
+            if (diskIoSampler == null) diskIoSampler = new DiskIoSampler();
+            List<DiskIoInfo> disks = diskIoSampler.sample();
+            StringBuilder sb = new StringBuilder();
+            for (DiskIoInfo disk : disks) {
+                if (sb.length() > 0) sb.append('\n');
+                sb.append(String.format("%s   R %s   W %s   %.0f IOPS   queue %d   %.0f%% busy",
+                        disk.getName(), disk.getFormattedReadRate(), disk.getFormattedWriteRate(),
+                        disk.getIops(), disk.getQueueLength(), disk.getBusyPercent()));
+            }
+            String text = disks.isEmpty() ? "No disk I/O counters" : sb.toString();
+            Platform.runLater(() -> {
+                if (!text.equals(diskIoLabel.getText())) diskIoLabel.setText(text);
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Сумма по интерфейсам идёт в историю для графиков, в подпись — самые загруженные интерфейсы
+    private void updateNetwork() {
+        try {
+            if (networkSampler == null) networkSampler = new NetworkSampler();
+            List<NetworkInfo> top = networkSampler.sample(TOP_INTERFACES);
+            long now = System.currentTimeMillis();
+            double rx = networkSampler.getRxBytesPerSec();
+            double tx = networkSampler.getTxBytesPerSec();
+            history.record(history.channel(MetricHistory.NET_RX), now, rx);
+            history.record(history.channel(MetricHistory.NET_TX), now, tx);
+
+            StringBuilder sb = new StringBuilder();
+            for (NetworkInfo net : top) {
+                sb.append(String.format("%s   RX %s   TX %s   %.0f/%.0f pkt/s%n", net.getName(),
+                        net.getFormattedRxRate(), net.getFormattedTxRate(), net.getRxPacketsPerSec(), net.getTxPacketsPerSec()));
+            }
+            sb.append(String.format("%d interfaces, %d errors, %d drops",
+                    networkSampler.getInterfaceCount(), networkSampler.getErrors(), networkSampler.getDrops()));
+            String value = "RX " + DiskIoInfo.formatRate(rx) + "   TX " + DiskIoInfo.formatRate(tx);
+            String detail = sb.toString();
+            Platform.runLater(() -> {
+                networkValueLabel.setText(value);
+                if (!detail.equals(networkDetailLabel.getText())) networkDetailLabel.setText(detail);
+                rxChart.refresh(now);
+                txChart.refresh(now);
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Каждый тик опрашивает только источники, срок которых наступил, и сам планирует следующий
+    private void updateData() {
+        long tickStart = tickMonitor.begin(scheduler.nextDueNanos());
+        try {
+            int sources = scheduler.due();
+            if (sources == 0) return;
+
+            boolean settled = startup.isSettled();
+            SensorSnapshot snapshot = service.readSnapshot(sources, READ_DEADLINE_MS, TimeUnit.MILLISECONDS);
+            scheduler.complete(sources, snapshot);
+            // Карточка остаётся заготовкой до первых данных своего источника. Когда все провайдеры
+            // запущены, опрошенный, но пустой источник показывается как есть (N/A)
+            int arrived = (snapshot.getSources() | (settled ? sources : 0)) & ~shownSources;
+            shownSources |= arrived;
+            int shown = shownSources;
+            CpuInfo cpu = snapshot.getCpu();
+            RamInfo ram = snapshot.getRam();
+            GpuInfo gpu = snapshot.getGpu();
+            List<DiskInfo> freshDisks = snapshot.has(SensorSnapshot.DISKS) ? snapshot.getDisks() : null;
+
+            if (snapshot.has(SensorSnapshot.GPU)) {
                 cachedGpuTemp = gpu.getTemperature();
             }
-            tickCounter++;
 
+            // Агрегаты окна меняются медленно: пересчёт раз в секунду и вне FX-потока
+            String[] statsText = null;
+            if (System.nanoTime() - lastStatsRefresh >= 1_000_000_000L) {
+                lastStatsRefresh = System.nanoTime();
+                statsText = new String[] {
+                        formatStats(stats.summary("cpu.usage"), "%.1f%%"),
+                        formatStats(stats.summary("ram.usage"), "%.0f%%"),
+                        formatStats(stats.summary("gpu.load"), "%.1f%%"),
+                        formatStats(stats.summary("gpu.temperature"), "%.0f°C") };
+            }
+            String[] freshStats = statsText;
+
+            long posted = System.nanoTime();
             Platform.runLater(() -> {
-                cpuValueLabel.setText(String.format("%.1f%%", cpu.getUsage()));
-                cpuDetailLabel.setText(String.format("%s\n%d Cores @ %.2f GHz",
-                        cpu.getName(), cpu.getCores(), cpu.getBaseClock()));
-                cpuBar.setProgress(cpu.getUsage() / 100.0);
-                updateBarStyle(cpuBar, cpu.getUsage(), 60, 85, "state-ok-blue");
-
-                ramValueLabel.setText(String.format("%.0f%%", ram.getUsagePercent()));
-                ramDetailLabel.setText(String.format("Used: %s / Free: %s\nTotal: %s",
-                        ram.getFormattedUsed(), ram.getFormattedFree(), ram.getFormattedTotal()));
-                ramBar.setProgress(ram.getUsagePercent() / 100.0);
-                updateBarStyle(ramBar, ram.getUsagePercent(), 75, 90, "state-ok-purple");
-
-                gpuLoadValueLabel.setText(String.format("%.1f%%", gpu.getGpuLoad()));
-                gpuLoadDetailLabel.setText(String.format("%s\nVRAM: %s",
-                        gpu.getName(), gpu.getFormattedVramInfo()));
-                gpuLoadBar.setProgress(gpu.getGpuLoad() / 100.0);
-                updateBarStyle(gpuLoadBar, gpu.getGpuLoad(), 60, 90, "state-ok-pink");
-
-                if (cachedGpuTemp > 0) {
-                    gpuTempValueLabel.setText(String.format("%.0f°C", cachedGpuTemp));
-                    gpuTempBar.setProgress(cachedGpuTemp / 100.0);
-                    updateBarStyle(gpuTempBar, cachedGpuTemp, 65, 82, "state-ok-green");
-
-                    if (cachedGpuTemp > 82) gpuTempValueLabel.setStyle("-fx-text-fill: #ef5350; -fx-font-weight: bold; -fx-font-size: 32px;");
-                    else if (cachedGpuTemp > 65) gpuTempValueLabel.setStyle("-fx-text-fill: #ffca28; -fx-font-weight: bold; -fx-font-size: 32px;");
-                    else gpuTempValueLabel.setStyle("-fx-text-fill: white; -fx-font-weight: bold; -fx-font-size: 32px;");
-                } else {
-                    gpuTempValueLabel.setText("N/A");
-                    gpuTempValueLabel.setStyle("-fx-text-fill: #808080; -fx-font-weight: bold; -fx-font-size: 32px;");
-                    gpuTempBar.setProgress(0);
+                long uiStart = System.nanoTime();
+                fxLatency.record(uiStart - posted);
+
+                if (arrived != 0) revealCards(arrived);
+                cpuValueLabel.setOpacity(snapshot.isStale(SensorSnapshot.CPU) ? 0.5 : 1.0);
+                ramValueLabel.setOpacity(snapshot.isStale(SensorSnapshot.RAM) ? 0.5 : 1.0);
+                gpuLoadValueLabel.setOpacity(snapshot.isStale(SensorSnapshot.GPU) ? 0.5 : 1.0);
+                gpuTempValueLabel.setOpacity(snapshot.isStale(SensorSnapshot.GPU) ? 0.5 : 1.0);
+
+                if ((shown & SensorSnapshot.CPU) != 0) {
+                    cpuValueLabel.setText(String.format("%.1f%%", cpu.getUsage()));
+                    cpuDetailLabel.setText(String.format("%s\n%d Cores @ %.2f GHz",
+                            cpu.getName(), cpu.getCores(), cpu.getBaseClock()));
+                    cpuBar.setProgress(cpu.getUsage() / 100.0);
+                    updateBarStyle(cpuBar, cpu.getUsage(), 60, 85, "state-ok-blue");
+                }
+
+                if (snapshot.has(SensorSnapshot.CPU) && cpu.getLogicalCount() > 0) {
+                    coreHeatmap.update(cpu);
+                    double clock = cpu.getAverageFrequency();
+                    coresDetailLabel.setText(clock > 0
+                            ? String.format("%d Threads, avg %.2f GHz", cpu.getLogicalCount(), clock / 1000.0)
+                            : String.format("%d Threads", cpu.getLogicalCount()));
+                }
+
+                if ((shown & SensorSnapshot.RAM) != 0) {
+                    ramValueLabel.setText(String.format("%.0f%%", ram.getUsagePercent()));
+                    ramDetailLabel.setText(String.format("Used: %s / Free: %s\nTotal: %s",
+                            ram.getFormattedUsed(), ram.getFormattedFree(), ram.getFormattedTotal()));
+                    ramBar.setProgress(ram.getUsagePercent() / 100.0);
+                    updateBarStyle(ramBar, ram.getUsagePercent(), 75, 90, "state-ok-purple");
                 }
 
-                if (cachedDisks != null && tickCounter % 4 == 1) {
-                    disksContainer.getChildren().clear();
-                    for (DiskInfo disk : cachedDisks) {
-                        disksContainer.getChildren().add(createDiskRow(disk));
+                if ((shown & SensorSnapshot.GPU) != 0) {
+                    gpuLoadValueLabel.setText(String.format("%.1f%%", gpu.getGpuLoad()));
+                    gpuLoadDetailLabel.setText(String.format("%s\nVRAM: %s",
+                            gpu.getName(), gpu.getFormattedVramInfo()));
+                    gpuLoadBar.setProgress(gpu.getGpuLoad() / 100.0);
+                    updateBarStyle(gpuLoadBar, gpu.getGpuLoad(), 60, 90, "state-ok-pink");
+
+                    if (cachedGpuTemp > 0) {
+                        gpuTempValueLabel.setText(String.format("%.0f°C", cachedGpuTemp));
+                        gpuTempBar.setProgress(cachedGpuTemp / 100.0);
+                        updateBarStyle(gpuTempBar, cachedGpuTemp, 65, 82, "state-ok-green");
+
+                        if (cachedGpuTemp > 82) gpuTempValueLabel.setStyle("-fx-text-fill: #ef5350; -fx-font-weight: bold; -fx-font-size: 32px;");
+                        else if (cachedGpuTemp > 65) gpuTempValueLabel.setStyle("-fx-text-fill: #ffca28; -fx-font-weight: bold; -fx-font-size: 32px;");
+                        else gpuTempValueLabel.setStyle("-fx-text-fill: white; -fx-font-weight: bold; -fx-font-size: 32px;");
+                    } else {
+                        gpuTempValueLabel.setText("N/A");
+                        gpuTempValueLabel.setStyle("-fx-text-fill: #808080; -fx-font-weight: bold; -fx-font-size: 32px;");
+                        gpuTempBar.setProgress(0);
                     }
                 }
+
+                if (freshStats != null) {
+                    cpuStatsLabel.setText(freshStats[0]);
+                    ramStatsLabel.setText(freshStats[1]);
+                    gpuLoadStatsLabel.setText(freshStats[2]);
+                    gpuTempStatsLabel.setText(freshStats[3]);
+                }
+
+                long now = System.currentTimeMillis();
+                cpuChart.refresh(now);
+                ramChart.refresh(now);
+                gpuLoadChart.refresh(now);
+                gpuTempChart.refresh(now);
+
+                if (freshDisks != null) {
+                    diskList.update(freshDisks);
+                }
+                if (shown == SensorSnapshot.ALL) {
+                    startup.mark("cards.filled");
+                    if (settled) startup.printOnce();
+                }
+
+                if (diagnosticsCard.isVisible() && uiStart - lastDiagnosticsRefresh >= 1_000_000_000L) {
+                    diagnosticsLabel.setText(diagnostics.report().stripTrailing());
+                    lastDiagnosticsRefresh = uiStart;
+                }
+                fxUpdate.record(System.nanoTime() - uiStart);
             });
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            tickMonitor.end(tickStart);
+            if (!executor.isShutdown()) {
+                executor.schedule(this::updateData, scheduler.nanosUntilNextDue(), TimeUnit.NANOSECONDS);
+            }
         }
     }
 
-    private void updateBarStyle(ProgressBar bar, double value, double warnThreshold, double critThreshold, String okStyle) {
-        bar.getStyleClass().removeAll("state-ok-blue", "state-ok-purple", "state-ok-pink",
-                "state-ok-green", "state-ok-cyan", "state-warn", "state-crit");
-        if (value >= critThreshold) bar.getStyleClass().add("state-crit");
-        else if (value >= warnThreshold) bar.getStyleClass().add("state-warn");
-        else bar.getStyleClass().add(okStyle);
+    // Снимает вид заготовки с карточек пришедших источников и отмечает первые данные в профиле запуска
+    private void revealCards(int arrived) {
+        if ((arrived & SensorSnapshot.CPU) != 0) cpuValueLabel.getStyleClass().remove("skeleton");
+        if ((arrived & SensorSnapshot.RAM) != 0) ramValueLabel.getStyleClass().remove("skeleton");
+        if ((arrived & SensorSnapshot.GPU) != 0) {
+            gpuLoadValueLabel.getStyleClass().remove("skeleton");
+            gpuTempValueLabel.getStyleClass().remove("skeleton");
+        }
+        if ((arrived & SensorSnapshot.DISKS) != 0) diskPlaceholder.setText("No disks");
+        for (int i = 0; i < SensorSnapshot.SOURCE_COUNT; i++) {
+            if ((arrived & (1 << i)) != 0) startup.mark("card." + SOURCE_NAMES[i]);
+        }
+    }
+
+    // «5m  p95 72.3%  max 98.1%  avg 40.2% ±12.0»
+    private String formatStats(StatsSummary summary, String format) {
+        if (summary.isEmpty()) return " ";
+        return String.format("%dm  p95 " + format + "  max " + format + "  avg " + format + " ±%.1f",
+                stats.getWindowMillis() / 60_000, summary.p95(), summary.max(), summary.mean(), summary.stdDev());
+    }
+
+    // Заголовок показывает сработавшие правила вместо «MONITORING ACTIVE»
+    private void showAlerts() {
+        List<AlertEvent> firing = alerts.getFiring();
+        if (firing.isEmpty()) {
+            statusDot.setFill(Color.LIMEGREEN);
+            statusText.setText(" MONITORING ACTIVE");
+            statusText.setStyle(STATUS_STYLE + "#606060;");
+            alertTooltip.setText("No active alerts");
+            return;
+        }
+        boolean critical = firing.stream().anyMatch(e -> e.rule().getSeverity() == AlertRule.Severity.CRITICAL);
+        String color = critical ? "#ef5350" : "#ffca28";
+        statusDot.setFill(Color.web(color));
+        statusText.setText(" " + firing.size() + (firing.size() == 1 ? " ALERT: " : " ALERTS: ")
+                + firing.stream().map(e -> e.rule().getName()).collect(Collectors.joining(", ")));
+        statusText.setStyle(STATUS_STYLE + color + ";");
+        alertTooltip.setText(firing.stream().map(AlertEvent::describe).collect(Collectors.joining("\n")));
     }
 
-    private VBox createDiskRow(DiskInfo disk) {
-        VBox row = new VBox(4);
-        HBox topRow = new HBox();
-        Label name = new Label(disk.getName());
-        name.setStyle("-fx-text-fill: white; -fx-font-weight: bold; -fx-font-size: 11px;");
-        Region spacer = new Region(); HBox.setHgrow(spacer, Priority.ALWAYS);
-        Label stats = new Label(String.format("%.0f%%", disk.getUsagePercent()));
-        stats.setStyle("-fx-text-fill: #a0a0a0; -fx-font-size: 11px;");
-        topRow.getChildren().addAll(name, spacer, stats);
-
-        ProgressBar pBar = new ProgressBar(disk.getUsagePercent() / 100.0);
-        pBar.setMaxWidth(Double.MAX_VALUE);
-        pBar.getStyleClass().add("disk-bar");
-        pBar.setPrefHeight(6);
-        updateBarStyle(pBar, disk.getUsagePercent(), 80, 92, "state-ok-cyan");
-
-        Label details = new Label(String.format("%s free of %s", disk.getFormattedFreeSpace(), disk.getFormattedTotalSpace()));
-        details.setStyle("-fx-text-fill: #606060; -fx-font-size: 10px;");
-        row.getChildren().addAll(topRow, pBar, details);
-        return row;
+    // Класс меняется только при смене состояния, чтобы не перезапускать применение CSS на каждом тике.
+    // Вниз состояние уходит лишь на STYLE_HYSTERESIS ниже порога, иначе у границы цвет мигает каждый тик
+    static void updateBarStyle(ProgressBar bar, double value, double warnThreshold, double critThreshold, String okStyle) {
+        List<String> classes = bar.getStyleClass();
+        int level = classes.contains("state-crit") ? 2 : classes.contains("state-warn") ? 1 : 0;
+        double warnEdge = level >= 1 ? warnThreshold - STYLE_HYSTERESIS : warnThreshold;
+        double critEdge = level == 2 ? critThreshold - STYLE_HYSTERESIS : critThreshold;
+        String state = value >= critEdge ? "state-crit" : value >= warnEdge ? "state-warn" : okStyle;
+        if (classes.contains(state)) return;
+        bar.getStyleClass().removeAll("state-ok-blue", "state-ok-purple", "state-ok-pink",
+                "state-ok-green", "state-ok-cyan", "state-warn", "state-crit");
+        bar.getStyleClass().add(state);
     }
 
     private void stopMonitoring() {
         if (executor != null) executor.shutdownNow();
+        if (processExecutor != null) processExecutor.shutdownNow();
+        if (publisher != null) publisher.close();
+        if (collector != null) {
+            try {
+                collector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        service.shutdown();
+        Launcher.closeQuietly(store);
         Platform.exit();
         System.exit(0);
     }
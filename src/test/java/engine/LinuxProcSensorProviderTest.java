@@ -0,0 +1,183 @@
+package engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Поддельное дерево proc/sys во временном каталоге
+class LinuxProcSensorProviderTest {
+    @TempDir
+    Path root;
+
+    @BeforeEach
+    void createTree() throws IOException {
+        write("proc/stat", """
+                cpu  100 0 100 800 0 0 0 0 0 0
+                cpu0 100 0 0 100 0 0 0 0 0 0
+                cpu1 0 0 100 700 0 0 0 0 0 0
+                intr 12345
+                ctxt 678
+                """);
+        write("proc/cpuinfo", """
+                processor\t: 0
+                model name\t: Test CPU 9000
+                physical id\t: 0
+                core id\t\t: 0
+                cpu MHz\t\t: 1234.5
+
+                processor\t: 1
+                model name\t: Test CPU 9000
+                physical id\t: 0
+                core id\t\t: 0
+                cpu MHz\t\t: 1234.5
+                """);
+        write("proc/meminfo", """
+                MemTotal:       16384000 kB
+                MemFree:         1000000 kB
+                MemAvailable:    8192000 kB
+                Buffers:          100000 kB
+                """);
+        write("proc/mounts", """
+                /dev/sda1 / ext4 rw,relatime 0 0
+                tmpfs /run tmpfs rw,nosuid 0 0
+                /dev/sdb1 /data xfs rw 0 0
+                /dev/sdb1 /data/bind xfs rw 0 0
+                /dev/sdc1 /my\\040disk ext4 rw 0 0
+                """);
+        Files.createDirectories(root.resolve("data"));
+        Files.createDirectories(root.resolve("my disk"));
+
+        write("sys/devices/system/cpu/cpu0/cpufreq/scaling_cur_freq", "3600000\n");
+        write("sys/devices/system/cpu/cpu1/cpufreq/scaling_cur_freq", "1800000\n");
+        write("sys/devices/system/cpu/cpu0/cpufreq/base_frequency", "3000000\n");
+
+        write("sys/class/hwmon/hwmon0/name", "coretemp\n");
+        write("sys/class/hwmon/hwmon0/temp1_label", "Core 0\n");
+        write("sys/class/hwmon/hwmon0/temp1_input", "40000\n");
+        write("sys/class/hwmon/hwmon0/temp2_label", "Package id 0\n");
+        write("sys/class/hwmon/hwmon0/temp2_input", "55000\n");
+        write("sys/class/hwmon/hwmon1/name", "amdgpu\n");
+        write("sys/class/hwmon/hwmon1/temp1_input", "61000\n");
+        write("sys/class/hwmon/hwmon1/device/gpu_busy_percent", "37\n");
+        write("sys/class/hwmon/hwmon1/device/mem_info_vram_total", "8589934592\n");
+        write("sys/class/hwmon/hwmon1/device/mem_info_vram_used", "1073741824\n");
+    }
+
+    @Test
+    void supportedOnlyWithStatAndMeminfo() throws IOException {
+        assertTrue(LinuxProcSensorProvider.isSupported(root));
+        Files.delete(root.resolve("proc/meminfo"));
+        assertFalse(LinuxProcSensorProvider.isSupported(root));
+    }
+
+    @Test
+    void cpuLoadComesFromTickDeltas() throws IOException {
+        try (LinuxProcSensorProvider provider = new LinuxProcSensorProvider(root)) {
+            write("proc/stat", """
+                    cpu  200 0 200 1600 0 0 0 0 0 0
+                    cpu0 200 0 0 200 0 0 0 0 0 0
+                    cpu1 0 0 200 1400 0 0 0 0 0 0
+                    """);
+            CpuInfo cpu = provider.sample(SensorSnapshot.CPU).getCpu();
+
+            assertEquals("Test CPU 9000", cpu.getName());
+            assertEquals(1, cpu.getCores());
+            assertEquals(2, cpu.getLogicalCount());
+            assertEquals(3000.0, cpu.getBaseClock(), 1e-9);
+            assertEquals(55.0, cpu.getTemperature(), 1e-9);
+            assertEquals(20.0, cpu.getUsage(), 1e-9);
+            assertEquals(50.0, cpu.getCoreLoad(0), 1e-9);
+            assertEquals(12.5, cpu.getCoreLoad(1), 1e-9);
+            assertEquals(3600.0, cpu.getCoreFrequency(0), 1e-9);
+            assertEquals(1800.0, cpu.getCoreFrequency(1), 1e-9);
+        }
+    }
+
+    @Test
+    void baseClockFallsBackToCpuinfo() throws IOException {
+        Files.delete(root.resolve("sys/devices/system/cpu/cpu0/cpufreq/base_frequency"));
+        try (LinuxProcSensorProvider provider = new LinuxProcSensorProvider(root)) {
+            assertEquals(1234.5, provider.sample(SensorSnapshot.CPU).getCpu().getBaseClock(), 1e-9);
+        }
+    }
+
+    @Test
+    void ramUsesMemAvailable() {
+        try (LinuxProcSensorProvider provider = new LinuxProcSensorProvider(root)) {
+            RamInfo ram = provider.sample(SensorSnapshot.RAM).getRam();
+
+            assertEquals(16384000L * 1024, ram.getTotal());
+            assertEquals(8192000L * 1024, ram.getFree());
+        }
+    }
+
+    @Test
+    void gpuReadsHwmonAndDeviceFiles() {
+        try (LinuxProcSensorProvider provider = new LinuxProcSensorProvider(root)) {
+            GpuInfo gpu = provider.sample(SensorSnapshot.GPU).getGpu();
+
+            assertEquals("AMD Radeon (amdgpu)", gpu.getName());
+            assertEquals(61.0, gpu.getTemperature(), 1e-9);
+            assertEquals(37.0, gpu.getGpuLoad(), 1e-9);
+            assertEquals(8589934592L, gpu.getVramTotal());
+            assertEquals(1073741824L, gpu.getVramUsed());
+        }
+    }
+
+    @Test
+    void missingHwmonGivesZeroTemperatureAndPlaceholderGpu() throws IOException {
+        deleteTree(root.resolve("sys/class/hwmon"));
+        try (LinuxProcSensorProvider provider = new LinuxProcSensorProvider(root)) {
+            SensorSnapshot snapshot = provider.sample(SensorSnapshot.CPU | SensorSnapshot.GPU);
+
+            assertEquals(0.0, snapshot.getCpu().getTemperature(), 1e-9);
+            assertEquals("GPU", snapshot.getGpu().getName());
+            assertEquals(0, snapshot.getGpu().getVramTotal());
+        }
+    }
+
+    @Test
+    void disksKeepRealFilesystemsOncePerDevice() throws IOException {
+        try (LinuxProcSensorProvider provider = new LinuxProcSensorProvider(root)) {
+            List<DiskInfo> disks = provider.sample(SensorSnapshot.DISKS).getDisks();
+
+            assertEquals(List.of("/", "/data", "/my disk"), names(disks));
+            for (DiskInfo disk : disks) {
+                assertTrue(disk.getTotalSpace() > 0);
+                assertTrue(disk.getFreeSpace() <= disk.getTotalSpace());
+            }
+
+            write("proc/mounts", """
+                    /dev/sda1 / ext4 rw,relatime 0 0
+                    /dev/sdb1 /data xfs rw 0 0
+                    """);
+            assertEquals(List.of("/", "/data"), names(provider.sample(SensorSnapshot.DISKS).getDisks()));
+        }
+    }
+
+    private static List<String> names(List<DiskInfo> disks) {
+        return disks.stream().map(DiskInfo::getName).collect(Collectors.toList());
+    }
+
+    private void write(String relative, String content) throws IOException {
+        Path path = root.resolve(relative);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package engine;
+
+import engine.synthetic.SyntheticSensorProvider;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SampleIntoAllocationTest {
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void steadyStateSampleIntoDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        SystemInfoService service = new SystemInfoService(new SyntheticSensorProvider(7, 16, 2, 8));
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        for (int i = 0; i < WARMUP; i++) {
+            service.readInto(buffer, SensorSnapshot.ALL);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            service.readInto(buffer, SensorSnapshot.ALL);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // Допуск на служебные аллокации самого замера, но не на объект за тик
+        assertTrue(allocated < ITERATIONS, "выделено " + allocated + " байт за " + ITERATIONS + " тиков");
+        assertEquals(8, buffer.getDiskCount());
+        assertTrue(buffer.has(SensorSnapshot.ALL));
+    }
+
+    @Test
+    void sampleHandsOverFreshObjects() {
+        SyntheticSensorProvider provider = new SyntheticSensorProvider(7, 4, 1, 3);
+        SensorSnapshot first = provider.sample(SensorSnapshot.ALL);
+        SensorSnapshot second = provider.sample(SensorSnapshot.ALL);
+
+        assertNotSame(first.getCpu(), second.getCpu());
+        assertNotSame(first.getDisks().get(0), second.getDisks().get(0));
+        assertEquals(3, first.getDisks().size());
+        assertEquals(SensorSnapshot.ALL, first.getSources());
+    }
+
+    @Test
+    void detachedBufferCannotBeRefilled() {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        buffer.begin(1, SensorSnapshot.CPU);
+        SensorSnapshot snapshot = buffer.detach();
+
+        assertSame(buffer.getCpu(), snapshot.getCpu());
+        assertThrows(IllegalStateException.class, () -> buffer.begin(2, SensorSnapshot.CPU));
+    }
+}
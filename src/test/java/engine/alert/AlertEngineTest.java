@@ -0,0 +1,148 @@
+package engine.alert;
+
+import engine.CpuInfo;
+import engine.SensorSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertEngineTest {
+    private final List<AlertEvent> events = new ArrayList<>();
+
+    @Test
+    void firesOnlyOnceTheWindowIsCovered() {
+        AlertEngine engine = engine("hot: avg(cpu.usage, 10s) > 80 clear 70");
+        for (long t = 0; t < 10_000; t += 1000) engine.accept(cpu(t, 95));
+        assertTrue(events.isEmpty());
+
+        engine.accept(cpu(10_000, 95));
+        assertEquals(1, events.size());
+        assertEquals(AlertEvent.State.FIRING, events.get(0).state());
+        assertEquals(95, events.get(0).value());
+        assertEquals(1, engine.getFiring().size());
+    }
+
+    @Test
+    void hysteresisKeepsTheAlertUntilTheClearThreshold() {
+        AlertEngine engine = engine("hot: value(cpu.usage) > 80 clear 70");
+        engine.accept(cpu(0, 85));
+        engine.accept(cpu(1000, 75));
+        engine.accept(cpu(2000, 82));
+        engine.accept(cpu(3000, 70.5));
+        assertEquals(List.of(AlertEvent.State.FIRING), states());
+
+        engine.accept(cpu(4000, 69));
+        assertEquals(List.of(AlertEvent.State.FIRING, AlertEvent.State.RESOLVED), states());
+        assertTrue(engine.getFiring().isEmpty());
+    }
+
+    @Test
+    void cooldownSuppressesRefiringAfterResolve() {
+        AlertEngine engine = engine("hot: value(cpu.usage) > 80 clear 70 cooldown 60s");
+        engine.accept(cpu(0, 90));
+        engine.accept(cpu(1000, 50));
+        engine.accept(cpu(30_000, 90));
+        assertEquals(List.of(AlertEvent.State.FIRING, AlertEvent.State.RESOLVED), states());
+
+        engine.accept(cpu(59_999, 90));
+        assertEquals(2, events.size());
+        engine.accept(cpu(60_000, 90));
+        assertEquals(List.of(AlertEvent.State.FIRING, AlertEvent.State.RESOLVED, AlertEvent.State.FIRING), states());
+    }
+
+    @Test
+    void belowOperatorUsesClearAboveTheThreshold() {
+        AlertEngine engine = engine("cold: min(cpu.usage, 2s) < 10 clear 20");
+        engine.accept(cpu(0, 30));
+        engine.accept(cpu(1000, 5));
+        engine.accept(cpu(2000, 30));
+        assertEquals(List.of(AlertEvent.State.FIRING), states());
+
+        // В окне [2 с, 3 с] минимум 15 — между порогами, правило держится
+        engine.accept(cpu(3000, 15));
+        engine.accept(cpu(4000, 25));
+        assertEquals(1, events.size());
+        engine.accept(cpu(5000, 25));
+        assertEquals(List.of(AlertEvent.State.FIRING, AlertEvent.State.RESOLVED), states());
+    }
+
+    @Test
+    void snapshotsWithoutTheMetricAreNotEvaluated() {
+        AlertEngine engine = engine("hot: value(cpu.usage) > 80 clear 70");
+        engine.accept(cpu(0, 90));
+        engine.accept(new SensorSnapshot(1000, SensorSnapshot.RAM, null, null, null, null));
+        engine.accept(new SensorSnapshot(2000, SensorSnapshot.RAM, null, null, null, null));
+        assertEquals(List.of(AlertEvent.State.FIRING), states());
+    }
+
+    @Test
+    void rulesSharingAWindowAreEvaluatedIndependently() {
+        AlertEngine engine = engine("""
+                warm: avg(cpu.usage, 2s) > 50 clear 40
+                hot:  avg(cpu.usage, 2s) > 80 clear 70 critical
+                """);
+        engine.accept(cpu(0, 60));
+        engine.accept(cpu(2000, 60));
+        assertEquals(List.of("warm"), firingNames(engine));
+
+        engine.accept(cpu(3000, 100));
+        engine.accept(cpu(4000, 100));
+        assertEquals(List.of("warm", "hot"), firingNames(engine));
+    }
+
+    @Test
+    void failingSinkDoesNotStopOthers() {
+        AlertEngine engine = new AlertEngine(AlertRule.parseAll("hot: value(cpu.usage) > 80"))
+                .addSink(event -> { throw new IllegalStateException("sink"); })
+                .addSink(events::add);
+        engine.accept(cpu(0, 90));
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void parseReadsAllOptions() {
+        AlertRule rule = AlertRule.parse("gpu-heating: rate(gpu.temperature, 30s) >= 1 clear 0.2 cooldown 5m critical");
+        assertEquals("gpu-heating", rule.getName());
+        assertEquals(AlertRule.Function.RATE, rule.getFunction());
+        assertEquals("gpu.temperature", rule.getMetric());
+        assertEquals(30_000, rule.getWindowMillis());
+        assertEquals(">=", rule.getOperator());
+        assertEquals(1, rule.getThreshold());
+        assertEquals(0.2, rule.getClearThreshold());
+        assertEquals(300_000, rule.getCooldownMillis());
+        assertEquals(AlertRule.Severity.CRITICAL, rule.getSeverity());
+        assertEquals(6, AlertRule.parseAll(AlertRule.DEFAULT_RULES).size());
+    }
+
+    @Test
+    void parseRejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> AlertRule.parse("x: avg(cpu.usage) > 1"));
+        assertThrows(IllegalArgumentException.class, () -> AlertRule.parse("x: value(cpu.usage) > 80 clear 90"));
+        assertThrows(IllegalArgumentException.class, () -> AlertRule.parse("x: median(cpu.usage, 1s) > 1"));
+        assertThrows(IllegalArgumentException.class, () -> AlertRule.parse("x: value(cpu.usage) > 1 cooldown"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> AlertRule.parseAll("# comment\n\nok: value(cpu.usage) > 1\nbad"));
+        assertTrue(e.getMessage().startsWith("Строка 4"));
+    }
+
+    private AlertEngine engine(String rules) {
+        return new AlertEngine(AlertRule.parseAll(rules)).addSink(events::add);
+    }
+
+    private List<AlertEvent.State> states() {
+        return events.stream().map(AlertEvent::state).toList();
+    }
+
+    private static List<String> firingNames(AlertEngine engine) {
+        return engine.getFiring().stream().map(e -> e.rule().getName()).toList();
+    }
+
+    private static SensorSnapshot cpu(long timestamp, double usage) {
+        CpuInfo info = new CpuInfo();
+        info.setUsage(usage);
+        return new SensorSnapshot(timestamp, SensorSnapshot.CPU, info, null, null, null);
+    }
+}
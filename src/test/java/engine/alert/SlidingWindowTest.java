@@ -0,0 +1,79 @@
+package engine.alert;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowTest {
+    @Test
+    void aggregatesMatchBruteForce() {
+        for (int seed = 0; seed < 20; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            long windowMillis = 100 + random.nextInt(5000);
+            SlidingWindow window = new SlidingWindow(windowMillis);
+            Deque<double[]> points = new ArrayDeque<>();
+            long t = 0;
+            for (int i = 0; i < 5000; i++) {
+                // Пачки частых точек заставляют кольца расти, паузы — опустошают окно
+                t += random.nextInt(10) == 0 ? random.nextInt(2 * (int) windowMillis) : random.nextInt(20);
+                double value = random.nextInt(4) == 0 ? Math.rint(random.nextDouble() * 10) : random.nextGaussian() * 50;
+                window.add(t, value);
+                points.addLast(new double[] { t, value });
+                while (t - points.peekFirst()[0] >= windowMillis) points.removeFirst();
+
+                double sum = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+                for (double[] p : points) {
+                    sum += p[1];
+                    min = Math.min(min, p[1]);
+                    max = Math.max(max, p[1]);
+                }
+                String at = "seed " + seed + " #" + i;
+                assertEquals(points.size(), window.size(), at);
+                assertEquals(value, window.last(), at);
+                assertEquals(sum / points.size(), window.average(), 1e-9, at);
+                assertEquals(min, window.min(), at);
+                assertEquals(max, window.max(), at);
+                double[] first = points.peekFirst();
+                double expectedRate = points.size() < 2 || t == (long) first[0] ? Double.NaN
+                        : (value - first[1]) * 1000.0 / (t - (long) first[0]);
+                assertEquals(expectedRate, window.rate(), 1e-9, at);
+            }
+        }
+    }
+
+    @Test
+    void emptyWindowGivesNan() {
+        SlidingWindow window = new SlidingWindow(1000);
+        assertEquals(0, window.size());
+        assertTrue(Double.isNaN(window.last()));
+        assertTrue(Double.isNaN(window.average()));
+        assertTrue(Double.isNaN(window.min()));
+        assertTrue(Double.isNaN(window.max()));
+        assertTrue(Double.isNaN(window.rate()));
+        assertFalse(window.isCovered(5000));
+    }
+
+    @Test
+    void coveredOnlyAfterAFullWindowOfPoints() {
+        SlidingWindow window = new SlidingWindow(30_000);
+        window.add(1000, 1);
+        window.add(2000, 2);
+        assertFalse(window.isCovered(2000));
+        window.add(31_000, 3);
+        assertTrue(window.isCovered(31_000));
+    }
+
+    @Test
+    void zeroLengthWindowKeepsOnlyTheLastPoint() {
+        SlidingWindow window = new SlidingWindow(0);
+        window.add(1, 5);
+        window.add(2, 7);
+        assertEquals(1, window.size());
+        assertEquals(7, window.max());
+        assertTrue(window.isCovered(2));
+    }
+}
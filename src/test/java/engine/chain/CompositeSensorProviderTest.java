@@ -0,0 +1,129 @@
+package engine.chain;
+
+import engine.CpuInfo;
+import engine.DiskInfo;
+import engine.GpuInfo;
+import engine.RamInfo;
+import engine.SensorProvider;
+import engine.SensorSnapshot;
+import engine.sched.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompositeSensorProviderTest {
+    private final ManualClock clock = new ManualClock(TimeUnit.SECONDS.toNanos(1000));
+    private final FakeProvider primary = new FakeProvider(0);
+    private final FakeProvider secondary = new FakeProvider(65);
+    private final CompositeSensorProvider chain = new CompositeSensorProvider(clock)
+            .add("primary", primary, SensorSnapshot.CPU)
+            .add("secondary", secondary, SensorSnapshot.CPU);
+
+    @Test
+    void brokenPrimaryIsSkippedAndSecondaryServes() {
+        primary.broken = true;
+        for (int i = 0; i < CircuitBreaker.DEFAULT_THRESHOLD; i++) assertEquals(2, read().getCores());
+        assertEquals(CircuitBreaker.State.OPEN, breaker("primary").getState());
+
+        int calls = primary.calls;
+        assertEquals(2, read().getCores());
+        assertEquals(calls, primary.calls);
+    }
+
+    @Test
+    void primaryRecoversAfterItsWait() {
+        primary.broken = true;
+        for (int i = 0; i < CircuitBreaker.DEFAULT_THRESHOLD; i++) read();
+        primary.broken = false;
+        clock.advance(CircuitBreaker.DEFAULT_BASE_BACKOFF_NANOS, TimeUnit.NANOSECONDS);
+
+        CpuInfo cpu = read();
+        assertEquals(1, cpu.getCores());
+        // Температуры у основного нет — она дозапрошена у второго
+        assertEquals(65, cpu.getTemperature(), 1e-9);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker("primary").getState());
+    }
+
+    @Test
+    void fillDoesNotConsumeTheProbeOfATrippedBackend() {
+        // Оба сломались, второй закрыт основным breaker
+        primary.broken = true;
+        secondary.broken = true;
+        for (int i = 0; i < CircuitBreaker.DEFAULT_THRESHOLD; i++) assertFalse(chain.sample(SensorSnapshot.CPU).has(SensorSnapshot.CPU));
+        assertEquals(CircuitBreaker.State.OPEN, breaker("secondary").getState());
+
+        // Основной вернулся раньше, чем истекло ожидание второго; после ожидания второй
+        // нужен только для дозапроса температуры
+        primary.broken = false;
+        secondary.broken = false;
+        clock.advance(CircuitBreaker.DEFAULT_BASE_BACKOFF_NANOS, TimeUnit.NANOSECONDS);
+        read();
+        read();
+        assertEquals(CircuitBreaker.State.OPEN, breaker("secondary").getState());
+
+        // Основной снова ломается — второй должен пройти пробу и стать основным
+        primary.broken = true;
+        for (int i = 0; i < CircuitBreaker.DEFAULT_THRESHOLD; i++) read();
+        CpuInfo cpu = read();
+        assertEquals(2, cpu.getCores());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker("secondary").getState());
+    }
+
+    @Test
+    void vramUsedIsEstimatedFromTheLoadOfThePrimary() {
+        CompositeSensorProvider gpuChain = new CompositeSensorProvider(clock)
+                .add("primary", primary, SensorSnapshot.GPU)
+                .add("secondary", secondary, SensorSnapshot.GPU);
+        GpuInfo gpu = gpuChain.sample(SensorSnapshot.GPU).getGpu();
+        // Загрузка от основного, объём VRAM от второго, занятая — оценка по загрузке
+        assertEquals(40, gpu.getGpuLoad(), 1e-9);
+        assertEquals(8L << 30, gpu.getVramTotal());
+        assertEquals((8L << 30) * 40 / 100, gpu.getVramUsed());
+    }
+
+    private CpuInfo read() {
+        return chain.sample(SensorSnapshot.CPU).getCpu();
+    }
+
+    private CircuitBreaker breaker(String name) {
+        return chain.getBreaker(name, SensorSnapshot.CPU);
+    }
+
+    private static final class FakeProvider implements SensorProvider {
+        private final int cores;
+        private final double temperature;
+        boolean broken;
+        int calls;
+
+        FakeProvider(double temperature) {
+            this.cores = temperature > 0 ? 2 : 1;
+            this.temperature = temperature;
+        }
+
+        @Override
+        public CpuInfo getCpuInfo() {
+            calls++;
+            if (broken) throw new IllegalStateException("сломан");
+            CpuInfo cpu = new CpuInfo();
+            cpu.setCores(cores);
+            cpu.setTemperature(temperature);
+            return cpu;
+        }
+
+        @Override public RamInfo getRamInfo() { return new RamInfo(); }
+
+        // Основной знает только загрузку GPU, второй — только объём VRAM
+        @Override
+        public GpuInfo getGpuInfo() {
+            GpuInfo gpu = new GpuInfo();
+            if (temperature > 0) gpu.setVramTotal(8L << 30);
+            else gpu.setGpuLoad(40);
+            return gpu;
+        }
+
+        @Override public List<DiskInfo> getDisksInfo() { return List.of(); }
+    }
+}
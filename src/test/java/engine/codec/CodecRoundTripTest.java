@@ -0,0 +1,161 @@
+package engine.codec;
+
+import engine.DiskInfo;
+import engine.SensorSnapshot;
+import engine.sched.ManualClock;
+import engine.synthetic.SyntheticSensorProvider;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Каждое значение после кодирования и разбора должно совпасть побитно. Случайные ряды покрывают
+// все ветки кодеров: повторы, ровный и рваный шаг времени, NaN, бесконечности, -0.0, крайние long
+class CodecRoundTripTest {
+    private static final int SEEDS = 300;
+    private static final double[] SPECIAL = { 0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE, 1.0, -1.0 };
+    private static final long[] EXTREME = { 0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE };
+
+    private final BitWriter out = new BitWriter();
+    private final BitReader in = new BitReader();
+
+    @Test
+    void timestamps() {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            long[] times = new long[1 + random.nextInt(2000)];
+            long t = random.nextLong();
+            long step = random.nextInt(5) == 0 ? random.nextLong() : 1 + random.nextInt(2000);
+            for (int i = 0; i < times.length; i++) {
+                times[i] = t;
+                t += switch (random.nextInt(6)) {
+                    case 1 -> step + random.nextInt(129) - 64;
+                    case 2 -> step + random.nextInt(513) - 256;
+                    case 3 -> step + random.nextInt(4097) - 2048;
+                    case 4 -> random.nextLong();
+                    default -> step;
+                };
+            }
+
+            out.reset();
+            TimestampCodec writer = new TimestampCodec();
+            for (long time : times) writer.write(out, time);
+            TimestampCodec reader = new TimestampCodec();
+            in.reset(out.toByteArray(), 0, out.getByteLength());
+            for (int i = 0; i < times.length; i++) {
+                assertEquals(times[i], reader.read(in), "seed " + seed + " #" + i);
+            }
+        }
+    }
+
+    @Test
+    void doublesKeepExactBits() {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            double[] values = new double[1 + random.nextInt(2000)];
+            double v = random.nextDouble() * 100;
+            for (int i = 0; i < values.length; i++) {
+                int kind = random.nextInt(10);
+                // 0–2: значение повторяется
+                if (kind >= 9) v = Double.longBitsToDouble(random.nextLong());
+                else if (kind == 8) v = SPECIAL[random.nextInt(SPECIAL.length)];
+                else if (kind >= 6) v = Math.rint(v + random.nextInt(3) - 1);
+                else if (kind >= 3) v = Math.max(0, Math.min(100, v + random.nextGaussian()));
+                values[i] = v;
+            }
+
+            out.reset();
+            XorDoubleCodec writer = new XorDoubleCodec();
+            for (double value : values) writer.write(out, value);
+            XorDoubleCodec reader = new XorDoubleCodec();
+            in.reset(out.toByteArray(), 0, out.getByteLength());
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(reader.read(in)),
+                        "seed " + seed + " #" + i);
+            }
+        }
+    }
+
+    @Test
+    void longDeltas() {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            long[] longs = new long[1 + random.nextInt(2000)];
+            long l = random.nextLong(1L << 40);
+            for (int i = 0; i < longs.length; i++) {
+                int kind = random.nextInt(10);
+                if (kind < 7) l += random.nextInt(1 << 20) - (1 << 19);
+                else if (kind < 9) l = EXTREME[random.nextInt(EXTREME.length)];
+                else l = random.nextLong();
+                longs[i] = l;
+            }
+
+            out.reset();
+            DeltaLongCodec writer = new DeltaLongCodec();
+            for (long value : longs) writer.write(out, value);
+            DeltaLongCodec reader = new DeltaLongCodec();
+            in.reset(out.toByteArray(), 0, out.getByteLength());
+            for (int i = 0; i < longs.length; i++) {
+                assertEquals(longs[i], reader.read(in), "seed " + seed + " #" + i);
+            }
+        }
+    }
+
+    @Test
+    void snapshotBlocks() {
+        for (int seed = 0; seed < 12; seed++) {
+            List<SensorSnapshot> snapshots = series(seed, 1 + seed * 25, 1 + seed % 8);
+            SnapshotBlockEncoder encoder = new SnapshotBlockEncoder();
+            for (SensorSnapshot snapshot : snapshots) {
+                assertTrue(encoder.append(snapshot), "снимок не лёг в блок, seed " + seed);
+            }
+            ByteBuffer block = ByteBuffer.allocate(encoder.size());
+            encoder.writeTo(block);
+            assertFalse(block.hasRemaining(), "size() не совпал с блоком, seed " + seed);
+
+            List<SensorSnapshot> decoded = new SnapshotBlockDecoder().decode(block.flip());
+            assertEquals(snapshots.size(), decoded.size());
+            for (int i = 0; i < snapshots.size(); i++) {
+                assertEquals(describe(snapshots.get(i)), describe(decoded.get(i)), "seed " + seed + " #" + i);
+            }
+        }
+    }
+
+    // Ряд снимков синтетической машины с шагом 1 с — как запись живого опроса
+    private static List<SensorSnapshot> series(long seed, int count, int disks) {
+        ManualClock clock = new ManualClock();
+        SyntheticSensorProvider provider = new SyntheticSensorProvider(seed, 16, 1, disks, clock);
+        List<SensorSnapshot> result = new ArrayList<>(count);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            clock.advance(1, TimeUnit.SECONDS);
+            SensorSnapshot s = provider.sample(SensorSnapshot.ALL);
+            result.add(new SensorSnapshot(start + i * 1000L, s.getSources(), s.getCpu(), s.getRam(), s.getGpu(), s.getDisks()));
+        }
+        return result;
+    }
+
+    private static String describe(SensorSnapshot s) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(s.getTimestamp()).append(' ').append(s.getSources()).append(' ').append(s.getStaleSources())
+                .append(' ').append(s.getCpu().getName()).append(' ').append(s.getCpu().getCores())
+                .append(' ').append(Double.doubleToRawLongBits(s.getCpu().getUsage()))
+                .append(' ').append(Double.doubleToRawLongBits(s.getCpu().getTemperature()))
+                .append(' ').append(Double.doubleToRawLongBits(s.getCpu().getBaseClock()))
+                .append(' ').append(s.getRam().getTotal()).append(' ').append(s.getRam().getFree())
+                .append(' ').append(s.getGpu().getName())
+                .append(' ').append(Double.doubleToRawLongBits(s.getGpu().getGpuLoad()))
+                .append(' ').append(Double.doubleToRawLongBits(s.getGpu().getTemperature()))
+                .append(' ').append(s.getGpu().getVramTotal()).append(' ').append(s.getGpu().getVramUsed());
+        for (DiskInfo disk : s.getDisks()) {
+            sb.append(' ').append(disk.getName()).append(' ').append(disk.getTotalSpace()).append(' ').append(disk.getFreeSpace());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package engine.diag;
+
+import engine.SensorSnapshot;
+import engine.SnapshotBuffer;
+import engine.synthetic.SyntheticSensorProvider;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedSensorProviderTest {
+    private final Diagnostics diagnostics = new Diagnostics();
+    private final InstrumentedSensorProvider provider =
+            new InstrumentedSensorProvider(new SyntheticSensorProvider(1, 4, 1, 2), diagnostics);
+
+    @Test
+    void singleSourceGoesToItsHistogram() {
+        provider.sample(SensorSnapshot.CPU);
+        provider.sample(SensorSnapshot.CPU);
+        provider.sample(SensorSnapshot.DISKS);
+        assertEquals(2, count("provider.cpu"));
+        assertEquals(0, count("provider.ram"));
+        assertEquals(1, count("provider.disks"));
+        assertEquals(3, count("provider.sample"));
+    }
+
+    @Test
+    void fullSampleFeedsEverySource() {
+        provider.sample(SensorSnapshot.ALL);
+        provider.sampleInto(new SnapshotBuffer(), SensorSnapshot.RAM | SensorSnapshot.GPU);
+        assertEquals(1, count("provider.cpu"));
+        assertEquals(2, count("provider.ram"));
+        assertEquals(2, count("provider.gpu"));
+        assertEquals(1, count("provider.disks"));
+        assertEquals(2, count("provider.sample"));
+    }
+
+    private long count(String name) {
+        return diagnostics.histogram(name).getCount();
+    }
+}
@@ -0,0 +1,229 @@
+package engine.fleet;
+
+import engine.CpuInfo;
+import engine.DiskInfo;
+import engine.GpuInfo;
+import engine.RamInfo;
+import engine.SensorSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Коллектор и агенты на loopback; поток коллектора асинхронный, поэтому состояние ждётся с таймаутом
+class FleetCollectorTest {
+    private static final long WAIT_MS = 5000;
+
+    private FleetCollector collector;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (collector != null) collector.close();
+    }
+
+    @Test
+    void publisherRoundTrip() throws Exception {
+        collector = start(FleetCollector.DEFAULT_MAX_HOSTS, FleetCollector.DEFAULT_HOST_EXPIRY_MS);
+        try (FleetPublisher publisher = new FleetPublisher("node-1", loopback())) {
+            assertTrue(publisher.send(snapshot(1000, 42.5, 71, 60)));
+            assertTrue(publisher.send(snapshot(2000, 43.5, 72, 61)));
+            await(() -> collector.getHost("node-1") != null && collector.getHost("node-1").getFrames() == 2);
+
+            FleetHost host = collector.getHost("node-1");
+            assertTrue(host.isConnected());
+            assertEquals("Test CPU", host.getCpuName());
+            assertEquals("Test GPU", host.getGpuName());
+            assertEquals(8, host.getCores());
+            assertEquals(16, host.getLogicalCount());
+            assertEquals(2000, host.getTimestamp());
+            assertEquals(43.5, host.getCpuUsage(), 1e-6);
+            assertEquals(72, host.getCpuTemperature(), 1e-6);
+            assertEquals(25.0, host.getRamUsage(), 1e-9);
+            assertEquals(72, host.getTemperature(), 1e-6);
+            assertEquals(50.0, host.getDiskMax(), 1e-6);
+            assertArrayEquals(new float[] { 42.5f, 43.5f }, host.history(FleetCollector.SortKey.CPU));
+        }
+        await(() -> !collector.getHost("node-1").isConnected());
+        assertEquals(0, collector.getConnectedCount());
+    }
+
+    @Test
+    void hostsAreSortedConnectedFirst() throws Exception {
+        collector = start(FleetCollector.DEFAULT_MAX_HOSTS, FleetCollector.DEFAULT_HOST_EXPIRY_MS);
+        try (Agent a = new Agent("a"); Agent c = new Agent("c")) {
+            try (Agent b = new Agent("b")) {
+                a.hello().sample(snapshot(1, 10, 50, 50));
+                b.hello().sample(snapshot(1, 90, 50, 50));
+                c.hello().sample(snapshot(1, 50, 50, 50));
+                await(() -> collector.getConnectedCount() == 3 && collector.getHosts().stream().allMatch(h -> h.getFrames() == 1));
+                assertEquals(List.of("b", "c", "a"), names(collector.getHosts(FleetCollector.SortKey.CPU)));
+            }
+            await(() -> collector.getConnectedCount() == 2);
+            assertEquals(List.of("c", "a", "b"), names(collector.getHosts(FleetCollector.SortKey.CPU)));
+        }
+    }
+
+    @Test
+    void reconnectKeepsHistoryAndOldConnectionDoesNotDisconnect() throws Exception {
+        collector = start(FleetCollector.DEFAULT_MAX_HOSTS, FleetCollector.DEFAULT_HOST_EXPIRY_MS);
+        Agent first = new Agent("node").hello().sample(snapshot(1, 10, 50, 50));
+        await(() -> collector.getHost("node") != null && collector.getHost("node").getFrames() == 1);
+        try (Agent second = new Agent("node")) {
+            second.hello().sample(snapshot(2, 20, 50, 50));
+            await(() -> collector.getHost("node").getFrames() == 2);
+            first.close();
+            Thread.sleep(200);
+            assertTrue(collector.getHost("node").isConnected());
+            assertEquals(1, collector.getHosts().size());
+        }
+    }
+
+    @Test
+    void secondHelloClosesTheConnection() throws Exception {
+        collector = start(FleetCollector.DEFAULT_MAX_HOSTS, FleetCollector.DEFAULT_HOST_EXPIRY_MS);
+        try (Agent agent = new Agent("first")) {
+            agent.hello();
+            await(() -> collector.getConnectedCount() == 1);
+            agent.hello("second");
+            await(() -> collector.getConnectedCount() == 0);
+            assertFalse(collector.getHost("first").isConnected());
+            assertNull(collector.getHost("second"));
+        }
+    }
+
+    @Test
+    void sampleBeforeHelloAndBadMagicAreRejected() throws Exception {
+        collector = start(FleetCollector.DEFAULT_MAX_HOSTS, FleetCollector.DEFAULT_HOST_EXPIRY_MS);
+        try (Agent early = new Agent("early"); SocketChannel garbage = connect()) {
+            early.sample(snapshot(1, 10, 50, 50));
+            garbage.write(ByteBuffer.wrap(new byte[] { FleetProtocol.HELLO, 0, 6, 0, 0, 0, 0, 0, 1 }));
+            assertEquals(-1, early.readEnd());
+            assertEquals(-1, garbage.read(ByteBuffer.allocate(1)));
+            assertTrue(collector.getHosts().isEmpty());
+        }
+    }
+
+    @Test
+    void hostCapEvictsTheLongestDisconnectedHost() throws Exception {
+        collector = start(2, FleetCollector.DEFAULT_HOST_EXPIRY_MS);
+        try (Agent b = new Agent("b"); Agent c = new Agent("c"); Agent d = new Agent("d")) {
+            try (Agent a = new Agent("a")) {
+                a.hello();
+                b.hello();
+                await(() -> collector.getConnectedCount() == 2);
+                // Оба на связи — третьему места нет
+                c.hello();
+                assertEquals(-1, c.readEnd());
+                assertNull(collector.getHost("c"));
+            }
+            await(() -> collector.getConnectedCount() == 1);
+            d.hello();
+            await(() -> collector.getHost("d") != null && collector.getHost("d").isConnected());
+            assertNull(collector.getHost("a"));
+            assertEquals(2, collector.getHosts().size());
+        }
+    }
+
+    @Test
+    void disconnectedHostsExpire() throws Exception {
+        collector = start(FleetCollector.DEFAULT_MAX_HOSTS, 0);
+        try (Agent stays = new Agent("stays")) {
+            stays.hello();
+            new Agent("leaves").hello().close();
+            await(() -> collector.getHost("stays") != null && collector.getHost("leaves") == null);
+            assertTrue(collector.getHost("stays").isConnected());
+        }
+    }
+
+    private static FleetCollector start(int maxHosts, long expiryMillis) throws IOException {
+        return new FleetCollector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), maxHosts, expiryMillis).start();
+    }
+
+    private InetSocketAddress loopback() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), collector.getPort());
+    }
+
+    private SocketChannel connect() throws IOException {
+        return SocketChannel.open(loopback());
+    }
+
+    private static List<String> names(List<FleetHost> hosts) {
+        return hosts.stream().map(FleetHost::getName).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Не дождались состояния коллектора");
+            Thread.sleep(10);
+        }
+    }
+
+    private static SensorSnapshot snapshot(long timestamp, double cpuUsage, double cpuTemperature, double gpuTemperature) {
+        CpuInfo cpu = new CpuInfo();
+        cpu.setName("Test CPU");
+        cpu.setCores(8);
+        cpu.setCoreData(new double[16], null, 16);
+        cpu.setUsage(cpuUsage);
+        cpu.setTemperature(cpuTemperature);
+        RamInfo ram = new RamInfo();
+        ram.setTotal(16L << 30);
+        ram.setFree(12L << 30);
+        GpuInfo gpu = new GpuInfo();
+        gpu.setName("Test GPU");
+        gpu.setTemperature(gpuTemperature);
+        DiskInfo disk = new DiskInfo();
+        disk.setName("/");
+        disk.setTotalSpace(1000);
+        disk.setFreeSpace(500);
+        return new SensorSnapshot(timestamp, SensorSnapshot.ALL, cpu, ram, gpu, List.of(disk));
+    }
+
+    // Агент на сыром сокете: кадры пишутся по одному, чтобы проверять реакцию коллектора
+    private final class Agent implements AutoCloseable {
+        private final String name;
+        private final SocketChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocate(2 * FleetProtocol.MAX_FRAME_BYTES);
+
+        Agent(String name) throws IOException {
+            this.name = name;
+            this.channel = connect();
+        }
+
+        Agent hello() throws IOException {
+            return hello(name);
+        }
+
+        Agent hello(String host) throws IOException {
+            out.clear();
+            FleetProtocol.writeHello(out, host, snapshot(0, 0, 0, 0));
+            channel.write(out.flip());
+            return this;
+        }
+
+        Agent sample(SensorSnapshot snapshot) throws IOException {
+            out.clear();
+            FleetProtocol.writeSample(out, snapshot);
+            channel.write(out.flip());
+            return this;
+        }
+
+        // -1, когда коллектор закрыл соединение
+        int readEnd() throws IOException {
+            return channel.read(ByteBuffer.allocate(1));
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package engine.history;
+
+import engine.DiskInfo;
+import engine.SensorSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricHistoryTest {
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void rawRingKeepsTheNewestPointsOldestFirst() {
+        MetricHistory history = new MetricHistory(4);
+        int ch = history.channel("test");
+        for (int i = 0; i < 6; i++) history.record(ch, 1000L * i, i);
+        history.record(ch, 6000, Double.NaN);
+
+        long[] times = new long[8];
+        double[] values = new double[8];
+        assertEquals(4, history.readRaw(ch, times, values));
+        assertArrayEquals(new long[] { 2000, 3000, 4000, 5000 }, Arrays.copyOf(times, 4));
+        assertArrayEquals(new double[] { 2, 3, 4, 5 }, Arrays.copyOf(values, 4));
+        assertEquals(5, history.latest(ch));
+
+        // Короткий буфер получает самые свежие точки
+        assertEquals(2, history.readRaw(ch, new long[2], values));
+        assertArrayEquals(new double[] { 4, 5 }, Arrays.copyOf(values, 2));
+    }
+
+    @Test
+    void tenSecondRollupSplitsAtBucketBoundaries() {
+        MetricHistory history = new MetricHistory(16);
+        int ch = history.channel("test");
+        history.record(ch, 0, 1);
+        history.record(ch, 3000, 5);
+        history.record(ch, 9999, 3);
+        history.record(ch, 10_000, 7);
+        history.record(ch, 15_000, 2);
+        history.record(ch, 25_000, 4);
+
+        Rollup r = rollup(history, ch, Resolution.TEN_SECONDS);
+        assertEquals(3, r.n);
+        assertArrayEquals(new long[] { 0, 10_000, 20_000 }, Arrays.copyOf(r.times, 3));
+        assertArrayEquals(new double[] { 1, 2, 4 }, Arrays.copyOf(r.min, 3));
+        assertArrayEquals(new double[] { 5, 7, 4 }, Arrays.copyOf(r.max, 3));
+        // Последнее окно ещё не закрыто, но отдаётся
+        assertArrayEquals(new double[] { 3, 4.5, 4 }, Arrays.copyOf(r.mean, 3), 1e-12);
+    }
+
+    @Test
+    void minuteAndTenMinuteRollupsAggregateTheSameStream() {
+        MetricHistory history = new MetricHistory(16);
+        int ch = history.channel("test");
+        // 20 минут раз в 10 с, значение — секунды от начала
+        for (long t = 0; t < 20 * 60_000L; t += 10_000) history.record(ch, t, t / 1000.0);
+
+        Rollup minutes = rollup(history, ch, Resolution.ONE_MINUTE);
+        assertEquals(20, minutes.n);
+        for (int k = 0; k < 20; k++) {
+            assertEquals(60_000L * k, minutes.times[k]);
+            assertEquals(60 * k, minutes.min[k]);
+            assertEquals(60 * k + 50, minutes.max[k]);
+            assertEquals(60 * k + 25, minutes.mean[k], 1e-9);
+        }
+
+        Rollup tens = rollup(history, ch, Resolution.TEN_MINUTES);
+        assertEquals(2, tens.n);
+        assertArrayEquals(new long[] { 0, 600_000 }, Arrays.copyOf(tens.times, 2));
+        assertArrayEquals(new double[] { 0, 600 }, Arrays.copyOf(tens.min, 2));
+        assertArrayEquals(new double[] { 590, 1190 }, Arrays.copyOf(tens.max, 2));
+        assertArrayEquals(new double[] { 295, 895 }, Arrays.copyOf(tens.mean, 2), 1e-9);
+    }
+
+    @Test
+    void rollupRingDropsTheOldestBuckets() {
+        MetricHistory history = new MetricHistory(16);
+        int ch = history.channel("test");
+        int capacity = Resolution.TEN_SECONDS.getCapacity();
+        for (int i = 0; i < capacity + 40; i++) history.record(ch, 10_000L * i, i);
+
+        // В кольце capacity закрытых окон, плюс незакрытое последнее
+        Rollup r = rollup(history, ch, Resolution.TEN_SECONDS);
+        assertEquals(capacity + 1, r.n);
+        assertEquals(10_000L * 39, r.times[0]);
+        assertEquals(10_000L * (capacity + 39), r.times[capacity]);
+        for (int i = 1; i <= capacity; i++) assertEquals(r.times[i - 1] + 10_000, r.times[i]);
+
+        // Буфер на capacity точек получает самые свежие
+        long[] times = new long[capacity];
+        double[] values = new double[capacity];
+        assertEquals(capacity, history.readRollup(ch, Resolution.TEN_SECONDS, times, new double[capacity], new double[capacity], values));
+        assertEquals(10_000L * 40, times[0]);
+        assertEquals(capacity + 39, values[capacity - 1]);
+    }
+
+    @Test
+    void rawResolutionReadsThePointsAsMinMaxAndMean() {
+        MetricHistory history = new MetricHistory(16);
+        int ch = history.channel("test");
+        history.record(ch, 100, 1);
+        history.record(ch, 200, 2);
+        Rollup r = rollup(history, ch, Resolution.RAW);
+        assertEquals(2, r.n);
+        assertArrayEquals(new double[] { 1, 2 }, Arrays.copyOf(r.min, 2));
+        assertArrayEquals(new double[] { 1, 2 }, Arrays.copyOf(r.max, 2));
+        assertArrayEquals(new double[] { 1, 2 }, Arrays.copyOf(r.mean, 2));
+    }
+
+    @Test
+    void diskChannelsAreCapped() {
+        MetricHistory history = new MetricHistory(16, 2);
+        int fixed = history.getChannelCount();
+        record(history, 1000, "a", "b");
+        record(history, 2000, "b", "c");
+        assertEquals(fixed + 2, history.getChannelCount());
+        // "c" занял канал "a", в который дольше всех не писали
+        assertEquals(-1, history.findChannel(MetricHistory.DISK_USAGE_PREFIX + "a"));
+        int c = history.findChannel(MetricHistory.DISK_USAGE_PREFIX + "c");
+        long[] times = new long[16];
+        double[] values = new double[16];
+        assertEquals(1, history.readRaw(c, times, values));
+        assertEquals(2000, times[0]);
+        assertTrue(history.getChannelNames().contains(MetricHistory.DISK_USAGE_PREFIX + "b"));
+    }
+
+    @Test
+    void expiredDiskChannelIsReused() {
+        MetricHistory history = new MetricHistory(16);
+        int fixed = history.getChannelCount();
+        record(history, 0, "old");
+        record(history, HOUR, "live");
+        assertEquals(fixed + 2, history.getChannelCount());
+        // Через сутки без записи канал "old" отдаётся новому диску, а "live" ещё нет
+        record(history, 25 * HOUR, "live", "new");
+        assertEquals(fixed + 2, history.getChannelCount());
+        assertEquals(-1, history.findChannel(MetricHistory.DISK_USAGE_PREFIX + "old"));
+        assertTrue(history.findChannel(MetricHistory.DISK_USAGE_PREFIX + "new") >= fixed);
+        assertTrue(history.findChannel(MetricHistory.DISK_USAGE_PREFIX + "live") >= fixed);
+    }
+
+    private record Rollup(int n, long[] times, double[] min, double[] max, double[] mean) {}
+
+    private static Rollup rollup(MetricHistory history, int channel, Resolution resolution) {
+        int size = 512;
+        long[] times = new long[size];
+        double[] min = new double[size], max = new double[size], mean = new double[size];
+        int n = history.readRollup(channel, resolution, times, min, max, mean);
+        return new Rollup(n, times, min, max, mean);
+    }
+
+    private static void record(MetricHistory history, long timestamp, String... names) {
+        List<DiskInfo> disks = new ArrayList<>();
+        for (String name : names) {
+            DiskInfo disk = new DiskInfo();
+            disk.setName(name);
+            disk.setTotalSpace(100);
+            disk.setFreeSpace(50);
+            disks.add(disk);
+        }
+        history.record(new SensorSnapshot(timestamp, SensorSnapshot.DISKS, null, null, null, disks));
+    }
+}
@@ -0,0 +1,145 @@
+package engine.sched;
+
+import engine.CpuInfo;
+import engine.SensorSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveSchedulerTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private ManualClock clock;
+    private AdaptiveScheduler scheduler;
+    private MetricSource cpu;
+    private MetricSource ram;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock(1_000_000 * MS);
+        scheduler = new AdaptiveScheduler(clock);
+        // База 500 мс, не чаще 250 мс, не реже 2 с, чтение дороже 50 мс — дорогое, скачок от 2.0
+        cpu = new MetricSource("cpu", SensorSnapshot.CPU, 500, 250, 2000, 50, 2.0, s -> s.getCpu().getUsage());
+        ram = new MetricSource("ram", SensorSnapshot.RAM, 1000, 500, 4000, 50, 1.0, s -> 0);
+        scheduler.register(cpu);
+        scheduler.register(ram);
+    }
+
+    @Test
+    void everythingIsDueRightAfterRegistration() {
+        assertEquals(SensorSnapshot.CPU | SensorSnapshot.RAM, scheduler.due());
+        assertEquals(0, scheduler.nanosUntilNextDue());
+    }
+
+    @Test
+    void sourceIsNotDueAgainUntilItsPeriodPasses() {
+        scheduler.complete(snapshot(SensorSnapshot.CPU | SensorSnapshot.RAM, 10, 0));
+
+        assertEquals(0, scheduler.due());
+        assertEquals(500 * MS, scheduler.nanosUntilNextDue());
+        clock.advance(400, TimeUnit.MILLISECONDS);
+        assertEquals(0, scheduler.due());
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        assertEquals(SensorSnapshot.CPU, scheduler.due());
+    }
+
+    @Test
+    void sourcesDueWithinCoalesceWindowShareATick() {
+        scheduler.complete(snapshot(SensorSnapshot.CPU, 10, 0));
+        clock.advance(30, TimeUnit.MILLISECONDS);
+        scheduler.complete(snapshot(SensorSnapshot.RAM, 0, 0));
+
+        clock.advance(470, TimeUnit.MILLISECONDS);
+        assertEquals(SensorSnapshot.CPU, scheduler.due());
+        clock.advance(990, TimeUnit.MILLISECONDS);
+        // cpu просрочен, до срока ram осталось 40 мс — меньше окна в 50 мс
+        assertEquals(SensorSnapshot.CPU | SensorSnapshot.RAM, scheduler.due());
+    }
+
+    @Test
+    void stableValuesStretchThePeriodUpToTheStalenessBudget() {
+        for (int i = 0; i < 3; i++) completeCpu(10, 0);
+        assertEquals(750 * MS, cpu.getPeriodNanos());
+
+        for (int i = 0; i < 30; i++) completeCpu(10, 0);
+        assertEquals(cpu.getStalenessBudgetNanos(), cpu.getPeriodNanos());
+    }
+
+    @Test
+    void jumpHalvesThePeriodButNotBelowTheMinimum() {
+        completeCpu(10, 0);
+        completeCpu(20, 0);
+        assertEquals(250 * MS, cpu.getPeriodNanos());
+
+        completeCpu(40, 0);
+        assertEquals(cpu.getMinPeriodNanos(), cpu.getPeriodNanos());
+    }
+
+    @Test
+    void jumpAfterBackoffReturnsBelowTheBasePeriod() {
+        for (int i = 0; i < 6; i++) completeCpu(10, 0);
+        assertTrue(cpu.getPeriodNanos() > cpu.getBasePeriodNanos());
+
+        completeCpu(50, 0);
+        assertEquals(cpu.getBasePeriodNanos() / 2, cpu.getPeriodNanos());
+    }
+
+    @Test
+    void expensiveReadBacksOffInProportionToItsCost() {
+        completeCpu(10, 100 * MS);
+        // 500 * 1.5 * min(4, 100 / 50)
+        assertEquals(1500 * MS, cpu.getPeriodNanos());
+
+        completeCpu(10, 1000 * MS);
+        assertEquals(cpu.getStalenessBudgetNanos(), cpu.getPeriodNanos());
+    }
+
+    @Test
+    void staleSourceDoublesItsPeriod() {
+        scheduler.complete(new SensorSnapshot(0, 0, SensorSnapshot.CPU, null, null, null, null, null));
+
+        assertEquals(1000 * MS, cpu.getPeriodNanos());
+        assertEquals(SensorSnapshot.RAM, scheduler.due());
+        clock.advance(1000, TimeUnit.MILLISECONDS);
+        assertEquals(SensorSnapshot.CPU | SensorSnapshot.RAM, scheduler.due());
+    }
+
+    @Test
+    void sourceMissingFromSnapshotKeepsItsSchedule() {
+        scheduler.complete(snapshot(SensorSnapshot.RAM, 0, 0));
+
+        assertEquals(500 * MS, cpu.getPeriodNanos());
+        assertEquals(SensorSnapshot.CPU, scheduler.due());
+    }
+
+    @Test
+    void requestedButNeverDeliveredSourceWaitsAPeriod() {
+        // CPU нет совсем (провайдер ещё запускается): без переноса срока он остался бы просроченным
+        for (int i = 0; i < 3; i++) {
+            scheduler.complete(scheduler.due(), snapshot(SensorSnapshot.RAM, 0, 0));
+            assertTrue(scheduler.nanosUntilNextDue() > 0);
+            assertEquals(0, scheduler.due());
+            assertEquals(500 * MS, cpu.nextDueNanos - clock.nanoTime());
+            assertEquals(500 * MS, cpu.getPeriodNanos());
+            clock.advance(1000, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(SensorSnapshot.CPU, scheduler.due() & SensorSnapshot.CPU);
+    }
+
+    // Опрос CPU точно в срок
+    private void completeCpu(double usage, long readNanos) {
+        clock.set(Math.max(clock.nanoTime(), cpu.nextDueNanos));
+        scheduler.complete(snapshot(SensorSnapshot.CPU, usage, readNanos));
+    }
+
+    private static SensorSnapshot snapshot(int sources, double usage, long cpuReadNanos) {
+        CpuInfo info = new CpuInfo();
+        info.setUsage(usage);
+        long[] readNanos = new long[SensorSnapshot.SOURCE_COUNT];
+        readNanos[SensorSnapshot.indexOf(SensorSnapshot.CPU)] = cpuReadNanos;
+        return new SensorSnapshot(0, sources, info, null, null, null, readNanos);
+    }
+}
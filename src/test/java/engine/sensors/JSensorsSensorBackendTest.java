@@ -0,0 +1,93 @@
+package engine.sensors;
+
+import com.profesorfalken.jsensors.model.components.Components;
+import com.profesorfalken.jsensors.model.components.Cpu;
+import com.profesorfalken.jsensors.model.components.Gpu;
+import com.profesorfalken.jsensors.model.sensors.Fan;
+import com.profesorfalken.jsensors.model.sensors.Load;
+import com.profesorfalken.jsensors.model.sensors.Sensors;
+import com.profesorfalken.jsensors.model.sensors.Temperature;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Модель JSensors собирается вручную и подменяется между опросами
+class JSensorsSensorBackendTest {
+    private Components model;
+
+    @Test
+    void identicalDevicesGetNumberedNames() {
+        model = new Components(null, List.of(gpu("RX 6600", 50.0), gpu("RX 6600", 60.0)), null, null);
+        SensorRegistry registry = registry();
+
+        double[] frame = registry.newFrame();
+        registry.sample(frame);
+        assertEquals(50.0, frame[registry.find("RX 6600", "GPU Core")]);
+        assertEquals(60.0, frame[registry.find("RX 6600 #2", "GPU Core")]);
+    }
+
+    @Test
+    void valuesFollowTheirChannelWhenSensorsChange() {
+        model = cpu(temperatures("Core 0", "Core 1", "Package"), 7.0);
+        SensorRegistry registry = registry();
+        int core0 = registry.find("Ryzen", "Core 0");
+        int core1 = registry.find("Ryzen", "Core 1");
+        int pkg = registry.find("Ryzen", "Package");
+        int load = registry.find("Ryzen", "Total");
+        double[] frame = registry.newFrame();
+        registry.sample(frame);
+        assertArrayEquals(new double[] { 40, 41, 42, 7 }, frame);
+
+        // Core 0 пропал: сдвинувшиеся значения не должны попасть в чужие каналы
+        model = cpu(temperatures("Core 1", "Package"), 8.0);
+        registry.sample(frame);
+        for (double value : frame) assertTrue(Double.isNaN(value));
+
+        registry.sample(frame);
+        assertTrue(Double.isNaN(frame[core0]));
+        assertEquals(40, frame[core1]);
+        assertEquals(41, frame[pkg]);
+        assertEquals(8, frame[load]);
+
+        model = cpu(temperatures("Core 0", "Core 1", "Package", "New"), 9.0);
+        registry.sample(frame);
+        registry.sample(frame);
+        assertArrayEquals(new double[] { 40, 41, 42, 9 }, frame);
+        assertEquals(-1, registry.find("Ryzen", "New"));
+    }
+
+    @Test
+    void renamedSensorIsDetectedEvenWithTheSameCount() {
+        model = cpu(temperatures("Core 0", "Core 1"), 7.0);
+        SensorRegistry registry = registry();
+        double[] frame = registry.newFrame();
+
+        model = cpu(temperatures("Core 1", "Core 0"), 7.0);
+        registry.sample(frame);
+        registry.sample(frame);
+        assertEquals(41, frame[registry.find("Ryzen", "Core 0")]);
+        assertEquals(40, frame[registry.find("Ryzen", "Core 1")]);
+    }
+
+    private SensorRegistry registry() {
+        return new SensorRegistry().add(new JSensorsSensorBackend(() -> model)).discover();
+    }
+
+    private static List<Temperature> temperatures(String... names) {
+        List<Temperature> result = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) result.add(new Temperature(names[i], 40.0 + i));
+        return result;
+    }
+
+    private static Components cpu(List<Temperature> temperatures, double load) {
+        Sensors sensors = new Sensors(temperatures, List.<Fan>of(), List.of(new Load("Total", load)));
+        return new Components(List.of(new Cpu("Ryzen", sensors)), null, null, null);
+    }
+
+    private static Gpu gpu(String name, double temperature) {
+        return new Gpu(name, new Sensors(List.of(new Temperature("GPU Core", temperature)), List.of(), List.of()));
+    }
+}
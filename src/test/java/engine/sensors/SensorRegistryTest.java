@@ -0,0 +1,146 @@
+package engine.sensors;
+
+import engine.sched.ManualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensorRegistryTest {
+    private final ManualClock clock = new ManualClock();
+
+    @Test
+    void channelsGetDenseIdsInBackendOrder() {
+        SensorRegistry registry = new SensorRegistry(clock)
+                .add(new FakeBackend("a", 2, 3))
+                .add(new FakeBackend("b", 1, 2))
+                .discover();
+
+        assertEquals(8, registry.getChannelCount());
+        for (int id = 0; id < registry.getChannelCount(); id++) {
+            assertEquals(id, registry.getChannel(id).id());
+        }
+        assertEquals(4, registry.find("a 1", "Sensor 1"));
+        assertEquals(7, registry.find("b 0", "Sensor 1"));
+        assertEquals(-1, registry.find("b 0", "Sensor 9"));
+        assertArrayEquals(new int[] { 0, 3, 6 }, registry.channelsOf(SensorKind.TEMPERATURE));
+        assertTrue(Arrays.stream(registry.newFrame()).allMatch(Double::isNaN));
+    }
+
+    @Test
+    void sampleWritesEveryBackendIntoItsRange() {
+        FakeBackend a = new FakeBackend("a", 1, 2);
+        FakeBackend b = new FakeBackend("b", 1, 3);
+        SensorRegistry registry = new SensorRegistry(clock).add(a).add(b).discover();
+
+        double[] frame = registry.newFrame();
+        registry.sample(frame);
+
+        assertArrayEquals(new double[] { 100, 101, 100, 101, 102 }, frame);
+        assertEquals(1, a.samples);
+        assertEquals(1, b.samples);
+    }
+
+    @Test
+    void backendFailingDiscoveryIsDroppedWithoutHoles() {
+        FakeBackend broken = new FakeBackend("broken", 2, 2);
+        broken.failDiscover = true;
+        FakeBackend good = new FakeBackend("good", 1, 2);
+        SensorRegistry registry = new SensorRegistry(clock).add(broken).add(good).discover();
+
+        assertEquals(2, registry.getChannelCount());
+        assertEquals(0, registry.find("good 0", "Sensor 0"));
+        assertEquals(-1, registry.find("broken 0", "Sensor 0"));
+
+        double[] frame = registry.newFrame();
+        registry.sample(frame);
+        assertEquals(0, broken.samples);
+        assertArrayEquals(new double[] { 100, 101 }, frame);
+    }
+
+    @Test
+    void failingBackendFillsItsRangeWithNanAndIsPausedByTheBreaker() {
+        FakeBackend flaky = new FakeBackend("flaky", 1, 2);
+        FakeBackend good = new FakeBackend("good", 1, 1);
+        SensorRegistry registry = new SensorRegistry(clock).add(flaky).add(good).discover();
+        double[] frame = registry.newFrame();
+        registry.sample(frame);
+        assertEquals(100, frame[0]);
+
+        flaky.failSample = true;
+        for (int i = 0; i < 5; i++) {
+            registry.sample(frame);
+            assertTrue(Double.isNaN(frame[0]) && Double.isNaN(frame[1]));
+            assertEquals(100, frame[2]);
+        }
+        // После трёх отказов подряд бэкенд не вызывается до конца паузы
+        assertEquals(1 + 3, flaky.samples);
+
+        flaky.failSample = false;
+        clock.advance(5, TimeUnit.SECONDS);
+        registry.sample(frame);
+        assertEquals(5, flaky.samples);
+        assertEquals(100, frame[0]);
+    }
+
+    @Test
+    void lifecycleIsEnforced() {
+        SensorRegistry registry = new SensorRegistry(clock).add(new FakeBackend("a", 1, 1));
+        assertThrows(IllegalStateException.class, () -> registry.sample(new double[1]));
+        assertThrows(IllegalStateException.class, () -> registry.register("x", "y", SensorKind.LOAD));
+
+        registry.discover();
+        assertThrows(IllegalStateException.class, () -> registry.add(new FakeBackend("b", 1, 1)));
+        assertSame(registry, registry.discover());
+        assertEquals(1, registry.getChannelCount());
+    }
+
+    // devices устройств по sensors датчиков; k-й датчик устройства отдаёт 100 + k
+    private static final class FakeBackend implements SensorBackend {
+        private static final SensorKind[] KINDS = { SensorKind.TEMPERATURE, SensorKind.FAN, SensorKind.LOAD };
+
+        private final String name;
+        private final int devices;
+        private final int sensors;
+        private int first;
+        boolean failDiscover;
+        boolean failSample;
+        int samples;
+
+        FakeBackend(String name, int devices, int sensors) {
+            this.name = name;
+            this.devices = devices;
+            this.sensors = sensors;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void discover(SensorRegistry registry) throws Exception {
+            first = registry.getChannelCount();
+            for (int d = 0; d < devices; d++) {
+                for (int s = 0; s < sensors; s++) {
+                    registry.register(name + " " + d, "Sensor " + s, KINDS[s % KINDS.length]);
+                }
+                // Отказ посреди поиска: уже зарегистрированные каналы должны быть убраны
+                if (failDiscover) throw new Exception("нет драйвера");
+            }
+        }
+
+        @Override
+        public void sample(double[] values) throws Exception {
+            samples++;
+            if (failSample) throw new Exception("таймаут");
+            for (int d = 0; d < devices; d++) {
+                for (int s = 0; s < sensors; s++) {
+                    values[first + d * sensors + s] = 100 + s;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package engine.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+    private static final double[] QUANTILES = { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999 };
+
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        SplittableRandom random = new SplittableRandom(42);
+        assertAccurate(() -> random.nextDouble() * 100, 20_000);
+        assertAccurate(() -> Math.exp(random.nextGaussian()), 20_000);
+        assertAccurate(() -> random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(100), 20_000);
+        assertAccurate(() -> 50 + random.nextGaussian(), 20_000);
+    }
+
+    @Test
+    void wideRangeCollapsesOnlyTheSmallestValues() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 256);
+        double[] values = new double[10_000];
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < values.length; i++) {
+            // 256 корзин по 2% покрывают два порядка из девяти; верхний десяток процентов — меньше порядка
+            values[i] = Math.pow(10, -3 + random.nextDouble() * 9);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[] { 0.9, 0.95, 0.99 }) {
+            double exact = exact(values, q);
+            assertEquals(exact, sketch.quantile(q), exact * 0.01 + 1e-12, "q=" + q);
+        }
+        assertEquals(values.length, sketch.getCount());
+        assertEquals(values[0], sketch.getMin());
+        assertEquals(values[values.length - 1], sketch.getMax());
+    }
+
+    @Test
+    void mergeMatchesTheSketchOfAllPoints() {
+        SplittableRandom random = new SplittableRandom(7);
+        QuantileSketch all = new QuantileSketch();
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < 10_000; i++) {
+            double value = i % 2 == 0 ? random.nextDouble() * 10 : 100 + random.nextDouble() * 900;
+            all.add(value);
+            (i % 3 == 0 ? left : right).add(value);
+        }
+        left.merge(right);
+
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.getMin(), left.getMin());
+        assertEquals(all.getMax(), left.getMax());
+        for (double q : QUANTILES) {
+            assertEquals(all.quantile(q), left.quantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    void mergeIntoEmptyAndCopyKeepEverything() {
+        QuantileSketch source = new QuantileSketch();
+        for (int i = 1; i <= 1000; i++) source.add(i);
+        QuantileSketch empty = new QuantileSketch();
+        empty.merge(source);
+        QuantileSketch copy = source.copy();
+
+        for (double q : QUANTILES) {
+            assertEquals(source.quantile(q), empty.quantile(q));
+            assertEquals(source.quantile(q), copy.quantile(q));
+        }
+        source.clear();
+        assertEquals(0, source.getCount());
+        assertEquals(1000, copy.getCount());
+    }
+
+    @Test
+    void edgeCases() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        sketch.add(Double.NaN);
+        assertEquals(0, sketch.getCount());
+
+        sketch.add(0);
+        sketch.add(-3);
+        sketch.add(10);
+        assertEquals(-3, sketch.quantile(0));
+        assertEquals(10, sketch.quantile(1));
+        assertEquals(0, sketch.quantile(0.5));
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(0.02, 512)));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0, 512));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0.01, 8));
+    }
+
+    private static void assertAccurate(DoubleSupplier source, int n) {
+        QuantileSketch sketch = new QuantileSketch();
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = source.getAsDouble();
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : QUANTILES) {
+            double exact = exact(values, q);
+            assertEquals(exact, sketch.quantile(q), exact * sketch.getAccuracy() + 1e-9, "q=" + q);
+        }
+    }
+
+    // Тот же ранг, что у скетча: floor(q * (n - 1))
+    static double exact(double[] sorted, double q) {
+        return sorted[(int) Math.floor(q * (sorted.length - 1))];
+    }
+}
@@ -0,0 +1,90 @@
+package engine.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingStatsTest {
+    @Test
+    void matchesBruteForceOverTheSlotAlignedWindow() {
+        long windowMillis = 10_000;
+        int slots = 10;
+        RollingStats stats = new RollingStats(windowMillis, slots);
+        List<long[]> points = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(3);
+        long t = 1_700_000_000_000L;
+        for (int i = 0; i < 3000; i++) {
+            // Иногда пауза длиннее окна — кольцо должно очиститься целиком
+            t += random.nextInt(50) == 0 ? random.nextInt(25_000) : random.nextInt(300);
+            double value = random.nextInt(10) == 0 ? Double.NaN : Math.rint(random.nextGaussian() * 1000) / 10;
+            stats.add(t, value);
+            if (!Double.isNaN(value)) points.add(new long[] { t, Double.doubleToRawLongBits(value) });
+
+            // В окне отрезки с номером больше current - slots
+            long firstSlot = Math.floorDiv(t, windowMillis / slots) - slots + 1;
+            double[] window = points.stream()
+                    .filter(p -> Math.floorDiv(p[0], windowMillis / slots) >= firstSlot)
+                    .mapToDouble(p -> Double.longBitsToDouble(p[1])).sorted().toArray();
+            String at = "#" + i;
+            assertEquals(window.length, stats.getCount(), at);
+            if (window.length == 0) {
+                assertTrue(Double.isNaN(stats.getMax()), at);
+                continue;
+            }
+            double sum = 0;
+            for (double v : window) sum += v;
+            assertEquals(window[0], stats.getMin(), at);
+            assertEquals(window[window.length - 1], stats.getMax(), at);
+            assertEquals(sum / window.length, stats.getMean(), 1e-9, at);
+            double median = QuantileSketchTest.exact(window, 0.5);
+            if (median > 0) assertEquals(median, stats.quantile(0.5), median * 0.01 + 1e-9, at);
+        }
+    }
+
+    @Test
+    void metricThatStopsReportingEmptiesAfterTheWindow() {
+        RollingStats stats = new RollingStats(10_000, 10);
+        for (long t = 0; t < 10_000; t += 100) stats.add(t, 50);
+        assertEquals(100, stats.getCount());
+
+        // Отрезки по 1 с: в окне остались 6..9 с
+        stats.advance(15_000);
+        assertEquals(40, stats.getCount());
+        stats.advance(20_000);
+        assertEquals(0, stats.getCount());
+        assertTrue(stats.summary().isEmpty());
+    }
+
+    @Test
+    void summaryAndSketchAgreeWithTheQueries() {
+        RollingStats stats = new RollingStats(60_000);
+        for (int i = 0; i < 600; i++) stats.add(i * 100L, i % 100);
+
+        StatsSummary summary = stats.summary();
+        assertEquals(600, summary.count());
+        assertEquals(0, summary.min());
+        assertEquals(99, summary.max());
+        assertEquals(49.5, summary.mean(), 1e-9);
+        assertEquals(stats.quantile(0.95), summary.p95());
+        assertEquals(stats.quantile(0.99), stats.sketch().quantile(0.99));
+    }
+
+    @Test
+    void clockGoingBackwardsLandsInTheCurrentSlot() {
+        RollingStats stats = new RollingStats(10_000, 10);
+        stats.add(5_000, 1);
+        stats.add(1_000, 9);
+        assertEquals(2, stats.getCount());
+        assertEquals(9, stats.getMax());
+    }
+
+    @Test
+    void rejectsDegenerateWindows() {
+        assertThrows(IllegalArgumentException.class, () -> new RollingStats(10_000, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RollingStats(5, 10));
+    }
+}
@@ -0,0 +1,200 @@
+package engine.store;
+
+import engine.CpuInfo;
+import engine.DiskInfo;
+import engine.GpuInfo;
+import engine.RamInfo;
+import engine.SensorSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Запись асинхронная: close() дожидается очереди, поэтому проверки идут после него
+class MetricStoreTest {
+    private static final int SEGMENT_BYTES = Segment.DATA_START + 64 * 1024;
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenedStoreReadsEverything() throws IOException {
+        try (MetricStore store = open(HOUR, DAY, DAY)) {
+            for (int i = 0; i < 20; i++) store.append(snapshot(1000L * i, i));
+        }
+        try (MetricStore store = open(HOUR, DAY, DAY)) {
+            assertEquals(range(0, 20), usages(store, 0, Long.MAX_VALUE));
+            assertEquals(range(5, 10), usages(store, 5000, 9000));
+        }
+    }
+
+    @Test
+    void tornTailIsDroppedAndWritingContinues() throws IOException {
+        try (MetricStore store = open(HOUR, DAY, DAY)) {
+            for (int i = 0; i < 5; i++) store.append(snapshot(1000L * i, i));
+        }
+        Path segment = single(segments());
+        int[] offsets = recordOffsets(segment);
+        // Обрыв посреди третьей записи
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.truncate(offsets[2] + Segment.RECORD_HEADER + 3);
+        }
+
+        try (MetricStore store = open(HOUR, DAY, DAY)) {
+            assertEquals(range(0, 2), usages(store, 0, Long.MAX_VALUE));
+            store.append(snapshot(10_000, 10));
+        }
+        try (MetricStore store = open(HOUR, DAY, DAY)) {
+            assertEquals(List.of(0.0, 1.0, 10.0), usages(store, 0, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void recordWithBadChecksumEndsTheSegment() throws IOException {
+        try (MetricStore store = open(HOUR, DAY, DAY)) {
+            for (int i = 0; i < 5; i++) store.append(snapshot(1000L * i, i));
+        }
+        Path segment = single(segments());
+        int[] offsets = recordOffsets(segment);
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            long at = offsets[3] + Segment.RECORD_HEADER + 10;
+            file.read(b, at);
+            b.put(0, (byte) (b.get(0) ^ 0x5A)).position(0);
+            file.write(b, at);
+        }
+        try (MetricStore store = open(HOUR, DAY, DAY)) {
+            assertEquals(range(0, 3), usages(store, 0, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void segmentsOlderThanMaxAgeAreDeleted() throws IOException {
+        // Сегмент на час, храним три часа от конца сегмента; удаление идёт при ротации
+        try (MetricStore store = open(HOUR, 3 * HOUR, DAY)) {
+            for (int h = 0; h < 8; h++) store.append(snapshot(h * HOUR, h));
+        }
+        try (MetricStore store = open(HOUR, 3 * HOUR, DAY)) {
+            assertEquals(List.of(3.0, 4.0, 5.0, 6.0, 7.0), usages(store, 0, Long.MAX_VALUE));
+        }
+        assertEquals(5, segments().size());
+    }
+
+    @Test
+    void oldSegmentsAreThinnedToTheCompactedResolution() throws IOException {
+        // Минута снимков раз в секунду, затем две ротации: первая закрывает сегмент, вторая сжимает его
+        try (MetricStore store = open(HOUR, 30 * DAY, 2 * HOUR)) {
+            for (int s = 0; s < 60; s++) store.append(snapshot(1000L * s, s));
+            store.append(snapshot(HOUR, 70));
+            store.append(snapshot(4 * HOUR, 80));
+        }
+        Path first = segments().get(0);
+        assertTrue(Segment.isCompacted(first));
+        assertTrue(Files.size(first) < SEGMENT_BYTES);
+        try (MetricStore store = open(HOUR, 30 * DAY, 2 * HOUR)) {
+            List<Double> kept = usages(store, 0, 59_000);
+            assertEquals(60_000 / MetricStore.COMPACTED_RESOLUTION_MS, kept.size());
+            assertEquals(List.of(0.0, 10.0, 20.0, 30.0, 40.0, 50.0), kept);
+            assertEquals(List.of(70.0, 80.0), usages(store, HOUR, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void snapshotLargerThanASegmentIsSkipped() throws IOException {
+        MetricStore store = new MetricStore(dir, Segment.DATA_START + 4096, HOUR, DAY, Long.MAX_VALUE, DAY);
+        try (store) {
+            store.append(snapshot(0, 1));
+            store.append(withDisks(snapshot(1000, 2), 400));
+            store.append(snapshot(2000, 3));
+        }
+        assertEquals(1, store.getOversizedCount());
+        try (MetricStore reopened = open(HOUR, DAY, DAY)) {
+            assertEquals(List.of(1.0, 3.0), usages(reopened, 0, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void directoryCanBeOpenedOnlyOnce() throws IOException {
+        MetricStore store = open(HOUR, DAY, DAY);
+        try {
+            assertThrows(IOException.class, () -> open(HOUR, DAY, DAY));
+        } finally {
+            store.close();
+        }
+        open(HOUR, DAY, DAY).close();
+    }
+
+    private MetricStore open(long segmentSpanMs, long maxAgeMs, long compactAfterMs) throws IOException {
+        return new MetricStore(dir, SEGMENT_BYTES, segmentSpanMs, maxAgeMs, Long.MAX_VALUE, compactAfterMs);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".ivs")).sorted().toList();
+        }
+    }
+
+    private static Path single(List<Path> paths) {
+        assertEquals(1, paths.size());
+        return paths.get(0);
+    }
+
+    // Смещения записей [длина][crc][данные] от начала данных до первой пустой
+    private static int[] recordOffsets(Path segment) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Integer> offsets = new ArrayList<>();
+        int pos = Segment.DATA_START;
+        while (pos + Segment.RECORD_HEADER <= data.capacity() && data.getInt(pos) > 0) {
+            offsets.add(pos);
+            pos += Segment.RECORD_HEADER + data.getInt(pos);
+        }
+        return offsets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<Double> usages(MetricStore store, long from, long to) {
+        List<Double> result = new ArrayList<>();
+        store.scan(from, to, s -> result.add(s.getCpu().getUsage()));
+        return result;
+    }
+
+    private static List<Double> range(int from, int to) {
+        List<Double> result = new ArrayList<>();
+        for (int i = from; i < to; i++) result.add((double) i);
+        return result;
+    }
+
+    private static SensorSnapshot snapshot(long timestamp, double usage) {
+        CpuInfo cpu = new CpuInfo();
+        cpu.setName("Test CPU");
+        cpu.setUsage(usage);
+        RamInfo ram = new RamInfo();
+        ram.setTotal(16L << 30);
+        ram.setFree(8L << 30);
+        return new SensorSnapshot(timestamp, SensorSnapshot.ALL, cpu, ram, new GpuInfo(), List.of());
+    }
+
+    private static SensorSnapshot withDisks(SensorSnapshot snapshot, int count) {
+        List<DiskInfo> disks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DiskInfo disk = new DiskInfo();
+            disk.setName("/mnt/volume-with-a-long-name-" + i);
+            disk.setTotalSpace(1000);
+            disk.setFreeSpace(500);
+            disks.add(disk);
+        }
+        return new SensorSnapshot(snapshot.getTimestamp(), SensorSnapshot.ALL,
+                snapshot.getCpu(), snapshot.getRam(), snapshot.getGpu(), disks);
+    }
+}